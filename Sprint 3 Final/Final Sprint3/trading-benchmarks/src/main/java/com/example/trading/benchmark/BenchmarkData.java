@@ -0,0 +1,104 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.model.SharePrice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic market data for the benchmarks.
+ *
+ * Prices are a seeded random walk over weekdays, so every run, fork and
+ * machine measures the same input.
+ */
+final class BenchmarkData {
+
+    /** Last bar of every generated series; well in the past, so nothing is treated as live */
+    static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+    private static final long SEED = 20240101L;
+
+    private BenchmarkData() {}
+
+    /** BNAAA, BNAAB, ... — letters only, as SharePriceService accepts */
+    static List<String> symbols(int count) {
+        List<String> symbols = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            symbols.add("BN" + (char) ('A' + i / 676 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26));
+        }
+        return symbols;
+    }
+
+    /** Date of the first of {@code count} weekday bars ending at {@link #LAST_DATE}. */
+    static LocalDate firstDate(int count) {
+        LocalDate date = LAST_DATE;
+        int seen = isWeekend(date) ? 0 : 1;
+        while (seen < count) {
+            date = date.minusDays(1);
+            if (!isWeekend(date)) seen++;
+        }
+        return date;
+    }
+
+    /** {@code count} weekday bars ending at {@link #LAST_DATE}, oldest first. */
+    static List<SharePrice> bars(String symbol, int count) {
+        SplittableRandom random = new SplittableRandom(SEED ^ symbol.hashCode());
+        List<SharePrice> bars = new ArrayList<>(count);
+        double close = 50 + random.nextDouble(450);
+        for (LocalDate date = firstDate(count); !date.isAfter(LAST_DATE); date = date.plusDays(1)) {
+            if (isWeekend(date)) continue;
+            double open = close;
+            close = Math.max(1, close * (1 + random.nextGaussian() * 0.02));
+            double high = Math.max(open, close) * (1 + random.nextDouble(0.01));
+            double low  = Math.min(open, close) * (1 - random.nextDouble(0.01));
+            bars.add(new SharePrice(symbol, date, price(open), price(close), price(high), price(low),
+                    1_000_000L + random.nextLong(50_000_000L)));
+        }
+        return bars;
+    }
+
+    /**
+     * The bars as a Yahoo Finance v8 chart response, including the meta and
+     * adjclose blocks the parser has to skip.
+     */
+    static byte[] yahooChart(List<SharePrice> bars) {
+        StringBuilder timestamps = new StringBuilder(), open = new StringBuilder(), high = new StringBuilder(),
+                low = new StringBuilder(), close = new StringBuilder(), volume = new StringBuilder();
+        for (SharePrice bar : bars) {
+            String separator = timestamps.isEmpty() ? "" : ",";
+            // 09:30 New York, as Yahoo stamps daily bars
+            timestamps.append(separator).append(bar.getDate().atTime(14, 30).toEpochSecond(ZoneOffset.UTC));
+            // Yahoo sends binary floating point noise, not tidy decimals
+            open.append(separator).append(bar.getOpenPriceAsDouble() + 1e-13);
+            high.append(separator).append(bar.getHighPriceAsDouble() + 1e-13);
+            low.append(separator).append(bar.getLowPriceAsDouble() + 1e-13);
+            close.append(separator).append(bar.getClosePriceAsDouble() + 1e-13);
+            volume.append(separator).append(bar.getVolume());
+        }
+        String symbol = bars.isEmpty() ? "" : bars.get(0).getSymbol();
+        String json = "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\",\"symbol\":\"" + symbol + "\","
+                + "\"exchangeName\":\"NMS\",\"instrumentType\":\"EQUITY\",\"regularMarketPrice\":187.44000244140625,"
+                + "\"dataGranularity\":\"1d\",\"range\":\"\",\"validRanges\":[\"1d\",\"5d\",\"1mo\",\"3mo\",\"1y\",\"max\"],"
+                + "\"currentTradingPeriod\":{\"regular\":{\"timezone\":\"EST\",\"start\":1709303400,\"end\":1709326800,"
+                + "\"gmtoffset\":-18000}}},"
+                + "\"timestamp\":[" + timestamps + "],"
+                + "\"indicators\":{\"quote\":[{\"open\":[" + open + "],\"high\":[" + high + "],\"low\":[" + low
+                + "],\"close\":[" + close + "],\"volume\":[" + volume + "]}],"
+                + "\"adjclose\":[{\"adjclose\":[" + close + "]}]}}],\"error\":null}}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal price(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek().getValue() >= 6;
+    }
+}
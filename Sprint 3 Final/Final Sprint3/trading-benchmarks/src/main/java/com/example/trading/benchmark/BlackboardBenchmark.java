@@ -0,0 +1,84 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.model.SharePrice;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MarketDataBlackboard.post and postBatch under contention.
+ *
+ * Every thread posts ticks round-robin over {@code symbols} symbols, each
+ * thread starting at a different one. With one symbol all threads fight
+ * over the same symbol state; with more they mostly do not. One inline
+ * observer counts the updates, as the alert engine would see them.
+ *
+ * Four threads by default; change with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BlackboardBenchmark {
+
+    private static final int TICKS_PER_SYMBOL = 512;   // a power of two, for the index mask
+    private static final int BATCH_SIZE       = 32;
+
+    @Param({"1", "16", "256"})
+    public int symbols;
+
+    private MarketDataBlackboard blackboard;
+    private List<String> symbolNames;
+    private List<List<SharePrice>> ticks;
+    private final LongAdder notifications = new LongAdder();
+    private final MarketDataBlackboard.BlackboardObserver observer = (symbol, price) -> notifications.increment();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blackboard = MarketDataBlackboard.getInstance();
+        symbolNames = BenchmarkData.symbols(symbols);
+        ticks = new ArrayList<>(symbols);
+        for (String symbol : symbolNames) ticks.add(BenchmarkData.bars(symbol, TICKS_PER_SYMBOL));
+        blackboard.addObserver(observer);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blackboard.removeObserver(observer);
+    }
+
+    /** Per-thread position in the tick stream */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threads) {
+            next = threads.getThreadIndex();
+        }
+    }
+
+    @Benchmark
+    public void post(Cursor cursor) {
+        int i = cursor.next++ & Integer.MAX_VALUE;
+        int symbol = i % symbols;
+        blackboard.post(symbolNames.get(symbol), ticks.get(symbol).get((i / symbols) & (TICKS_PER_SYMBOL - 1)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void postBatch(Cursor cursor) {
+        int i = cursor.next++ & Integer.MAX_VALUE;
+        int symbol = i % symbols;
+        int start = ((i / symbols) * BATCH_SIZE) & (TICKS_PER_SYMBOL - 1);
+        blackboard.postBatch(symbolNames.get(symbol), ticks.get(symbol).subList(start, start + BATCH_SIZE));
+    }
+}
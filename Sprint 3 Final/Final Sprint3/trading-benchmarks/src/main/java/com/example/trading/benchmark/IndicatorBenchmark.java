@@ -0,0 +1,86 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.api.ReplayDataProvider;
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.ScreeningResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.TradingCalendar;
+import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.service.IndicatorEngine;
+import com.example.trading.service.PerformanceService;
+import com.example.trading.service.SharePriceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * PerformanceService.calculateIndicators, for one symbol and for a
+ * screening batch of every symbol.
+ *
+ * The repository already holds every session, so the numbers cover the
+ * service, repository read and indicator pass without any fetch. The
+ * service is still wired to a ReplayDataProvider over the same bars, so a
+ * gap would be filled from disk rather than the network.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndicatorBenchmark {
+
+    @Param({"250", "2500"})
+    public int bars;
+
+    @Param({"1", "50"})
+    public int symbols;
+
+    @Param({"EXACT", "FAST"})
+    public IndicatorEngine.Precision precision;
+
+    private Path replayDirectory;
+    private PerformanceService performanceService;
+    private List<String> symbolNames;
+    private LocalDate from;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        replayDirectory = Files.createTempDirectory("indicator-benchmark");
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        symbolNames = BenchmarkData.symbols(symbols);
+        for (String symbol : symbolNames) {
+            List<SharePrice> series = BenchmarkData.bars(symbol, bars);
+            repository.saveAll(symbol, series);
+            ReplayDataProvider.writeCsv(replayDirectory, symbol, series);
+        }
+        SharePriceService priceService = new SharePriceService(repository,
+                new ReplayDataProvider(replayDirectory), TradingCalendar.weekdays("BENCH"));
+        performanceService = new PerformanceService(priceService, precision);
+        from = BenchmarkData.firstDate(bars);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(replayDirectory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(path);
+        }
+    }
+
+    @Benchmark
+    public List<PerformanceIndicator> calculateIndicators() {
+        return performanceService.calculateIndicators(symbolNames.get(0), from, BenchmarkData.LAST_DATE);
+    }
+
+    @Benchmark
+    public List<ScreeningResult> screen() {
+        return performanceService.calculateIndicators(symbolNames, from, BenchmarkData.LAST_DATE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.pipeline.FilterPipeline;
+import com.example.trading.pipeline.Filters;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FilterPipeline.execute with the standard chain: drop invalid prices,
+ * sort by date, keep the last year, drop non-sessions.
+ *
+ * The input is shuffled and about 1% of its bars have no close, as raw
+ * provider data can, so every filter has work to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    @Param({"250", "2500", "25000"})
+    public int bars;
+
+    private List<SharePrice> input;
+    private FilterPipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = new ArrayList<>(BenchmarkData.bars("BNAAA", bars));
+        Random random = new Random(1);
+        for (SharePrice bar : input) {
+            if (random.nextInt(100) == 0) bar.setClosePrice(BigDecimal.ZERO);
+        }
+        Collections.shuffle(input, random);
+
+        pipeline = new FilterPipeline()
+                .addFilter(new Filters.RemoveInvalidPricesFilter())
+                .addFilter(new Filters.SortByDateFilter())
+                .addFilter(new Filters.DateRangeFilter(BenchmarkData.LAST_DATE.minusYears(1), BenchmarkData.LAST_DATE))
+                .addFilter(new Filters.RemoveWeekendsFilter());
+    }
+
+    @Benchmark
+    public List<SharePrice> execute() {
+        return pipeline.execute(input);
+    }
+}
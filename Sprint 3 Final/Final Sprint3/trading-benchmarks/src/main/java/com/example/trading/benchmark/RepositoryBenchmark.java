@@ -0,0 +1,110 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.repository.JsonSharePriceRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonSharePriceRepository writes and range reads.
+ *
+ * {@code save} re-saves bars that are already stored, in random order, so
+ * every call does the same binary search and replace and the repository
+ * stays the same size for the whole run. {@code append} saves a bar newer
+ * than any stored, as the daily fetch does; it writes to its own
+ * repository, rebuilt every iteration, so the growth stays bounded and
+ * does not leak into the other measurements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RepositoryBenchmark {
+
+    private static final BigDecimal APPEND_PRICE = new BigDecimal("100.0000");
+
+    @Param({"250", "2500"})
+    public int bars;
+
+    @Param({"1", "50"})
+    public int symbols;
+
+    private JsonSharePriceRepository repository;
+    private List<String> symbolNames;
+    private List<SharePrice> updates;
+    private LocalDate monthStart;
+    private int nextUpdate;
+    private int nextSymbol;
+
+    private JsonSharePriceRepository appendRepository;
+    private LocalDate[] appendDates;
+    private int nextAppend;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new JsonSharePriceRepository();
+        symbolNames = BenchmarkData.symbols(symbols);
+        updates = new ArrayList<>(bars * symbols);
+        for (String symbol : symbolNames) {
+            List<SharePrice> series = BenchmarkData.bars(symbol, bars);
+            repository.saveAll(symbol, series);
+            updates.addAll(series);
+        }
+        Collections.shuffle(updates, new Random(1));
+        monthStart = BenchmarkData.LAST_DATE.minusMonths(1);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpAppend() {
+        appendRepository = new JsonSharePriceRepository();
+        for (String symbol : symbolNames) appendRepository.saveAll(symbol, BenchmarkData.bars(symbol, bars));
+        appendDates = new LocalDate[symbols];
+        Arrays.fill(appendDates, BenchmarkData.LAST_DATE);
+        nextAppend = 0;
+    }
+
+    @Benchmark
+    public SharePrice save() {
+        SharePrice bar = updates.get(nextUpdate);
+        nextUpdate = (nextUpdate + 1) % updates.size();
+        return repository.save(bar);
+    }
+
+    /** One new day for the next symbol in turn — the fast path for a bar past the newest */
+    @Benchmark
+    public SharePrice append() {
+        int symbol = nextAppend;
+        nextAppend = (nextAppend + 1) % symbols;
+        LocalDate date = appendDates[symbol] = appendDates[symbol].plusDays(1);
+        return appendRepository.save(new SharePrice(symbolNames.get(symbol), date,
+                APPEND_PRICE, APPEND_PRICE, APPEND_PRICE, APPEND_PRICE, 1_000_000L));
+    }
+
+    /** The last month of one symbol — the dashboard's usual query */
+    @Benchmark
+    public List<SharePrice> findLastMonth() {
+        return repository.findBySymbolAndDateRange(nextSymbol(), monthStart, BenchmarkData.LAST_DATE);
+    }
+
+    /** A symbol's whole history — what indicators and charts ask for */
+    @Benchmark
+    public List<SharePrice> findFullHistory() {
+        return repository.findBySymbolAndDateRange(nextSymbol(), LocalDate.MIN, BenchmarkData.LAST_DATE);
+    }
+
+    private String nextSymbol() {
+        String symbol = symbolNames.get(nextSymbol);
+        nextSymbol = (nextSymbol + 1) % symbolNames.size();
+        return symbol;
+    }
+}
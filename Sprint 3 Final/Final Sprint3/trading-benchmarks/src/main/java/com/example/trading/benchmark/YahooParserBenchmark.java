@@ -0,0 +1,38 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.api.YahooChartParser;
+import com.example.trading.model.SharePrice;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a Yahoo Finance chart response, the CPU-bound half of a
+ * YahooFinanceProvider fetch, on canned payloads of {@code bars} daily bars
+ * (250 bars is about 27 KB).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class YahooParserBenchmark {
+
+    @Param({"250", "2500", "25000"})
+    public int bars;
+
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = BenchmarkData.yahooChart(BenchmarkData.bars("BNAAA", bars));
+    }
+
+    @Benchmark
+    public List<SharePrice> parse() {
+        return YahooChartParser.parse(new ByteArrayInputStream(payload), "BNAAA");
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.trading;
 
+import com.example.trading.adapter.CachingDataProvider;
+import com.example.trading.adapter.MarketDataAdapter;
 import com.example.trading.api.YahooFinanceProvider;
 import com.example.trading.service.IPriceService;
 import com.example.trading.service.IAuthService;
@@ -9,7 +11,8 @@ import com.example.trading.model.ShareQuery;
 import com.example.trading.service.AuthenticationService;
 import com.example.trading.service.SharePriceService;
 import com.example.trading.service.PerformanceService;
-import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.service.PriceComparisonService;
+import com.example.trading.repository.SegmentFileSharePriceRepository;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -26,9 +29,11 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 
 public class TradingController {
 
@@ -96,7 +101,7 @@ public class TradingController {
     // ── Services / State ────────────────────────────────────────────────────
     private IPriceService            sharePriceService;
     private IAuthService             authService;
-    private JsonSharePriceRepository repository;
+    private SegmentFileSharePriceRepository repository;
     private ObservableList<SharePrice> currentStockData;
     private String currentSymbol;
 
@@ -108,10 +113,10 @@ public class TradingController {
         System.out.println("TradingController.initialize() called");
         try {
             authService  = AuthenticationService.getInstance();
-            repository   = new JsonSharePriceRepository();
-            repository.loadSampleData();
+            // Fetched history persists across restarts; no sample data, it would pass for real bars
+            repository   = new SegmentFileSharePriceRepository(Path.of(SegmentFileSharePriceRepository.DEFAULT_DIRECTORY));
             YahooFinanceProvider dataProvider = new YahooFinanceProvider();
-            sharePriceService = new SharePriceService(repository, dataProvider);
+            sharePriceService = new SharePriceService(repository, new CachingDataProvider(new MarketDataAdapter(dataProvider)));
 
             currentStockData = FXCollections.observableArrayList();
 
@@ -375,8 +380,11 @@ public class TradingController {
 
                 @Override
                 protected Void call() throws Exception {
-                    p1 = sharePriceService.getSharePrices(new ShareQuery(s1, from, to));
-                    p2 = sharePriceService.getSharePrices(new ShareQuery(s2, from, to));
+                    // Both symbols in one provider batch
+                    Map<String, List<SharePrice>> prices =
+                            new PriceComparisonService(sharePriceService).getPrices(List.of(s1, s2), from, to);
+                    p1 = prices.get(s1);
+                    p2 = prices.get(s2);
                     return null;
                 }
 
@@ -1,5 +1,7 @@
 package com.example.trading;
 
+import com.example.trading.blackboard.ConflatingSubscription;
+import com.example.trading.blackboard.MarketDataBlackboard;
 import com.example.trading.component.AlertPanel;
 import com.example.trading.component.WatchlistPanel;
 import com.example.trading.component.PriceTickerPanel;
@@ -9,9 +11,11 @@ import com.example.trading.model.Alert;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 import com.example.trading.repository.InMemoryAccountRepository;
-import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.repository.SegmentFileSharePriceRepository;
 import com.example.trading.service.*;
 import com.example.trading.api.YahooFinanceProvider;
+import com.example.trading.adapter.CachingDataProvider;
+import com.example.trading.adapter.MarketDataAdapter;
 import java.math.BigDecimal;
 
 import javafx.application.Platform;
@@ -27,9 +31,11 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Pure-Java trading dashboard — no FXML dependency.
@@ -44,16 +50,20 @@ public class TradingDashboard {
     private final PriceComparisonService compService;
     private final AlertService alertService;
     private final AccountWalletService walletService;
+    private final AlertMatchingEngine alertEngine;
+    private final StreamingIndicatorService indicatorService;
 
     private Label statusLabel;
+    private ConflatingSubscription liveTicks;
 
     public TradingDashboard(Stage stage, IAuthService authService) {
         this.authService = authService;
 
-        JsonSharePriceRepository repo = new JsonSharePriceRepository();
-        repo.loadSampleData();
+        // Fetched history persists across restarts; no sample data, it would pass for real bars
+        SegmentFileSharePriceRepository repo =
+                new SegmentFileSharePriceRepository(Path.of(SegmentFileSharePriceRepository.DEFAULT_DIRECTORY));
         YahooFinanceProvider provider = new YahooFinanceProvider();
-        SharePriceService sps = new SharePriceService(repo, provider);
+        SharePriceService sps = new SharePriceService(repo, new CachingDataProvider(new MarketDataAdapter(provider)));
 
         this.priceService  = sps;
         this.perfService   = new PerformanceService(sps);
@@ -61,6 +71,16 @@ public class TradingDashboard {
         InMemoryAccountRepository accountRepo = new InMemoryAccountRepository();
         this.walletService = new AccountWalletService(accountRepo, authService);
         this.alertService  = new AlertService(walletService, sps, accountRepo);
+        // Fire price-threshold alerts as prices reach the blackboard
+        this.alertEngine = new AlertMatchingEngine(accountRepo);
+        this.alertEngine.indexAll();
+        this.alertEngine.attach(MarketDataBlackboard.getInstance());
+        this.alertService.setMatchingEngine(this.alertEngine);
+        // Keep live indicators for every symbol that reaches the blackboard
+        this.indicatorService = new StreamingIndicatorService(IndicatorEngine.Precision.FAST);
+        this.indicatorService.attach(MarketDataBlackboard.getInstance());
+        // Latest prices fetched for the watchlist and alert checks feed both
+        sps.setBlackboard(MarketDataBlackboard.getInstance());
         // Register all services in SOA ServiceRegistry for discovery & interoperability
         ServiceRegistry registry = ServiceRegistry.getInstance();
         registry.registerService(IPriceService.class, sps);
@@ -69,6 +89,7 @@ public class TradingDashboard {
         registry.registerService(IPerformance.class, this.perfService);
         registry.registerService("AccountWalletService", this.walletService);
         registry.registerService("PriceComparisonService", this.compService);
+        registry.registerService("StreamingIndicatorService", this.indicatorService);
 
         this.stage         = stage;
     }
@@ -94,6 +115,9 @@ public class TradingDashboard {
         logoutBtn.setStyle("-fx-background-color:#e53935;-fx-text-fill:white;-fx-font-weight:bold;-fx-background-radius:5;");
         logoutBtn.setOnAction(e -> {
             authService.logout();
+            if (liveTicks != null) liveTicks.close();
+            alertEngine.detach(MarketDataBlackboard.getInstance());
+            indicatorService.detach(MarketDataBlackboard.getInstance());
             try {
                 javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(
                         getClass().getResource("Login.fxml"));
@@ -169,6 +193,17 @@ public class TradingDashboard {
         TableView<SharePrice> table = buildOhlcvTable(data);
         table.setPrefHeight(170);
 
+        // Live ticks for the displayed symbol, conflated to at most one ticker redraw per FX pulse
+        SharePrice[] shown = new SharePrice[2];   // first and last bar on display
+        liveTicks = MarketDataBlackboard.getInstance().subscribeConflated(() -> Platform.runLater(() -> {
+            Map<String, SharePrice> changed = liveTicks.drain();
+            SharePrice tick = shown[1] != null ? changed.get(shown[1].getSymbol().toUpperCase()) : null;
+            if (tick != null && !tick.getDate().isBefore(shown[1].getDate())) {
+                shown[1] = tick;
+                tickerPanel.update(tick, shown[0]);
+            }
+        }));
+
         VBox center = new VBox(tickerPanel, chart, table);
         VBox.setVgrow(chart, Priority.ALWAYS);
         BorderPane content = new BorderPane();
@@ -202,6 +237,7 @@ public class TradingDashboard {
                 long   tv  = prices.stream().mapToLong(SharePrice::getVolume).sum();
                 // Update the PriceTickerPanel compound component
                 tickerPanel.update(last, first);
+                shown[0] = first; shown[1] = last;
                 // Draw chart
                 chart.getData().clear();
                 XYChart.Series<String, Number> series = new XYChart.Series<>();
@@ -277,9 +313,9 @@ public class TradingDashboard {
 
             Task<List<List<SharePrice>>> task = new Task<>() {
                 @Override protected List<List<SharePrice>> call() {
-                    return List.of(
-                            priceService.getSharePrices(new ShareQuery(s1, f, t)),
-                            priceService.getSharePrices(new ShareQuery(s2, f, t)));
+                    // Both symbols in one provider batch
+                    Map<String, List<SharePrice>> prices = compService.getPrices(List.of(s1, s2), f, t);
+                    return List.of(prices.get(s1), prices.get(s2));
                 }
             };
             task.setOnSucceeded(ev -> {
@@ -0,0 +1,48 @@
+package com.example.trading.adapter;
+
+/**
+ * Point-in-time counters for a {@link CachingDataProvider}.
+ *
+ * A lookup is a memory hit, a disk hit or a miss; expired entries count as
+ * misses. Evictions are entries dropped from memory to stay within its size
+ * bound (a disk copy, if any, is kept).
+ */
+public final class CacheStats {
+    private final long memoryHits;
+    private final long diskHits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final int  memorySize;
+
+    CacheStats(long memoryHits, long diskHits, long misses, long evictions, long expirations, int memorySize) {
+        this.memoryHits  = memoryHits;
+        this.diskHits    = diskHits;
+        this.misses      = misses;
+        this.evictions   = evictions;
+        this.expirations = expirations;
+        this.memorySize  = memorySize;
+    }
+
+    public long getMemoryHits()  { return memoryHits; }
+    public long getDiskHits()    { return diskHits; }
+    public long getHits()        { return memoryHits + diskHits; }
+    /** Lookups passed through to the wrapped provider */
+    public long getMisses()      { return misses; }
+    public long getEvictions()   { return evictions; }
+    /** Entries found past their TTL, in either tier */
+    public long getExpirations() { return expirations; }
+    public int  getMemorySize()  { return memorySize; }
+
+    /** Hits as a fraction of all lookups; 0 before the first lookup */
+    public double getHitRate() {
+        long lookups = getHits() + misses;
+        return lookups == 0 ? 0.0 : (double) getHits() / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d (memory=%d, disk=%d), misses=%d, hitRate=%.2f, evictions=%d, expirations=%d, size=%d}",
+                getHits(), memoryHits, diskHits, misses, getHitRate(), evictions, expirations, memorySize);
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.trading.adapter;
+
+import com.example.trading.api.IDataProvider;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DECORATOR PATTERN — read-through cache in front of any IDataProvider.
+ *
+ * Results are kept per query in two tiers: a size-bounded in-memory LRU, and
+ * optionally one file per query in a directory, which survives restarts and
+ * memory evictions. A lookup tries memory, then disk, then the wrapped
+ * provider; a disk hit is promoted back into memory.
+ *
+ * How long a result stays fresh depends on how old its bars are:
+ * <ul>
+ *   <li>ranges ending before the last completed session are settled history
+ *       and kept for {@link #SETTLED_TTL};</li>
+ *   <li>on a day the exchange is closed nothing can change, so any other
+ *       range is kept until the next session starts;</li>
+ *   <li>ranges ending on the last completed session may still be revised and
+ *       are kept for {@link #RECENT_TTL};</li>
+ *   <li>ranges reaching into a live session are kept for {@link #INTRADAY_TTL}.</li>
+ * </ul>
+ * Failures from the wrapped provider are passed on and never cached.
+ *
+ * Most disk keys never repeat (each day's latest-price and gap queries are
+ * new ranges), so expired files are swept when the cache opens and every
+ * {@value #DISK_SWEEP_INTERVAL} writes rather than only when re-read.
+ */
+public class CachingDataProvider implements IDataProvider {
+
+    public static final int      DEFAULT_MAX_ENTRIES = 512;
+    public static final Duration INTRADAY_TTL = Duration.ofMinutes(1);
+    public static final Duration RECENT_TTL   = Duration.ofHours(1);
+    public static final Duration SETTLED_TTL  = Duration.ofDays(365);
+
+    private static final String FILE_SUFFIX = ".csv";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** Disk writes between sweeps of expired files */
+    public static final int DISK_SWEEP_INTERVAL = 256;
+
+    private final IDataProvider delegate;
+    private final int maxEntries;
+    private final Path diskDirectory;
+    private final TradingCalendar calendar;
+    private final Clock clock;
+
+    /** Access-ordered, so the eldest entry is the least recently used */
+    private final Map<String, Entry> memory;
+
+    private final LongAdder memoryHits  = new LongAdder();
+    private final LongAdder diskHits    = new LongAdder();
+    private final LongAdder misses      = new LongAdder();
+    private final LongAdder evictions   = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final AtomicInteger writesSinceSweep = new AtomicInteger();
+
+    /** Memory-only cache of {@value #DEFAULT_MAX_ENTRIES} queries on the default calendar. */
+    public CachingDataProvider(IDataProvider delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, null);
+    }
+
+    /**
+     * @param maxEntries    queries kept in memory
+     * @param diskDirectory directory for the disk tier, or null for memory only
+     */
+    public CachingDataProvider(IDataProvider delegate, int maxEntries, Path diskDirectory) {
+        this(delegate, maxEntries, diskDirectory, TradingCalendar.getDefault(), Clock.systemDefaultZone());
+    }
+
+    public CachingDataProvider(IDataProvider delegate, int maxEntries, Path diskDirectory,
+                               TradingCalendar calendar, Clock clock) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Data provider cannot be null");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+        if (calendar == null || clock == null) {
+            throw new IllegalArgumentException("Calendar and clock cannot be null");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.diskDirectory = diskDirectory;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= CachingDataProvider.this.maxEntries) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+        if (diskDirectory != null) {
+            try {
+                Files.createDirectories(diskDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open price cache at " + diskDirectory, e);
+            }
+            sweepDisk(clock.instant(), true);
+        }
+    }
+
+    @Override
+    public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+        if (query == null || query.getSymbol() == null || query.getStartDate() == null || query.getEndDate() == null) {
+            throw new DataProviderException("ShareQuery cannot be null or incomplete");
+        }
+        Instant now = clock.instant();
+        Entry entry = lookup(key(query), now);
+        if (entry == null) {
+            misses.increment();
+            entry = store(query, delegate.getSharePrices(query), now);
+        }
+        return new ArrayList<>(entry.prices);
+    }
+
+    /**
+     * Answers each query from the cache where it can and forwards only the
+     * misses to the wrapped provider, as a single batch. Successful results
+     * are cached as single fetches are; failed ones are passed on uncached.
+     */
+    @Override
+    public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        List<ShareQuery> missed = new ArrayList<>();
+        Instant now = clock.instant();
+        for (ShareQuery query : queries) {
+            if (query == null || query.getSymbol() == null) {
+                throw new IllegalArgumentException("Queries must name a symbol");
+            }
+            String symbol = query.getSymbol().trim().toUpperCase();
+            if (results.containsKey(symbol)) {
+                throw new IllegalArgumentException("Duplicate symbol in batch: " + query.getSymbol());
+            }
+            if (query.getStartDate() == null || query.getEndDate() == null) {
+                results.put(symbol, PriceFetchResult.failure(query,
+                        new DataProviderException("ShareQuery cannot be null or incomplete"), 0));
+                continue;
+            }
+            Entry entry = lookup(key(query), now);
+            if (entry != null) {
+                results.put(symbol, PriceFetchResult.success(query, new ArrayList<>(entry.prices), 0));
+            } else {
+                results.put(symbol, null);   // keeps query order; filled in below
+                missed.add(query);
+            }
+        }
+        if (missed.isEmpty()) {
+            return results;
+        }
+
+        misses.add(missed.size());
+        Map<String, PriceFetchResult> fetched = delegate.getSharePrices(missed);
+        for (ShareQuery query : missed) {
+            String symbol = query.getSymbol().trim().toUpperCase();
+            PriceFetchResult result = fetched.get(symbol);
+            if (result == null) {
+                result = PriceFetchResult.failure(query, new DataProviderException("No result for " + symbol), 0);
+            } else if (result.isSuccess()) {
+                store(query, result.getPrices(), now);
+            }
+            results.put(symbol, result);
+        }
+        return results;
+    }
+
+    /** Serves from cache regardless, but only reports what the wrapped provider reports. */
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    /** Drop every cached query for {@code symbol} from both tiers. */
+    public void invalidate(String symbol) {
+        if (symbol == null) return;
+        String prefix = symbol.trim().toUpperCase() + '|';
+        synchronized (memory) {
+            memory.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+        deleteFiles(fileName(prefix));
+    }
+
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        deleteFiles("");
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new CacheStats(memoryHits.sum(), diskHits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), size);
+    }
+
+    /** A fresh entry from memory, else from disk (promoted to memory), else null. */
+    private Entry lookup(String key, Instant now) {
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+            if (entry != null && !entry.isFresh(now)) {
+                memory.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            memoryHits.increment();
+            return entry;
+        }
+
+        entry = readFromDisk(key, now);
+        if (entry != null) {
+            diskHits.increment();
+            synchronized (memory) {
+                memory.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private Entry store(ShareQuery query, List<SharePrice> prices, Instant now) {
+        String key = key(query);
+        Entry entry = new Entry(prices != null ? List.copyOf(prices) : List.of(), expiresAt(query, now));
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeToDisk(key, entry);
+        return entry;
+    }
+
+    // ── TTL ──────────────────────────────────────────────────────────────────
+
+    private Instant expiresAt(ShareQuery query, Instant now) {
+        LocalDate today = LocalDate.ofInstant(now, clock.getZone());
+        LocalDate lastCompleted = calendar.previousSession(today);
+        if (lastCompleted != null && query.getEndDate().isBefore(lastCompleted)) {
+            return now.plus(SETTLED_TTL);
+        }
+        if (!calendar.isSession(today)) {
+            LocalDate next = calendar.nextSession(today);
+            return next != null ? next.atStartOfDay(clock.getZone()).toInstant() : now.plus(SETTLED_TTL);
+        }
+        return query.getEndDate().isBefore(today) ? now.plus(RECENT_TTL) : now.plus(INTRADAY_TTL);
+    }
+
+    // ── Disk tier ────────────────────────────────────────────────────────────
+    //
+    // One file per query: an "expires,<epoch millis>" line, then one
+    // "date,open,close,high,low,volume" line per bar. Unreadable files are
+    // treated as misses and removed. Each write goes to its own temp file,
+    // so concurrent stores of one key cannot interleave.
+
+    private Entry readFromDisk(String key, Instant now) {
+        if (diskDirectory == null) return null;
+        Path file = diskDirectory.resolve(fileName(key) + FILE_SUFFIX);
+        if (!Files.isRegularFile(file)) return null;
+        String symbol = key.substring(0, key.indexOf('|'));
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("expires,")) throw new IOException("missing expiry");
+            Instant expiresAt = expiry(header);
+            if (!expiresAt.isAfter(now)) {
+                expirations.increment();
+                Files.deleteIfExists(file);
+                return null;
+            }
+            List<SharePrice> prices = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] f = line.split(",");
+                prices.add(new SharePrice(symbol, LocalDate.parse(f[0]), new BigDecimal(f[1]), new BigDecimal(f[2]),
+                        new BigDecimal(f[3]), new BigDecimal(f[4]), Long.parseLong(f[5])));
+            }
+            return new Entry(Collections.unmodifiableList(prices), expiresAt);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Discarding unreadable price cache file " + file.getFileName() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // left for the next write to replace
+            }
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (diskDirectory == null) return;
+        Path file = diskDirectory.resolve(fileName(key) + FILE_SUFFIX);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(diskDirectory, fileName(key), TEMP_SUFFIX);
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("expires," + entry.expiresAt.toEpochMilli());
+                writer.newLine();
+                for (SharePrice p : entry.prices) {
+                    writer.write(p.getDate() + "," + plain(p.getOpenPrice()) + "," + plain(p.getClosePrice()) + ","
+                            + plain(p.getHighPrice()) + "," + plain(p.getLowPrice()) + "," + p.getVolume());
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // The memory tier still has the entry; the disk copy is best effort
+            System.err.println("Failed to write price cache file " + file.getFileName() + ": " + e.getMessage());
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // swept when the cache next opens
+            }
+        }
+        if (writesSinceSweep.incrementAndGet() >= DISK_SWEEP_INTERVAL) {
+            writesSinceSweep.set(0);
+            sweepDisk(clock.instant(), false);
+        }
+    }
+
+    /**
+     * Delete expired and unreadable cache files. When the cache opens, temp
+     * files left behind by an interrupted write are deleted too.
+     */
+    private void sweepDisk(Instant now, boolean opening) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean stale = name.endsWith(FILE_SUFFIX) ? !isFreshFile(file, now)
+                        : opening && name.endsWith(TEMP_SUFFIX);
+                if (!stale) continue;
+                try {
+                    if (Files.deleteIfExists(file) && name.endsWith(FILE_SUFFIX)) expirations.increment();
+                } catch (IOException e) {
+                    // in use or already gone; the next sweep tries again
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to sweep price cache files: " + e.getMessage());
+        }
+    }
+
+    private static boolean isFreshFile(Path file, Instant now) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            return header != null && header.startsWith("expires,") && expiry(header).isAfter(now);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Instant expiry(String header) {
+        return Instant.ofEpochMilli(Long.parseLong(header.substring("expires,".length())));
+    }
+
+    private void deleteFiles(String namePrefix) {
+        if (diskDirectory == null) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDirectory,
+                path -> path.getFileName().toString().startsWith(namePrefix))) {
+            for (Path file : files) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to clear price cache files: " + e.getMessage());
+        }
+    }
+
+    private static String key(ShareQuery query) {
+        return query.getSymbol().trim().toUpperCase() + '|' + query.getStartDate() + '|' + query.getEndDate();
+    }
+
+    /** Keys become file names; encoding keeps symbols like ^GSPC or BRK.B safe. */
+    private static String fileName(String key) {
+        return URLEncoder.encode(key, StandardCharsets.UTF_8);
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "0";
+    }
+
+    private static final class Entry {
+        final List<SharePrice> prices;
+        final Instant expiresAt;
+
+        Entry(List<SharePrice> prices, Instant expiresAt) {
+            this.prices = prices;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isFresh(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+}
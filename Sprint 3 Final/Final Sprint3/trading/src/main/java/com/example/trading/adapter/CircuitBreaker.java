@@ -0,0 +1,163 @@
+package com.example.trading.adapter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * CIRCUIT BREAKER — stops calling a provider that keeps failing.
+ *
+ * CLOSED:    calls go through; failures are kept in a sliding time window,
+ *            and {@code failureThreshold} failures within it trip the breaker.
+ * OPEN:      calls are rejected at once, without touching the provider,
+ *            until {@code openDuration} has passed.
+ * HALF_OPEN: one trial call is let through. Success closes the breaker;
+ *            failure opens it again for another {@code openDuration}.
+ *            A trial whose outcome is never reported is given up after
+ *            {@code openDuration}, and another caller gets to try.
+ *
+ * Callers ask {@link #tryAcquire()} before a call and report the outcome
+ * with {@link #onSuccess()} or {@link #onFailure()}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public static final int      DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_FAILURE_WINDOW    = Duration.ofSeconds(60);
+    public static final Duration DEFAULT_OPEN_DURATION     = Duration.ofSeconds(30);
+
+    private final int      failureThreshold;
+    private final Duration failureWindow;
+    private final Duration openDuration;
+    private final Clock    clock;
+
+    /** Times of recent failures, oldest first; only used while CLOSED */
+    private final Deque<Instant> failures = new ArrayDeque<>();
+    private State   state = State.CLOSED;
+    private Instant openedAt;
+    private boolean trialInFlight;
+    private Instant trialStartedAt;
+    private long    rejected;
+    private long    trips;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_FAILURE_WINDOW, DEFAULT_OPEN_DURATION, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(int failureThreshold, Duration failureWindow, Duration openDuration, Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        if (failureWindow == null || failureWindow.isNegative() || failureWindow.isZero()
+                || openDuration == null || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Failure window and open duration must be positive");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.failureThreshold = failureThreshold;
+        this.failureWindow = failureWindow;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a call may go ahead now. In HALF_OPEN only the first caller
+     * gets through; the rest are rejected until its outcome is reported.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (currentState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                Instant now = clock.instant();
+                if (!trialInFlight || !now.isBefore(trialStartedAt.plus(openDuration))) {
+                    trialInFlight = true;
+                    trialStartedAt = now;
+                    return true;
+                }
+                rejected++;
+                return false;
+            default:
+                rejected++;
+                return false;
+        }
+    }
+
+    /** A success while CLOSED leaves the failure window alone; it only closes a HALF_OPEN breaker. */
+    public synchronized void onSuccess() {
+        if (currentState() == State.HALF_OPEN) {
+            state = State.CLOSED;
+            trialInFlight = false;
+            failures.clear();
+            System.out.println("Circuit breaker closed after a successful trial call");
+        }
+    }
+
+    public synchronized void onFailure() {
+        Instant now = clock.instant();
+        State current = currentState();
+        if (current == State.HALF_OPEN) {
+            trip(now);
+            return;
+        }
+        if (current == State.OPEN) {
+            return;   // a call that started before the trip
+        }
+        failures.addLast(now);
+        Instant windowStart = now.minus(failureWindow);
+        while (!failures.isEmpty() && !failures.peekFirst().isAfter(windowStart)) {
+            failures.removeFirst();
+        }
+        if (failures.size() >= failureThreshold) {
+            trip(now);
+        }
+    }
+
+    public synchronized State getState() {
+        return currentState();
+    }
+
+    /** Time until an OPEN breaker lets a trial call through; zero otherwise. */
+    public synchronized Duration getRemainingOpenTime() {
+        if (currentState() != State.OPEN) return Duration.ZERO;
+        return Duration.between(clock.instant(), openedAt.plus(openDuration));
+    }
+
+    /** Calls refused without reaching the provider */
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    /** Times the breaker has opened */
+    public synchronized long getTripCount() {
+        return trips;
+    }
+
+    private void trip(Instant now) {
+        state = State.OPEN;
+        openedAt = now;
+        trialInFlight = false;
+        failures.clear();
+        trips++;
+        System.err.println("Circuit breaker opened for " + openDuration.toSeconds() + "s");
+    }
+
+    /** The state, moving OPEN to HALF_OPEN once the open period is over. */
+    private State currentState() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return state;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CircuitBreaker{state=%s, recentFailures=%d/%d, trips=%d, rejected=%d}",
+                currentState(), failures.size(), failureThreshold, trips, rejected);
+    }
+}
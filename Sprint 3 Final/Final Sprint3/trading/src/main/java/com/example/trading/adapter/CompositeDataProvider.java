@@ -0,0 +1,323 @@
+package com.example.trading.adapter;
+
+import com.example.trading.api.IAPI;
+import com.example.trading.api.ShareDataProvider;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * COMPOSITE PATTERN — one IDataProvider over an ordered list of IAPI sources.
+ *
+ * Sources are tried in order, skipping any that report themselves
+ * unavailable. A source that fails hands over to the next at once
+ * (failover). A source that is merely slow is hedged: once it has taken
+ * longer than its usual latency — the {@code hedgePercentile} of its recent
+ * calls — the next source is started as well, and whichever answers first
+ * with prices wins. Late answers are ignored but still recorded.
+ *
+ * An empty answer is valid (a range with no sessions has no bars), but a
+ * stale or partial source gives one too, so it never settles the request
+ * while another source could still answer. It is returned only once every
+ * source has been heard from without any prices.
+ *
+ * Every source has its own {@link LatencyHistogram} of successful calls,
+ * which sets its hedge delay. Until a source has {@value #MIN_SAMPLES}
+ * samples, {@link #DEFAULT_HEDGE_DELAY} is used.
+ *
+ * The composite is itself an IAPI, so it can sit behind a MarketDataAdapter
+ * like any single provider.
+ */
+public class CompositeDataProvider implements ShareDataProvider {
+
+    public static final double   DEFAULT_HEDGE_PERCENTILE = 0.95;
+    public static final Duration DEFAULT_HEDGE_DELAY      = Duration.ofSeconds(1);
+    public static final Duration MIN_HEDGE_DELAY          = Duration.ofMillis(10);
+    public static final int      MIN_SAMPLES              = 20;
+
+    private final List<IAPI> sources;
+    private final Map<IAPI, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final double hedgePercentile;
+    private final Executor executor;
+
+    private final LongAdder hedges    = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    public CompositeDataProvider(List<IAPI> sources) {
+        this(sources, DEFAULT_HEDGE_PERCENTILE, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param sources         providers in order of preference
+     * @param hedgePercentile latency percentile (0–1) after which the next source is started
+     * @param executor        runs the calls, so several can be in flight at once
+     */
+    public CompositeDataProvider(List<IAPI> sources, double hedgePercentile, Executor executor) {
+        if (sources == null || sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one data source is required");
+        }
+        for (IAPI source : sources) {
+            if (source == null) throw new IllegalArgumentException("Data sources cannot be null");
+        }
+        if (hedgePercentile <= 0 || hedgePercentile > 1) {
+            throw new IllegalArgumentException("Hedge percentile must be in (0, 1]");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.sources = List.copyOf(sources);
+        this.hedgePercentile = hedgePercentile;
+        this.executor = executor;
+        for (IAPI source : this.sources) latencies.put(source, new LatencyHistogram());
+    }
+
+    @Override
+    public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+        if (query == null) {
+            throw new DataProviderException("ShareQuery cannot be null");
+        }
+        List<IAPI> candidates = new ArrayList<>();
+        for (IAPI source : sources) {
+            if (source.isAvailable()) candidates.add(source);
+        }
+        if (candidates.isEmpty()) {
+            throw new DataProviderException("No data provider is available");
+        }
+
+        BlockingQueue<Attempt> finished = new LinkedBlockingQueue<>();
+        List<CompletableFuture<?>> running = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        boolean answeredEmpty = false;
+        int launched = 0, pending = 0;
+        running.add(launch(candidates.get(launched), launched++, query, finished));
+        pending++;
+        try {
+            while (true) {
+                Attempt done;
+                if (launched < candidates.size()) {
+                    done = finished.poll(hedgeDelay(candidates.get(launched - 1)).toNanos(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        // Slow, not failed: race the next source against it
+                        hedges.increment();
+                        running.add(launch(candidates.get(launched), launched++, query, finished));
+                        pending++;
+                        continue;
+                    }
+                } else {
+                    done = finished.take();
+                }
+                pending--;
+                if (done.error instanceof Error fatal) {
+                    throw fatal;   // raised on a pool thread with no one to catch it
+                }
+                if (done.error == null && done.prices != null && !done.prices.isEmpty()) {
+                    if (done.order > 0 && errors.isEmpty()) hedgeWins.increment();
+                    return done.prices;
+                }
+                if (done.error == null) {
+                    answeredEmpty = true;   // kept in reserve while anyone else may have prices
+                } else {
+                    errors.add((Exception) done.error);
+                }
+                if (launched < candidates.size()) {
+                    if (done.error != null) failovers.increment();
+                    running.add(launch(candidates.get(launched), launched++, query, finished));
+                    pending++;
+                } else if (pending == 0) {
+                    if (answeredEmpty) return List.of();
+                    throw allFailed(query, errors);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataProviderException("Interrupted while fetching " + query.getSymbol(), e);
+        } finally {
+            for (CompletableFuture<?> call : running) call.cancel(false);
+        }
+    }
+
+    /**
+     * Sends the batch to the first available source's own multi-symbol call,
+     * then only the symbols it failed on or had no prices for to the next
+     * source, and so on. A symbol no source has prices for gets the first
+     * empty answer, if there was one.
+     * Batches are not hedged, since each source already fetches the symbols
+     * concurrently, and their timings do not feed the latency histograms.
+     */
+    @Override
+    public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        List<ShareQuery> remaining = new ArrayList<>();
+        for (ShareQuery query : queries) {
+            if (query == null || query.getSymbol() == null) {
+                throw new IllegalArgumentException("Queries must name a symbol");
+            }
+            if (results.containsKey(key(query))) {
+                throw new IllegalArgumentException("Duplicate symbol in batch: " + query.getSymbol());
+            }
+            results.put(key(query), null);   // keeps query order; filled in below
+            remaining.add(query);
+        }
+
+        Map<String, List<Exception>> errors = new HashMap<>();
+        Map<String, PriceFetchResult> emptyAnswers = new HashMap<>();
+        for (IAPI source : sources) {
+            if (remaining.isEmpty()) break;
+            if (!source.isAvailable()) continue;
+            if (!errors.isEmpty()) failovers.increment();
+
+            Map<String, PriceFetchResult> fetched = Map.of();
+            Exception callError = null;
+            try {
+                fetched = source.getSharePrices(remaining);
+            } catch (Exception e) {
+                callError = e;
+            }
+            List<ShareQuery> failed = new ArrayList<>();
+            for (ShareQuery query : remaining) {
+                PriceFetchResult result = fetched.get(key(query));
+                if (result != null && result.isSuccess() && !result.getPrices().isEmpty()) {
+                    results.put(key(query), result);
+                    continue;
+                }
+                if (result != null && result.isSuccess()) {
+                    emptyAnswers.putIfAbsent(key(query), result);
+                    failed.add(query);
+                    continue;
+                }
+                Exception error = result != null ? result.getError() : callError != null ? callError
+                        : new DataProviderException(source.getProviderName() + " returned no result for " + query.getSymbol());
+                errors.computeIfAbsent(key(query), k -> new ArrayList<>()).add(error);
+                failed.add(query);
+            }
+            remaining = failed;
+        }
+
+        for (ShareQuery query : remaining) {
+            if (emptyAnswers.containsKey(key(query))) {
+                results.put(key(query), emptyAnswers.get(key(query)));
+                continue;
+            }
+            List<Exception> failures = errors.get(key(query));
+            Exception error = failures != null ? allFailed(query, failures)
+                    : new DataProviderException("No data provider is available");
+            results.put(key(query), PriceFetchResult.failure(query, error, 0));
+        }
+        return results;
+    }
+
+    /** True while at least one source is available. */
+    @Override
+    public boolean isAvailable() {
+        for (IAPI source : sources) {
+            if (source.isAvailable()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String getProviderName() {
+        return "Composite" + getProviderNames();
+    }
+
+    /** Latencies of successful calls to the named source, or null for an unknown name. */
+    public LatencyHistogram getLatencyHistogram(String providerName) {
+        for (Map.Entry<IAPI, LatencyHistogram> entry : latencies.entrySet()) {
+            if (entry.getKey().getProviderName().equals(providerName)) return entry.getValue();
+        }
+        return null;
+    }
+
+    public List<String> getProviderNames() {
+        List<String> names = new ArrayList<>();
+        for (IAPI source : sources) names.add(source.getProviderName());
+        return names;
+    }
+
+    /** How long to wait for {@code source} before hedging. */
+    public Duration hedgeDelay(IAPI source) {
+        LatencyHistogram histogram = latencies.get(source);
+        if (histogram == null || histogram.getRecentCount() < MIN_SAMPLES) return DEFAULT_HEDGE_DELAY;
+        Duration delay = histogram.getPercentile(hedgePercentile);
+        return delay.compareTo(MIN_HEDGE_DELAY) < 0 ? MIN_HEDGE_DELAY : delay;
+    }
+
+    /** Extra sources started because the previous one was slow */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /** Requests answered by a hedge rather than the source it was racing */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /** Sources started because the previous one failed */
+    public long getFailoverCount() {
+        return failovers.sum();
+    }
+
+    /** Start {@code source}, the {@code order}-th source tried for this request. */
+    private CompletableFuture<?> launch(IAPI source, int order, ShareQuery query, BlockingQueue<Attempt> finished) {
+        return CompletableFuture.runAsync(() -> {
+            long started = System.nanoTime();
+            try {
+                List<SharePrice> prices = source.getSharePrices(query);
+                latencies.get(source).record(Duration.ofNanos(System.nanoTime() - started));
+                finished.add(new Attempt(order, prices, null));
+            } catch (Throwable e) {
+                // Errors too: the request is waiting on this queue and would otherwise never settle
+                finished.add(new Attempt(order, null, e));
+            }
+        }, executor);
+    }
+
+    private static String key(ShareQuery query) {
+        return query.getSymbol().trim().toUpperCase();
+    }
+
+    /** Unknown everywhere is reported as such; anything else as a combined failure. */
+    private DataProviderException allFailed(ShareQuery query, List<Exception> errors) {
+        boolean unknownEverywhere = errors.stream().allMatch(e -> e instanceof SymbolNotFoundException);
+        DataProviderException failure = unknownEverywhere
+                ? new SymbolNotFoundException(query.getSymbol())
+                : new DataProviderException("All data providers failed for " + query.getSymbol()
+                        + ": " + errors.get(errors.size() - 1).getMessage(), errors.get(errors.size() - 1));
+        for (Exception error : errors) {
+            if (error != failure.getCause()) failure.addSuppressed(error);
+        }
+        return failure;
+    }
+
+    private static final class Attempt {
+        final int order;
+        final List<SharePrice> prices;
+        final Throwable error;
+
+        Attempt(int order, List<SharePrice> prices, Throwable error) {
+            this.order = order;
+            this.prices = prices;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.trading.adapter;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram over the most recent calls.
+ *
+ * Latencies are recorded in microseconds into buckets that split every
+ * power of two into 16 equal steps, so any percentile is accurate to
+ * within about 6% whatever the scale, in a fixed 592-bucket array.
+ *
+ * Only recent behaviour matters for hedging, so samples are kept in two
+ * generations of {@value #GENERATION_SIZE}: when the current one fills up
+ * it replaces the previous one, and percentiles are read over both.
+ */
+public class LatencyHistogram {
+
+    public static final int GENERATION_SIZE = 1024;
+
+    private static final int  SUB_BUCKETS = 16;
+    private static final int  BUCKETS     = 592;            // below 2^40 µs (about 12 days)
+    private static final long MAX_MICROS  = (1L << 40) - 1;
+
+    private long[] current  = new long[BUCKETS];
+    private long[] previous = new long[BUCKETS];
+    private int  currentCount;
+    private int  previousCount;
+    private long totalCount;
+    private long maxMicros;
+
+    public synchronized void record(Duration latency) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, latency.toNanos() / 1_000));
+        if (currentCount == GENERATION_SIZE) {
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0);
+            previous = current;
+            previousCount = currentCount;
+            current = recycled;
+            currentCount = 0;
+        }
+        current[bucket(micros)]++;
+        currentCount++;
+        totalCount++;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    /**
+     * Latency below which {@code percentile} (0–1) of the recent samples
+     * fall, rounded up to the bucket boundary; zero with no samples.
+     */
+    public synchronized Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+        int samples = currentCount + previousCount;
+        if (samples == 0) return Duration.ZERO;
+        long rank = Math.max(1, (long) Math.ceil(percentile * samples));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += current[b] + previous[b];
+            if (seen >= rank) return Duration.ofNanos(upperBound(b) * 1_000);
+        }
+        return Duration.ofNanos(MAX_MICROS * 1_000);
+    }
+
+    /** Samples the percentiles are computed over */
+    public synchronized int getRecentCount() {
+        return currentCount + previousCount;
+    }
+
+    /** Samples recorded since creation */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized Duration getMax() {
+        return Duration.ofNanos(maxMicros * 1_000);
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        return (exponent - 3) * SUB_BUCKETS + (int) ((micros >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+    }
+
+    /** Largest value that falls into bucket {@code b} */
+    static long upperBound(int b) {
+        if (b < SUB_BUCKETS) return b;
+        int exponent = b / SUB_BUCKETS + 3;
+        long sub = b % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - 4)) - 1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("LatencyHistogram{samples=%d, p50=%dms, p95=%dms, p99=%dms, max=%dms}",
+                getRecentCount(), getPercentile(0.50).toMillis(), getPercentile(0.95).toMillis(),
+                getPercentile(0.99).toMillis(), getMax().toMillis());
+    }
+}
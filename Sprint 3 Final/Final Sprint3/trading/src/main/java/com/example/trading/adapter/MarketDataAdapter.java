@@ -3,11 +3,21 @@ package com.example.trading.adapter;
 import com.example.trading.api.IAPI;
 import com.example.trading.api.IDataProvider;
 import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ADAPTER PATTERN
@@ -19,16 +29,44 @@ import java.util.List;
  * (Alpha Vantage, Polygon.io, etc.) by simply creating a new IAPI
  * implementation and wrapping it in this adapter — nothing else changes.
  *
+ * The adapter also shields callers from a failing provider:
+ * symbols the provider reported as unknown are answered from a negative
+ * cache for {@link #DEFAULT_NEGATIVE_TTL}, and a {@link CircuitBreaker}
+ * rejects calls outright while the provider keeps failing. An open breaker
+ * makes {@link #isAvailable()} false, so callers fall back to local data.
+ *
  * Architecture role: Integration Layer → Business Layer adapter.
  */
 public class MarketDataAdapter implements IDataProvider {
 
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofMinutes(10);
+
+    /** Above this many unknown symbols, expired ones are swept on insert */
+    private static final int NEGATIVE_CACHE_SWEEP_SIZE = 1024;
+
     private final IAPI externalApi;
     private final String adapterName;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration negativeTtl;
+    private final Clock clock;
+
+    /** Upper-case symbol → when the "not found" answer stops being trusted */
+    private final Map<String, Instant> unknownSymbols = new ConcurrentHashMap<>();
+    private final LongAdder negativeHits = new LongAdder();
 
     public MarketDataAdapter(IAPI externalApi) {
+        this(externalApi, new CircuitBreaker(), DEFAULT_NEGATIVE_TTL, Clock.systemUTC());
+    }
+
+    public MarketDataAdapter(IAPI externalApi, CircuitBreaker circuitBreaker, Duration negativeTtl, Clock clock) {
+        if (externalApi == null || circuitBreaker == null || negativeTtl == null || clock == null) {
+            throw new IllegalArgumentException("Adapter arguments cannot be null");
+        }
         this.externalApi = externalApi;
         this.adapterName = "MarketDataAdapter[" + externalApi.getProviderName() + "]";
+        this.circuitBreaker = circuitBreaker;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
     }
 
     /**
@@ -40,23 +78,125 @@ public class MarketDataAdapter implements IDataProvider {
         if (query == null) {
             throw new DataProviderException("ShareQuery cannot be null");
         }
+        String symbol = query.getSymbol() != null ? query.getSymbol().trim().toUpperCase() : "";
+        Instant unknownUntil = unknownSymbols.get(symbol);
+        if (unknownUntil != null) {
+            if (clock.instant().isBefore(unknownUntil)) {
+                negativeHits.increment();
+                throw new SymbolNotFoundException(query.getSymbol());
+            }
+            unknownSymbols.remove(symbol, unknownUntil);
+        }
         if (!externalApi.isAvailable()) {
             throw new DataProviderException(externalApi.getProviderName() + " is not available");
         }
+        if (!circuitBreaker.tryAcquire()) {
+            throw new DataProviderException(adapterName + " circuit is open; retrying in "
+                    + circuitBreaker.getRemainingOpenTime().toSeconds() + "s");
+        }
+        // Reported in finally, so no exit path (an Error included) leaves a trial call unresolved
+        boolean answered = false;
         try {
             List<SharePrice> prices = externalApi.getSharePrices(query);
+            answered = true;
             return prices != null ? prices : Collections.emptyList();
+        } catch (SymbolNotFoundException e) {
+            // The provider answered; the symbol just does not exist
+            answered = true;
+            rememberUnknown(symbol);
+            throw e;
         } catch (DataProviderException e) {
             throw e;
         } catch (Exception e) {
             throw new DataProviderException(
                 adapterName + " failed to retrieve data: " + e.getMessage(), e);
+        } finally {
+            if (answered) circuitBreaker.onSuccess(); else circuitBreaker.onFailure();
+        }
+    }
+
+    /**
+     * Forwards a batch to the wrapped API's own multi-symbol call. Symbols in
+     * the negative cache are answered without it. The batch is one call as
+     * far as the circuit breaker is concerned: an open breaker fails every
+     * forwarded symbol, and the call counts as a failure only if it threw or
+     * every symbol failed for a reason other than being unknown.
+     */
+    @Override
+    public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        List<ShareQuery> forwarded = new ArrayList<>();
+        Instant now = clock.instant();
+        for (ShareQuery query : queries) {
+            if (query == null || query.getSymbol() == null) {
+                throw new IllegalArgumentException("Queries must name a symbol");
+            }
+            String symbol = query.getSymbol().trim().toUpperCase();
+            if (results.containsKey(symbol)) {
+                throw new IllegalArgumentException("Duplicate symbol in batch: " + query.getSymbol());
+            }
+            Instant unknownUntil = unknownSymbols.get(symbol);
+            if (unknownUntil != null && now.isBefore(unknownUntil)) {
+                negativeHits.increment();
+                results.put(symbol, PriceFetchResult.failure(query, new SymbolNotFoundException(query.getSymbol()), 0));
+                continue;
+            }
+            if (unknownUntil != null) unknownSymbols.remove(symbol, unknownUntil);
+            results.put(symbol, null);   // keeps query order; filled in below
+            forwarded.add(query);
+        }
+        if (forwarded.isEmpty()) {
+            return results;
+        }
+
+        DataProviderException rejected = null;
+        if (!externalApi.isAvailable()) {
+            rejected = new DataProviderException(externalApi.getProviderName() + " is not available");
+        } else if (!circuitBreaker.tryAcquire()) {
+            rejected = new DataProviderException(adapterName + " circuit is open; retrying in "
+                    + circuitBreaker.getRemainingOpenTime().toSeconds() + "s");
+        }
+        boolean acquired = rejected == null;
+        boolean anyAnswered = false;
+        try {
+            Map<String, PriceFetchResult> fetched = Map.of();
+            if (acquired) {
+                try {
+                    fetched = externalApi.getSharePrices(forwarded);
+                } catch (Exception e) {
+                    rejected = e instanceof DataProviderException dpe ? dpe
+                            : new DataProviderException(adapterName + " failed to retrieve data: " + e.getMessage(), e);
+                }
+            }
+            for (ShareQuery query : forwarded) {
+                String symbol = query.getSymbol().trim().toUpperCase();
+                PriceFetchResult result = rejected != null ? null : fetched.get(symbol);
+                if (result == null) {
+                    result = PriceFetchResult.failure(query, rejected != null ? rejected
+                            : new DataProviderException(adapterName + " returned no result for " + symbol), 0);
+                } else if (result.isSuccess()) {
+                    anyAnswered = true;
+                } else if (result.getError() instanceof SymbolNotFoundException) {
+                    anyAnswered = true;
+                    rememberUnknown(symbol);
+                }
+                results.put(symbol, result);
+            }
+        } finally {
+            if (acquired) {
+                if (anyAnswered) circuitBreaker.onSuccess(); else circuitBreaker.onFailure();
+            }
         }
+        return results;
     }
 
+    /** False while the wrapped API is down or the circuit breaker is open. */
     @Override
     public boolean isAvailable() {
-        return externalApi.isAvailable();
+        return externalApi.isAvailable() && circuitBreaker.getState() != CircuitBreaker.State.OPEN;
     }
 
     public String getAdapterName() {
@@ -66,4 +206,21 @@ public class MarketDataAdapter implements IDataProvider {
     public String getWrappedProviderName() {
         return externalApi.getProviderName();
     }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /** Lookups answered from the negative cache without calling the provider */
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    private void rememberUnknown(String symbol) {
+        Instant now = clock.instant();
+        if (unknownSymbols.size() >= NEGATIVE_CACHE_SWEEP_SIZE) {
+            unknownSymbols.values().removeIf(until -> !now.isBefore(until));
+        }
+        unknownSymbols.put(symbol, now.plus(negativeTtl));
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.trading.api;
+
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/** Shared argument checks and the sequential fallback for multi-symbol fetches. */
+final class BatchQueries {
+
+    private BatchQueries() {}
+
+    static List<ShareQuery> validate(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Set<String> seen = new HashSet<>();
+        for (ShareQuery query : queries) {
+            if (query == null || query.getSymbol() == null) {
+                throw new IllegalArgumentException("Queries must name a symbol");
+            }
+            if (!seen.add(key(query))) {
+                throw new IllegalArgumentException("Duplicate symbol in batch: " + query.getSymbol());
+            }
+        }
+        return queries;
+    }
+
+    /** Fetch one query after another, capturing each failure in its own result. */
+    static Map<String, PriceFetchResult> fetchEach(List<ShareQuery> queries, Function<ShareQuery, List<SharePrice>> fetch) {
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        for (ShareQuery query : validate(queries)) {
+            long started = System.nanoTime();
+            try {
+                results.put(key(query), PriceFetchResult.success(query, fetch.apply(query), elapsedMillis(started)));
+            } catch (Exception e) {
+                results.put(key(query), PriceFetchResult.failure(query, e, elapsedMillis(started)));
+            }
+        }
+        return results;
+    }
+
+    static String key(ShareQuery query) {
+        return query.getSymbol().trim().toUpperCase();
+    }
+
+    static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.trading.api;
 
 import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contract for any external market data API.
@@ -14,4 +17,18 @@ public interface IAPI {
     List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException;
     boolean isAvailable();
     String  getProviderName();
+
+    /**
+     * Fetch several symbols in one call. A failing symbol is reported in its
+     * own result and does not affect the others.
+     *
+     * The default fetches one query after another; providers that can run
+     * requests concurrently should override it.
+     *
+     * @return results keyed by upper-case symbol, in query order
+     * @throws IllegalArgumentException if the list is null or names a symbol twice
+     */
+    default Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        return BatchQueries.fetchEach(queries, this::getSharePrices);
+    }
 }
@@ -1,9 +1,11 @@
 package com.example.trading.api;
 
 import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Internal data provider contract used by SharePriceService.
@@ -13,4 +15,16 @@ import java.util.List;
 public interface IDataProvider {
     List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException;
     boolean isAvailable();
+
+    /**
+     * Fetch several symbols in one call, as {@link IAPI#getSharePrices(List)}
+     * does. Decorators should forward the batch so it reaches a provider that
+     * can run it concurrently; the default fetches one query after another.
+     *
+     * @return results keyed by upper-case symbol, in query order
+     * @throws IllegalArgumentException if the list is null or names a symbol twice
+     */
+    default Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        return BatchQueries.fetchEach(queries, this::getSharePrices);
+    }
 }
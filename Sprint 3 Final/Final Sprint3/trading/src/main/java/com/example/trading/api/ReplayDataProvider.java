@@ -0,0 +1,303 @@
+package com.example.trading.api;
+
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.repository.SegmentFileSharePriceRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offline data provider that replays bars recorded on disk, for load tests,
+ * benchmarks and working without a network connection.
+ *
+ * For a symbol such as AAPL the replay directory is searched for, in order:
+ * <pre>
+ *   AAPL/        segment files written by SegmentFileSharePriceRepository (binary)
+ *   AAPL.json    a recorded Yahoo Finance v8 chart response
+ *   AAPL.csv     one bar per line; a header naming Date, Open, High, Low, Close
+ *                and Volume columns is optional (Yahoo's CSV download works as is)
+ * </pre>
+ * A symbol is read once, on first use, and then answered from memory. A
+ * symbol with no file is reported with {@link SymbolNotFoundException}, like
+ * a 404 from Yahoo.
+ *
+ * To behave like a real remote provider, each call can be delayed by a fixed
+ * latency plus uniform random jitter, and can fail with a given probability.
+ * The random source is seeded, so a run is repeatable.
+ *
+ * Recordings do not go stale and a missing range replays as no bars, so
+ * this is for tests and benchmarks only; the application does not put it
+ * in its provider chain, where its answers would be cached as real data.
+ */
+public class ReplayDataProvider implements ShareDataProvider {
+
+    private final Path directory;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final Random random;
+
+    /** Upper-case symbol → all recorded bars, oldest first */
+    private final Map<String, List<SharePrice>> recorded = new ConcurrentHashMap<>();
+    private SegmentFileSharePriceRepository segments;
+    private volatile boolean available = true;
+
+    private final LongAdder requests       = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    /** Replay without added latency or errors. */
+    public ReplayDataProvider(Path directory) {
+        this(directory, Duration.ZERO, Duration.ZERO, 0.0, 0L);
+    }
+
+    /**
+     * @param directory where the recorded files live
+     * @param latency   added to every call
+     * @param jitter    upper bound of a further uniformly random delay
+     * @param errorRate probability (0–1) that a call fails with a DataProviderException
+     * @param seed      seed for the jitter and error draws
+     */
+    public ReplayDataProvider(Path directory, Duration latency, Duration jitter, double errorRate, long seed) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Replay directory cannot be null");
+        }
+        if (latency == null || latency.isNegative() || jitter == null || jitter.isNegative()) {
+            throw new IllegalArgumentException("Latency and jitter must be zero or positive");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.directory = directory;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+        if (query == null) {
+            throw new DataProviderException("ShareQuery cannot be null");
+        }
+        requests.increment();
+        simulateNetwork(query);
+        List<SharePrice> bars = barsFor(query.getSymbol());
+
+        int from = firstOnOrAfter(bars, query.getStartDate());
+        List<SharePrice> result = new ArrayList<>();
+        for (int i = from; i < bars.size() && !bars.get(i).getDate().isAfter(query.getEndDate()); i++) {
+            SharePrice bar = bars.get(i);
+            // Copies, so callers cannot change the recording
+            result.add(new SharePrice(bar.getSymbol(), bar.getDate(), bar.getOpenPrice(), bar.getClosePrice(),
+                    bar.getHighPrice(), bar.getLowPrice(), bar.getVolume()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /** Simulate an outage: while false, callers such as CompositeDataProvider skip this source. */
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    @Override
+    public String getProviderName() {
+        return "Replay[" + directory.getFileName() + "]";
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Calls received, including those that failed */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /** Calls failed on purpose by error injection */
+    public long getInjectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    /**
+     * Record bars as {@code <symbol>.csv} in {@code directory}, in the format
+     * this provider reads, replacing any earlier recording of the symbol.
+     */
+    public static void writeCsv(Path directory, String symbol, List<SharePrice> bars) throws IOException {
+        if (symbol == null || symbol.isBlank() || bars == null) {
+            throw new IllegalArgumentException("Symbol and bars are required");
+        }
+        Files.createDirectories(directory);
+        String name = symbol.trim().toUpperCase();
+        Path file = directory.resolve(name + ".csv");
+        Path temp = directory.resolve(name + ".csv.tmp");
+        List<SharePrice> sorted = new ArrayList<>(bars);
+        sorted.sort(Comparator.comparing(SharePrice::getDate));
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write("Date,Open,High,Low,Close,Volume");
+            writer.newLine();
+            for (SharePrice p : sorted) {
+                writer.write(p.getDate() + "," + plain(p.getOpenPrice()) + "," + plain(p.getHighPrice()) + ","
+                        + plain(p.getLowPrice()) + "," + plain(p.getClosePrice()) + "," + p.getVolume());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ── Simulated network ────────────────────────────────────────────────────
+
+    private void simulateNetwork(ShareQuery query) {
+        long delayNanos = latency.toNanos();
+        boolean fail;
+        synchronized (random) {
+            if (!jitter.isZero()) delayNanos += (long) (random.nextDouble() * jitter.toNanos());
+            fail = errorRate > 0 && random.nextDouble() < errorRate;
+        }
+        if (delayNanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(delayNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DataProviderException("Interrupted while replaying " + query.getSymbol(), e);
+            }
+        }
+        if (fail) {
+            injectedErrors.increment();
+            throw new DataProviderException("Injected failure for " + query.getSymbol());
+        }
+    }
+
+    // ── Recorded files ───────────────────────────────────────────────────────
+
+    private List<SharePrice> barsFor(String symbol) {
+        String key = symbol != null ? symbol.trim().toUpperCase() : "";
+        if (!SegmentFileSharePriceRepository.isStorableSymbol(key)) {
+            throw new SymbolNotFoundException(symbol);
+        }
+        List<SharePrice> bars = recorded.get(key);
+        if (bars == null) {
+            bars = load(key);
+            List<SharePrice> raced = recorded.putIfAbsent(key, bars);
+            if (raced != null) bars = raced;
+        }
+        return bars;
+    }
+
+    private List<SharePrice> load(String symbol) {
+        List<SharePrice> bars;
+        Path json = directory.resolve(symbol + ".json");
+        Path csv  = directory.resolve(symbol + ".csv");
+        try {
+            if (Files.isDirectory(directory.resolve(symbol))) {
+                bars = new ArrayList<>(segments().findBySymbol(symbol));
+            } else if (Files.isRegularFile(json)) {
+                try (InputStream in = Files.newInputStream(json)) {
+                    bars = new ArrayList<>(YahooChartParser.parse(in, symbol));
+                }
+            } else if (Files.isRegularFile(csv)) {
+                bars = readCsv(csv, symbol);
+            } else {
+                throw new SymbolNotFoundException(symbol);
+            }
+        } catch (IOException e) {
+            throw new DataProviderException("Cannot read recording for " + symbol + ": " + e.getMessage(), e);
+        }
+        bars.sort(Comparator.comparing(SharePrice::getDate));
+        return Collections.unmodifiableList(bars);
+    }
+
+    private synchronized SegmentFileSharePriceRepository segments() {
+        if (segments == null) segments = new SegmentFileSharePriceRepository(directory);
+        return segments;
+    }
+
+    private static List<SharePrice> readCsv(Path file, String symbol) throws IOException {
+        // Column positions: date, open, high, low, close, volume
+        int[] column = { 0, 1, 2, 3, 4, 5 };
+        List<SharePrice> bars = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] f = line.split(",");
+                if (bars.isEmpty() && !Character.isDigit(f[0].charAt(0))) {
+                    column = headerColumns(f, file, lineNumber);
+                    continue;
+                }
+                try {
+                    // Yahoo writes "null" for bars it has no data for
+                    if (f[column[4]].equals("null")) continue;
+                    BigDecimal close = new BigDecimal(f[column[4]]);
+                    bars.add(new SharePrice(symbol, LocalDate.parse(f[column[0]]),
+                            orClose(f[column[1]], close), close,
+                            orClose(f[column[2]], close), orClose(f[column[3]], close),
+                            f.length > column[5] && !f[column[5]].equals("null") ? Long.parseLong(f[column[5]]) : 0L));
+                } catch (RuntimeException e) {
+                    throw new DataProviderException(file.getFileName() + ":" + lineNumber + ": malformed bar: " + line, e);
+                }
+            }
+        }
+        return bars;
+    }
+
+    private static int[] headerColumns(String[] header, Path file, int lineNumber) {
+        String[] names = { "date", "open", "high", "low", "close", "volume" };
+        int[] column = new int[names.length];
+        for (int n = 0; n < names.length; n++) {
+            column[n] = -1;
+            for (int i = 0; i < header.length; i++) {
+                if (header[i].trim().equalsIgnoreCase(names[n])) column[n] = i;
+            }
+            if (column[n] < 0) {
+                throw new DataProviderException(file.getFileName() + ":" + lineNumber + ": no " + names[n] + " column");
+            }
+        }
+        return column;
+    }
+
+    private static BigDecimal orClose(String value, BigDecimal close) {
+        return value.isEmpty() || value.equals("null") ? close : new BigDecimal(value);
+    }
+
+    private static int firstOnOrAfter(List<SharePrice> bars, LocalDate date) {
+        int lo = 0, hi = bars.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bars.get(mid).getDate().isBefore(date)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "0";
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.trading.api;
 
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.ShareQuery;
+
+import java.util.List;
+import java.util.Map;
+
 /**
  * Central data provider interface — extends both IAPI and IDataProvider.
  * YahooFinanceProvider implements this interface, satisfying all three contracts.
  * SharePriceService depends on this interface to retrieve prices.
  */
 public interface ShareDataProvider extends IAPI, IDataProvider {
-    // Inherits from IAPI:       getSharePrices(), isAvailable(), getProviderName()
-    // Inherits from IDataProvider: getSharePrices(), isAvailable()
+    // Inherits from IAPI:       getSharePrices(), getSharePrices(List) batch, isAvailable(), getProviderName()
+    // Inherits from IDataProvider: getSharePrices(), getSharePrices(List) batch, isAvailable()
+
+    /** Both parents default the batch call the same way; IAPI's is the one providers override. */
+    @Override
+    default Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        return IAPI.super.getSharePrices(queries);
+    }
 }
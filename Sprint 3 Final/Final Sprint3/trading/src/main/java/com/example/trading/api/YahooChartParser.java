@@ -0,0 +1,340 @@
+package com.example.trading.api;
+
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.SharePrice;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass parser for Yahoo Finance v8 chart responses.
+ *
+ * The body is read as a byte stream through a fixed buffer and tokenised in
+ * one pass; the timestamp and OHLCV arrays are parsed straight into primitive
+ * arrays without materialising the body, substrings or a string per number.
+ * Everything else in the document (meta, adjclose, ...) is skipped.
+ *
+ * Numbers with at most 15–16 significant digits are converted arithmetically;
+ * longer ones fall back to {@link Double#parseDouble} so every value is
+ * rounded exactly as before.
+ */
+public final class YahooChartParser {
+
+    private static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+    private static final int    BUFFER_SIZE = 8192;
+
+    private static final byte[] TIMESTAMP = bytes("timestamp");
+    private static final byte[] QUOTE     = bytes("quote");
+    private static final byte[] OPEN      = bytes("open");
+    private static final byte[] HIGH      = bytes("high");
+    private static final byte[] LOW       = bytes("low");
+    private static final byte[] CLOSE     = bytes("close");
+    private static final byte[] VOLUME    = bytes("volume");
+
+    /** Exactly representable powers of ten, for the arithmetic fast path */
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    /** Current object key, and scratch space for a number's text */
+    private final byte[] key    = new byte[32];
+    private int          keyLength;
+    private byte[]       number = new byte[32];
+
+    private final Column timestamps = new Column();
+    private final Column opens      = new Column();
+    private final Column highs      = new Column();
+    private final Column lows       = new Column();
+    private final Column closes     = new Column();
+    private final Column volumes    = new Column();
+    private boolean sawQuote;
+
+    private YahooChartParser(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Parse a chart response into daily prices, oldest first. Bars without a
+     * close are skipped; a missing open/high/low falls back to the close.
+     * A range with no sessions (a weekend, say) comes back from Yahoo with an
+     * empty quote block and no timestamps, and parses as no bars.
+     * The stream is read to the end of the document but not closed.
+     */
+    public static List<SharePrice> parse(InputStream in, String symbol) throws DataProviderException {
+        YahooChartParser parser = new YahooChartParser(in);
+        try {
+            parser.value(null);
+        } catch (IOException e) {
+            throw new DataProviderException("Failed to read response: " + e.getMessage(), e);
+        } catch (DataProviderException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new DataProviderException("Parse error: " + e.getMessage(), e);
+        }
+        return parser.toPrices(symbol);
+    }
+
+    private List<SharePrice> toPrices(String symbol) {
+        if (!sawQuote)            throw new DataProviderException("No quote block in response");
+        if (timestamps.size == 0 && closes.size == 0) return new ArrayList<>();
+        if (timestamps.size == 0) throw new DataProviderException("No timestamp data in response");
+
+        int count = Math.min(timestamps.size, closes.size);
+        List<SharePrice> prices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double close = closes.values[i];
+            if (close == 0.0 || Double.isNaN(close) || Double.isNaN(timestamps.values[i])) continue;
+
+            LocalDate date = Instant.ofEpochSecond((long) timestamps.values[i])
+                    .atZone(MARKET_ZONE)
+                    .toLocalDate();
+            double open  = opens.get(i, close);
+            double high  = highs.get(i, close);
+            double low   = lows.get(i, close);
+            long   vol   = (long) volumes.get(i, 0.0);
+
+            prices.add(new SharePrice(symbol, date,
+                    BigDecimal.valueOf(open),
+                    BigDecimal.valueOf(close),
+                    BigDecimal.valueOf(high),
+                    BigDecimal.valueOf(low),
+                    vol));
+        }
+        return prices;
+    }
+
+    // ── Grammar ──────────────────────────────────────────────────────────────
+
+    /** Parse any value; numbers (and nulls) inside an array go to {@code column} when it is set. */
+    private void value(Column column) throws IOException {
+        int c = nextToken();
+        switch (c) {
+            case '{': object();          break;
+            case '[': array(column);     break;
+            case '"': skipString();      break;
+            case 't': expect("rue");     break;
+            case 'f': expect("alse");    break;
+            case 'n': expect("ull");     break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) number(c);
+                else throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void object() throws IOException {
+        int c = nextToken();
+        if (c == '}') return;
+        while (true) {
+            if (c != '"') throw error("Expected a field name");
+            readKey();
+            if (nextToken() != ':') throw error("Expected ':'");
+
+            if (keyIs(QUOTE)) {
+                sawQuote = true;
+                value(null);
+            } else {
+                value(columnForKey());
+            }
+
+            c = nextToken();
+            if (c == '}') return;
+            if (c != ',') throw error("Expected ',' or '}'");
+            c = nextToken();
+        }
+    }
+
+    private void array(Column column) throws IOException {
+        int c = nextToken();
+        if (c == ']') return;
+        while (true) {
+            if (column != null && c == 'n') {
+                expect("ull");
+                column.add(Double.NaN);
+            } else if (column != null && (c == '-' || (c >= '0' && c <= '9'))) {
+                column.add(number(c));
+            } else {
+                unread();
+                value(null);
+            }
+            c = nextToken();
+            if (c == ']') return;
+            if (c != ',') throw error("Expected ',' or ']'");
+            c = nextToken();
+        }
+    }
+
+    /** Column fed by the current key; only the first array for each key is kept. */
+    private Column columnForKey() {
+        Column column = null;
+        if      (keyIs(TIMESTAMP))           column = timestamps;
+        else if (sawQuote && keyIs(OPEN))    column = opens;
+        else if (sawQuote && keyIs(HIGH))    column = highs;
+        else if (sawQuote && keyIs(LOW))     column = lows;
+        else if (sawQuote && keyIs(CLOSE))   column = closes;
+        else if (sawQuote && keyIs(VOLUME))  column = volumes;
+        return column != null && !column.filled ? column.fill() : null;
+    }
+
+    // ── Tokens ───────────────────────────────────────────────────────────────
+
+    private double number(int first) throws IOException {
+        int length = 0;
+        long mantissa = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean negative = first == '-';
+        int c = first;
+        if (negative) {
+            number = append(number, length++, c);
+            c = read();
+        }
+        boolean fraction = false;
+        while ((c >= '0' && c <= '9') || (c == '.' && !fraction)) {
+            number = append(number, length++, c);
+            if (c == '.') {
+                fraction = true;
+            } else {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (fraction) exponent--;
+                } else {
+                    exact = false;
+                }
+            }
+            c = read();
+        }
+        if (c == 'e' || c == 'E') {
+            number = append(number, length++, c);
+            c = read();
+            int sign = 1, value = 0;
+            if (c == '+' || c == '-') {
+                number = append(number, length++, c);
+                if (c == '-') sign = -1;
+                c = read();
+            }
+            while (c >= '0' && c <= '9') {
+                number = append(number, length++, c);
+                if (value < 10_000) value = value * 10 + (c - '0');
+                c = read();
+            }
+            exponent += sign * value;
+        }
+        if (c >= 0) unread();
+
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            double result = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+            return negative ? -result : result;
+        }
+        try {
+            return Double.parseDouble(new String(number, 0, length, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw error("Malformed number");
+        }
+    }
+
+    private void readKey() throws IOException {
+        keyLength = 0;
+        int c;
+        while ((c = read()) != '"') {
+            if (c < 0) throw error("Unterminated string");
+            if (c == '\\') c = read();
+            // Longer keys cannot match any field we read, so only a prefix is kept
+            if (keyLength < key.length) key[keyLength] = (byte) c;
+            keyLength++;
+        }
+    }
+
+    private boolean keyIs(byte[] name) {
+        return keyLength == name.length && Arrays.equals(key, 0, keyLength, name, 0, name.length);
+    }
+
+    private void skipString() throws IOException {
+        int c;
+        while ((c = read()) != '"') {
+            if (c < 0) throw error("Unterminated string");
+            if (c == '\\') read();
+        }
+    }
+
+    private void expect(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) throw error("Malformed literal");
+        }
+    }
+
+    private int nextToken() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        if (c < 0) throw error("Unexpected end of response");
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /** Step back one byte; only valid directly after a successful read. */
+    private void unread() {
+        position--;
+    }
+
+    private DataProviderException error(String message) {
+        return new DataProviderException("Parse error: " + message);
+    }
+
+    private static byte[] append(byte[] target, int index, int c) {
+        if (index == target.length) target = Arrays.copyOf(target, target.length * 2);
+        target[index] = (byte) c;
+        return target;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Growable double array; NaN marks a null entry. */
+    private static final class Column {
+        double[] values = new double[256];
+        int      size;
+        boolean  filled;
+
+        Column fill() {
+            filled = true;
+            return this;
+        }
+
+        void add(double value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        double get(int index, double fallback) {
+            return index < size && !Double.isNaN(values[index]) ? values[index] : fallback;
+        }
+    }
+}
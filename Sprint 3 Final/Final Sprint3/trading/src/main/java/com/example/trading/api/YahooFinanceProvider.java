@@ -1,28 +1,82 @@
 package com.example.trading.api;
 
 import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
 
 public class YahooFinanceProvider implements ShareDataProvider {
 
     private static final String BASE_URL = "https://query1.finance.yahoo.com/v8/finance/chart/";
+
+    /** Requests in flight at once during a multi-symbol fetch */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /** Responses kept for revalidation (ETag / Last-Modified), least recently used evicted first */
+    private static final int MAX_CACHED_RESPONSES = 256;
+
     private final HttpClient httpClient;
+    private final String baseUrl;
+    private final int maxConcurrentRequests;
+
+    private final Map<String, CachedResponse> responseCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_CACHED_RESPONSES;
+                }
+            });
+    private final LongAdder notModifiedCount = new LongAdder();
 
     public YahooFinanceProvider() {
+        this(DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * @param maxConcurrentRequests upper bound on simultaneous requests issued
+     *                              by {@link #getSharePrices(List)}
+     */
+    public YahooFinanceProvider(int maxConcurrentRequests) {
+        this(BASE_URL, maxConcurrentRequests);
+    }
+
+    /**
+     * Provider talking to a Yahoo-compatible chart endpoint at {@code baseUrl}
+     * (a mirror, proxy or local stub); the symbol is appended to it.
+     */
+    public YahooFinanceProvider(String baseUrl, int maxConcurrentRequests) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            throw new IllegalArgumentException("Base URL cannot be null or empty");
+        }
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        // HTTP/2 is negotiated where the server supports it (falling back to
+        // HTTP/1.1), so concurrent requests share one multiplexed connection
         this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
     }
@@ -30,127 +84,146 @@ public class YahooFinanceProvider implements ShareDataProvider {
     @Override
     public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
         try {
-            long period1 = query.getStartDate().atStartOfDay(ZoneId.of("UTC")).toEpochSecond();
-            long period2 = query.getEndDate().plusDays(1).atStartOfDay(ZoneId.of("UTC")).toEpochSecond();
+            HttpResponse<InputStream> response = httpClient.send(buildRequest(query), HttpResponse.BodyHandlers.ofInputStream());
+            return readPrices(response, query);
+        } catch (DataProviderException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataProviderException("Failed to fetch data for " + query.getSymbol() + ": " + e.getMessage(), e);
+        }
+    }
 
-            String url = BASE_URL + query.getSymbol().toUpperCase()
-                    + "?period1=" + period1
-                    + "&period2=" + period2
-                    + "&interval=1d";
+    /**
+     * Fetch every query concurrently with {@link HttpClient#sendAsync}, at most
+     * {@code maxConcurrentRequests} at a time, so a whole watchlist costs
+     * roughly one round trip per {@code maxConcurrentRequests} symbols
+     * instead of one per symbol.
+     */
+    @Override
+    public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        BatchQueries.validate(queries);
+        Semaphore permits = new Semaphore(maxConcurrentRequests);
+        Map<String, CompletableFuture<PriceFetchResult>> pending = new LinkedHashMap<>();
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
-                    .header("Accept", "application/json")
-                    .timeout(Duration.ofSeconds(15))
-                    .GET()
-                    .build();
+        for (ShareQuery query : queries) {
+            pending.put(BatchQueries.key(query), fetchAsync(query, permits));
+        }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        pending.forEach((symbol, future) -> results.put(symbol, future.join()));
+        return results;
+    }
+
+    /** Start one fetch once a permit is free; the permit is returned when it completes. */
+    private CompletableFuture<PriceFetchResult> fetchAsync(ShareQuery query, Semaphore permits) {
+        long started = System.nanoTime();
+        HttpRequest request;
+        try {
+            request = buildRequest(query);
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(PriceFetchResult.failure(query,
+                    new DataProviderException("Interrupted before fetching " + query.getSymbol(), e), 0));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(PriceFetchResult.failure(query,
+                    asProviderException(query, e), BatchQueries.elapsedMillis(started)));
+        }
+        try {
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApply(response -> PriceFetchResult.success(query, readPrices(response, query),
+                            BatchQueries.elapsedMillis(started)))
+                    .exceptionally(e -> PriceFetchResult.failure(query, asProviderException(query, e),
+                            BatchQueries.elapsedMillis(started)))
+                    .whenComplete((r, e) -> permits.release());
+        } catch (Exception e) {
+            permits.release();
+            return CompletableFuture.completedFuture(PriceFetchResult.failure(query,
+                    asProviderException(query, e), BatchQueries.elapsedMillis(started)));
+        }
+    }
 
+    private HttpRequest buildRequest(ShareQuery query) {
+        long period1 = query.getStartDate().atStartOfDay(ZoneId.of("UTC")).toEpochSecond();
+        long period2 = query.getEndDate().plusDays(1).atStartOfDay(ZoneId.of("UTC")).toEpochSecond();
+
+        String url = baseUrl + query.getSymbol().toUpperCase()
+                + "?period1=" + period1
+                + "&period2=" + period2
+                + "&interval=1d";
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .timeout(Duration.ofSeconds(15))
+                .GET();
+
+        // Revalidate a response we already hold instead of downloading it again
+        CachedResponse cached = responseCache.get(url);
+        if (cached != null) {
+            if (cached.etag != null)         request.header("If-None-Match", cached.etag);
+            if (cached.lastModified != null) request.header("If-Modified-Since", cached.lastModified);
+        }
+        return request.build();
+    }
+
+    /**
+     * Check the status and parse the body; the body is streamed (and
+     * decompressed on the fly), never held as a String. A 304 answers from
+     * the revalidated cache entry.
+     */
+    private List<SharePrice> readPrices(HttpResponse<InputStream> response, ShareQuery query) {
+        String url = response.request().uri().toString();
+        List<SharePrice> prices;
+        try (InputStream raw = response.body()) {
+            if (response.statusCode() == 304) {
+                CachedResponse cached = responseCache.get(url);
+                if (cached == null) {
+                    throw new DataProviderException("Not Modified without a cached response for " + query.getSymbol());
+                }
+                notModifiedCount.increment();
+                return new ArrayList<>(cached.prices);
+            }
             if (response.statusCode() == 404) {
-                throw new DataProviderException("Symbol not found: " + query.getSymbol());
+                throw new SymbolNotFoundException(query.getSymbol());
             }
             if (response.statusCode() != 200) {
                 throw new DataProviderException("HTTP " + response.statusCode() + " from Yahoo Finance");
             }
-
-            List<SharePrice> prices = parseResponse(response.body(), query.getSymbol());
-            if (prices.isEmpty()) {
-                throw new DataProviderException("No data returned for " + query.getSymbol());
+            try (InputStream body = decoded(response, raw)) {
+                prices = YahooChartParser.parse(body, query.getSymbol());
             }
-            return prices;
-
-        } catch (DataProviderException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new DataProviderException("Failed to fetch data for " + query.getSymbol() + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DataProviderException("Failed to read data for " + query.getSymbol() + ": " + e.getMessage(), e);
         }
-    }
-
-    private List<SharePrice> parseResponse(String json, String symbol) throws DataProviderException {
-        List<SharePrice> prices = new ArrayList<>();
-        try {
-            String tsKey = "\"timestamp\":[";
-            int tsStart = json.indexOf(tsKey);
-            if (tsStart < 0) throw new DataProviderException("No timestamp data in response");
-            tsStart += tsKey.length();
-            int tsEnd = json.indexOf("]", tsStart);
-            String[] tsTokens = json.substring(tsStart, tsEnd).split(",");
-
-            String quoteKey = "\"quote\":[{";
-            int quoteIdx = json.indexOf(quoteKey);
-            if (quoteIdx < 0) throw new DataProviderException("No quote block in response");
-            String quoteSection = json.substring(quoteIdx);
-
-            double[] opens   = extractDoubles(quoteSection, "\"open\":[");
-            double[] highs   = extractDoubles(quoteSection, "\"high\":[");
-            double[] lows    = extractDoubles(quoteSection, "\"low\":[");
-            double[] closes  = extractDoubles(quoteSection, "\"close\":[");
-            long[]   volumes = extractLongs(quoteSection,   "\"volume\":[");
-
-            int count = Math.min(tsTokens.length, closes.length);
-            for (int i = 0; i < count; i++) {
-                try {
-                    double close = closes[i];
-                    if (close == 0.0 || Double.isNaN(close)) continue;
-
-                    long epochSec = Long.parseLong(tsTokens[i].trim());
-                    LocalDate date = Instant.ofEpochSecond(epochSec)
-                            .atZone(ZoneId.of("America/New_York"))
-                            .toLocalDate();
-
-                    double open  = i < opens.length  ? opens[i]  : close;
-                    double high  = i < highs.length  ? highs[i]  : close;
-                    double low   = i < lows.length   ? lows[i]   : close;
-                    long   vol   = i < volumes.length ? volumes[i] : 0L;
-
-                    prices.add(new SharePrice(symbol, date,
-                            BigDecimal.valueOf(open),
-                            BigDecimal.valueOf(close),
-                            BigDecimal.valueOf(high),
-                            BigDecimal.valueOf(low),
-                            vol));
-                } catch (Exception ignored) {}
-            }
-        } catch (DataProviderException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new DataProviderException("Parse error: " + e.getMessage(), e);
+        String etag         = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (etag != null || lastModified != null) {
+            responseCache.put(url, new CachedResponse(etag, lastModified, List.copyOf(prices)));
+        } else {
+            responseCache.remove(url);
         }
         return prices;
     }
 
-    private double[] extractDoubles(String json, String key) {
-        int start = json.indexOf(key);
-        if (start < 0) return new double[0];
-        start += key.length();
-        int end = json.indexOf("]", start);
-        if (end < 0) return new double[0];
-        String[] parts = json.substring(start, end).split(",");
-        double[] vals = new double[parts.length];
-        for (int i = 0; i < parts.length; i++) {
-            String v = parts[i].trim();
-            try { vals[i] = (v.equals("null") || v.isEmpty()) ? 0.0 : Double.parseDouble(v); }
-            catch (NumberFormatException e) { vals[i] = 0.0; }
-        }
-        return vals;
+    private static InputStream decoded(HttpResponse<?> response, InputStream raw) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(raw, 8192) : raw;
     }
 
-    private long[] extractLongs(String json, String key) {
-        int start = json.indexOf(key);
-        if (start < 0) return new long[0];
-        start += key.length();
-        int end = json.indexOf("]", start);
-        if (end < 0) return new long[0];
-        String[] parts = json.substring(start, end).split(",");
-        long[] vals = new long[parts.length];
-        for (int i = 0; i < parts.length; i++) {
-            String v = parts[i].trim();
-            try { vals[i] = (v.equals("null") || v.isEmpty()) ? 0L : Long.parseLong(v); }
-            catch (NumberFormatException e) { vals[i] = 0L; }
-        }
-        return vals;
+    /** Responses answered with 304 Not Modified since the provider was created. */
+    public long getNotModifiedCount() {
+        return notModifiedCount.sum();
+    }
+
+    private static DataProviderException asProviderException(ShareQuery query, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof DataProviderException dpe) return dpe;
+        return new DataProviderException("Failed to fetch data for " + query.getSymbol() + ": " + cause.getMessage(), cause);
     }
 
     @Override
@@ -158,4 +231,17 @@ public class YahooFinanceProvider implements ShareDataProvider {
 
     @Override
     public String getProviderName() { return "Yahoo Finance"; }
+
+    /** Validators and parsed prices of a response that can be revalidated. */
+    private static final class CachedResponse {
+        final String           etag;
+        final String           lastModified;
+        final List<SharePrice> prices;
+
+        CachedResponse(String etag, String lastModified, List<SharePrice> prices) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.prices = prices;
+        }
+    }
 }
@@ -0,0 +1,242 @@
+package com.example.trading.blackboard;
+
+import com.example.trading.model.SharePrice;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decouples one observer from the posting thread.
+ *
+ * Posted updates go into a bounded queue governed by a
+ * {@link MarketDataBlackboard.BackpressurePolicy}; a drain task on the
+ * observer's executor delivers them in order. At most one drain task is
+ * scheduled at a time, so the observer never runs concurrently with itself,
+ * even on a multi-threaded executor.
+ *
+ * A posted batch is queued as a single update and delivered through
+ * {@code onBatchPosted}; under COALESCE_LATEST a newer post for the same
+ * symbol, batch or not, replaces whatever is pending.
+ */
+final class AsyncObserver implements MarketDataBlackboard.BlackboardObserver {
+
+    private final MarketDataBlackboard.BlackboardObserver delegate;
+    private final MarketDataBlackboard.BackpressurePolicy policy;
+    private final int      capacity;
+    private final Executor executor;
+
+    private final ReentrantLock lock    = new ReentrantLock();
+    private final Condition     notFull = lock.newCondition();
+
+    // Guarded by lock — FIFO for DROP_OLDEST / BLOCK, symbol-keyed for COALESCE_LATEST
+    private final ArrayDeque<Update>          queue     = new ArrayDeque<>();
+    private final LinkedHashMap<String, Update> bySymbol = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    // Metrics, guarded by lock
+    private long delivered, dropped, coalesced, failed;
+    private long lastLagNanos, maxLagNanos;
+
+    AsyncObserver(MarketDataBlackboard.BlackboardObserver delegate,
+                  MarketDataBlackboard.BackpressurePolicy policy, int capacity, Executor executor) {
+        this.delegate = delegate;
+        this.policy   = policy;
+        this.capacity = capacity;
+        this.executor = executor;
+    }
+
+    MarketDataBlackboard.BlackboardObserver delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onPriceUpdated(String symbol, SharePrice latestPrice) {
+        submit(new Update(symbol, latestPrice, null, System.nanoTime()));
+    }
+
+    @Override
+    public void onBatchPosted(String symbol, List<SharePrice> prices) {
+        submit(new Update(symbol, null, prices, System.nanoTime()));
+    }
+
+    private void submit(Update update) {
+        boolean schedule;
+        lock.lock();
+        try {
+            if (closed) return;
+            enqueue(update);
+            schedule = !scheduled;
+            scheduled = true;
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            scheduleDrain();
+        }
+    }
+
+    /** Hand a drain task to the executor; the caller has already set {@code scheduled}. */
+    private void scheduleDrain() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            lock.lock();
+            try {
+                scheduled = false;
+            } finally {
+                lock.unlock();
+            }
+            System.err.println("Blackboard observer executor rejected dispatch: " + e.getMessage());
+        }
+    }
+
+    private void enqueue(Update update) {
+        switch (policy) {
+            case COALESCE_LATEST:
+                if (bySymbol.containsKey(update.symbol)) {
+                    // Keeps the symbol's place in line; only the price is refreshed
+                    bySymbol.put(update.symbol, update.withQueuedAt(bySymbol.get(update.symbol).queuedAt));
+                    coalesced++;
+                    return;
+                }
+                if (bySymbol.size() >= capacity) {
+                    Iterator<Map.Entry<String, Update>> oldest = bySymbol.entrySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    dropped++;
+                }
+                bySymbol.put(update.symbol, update);
+                return;
+            case BLOCK:
+                while (queue.size() >= capacity && !closed) {
+                    notFull.awaitUninterruptibly();
+                }
+                if (!closed) queue.addLast(update);
+                return;
+            case DROP_OLDEST:
+            default:
+                if (queue.size() >= capacity) {
+                    queue.pollFirst();
+                    dropped++;
+                }
+                queue.addLast(update);
+        }
+    }
+
+    private void drain() {
+        boolean idle = false;
+        try {
+            while (true) {
+                Update update;
+                lock.lock();
+                try {
+                    update = poll();
+                    if (update == null) {
+                        scheduled = false;
+                        idle = true;
+                        return;
+                    }
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                boolean ok = true;
+                try {
+                    if (update.batch != null) delegate.onBatchPosted(update.symbol, update.batch);
+                    else delegate.onPriceUpdated(update.symbol, update.price);
+                } catch (Exception e) {
+                    ok = false;
+                }
+
+                long lag = System.nanoTime() - update.queuedAt;
+                lock.lock();
+                try {
+                    if (ok) delivered++; else failed++;
+                    lastLagNanos = lag;
+                    maxLagNanos  = Math.max(maxLagNanos, lag);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            if (!idle) {
+                // An Error escaped the observer and goes on to the executor; a fresh
+                // drain takes over whatever is still queued so the observer is not stuck
+                boolean pending;
+                lock.lock();
+                try {
+                    failed++;
+                    pending = !closed && (!queue.isEmpty() || !bySymbol.isEmpty());
+                    scheduled = pending;
+                } finally {
+                    lock.unlock();
+                }
+                if (pending) scheduleDrain();
+            }
+        }
+    }
+
+    private Update poll() {
+        if (policy == MarketDataBlackboard.BackpressurePolicy.COALESCE_LATEST) {
+            if (bySymbol.isEmpty()) return null;
+            Iterator<Update> first = bySymbol.values().iterator();
+            Update update = first.next();
+            first.remove();
+            return update;
+        }
+        return queue.pollFirst();
+    }
+
+    /** Stop accepting updates and release any blocked producers; queued updates are discarded. */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            bySymbol.clear();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ObserverMetrics metrics() {
+        lock.lock();
+        try {
+            int depth = policy == MarketDataBlackboard.BackpressurePolicy.COALESCE_LATEST ? bySymbol.size() : queue.size();
+            return new ObserverMetrics(policy, capacity, depth, delivered, dropped, coalesced, failed,
+                    lastLagNanos / 1_000_000, maxLagNanos / 1_000_000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** One queued post: a single price, or a whole batch when {@code batch} is set. */
+    private static final class Update {
+        final String           symbol;
+        final SharePrice       price;
+        final List<SharePrice> batch;
+        final long             queuedAt;
+
+        Update(String symbol, SharePrice price, List<SharePrice> batch, long queuedAt) {
+            this.symbol   = symbol;
+            this.price    = price;
+            this.batch    = batch;
+            this.queuedAt = queuedAt;
+        }
+
+        /** Lag for a coalesced update is measured from the oldest price it replaced. */
+        Update withQueuedAt(long earlier) {
+            return new Update(symbol, price, batch, earlier);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.trading.blackboard;
+
+import com.example.trading.model.SharePrice;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pull-based, conflated view of blackboard updates for consumers that
+ * render or evaluate at their own pace (for example once per UI frame).
+ *
+ * Posting only overwrites the symbol's entry in a latest-value map and marks
+ * the symbol dirty; nothing is queued per tick. {@link #drain()} returns the
+ * newest price of every symbol changed since the previous drain, so its cost
+ * is O(changed symbols) however many ticks arrived in between.
+ *
+ * An optional wake-up callback runs when the first symbol becomes dirty
+ * after a drain — typically {@code () -> Platform.runLater(this::refresh)} —
+ * so a burst of ticks schedules a single drain.
+ *
+ * Obtained from {@link MarketDataBlackboard#subscribeConflated}; call
+ * {@link #close()} to unsubscribe.
+ */
+public final class ConflatingSubscription implements MarketDataBlackboard.BlackboardObserver, AutoCloseable {
+
+    private final MarketDataBlackboard blackboard;
+    private final Runnable             onPending;
+
+    private final Map<String, SharePrice> latest = new ConcurrentHashMap<>();
+    private final Set<String>             dirty  = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean           wakeupPending = new AtomicBoolean();
+
+    private final LongAdder received  = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+
+    ConflatingSubscription(MarketDataBlackboard blackboard, Runnable onPending) {
+        this.blackboard = blackboard;
+        this.onPending  = onPending;
+    }
+
+    @Override
+    public void onPriceUpdated(String symbol, SharePrice latestPrice) {
+        offer(symbol, latestPrice);
+    }
+
+    /** Only the batch's last bar is kept. */
+    @Override
+    public void onBatchPosted(String symbol, List<SharePrice> prices) {
+        if (!prices.isEmpty()) offer(symbol, prices.get(prices.size() - 1));
+    }
+
+    private void offer(String symbol, SharePrice price) {
+        received.increment();
+        // Value first, then the flag: a drain that sees the flag sees this price or a newer one
+        latest.put(symbol, price);
+        if (!dirty.add(symbol)) {
+            conflated.increment();
+            return;
+        }
+        if (onPending != null && wakeupPending.compareAndSet(false, true)) {
+            try { onPending.run(); }
+            catch (Exception e) {
+                System.err.println("Conflated subscription wake-up failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Newest price per symbol changed since the last drain, and reset.
+     * @return symbol → latest price; empty if nothing changed
+     */
+    public Map<String, SharePrice> drain() {
+        wakeupPending.set(false);
+        if (dirty.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, SharePrice> changed = new LinkedHashMap<>();
+        for (String symbol : dirty) {
+            // Clearing the flag before reading means a racing post is either
+            // included here or marks the symbol dirty again for the next drain
+            dirty.remove(symbol);
+            SharePrice price = latest.get(symbol);
+            if (price != null) changed.put(symbol, price);
+        }
+        return changed;
+    }
+
+    /** Symbols changed since the last drain. */
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    /** Latest price seen for a symbol, whether or not it has been drained. */
+    public SharePrice peek(String symbol) {
+        return symbol != null ? latest.get(symbol.toUpperCase()) : null;
+    }
+
+    /** Updates received since subscribing. */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /** Updates overwritten before a drain picked them up. */
+    public long getConflated() {
+        return conflated.sum();
+    }
+
+    /** Stop receiving updates; pending changes can still be drained. */
+    @Override
+    public void close() {
+        blackboard.removeObserver(this);
+    }
+}
@@ -5,6 +5,9 @@ import com.example.trading.model.SharePrice;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * BLACKBOARD PATTERN
@@ -22,6 +25,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * through the shared blackboard, not through direct method calls.
  *
  * Architecture role: Domain-Independent shared state store.
+ *
+ * Concurrency: there is no blackboard-wide lock. Each symbol has its own
+ * state whose monitor serialises writers for that symbol only, so ingest
+ * threads for different symbols never contend. History lives in a
+ * fixed-capacity buffer per symbol and reads are lock-free snapshots.
+ *
+ * Observers run inline on the posting thread by default. Slow observers
+ * (chart redraws, persistence) can instead be registered for asynchronous
+ * dispatch with their own bounded queue, executor and
+ * {@link BackpressurePolicy}, so they cannot stall ingestion. Consumers
+ * that only need the current price per symbol (dashboards) can pull from a
+ * {@link ConflatingSubscription} instead of handling every tick.
  */
 public class MarketDataBlackboard {
 
@@ -34,17 +49,11 @@ public class MarketDataBlackboard {
     }
 
     // ── State ────────────────────────────────────────────────────────────────
-    /** Latest known price per symbol */
-    private final Map<String, SharePrice>        latestPrices = new ConcurrentHashMap<>();
-
-    /** Price history per symbol (capped to avoid unbounded growth) */
-    private final Map<String, List<SharePrice>>  priceHistory = new ConcurrentHashMap<>();
-
-    /** Timestamp of last update per symbol */
-    private final Map<String, LocalDateTime>     lastUpdated  = new ConcurrentHashMap<>();
+    /** Per-symbol history (capped to avoid unbounded growth) and update time */
+    private final Map<String, SymbolState>       symbols   = new ConcurrentHashMap<>();
 
-    /** Observers notified when new data arrives */
-    private final List<BlackboardObserver>       observers    = new ArrayList<>();
+    /** Observers notified when new data arrives; safe to change during a dispatch */
+    private final List<BlackboardObserver>       observers = new CopyOnWriteArrayList<>();
 
     private static final int MAX_HISTORY = 500;
 
@@ -54,59 +63,167 @@ public class MarketDataBlackboard {
 
     /**
      * Post new price data to the blackboard.
-     * All registered observers are notified.
+     * All registered observers are notified, in posting order per symbol.
      */
-    public synchronized void post(String symbol, SharePrice price) {
+    public void post(String symbol, SharePrice price) {
         if (symbol == null || price == null) return;
         symbol = symbol.toUpperCase();
-        latestPrices.put(symbol, price);
-        lastUpdated.put(symbol, LocalDateTime.now());
-        priceHistory.computeIfAbsent(symbol, k -> new ArrayList<>()).add(price);
-        // Cap history size
-        List<SharePrice> history = priceHistory.get(symbol);
-        if (history.size() > MAX_HISTORY)
-            history.remove(0);
-        notifyObservers(symbol, price);
+        SymbolState state = symbols.computeIfAbsent(symbol, k -> new SymbolState());
+        synchronized (state) {
+            state.history.append(price);
+            state.lastUpdated = LocalDateTime.now();
+            notifyObservers(symbol, price);
+        }
     }
 
     /**
-     * Post a batch of prices — more efficient than posting one at a time.
+     * Post a batch of prices (oldest first) as one update.
+     *
+     * The whole batch is appended to the history and becomes the latest
+     * price atomically — readers never see part of it — and observers get a
+     * single {@link BlackboardObserver#onBatchPosted} call instead of one
+     * notification per bar. Null entries are skipped.
      */
-    public synchronized void postBatch(String symbol, List<SharePrice> prices) {
-        if (prices == null || prices.isEmpty()) return;
-        prices.forEach(p -> post(symbol, p));
+    public void postBatch(String symbol, List<SharePrice> prices) {
+        if (symbol == null || prices == null || prices.isEmpty()) return;
+        List<SharePrice> batch = new ArrayList<>(prices.size());
+        for (SharePrice price : prices) {
+            if (price != null) batch.add(price);
+        }
+        if (batch.isEmpty()) return;
+        batch = Collections.unmodifiableList(batch);
+
+        symbol = symbol.toUpperCase();
+        SymbolState state = symbols.computeIfAbsent(symbol, k -> new SymbolState());
+        synchronized (state) {
+            state.history.appendAll(batch);
+            state.lastUpdated = LocalDateTime.now();
+            notifyObservers(symbol, batch);
+        }
     }
 
     // ── Read ─────────────────────────────────────────────────────────────────
 
     public Optional<SharePrice> getLatest(String symbol) {
-        return Optional.ofNullable(latestPrices.get(symbol.toUpperCase()));
+        SymbolState state = symbols.get(symbol.toUpperCase());
+        return Optional.ofNullable(state != null ? state.history.latest() : null);
     }
 
+    /**
+     * Up to the last {@value #MAX_HISTORY} prices, oldest first.
+     * The list is an immutable snapshot shared with the blackboard, not a copy;
+     * later posts do not change it.
+     */
     public List<SharePrice> getHistory(String symbol) {
-        return new ArrayList<>(priceHistory.getOrDefault(symbol.toUpperCase(), Collections.emptyList()));
+        SymbolState state = symbols.get(symbol.toUpperCase());
+        return state != null ? state.history.snapshot() : Collections.emptyList();
     }
 
     public Set<String> getTrackedSymbols() {
-        return Collections.unmodifiableSet(latestPrices.keySet());
+        return Collections.unmodifiableSet(symbols.keySet());
     }
 
     public Optional<LocalDateTime> getLastUpdated(String symbol) {
-        return Optional.ofNullable(lastUpdated.get(symbol.toUpperCase()));
+        SymbolState state = symbols.get(symbol.toUpperCase());
+        return Optional.ofNullable(state != null ? state.lastUpdated : null);
     }
 
     public boolean hasData(String symbol) {
-        return latestPrices.containsKey(symbol.toUpperCase());
+        SymbolState state = symbols.get(symbol.toUpperCase());
+        return state != null && state.history.size() > 0;
     }
 
     // ── Observer support ─────────────────────────────────────────────────────
 
+    /** Register an observer that runs inline on the posting thread. */
     public void addObserver(BlackboardObserver observer) {
-        if (!observers.contains(observer)) observers.add(observer);
+        if (observer == null) return;
+        synchronized (observers) {
+            if (!isRegistered(observer)) observers.add(observer);
+        }
+    }
+
+    /**
+     * Register an observer that is called asynchronously on its own virtual
+     * thread, through a bounded queue of {@code capacity} updates.
+     */
+    public void addObserver(BlackboardObserver observer, BackpressurePolicy policy, int capacity) {
+        addObserver(observer, policy, capacity,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blackboard-observer-", 0).factory()));
+    }
+
+    /**
+     * Register an observer that is called asynchronously on {@code executor}
+     * (for example {@code Platform::runLater} for JavaFX views). Updates are
+     * delivered one at a time and in order; when more than {@code capacity}
+     * are waiting, {@code policy} decides what happens.
+     */
+    public void addObserver(BlackboardObserver observer, BackpressurePolicy policy, int capacity, Executor executor) {
+        if (observer == null) return;
+        if (policy == null) {
+            throw new IllegalArgumentException("Backpressure policy cannot be null");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        synchronized (observers) {
+            if (!isRegistered(observer)) observers.add(new AsyncObserver(observer, policy, capacity, executor));
+        }
+    }
+
+    /**
+     * Subscribe in conflating mode: instead of every tick, the consumer
+     * drains the newest price per changed symbol whenever it is ready.
+     */
+    public ConflatingSubscription subscribeConflated() {
+        return subscribeConflated(null);
+    }
+
+    /**
+     * Conflating subscription whose {@code onPending} callback runs on the
+     * posting thread when updates become available after a drain, e.g. to
+     * schedule a drain on the UI thread. May be null.
+     */
+    public ConflatingSubscription subscribeConflated(Runnable onPending) {
+        ConflatingSubscription subscription = new ConflatingSubscription(this, onPending);
+        addObserver(subscription);
+        return subscription;
     }
 
     public void removeObserver(BlackboardObserver observer) {
-        observers.remove(observer);
+        synchronized (observers) {
+            for (BlackboardObserver registered : observers) {
+                if (registered == observer
+                        || (registered instanceof AsyncObserver async && async.delegate() == observer)) {
+                    observers.remove(registered);
+                    if (registered instanceof AsyncObserver async) async.close();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Dispatch statistics for an observer registered with a backpressure policy. */
+    public Optional<ObserverMetrics> getObserverMetrics(BlackboardObserver observer) {
+        for (BlackboardObserver registered : observers) {
+            if (registered instanceof AsyncObserver async && async.delegate() == observer) {
+                return Optional.of(async.metrics());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isRegistered(BlackboardObserver observer) {
+        for (BlackboardObserver registered : observers) {
+            if (registered == observer
+                    || (registered instanceof AsyncObserver async && async.delegate() == observer)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void notifyObservers(String symbol, SharePrice price) {
@@ -116,15 +233,36 @@ public class MarketDataBlackboard {
         }
     }
 
+    private void notifyObservers(String symbol, List<SharePrice> batch) {
+        for (BlackboardObserver o : observers) {
+            try { o.onBatchPosted(symbol, batch); }
+            catch (Exception ignored) {}
+        }
+    }
+
     /** Clear all data (useful for testing) */
-    public synchronized void clear() {
-        latestPrices.clear();
-        priceHistory.clear();
-        lastUpdated.clear();
+    public void clear() {
+        symbols.clear();
+    }
+
+    /** Mutable per-symbol state; its monitor serialises writers for the symbol */
+    private static final class SymbolState {
+        final PriceHistory       history = new PriceHistory(MAX_HISTORY);
+        volatile LocalDateTime   lastUpdated;
     }
 
     // ── Observer interface ────────────────────────────────────────────────────
 
+    /** What an asynchronous observer's queue does when it is full. */
+    public enum BackpressurePolicy {
+        /** Discard the oldest queued update to make room */
+        DROP_OLDEST,
+        /** Keep only the newest update per symbol; a full queue drops its oldest symbol */
+        COALESCE_LATEST,
+        /** Make the posting thread wait for room */
+        BLOCK
+    }
+
     /**
      * Knowledge sources implement this to be notified when the blackboard
      * receives new price data.
@@ -132,5 +270,15 @@ public class MarketDataBlackboard {
     @FunctionalInterface
     public interface BlackboardObserver {
         void onPriceUpdated(String symbol, SharePrice latestPrice);
+
+        /**
+         * Called once for a {@link #postBatch} with every bar of the batch,
+         * oldest first; the last bar is the new latest price. The default
+         * replays the bars through {@link #onPriceUpdated}, so observers that
+         * can consume a batch in one pass should override it.
+         */
+        default void onBatchPosted(String symbol, List<SharePrice> prices) {
+            for (SharePrice price : prices) onPriceUpdated(symbol, price);
+        }
     }
 }
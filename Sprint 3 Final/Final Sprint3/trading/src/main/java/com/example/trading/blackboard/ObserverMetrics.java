@@ -0,0 +1,53 @@
+package com.example.trading.blackboard;
+
+/**
+ * Point-in-time dispatch statistics for one asynchronous blackboard observer.
+ *
+ * Lag is the time between a price being posted and the observer receiving
+ * it; queue depth is how many updates are waiting right now.
+ */
+public final class ObserverMetrics {
+    private final MarketDataBlackboard.BackpressurePolicy policy;
+    private final int  capacity;
+    private final int  queueDepth;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long failed;
+    private final long lastLagMillis;
+    private final long maxLagMillis;
+
+    ObserverMetrics(MarketDataBlackboard.BackpressurePolicy policy, int capacity, int queueDepth,
+                    long delivered, long dropped, long coalesced, long failed,
+                    long lastLagMillis, long maxLagMillis) {
+        this.policy        = policy;
+        this.capacity      = capacity;
+        this.queueDepth    = queueDepth;
+        this.delivered     = delivered;
+        this.dropped       = dropped;
+        this.coalesced     = coalesced;
+        this.failed        = failed;
+        this.lastLagMillis = lastLagMillis;
+        this.maxLagMillis  = maxLagMillis;
+    }
+
+    public MarketDataBlackboard.BackpressurePolicy getPolicy() { return policy; }
+    public int  getCapacity()      { return capacity; }
+    /** Updates waiting to be delivered */
+    public int  getQueueDepth()    { return queueDepth; }
+    public long getDelivered()     { return delivered; }
+    /** Updates discarded because the queue was full (DROP_OLDEST) */
+    public long getDropped()       { return dropped; }
+    /** Updates replaced by a newer price for the same symbol (COALESCE_LATEST) */
+    public long getCoalesced()     { return coalesced; }
+    /** Deliveries where the observer threw */
+    public long getFailed()        { return failed; }
+    public long getLastLagMillis() { return lastLagMillis; }
+    public long getMaxLagMillis()  { return maxLagMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("ObserverMetrics{policy=%s, depth=%d/%d, delivered=%d, dropped=%d, coalesced=%d, failed=%d, lag=%dms, maxLag=%dms}",
+                policy, queueDepth, capacity, delivered, dropped, coalesced, failed, lastLagMillis, maxLagMillis);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.trading.blackboard;
+
+import com.example.trading.model.SharePrice;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-capacity price history for one symbol.
+ *
+ * Bars are appended into a buffer of twice the capacity; when it fills up,
+ * the newest {@code capacity - 1} bars are moved into a fresh buffer, so an
+ * append is O(1) amortised and a bar is never overwritten in a buffer that a
+ * reader may still hold. The visible range is published as an immutable
+ * {@link Window}, which lets readers take a consistent snapshot with one
+ * volatile read and no locking or copying.
+ *
+ * Writers must be serialised by the caller (the blackboard locks per symbol).
+ */
+final class PriceHistory {
+
+    private final int capacity;
+
+    private SharePrice[]    buffer;
+    private volatile Window window;
+
+    PriceHistory(int capacity) {
+        this.capacity = capacity;
+        this.buffer = new SharePrice[capacity * 2];
+        this.window = new Window(buffer, 0, 0);
+    }
+
+    void append(SharePrice price) {
+        Window current = window;
+        int end = current.to;
+        if (end == buffer.length) {
+            SharePrice[] fresh = new SharePrice[capacity * 2];
+            int keep = capacity - 1;
+            System.arraycopy(buffer, end - keep, fresh, 0, keep);
+            buffer = fresh;
+            end = keep;
+        }
+        buffer[end] = price;
+        window = new Window(buffer, Math.max(0, end + 1 - capacity), end + 1);
+    }
+
+    /**
+     * Append {@code prices} in order and publish them together: readers see
+     * either none or all of the batch. Only the newest {@code capacity} bars
+     * of a larger batch are kept.
+     */
+    void appendAll(List<SharePrice> prices) {
+        int count = prices.size();
+        if (count == 0) return;
+        Window current = window;
+        int end = current.to;
+        int skip = Math.max(0, count - capacity);
+        if (end + count - skip > buffer.length) {
+            SharePrice[] fresh = new SharePrice[capacity * 2];
+            int keep = Math.min(current.to - current.from, capacity - (count - skip));
+            System.arraycopy(buffer, end - keep, fresh, 0, keep);
+            buffer = fresh;
+            end = keep;
+        }
+        for (int i = skip; i < count; i++) {
+            buffer[end++] = prices.get(i);
+        }
+        window = new Window(buffer, Math.max(0, end - capacity), end);
+    }
+
+    /** Immutable view of the history at the time of the call, oldest first. */
+    List<SharePrice> snapshot() {
+        return window;
+    }
+
+    SharePrice latest() {
+        Window current = window;
+        return current.to > current.from ? current.buffer[current.to - 1] : null;
+    }
+
+    int size() {
+        Window current = window;
+        return current.to - current.from;
+    }
+
+    /** Read-only view of buffer[from, to); those slots are never written again. */
+    private static final class Window extends AbstractList<SharePrice> implements RandomAccess {
+        final SharePrice[] buffer;
+        final int from;
+        final int to;
+
+        Window(SharePrice[] buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public SharePrice get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return buffer[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
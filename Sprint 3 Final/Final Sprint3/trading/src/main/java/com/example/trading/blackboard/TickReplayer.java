@@ -0,0 +1,94 @@
+package com.example.trading.blackboard;
+
+import com.example.trading.api.IAPI;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Replays recorded bars into a {@link MarketDataBlackboard} one at a time,
+ * as if they were arriving live, so the ingest, alert and indicator paths
+ * can be exercised offline.
+ *
+ * Bars from all symbols are merged into timestamp order and posted at
+ * {@code speed} times real time: two bars a day apart are posted
+ * {@code 1 day / speed} apart. Each post is scheduled against the start of
+ * the replay rather than the previous post, so slow observers do not make
+ * the replay drift. A speed of {@link Double#POSITIVE_INFINITY} posts as
+ * fast as the blackboard accepts.
+ */
+public class TickReplayer {
+
+    private final MarketDataBlackboard blackboard;
+    private final double speed;
+    private volatile boolean stopped;
+
+    public TickReplayer(MarketDataBlackboard blackboard, double speed) {
+        if (blackboard == null) {
+            throw new IllegalArgumentException("Blackboard cannot be null");
+        }
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive");
+        }
+        this.blackboard = blackboard;
+        this.speed = speed;
+    }
+
+    /**
+     * Fetch every query from {@code source} and replay the bars together.
+     * @return the number of bars posted
+     */
+    public int replay(IAPI source, List<ShareQuery> queries) {
+        List<SharePrice> bars = new ArrayList<>();
+        for (ShareQuery query : queries) bars.addAll(source.getSharePrices(query));
+        return replay(bars);
+    }
+
+    /**
+     * Post {@code bars} in timestamp order, blocking until the last one is
+     * posted, {@link #stop()} is called or the thread is interrupted.
+     * @return the number of bars posted
+     */
+    public int replay(List<SharePrice> bars) {
+        List<SharePrice> ordered = new ArrayList<>(bars);
+        ordered.removeIf(bar -> bar == null || bar.getTimestamp() == null);
+        ordered.sort(Comparator.comparing(SharePrice::getTimestamp));   // stable: same-time bars keep their order
+        if (ordered.isEmpty()) return 0;
+
+        stopped = false;
+        LocalDateTime first = ordered.get(0).getTimestamp();
+        long started = System.nanoTime();
+        int posted = 0;
+        for (SharePrice bar : ordered) {
+            if (stopped) break;
+            long dueNanos = Double.isInfinite(speed) ? 0
+                    : (long) (Duration.between(first, bar.getTimestamp()).toNanos() / speed);
+            long waitNanos = dueNanos - (System.nanoTime() - started);
+            if (waitNanos > 0) {
+                try {
+                    Thread.sleep(Duration.ofNanos(waitNanos));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            blackboard.post(bar.getSymbol(), bar);
+            posted++;
+        }
+        return posted;
+    }
+
+    /** Ends a running replay after the bar being posted. */
+    public void stop() {
+        stopped = true;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+}
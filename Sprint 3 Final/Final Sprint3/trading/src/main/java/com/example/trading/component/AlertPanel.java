@@ -74,7 +74,9 @@ public class AlertPanel extends VBox {
             strCol("ID",      a -> a.getAlertId()),
             strCol("Symbol",  a -> a.getSymbol()),
             strCol("Type",    a -> a.getAlertType().name()),
-            strCol("Target",  a -> String.format("$%.2f", a.getTargetPrice().doubleValue())),
+            strCol("Target",  a -> a.isPercentChange()
+                    ? String.format("%.2f%%", a.getTargetPrice().doubleValue())
+                    : String.format("$%.2f", a.getTargetPrice().doubleValue())),
             strCol("Status",  a -> a.isActive() ? "🟢 Active" : "🔴 Triggered")
         );
 
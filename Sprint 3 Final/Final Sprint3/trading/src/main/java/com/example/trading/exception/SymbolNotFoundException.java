@@ -0,0 +1,21 @@
+package com.example.trading.exception;
+
+/**
+ * Thrown when a data provider does not recognise a symbol at all, as
+ * opposed to failing to answer. Retrying will not help.
+ */
+public class SymbolNotFoundException extends DataProviderException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String symbol;
+
+    public SymbolNotFoundException(String symbol) {
+        super("Symbol not found: " + symbol);
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.trading.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 public class Alert {
@@ -8,7 +9,7 @@ public class Alert {
     private String symbol;
     private BigDecimal targetPrice;
     private AlertType alertType;
-    private boolean isActive;
+    private volatile boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime triggeredAt;
     
@@ -88,9 +89,75 @@ public class Alert {
         this.triggeredAt = triggeredAt;
     }
     
-    public void trigger() {
+    /**
+     * Deactivate the alert and stamp the trigger time. This is the only place
+     * an active alert turns triggered, so polling and tick matching racing on
+     * the same alert fire it once.
+     * @return true if this call triggered it, false if it was already inactive
+     */
+    public synchronized boolean trigger() {
+        if (!isActive) {
+            return false;
+        }
         this.isActive = false;
         this.triggeredAt = LocalDateTime.now();
+        return true;
+    }
+    
+    /**
+     * Evaluate this alert against a current price, triggering it if the
+     * condition is met.
+     * @return true if the alert fired on this call
+     */
+    public boolean check(BigDecimal currentPrice) {
+        return check(currentPrice, null);
+    }
+    
+    /**
+     * @param referencePrice previous close, needed by the percent-change types
+     * @return true if the alert fired on this call
+     */
+    public boolean check(BigDecimal currentPrice, BigDecimal referencePrice) {
+        return isActive && isMetBy(currentPrice, referencePrice) && trigger();
+    }
+    
+    /** Whether {@code currentPrice} satisfies this alert's threshold, without triggering it. */
+    public boolean isMetBy(BigDecimal currentPrice) {
+        return isMetBy(currentPrice, null);
+    }
+    
+    /**
+     * For PERCENT_CHANGE_UP / PERCENT_CHANGE_DOWN the target is a percentage
+     * (5 means 5%) measured from {@code referencePrice}; without a reference
+     * they never match.
+     */
+    public boolean isMetBy(BigDecimal currentPrice, BigDecimal referencePrice) {
+        if (currentPrice == null || targetPrice == null || alertType == null) {
+            return false;
+        }
+        switch (alertType) {
+            case PRICE_ABOVE:
+                return currentPrice.compareTo(targetPrice) >= 0;
+            case PRICE_BELOW:
+                return currentPrice.compareTo(targetPrice) <= 0;
+            case PERCENT_CHANGE_UP:
+            case PERCENT_CHANGE_DOWN:
+                if (referencePrice == null || referencePrice.signum() == 0) {
+                    return false;
+                }
+                BigDecimal percentChange = currentPrice.subtract(referencePrice)
+                        .multiply(BigDecimal.valueOf(100))
+                        .divide(referencePrice, 4, RoundingMode.HALF_UP);
+                return alertType == AlertType.PERCENT_CHANGE_UP
+                        ? percentChange.compareTo(targetPrice) >= 0
+                        : percentChange.compareTo(targetPrice.negate()) <= 0;
+            default:
+                return false;
+        }
+    }
+    
+    public boolean isPercentChange() {
+        return alertType == AlertType.PERCENT_CHANGE_UP || alertType == AlertType.PERCENT_CHANGE_DOWN;
     }
     
     @Override
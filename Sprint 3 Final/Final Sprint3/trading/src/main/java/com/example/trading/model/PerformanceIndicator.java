@@ -13,6 +13,10 @@ public class PerformanceIndicator {
     private BigDecimal rsi;   // Relative Strength Index
     private BigDecimal macd;  // MACD Line
     private BigDecimal macdSignal; // MACD Signal Line
+    private BigDecimal macdHistogram;  // MACD minus Signal
+    private BigDecimal bollingerUpper; // SMA20 + 2 standard deviations
+    private BigDecimal bollingerLower; // SMA20 - 2 standard deviations
+    private BigDecimal atr;            // 14-day Average True Range
     
     public PerformanceIndicator() {}
     
@@ -94,6 +98,38 @@ public class PerformanceIndicator {
         this.macdSignal = macdSignal;
     }
     
+    public BigDecimal getMacdHistogram() {
+        return macdHistogram;
+    }
+    
+    public void setMacdHistogram(BigDecimal macdHistogram) {
+        this.macdHistogram = macdHistogram;
+    }
+    
+    public BigDecimal getBollingerUpper() {
+        return bollingerUpper;
+    }
+    
+    public void setBollingerUpper(BigDecimal bollingerUpper) {
+        this.bollingerUpper = bollingerUpper;
+    }
+    
+    public BigDecimal getBollingerLower() {
+        return bollingerLower;
+    }
+    
+    public void setBollingerLower(BigDecimal bollingerLower) {
+        this.bollingerLower = bollingerLower;
+    }
+    
+    public BigDecimal getAtr() {
+        return atr;
+    }
+    
+    public void setAtr(BigDecimal atr) {
+        this.atr = atr;
+    }
+    
     @Override
     public String toString() {
         return "PerformanceIndicator{" +
@@ -103,6 +139,8 @@ public class PerformanceIndicator {
                 ", sma50=" + sma50 +
                 ", rsi=" + rsi +
                 ", macd=" + macd +
+                ", macdSignal=" + macdSignal +
+                ", atr=" + atr +
                 '}';
     }
 }
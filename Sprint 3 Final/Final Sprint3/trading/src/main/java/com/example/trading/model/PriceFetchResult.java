@@ -0,0 +1,64 @@
+package com.example.trading.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of fetching one query in a multi-symbol price request.
+ *
+ * Exactly one of {@link #getPrices()} and {@link #getError()} is set, so a
+ * failing symbol is reported alongside the others instead of aborting the batch.
+ */
+public class PriceFetchResult {
+    private final ShareQuery query;
+    private final List<SharePrice> prices;
+    private final Exception error;
+    private final long elapsedMillis;
+
+    private PriceFetchResult(ShareQuery query, List<SharePrice> prices, Exception error, long elapsedMillis) {
+        this.query = query;
+        this.prices = prices;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static PriceFetchResult success(ShareQuery query, List<SharePrice> prices, long elapsedMillis) {
+        return new PriceFetchResult(query, Collections.unmodifiableList(prices), null, elapsedMillis);
+    }
+
+    public static PriceFetchResult failure(ShareQuery query, Exception error, long elapsedMillis) {
+        return new PriceFetchResult(query, null, error, elapsedMillis);
+    }
+
+    public ShareQuery getQuery() {
+        return query;
+    }
+
+    public String getSymbol() {
+        return query.getSymbol();
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /** Prices for the query; empty for a failed fetch. */
+    public List<SharePrice> getPrices() {
+        return prices != null ? prices : List.of();
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? String.format("PriceFetchResult{symbol='%s', bars=%d, %dms}", getSymbol(), prices.size(), elapsedMillis)
+                : String.format("PriceFetchResult{symbol='%s', error='%s', %dms}", getSymbol(), error.getMessage(), elapsedMillis);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.trading.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of computing indicators for one symbol in a multi-symbol screen.
+ *
+ * Exactly one of {@link #getIndicators()} and {@link #getError()} is set, so a
+ * failing symbol is reported alongside the others instead of aborting the batch.
+ */
+public class ScreeningResult {
+    private final String symbol;
+    private final List<PerformanceIndicator> indicators;
+    private final Exception error;
+    private final long elapsedMillis;
+
+    private ScreeningResult(String symbol, List<PerformanceIndicator> indicators,
+                            Exception error, long elapsedMillis) {
+        this.symbol = symbol;
+        this.indicators = indicators;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static ScreeningResult success(String symbol, List<PerformanceIndicator> indicators, long elapsedMillis) {
+        return new ScreeningResult(symbol, Collections.unmodifiableList(indicators), null, elapsedMillis);
+    }
+
+    public static ScreeningResult failure(String symbol, Exception error, long elapsedMillis) {
+        return new ScreeningResult(symbol, null, error, elapsedMillis);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /** Indicator rows for the requested range; empty for a failed symbol. */
+    public List<PerformanceIndicator> getIndicators() {
+        return indicators != null ? indicators : List.of();
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? String.format("ScreeningResult{symbol='%s', rows=%d, %dms}", symbol, indicators.size(), elapsedMillis)
+                : String.format("ScreeningResult{symbol='%s', error='%s', %dms}", symbol, error.getMessage(), elapsedMillis);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.trading.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trading sessions of one exchange, precomputed as a bitset.
+ *
+ * Each day from {@link #FIRST_DATE} to {@link #LAST_DATE} is one bit, set
+ * when the exchange trades that day: Monday to Friday, minus the exchange's
+ * holidays. A running session count is kept per 64-day word, so checking a
+ * day and counting the sessions between two dates are O(1), and stepping to
+ * the next or previous session scans at most a word or two. Days outside the
+ * range are never sessions.
+ *
+ * Holidays are read from a CSV file with one {@code EXCHANGE,yyyy-MM-dd[,name]}
+ * line per holiday; '#' starts a comment. {@link #forExchange(String)} reads
+ * {@value #CALENDAR_FILE} from the working directory on first use, and falls
+ * back to a plain weekday calendar for exchanges the file does not list.
+ */
+public final class TradingCalendar {
+
+    public static final LocalDate FIRST_DATE = LocalDate.of(1900, 1, 1); // a Monday
+    public static final LocalDate LAST_DATE  = LocalDate.of(2199, 12, 31);
+
+    /** Exchange used when a caller does not name one */
+    public static final String DEFAULT_EXCHANGE = "NYSE";
+
+    /** Holiday file read by the registry, relative to the working directory */
+    public static final String CALENDAR_FILE = "trading-calendar.csv";
+
+    private static final long FIRST_DAY = FIRST_DATE.toEpochDay();
+    private static final int  DAYS      = (int) (LAST_DATE.toEpochDay() - FIRST_DAY + 1);
+
+    private static final Map<String, TradingCalendar> calendars = new ConcurrentHashMap<>();
+    private static volatile boolean calendarFileRead;
+
+    private final String exchange;
+    /** Bit {@code i & 63} of word {@code i >>> 6} is set when day {@code FIRST_DAY + i} is a session */
+    private final long[] words;
+    /** Sessions in all words before word {@code w} */
+    private final int[]  ranks;
+    private final int    holidayCount;
+
+    private TradingCalendar(String exchange, Collection<LocalDate> holidays) {
+        this.exchange = exchange;
+        this.words = new long[(DAYS + 63) >>> 6];
+        for (int i = 0; i < DAYS; i++) {
+            if (i % 7 < 5) words[i >>> 6] |= 1L << i; // FIRST_DATE is a Monday
+        }
+        int removed = 0;
+        for (LocalDate holiday : holidays) {
+            int i = (int) (holiday.toEpochDay() - FIRST_DAY);
+            if (i >= 0 && i < DAYS && (words[i >>> 6] & (1L << i)) != 0) {
+                words[i >>> 6] &= ~(1L << i);
+                removed++;
+            }
+        }
+        this.holidayCount = removed;
+        this.ranks = new int[words.length];
+        for (int w = 1; w < words.length; w++) {
+            ranks[w] = ranks[w - 1] + Long.bitCount(words[w - 1]);
+        }
+    }
+
+    /**
+     * Calendar trading Monday to Friday except the given holidays.
+     * Holidays on weekends or outside the calendar range are ignored.
+     */
+    public static TradingCalendar of(String exchange, Collection<LocalDate> holidays) {
+        if (exchange == null || exchange.trim().isEmpty()) {
+            throw new IllegalArgumentException("Exchange cannot be null or empty");
+        }
+        if (holidays == null) {
+            throw new IllegalArgumentException("Holidays cannot be null");
+        }
+        return new TradingCalendar(exchange.trim().toUpperCase(), holidays);
+    }
+
+    /** Calendar trading every Monday to Friday. */
+    public static TradingCalendar weekdays(String exchange) {
+        return of(exchange, List.of());
+    }
+
+    // ── Queries ──────────────────────────────────────────────────────────────
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    /** Weekdays removed as holidays */
+    public int getHolidayCount() {
+        return holidayCount;
+    }
+
+    public boolean isSession(LocalDate date) {
+        long i = date.toEpochDay() - FIRST_DAY;
+        return i >= 0 && i < DAYS && (words[(int) i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** Sessions from {@code from} to {@code to}, both inclusive; 0 if {@code from} is after {@code to}. */
+    public int countSessions(LocalDate from, LocalDate to) {
+        long first = Math.max(0, from.toEpochDay() - FIRST_DAY);
+        long last  = Math.min(DAYS - 1, to.toEpochDay() - FIRST_DAY);
+        if (first > last) return 0;
+        return sessionsThrough((int) last) - sessionsThrough((int) first - 1);
+    }
+
+    /** First session strictly after {@code date}, or null if there is none in the calendar range. */
+    public LocalDate nextSession(LocalDate date) {
+        long i = date.toEpochDay() - FIRST_DAY + 1;
+        return i < DAYS ? sessionAtOrAfter((int) Math.max(0, i)) : null;
+    }
+
+    /** Last session strictly before {@code date}, or null if there is none in the calendar range. */
+    public LocalDate previousSession(LocalDate date) {
+        long i = date.toEpochDay() - FIRST_DAY - 1;
+        return i >= 0 ? sessionAtOrBefore((int) Math.min(DAYS - 1, i)) : null;
+    }
+
+    /** {@code date} if it is a session, otherwise the next one; null if there is none. */
+    public LocalDate sessionOnOrAfter(LocalDate date) {
+        return isSession(date) ? date : nextSession(date);
+    }
+
+    /** {@code date} if it is a session, otherwise the previous one; null if there is none. */
+    public LocalDate sessionOnOrBefore(LocalDate date) {
+        return isSession(date) ? date : previousSession(date);
+    }
+
+    /** Every session from {@code from} to {@code to}, both inclusive, oldest first. */
+    public List<LocalDate> sessionsBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> sessions = new ArrayList<>(countSessions(from, to));
+        for (LocalDate day = sessionOnOrAfter(from); day != null && !day.isAfter(to); day = nextSession(day)) {
+            sessions.add(day);
+        }
+        return sessions;
+    }
+
+    /** Sessions on days 0..i inclusive; 0 for i = -1. */
+    private int sessionsThrough(int i) {
+        if (i < 0) return 0;
+        int w = i >>> 6;
+        return ranks[w] + Long.bitCount(words[w] & (-1L >>> (63 - (i & 63))));
+    }
+
+    private LocalDate sessionAtOrAfter(int i) {
+        int w = i >>> 6;
+        long word = words[w] & (-1L << i);
+        while (word == 0) {
+            if (++w == words.length) return null;
+            word = words[w];
+        }
+        return LocalDate.ofEpochDay(FIRST_DAY + ((long) w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    private LocalDate sessionAtOrBefore(int i) {
+        int w = i >>> 6;
+        long word = words[w] & (-1L >>> (63 - (i & 63)));
+        while (word == 0) {
+            if (--w < 0) return null;
+            word = words[w];
+        }
+        return LocalDate.ofEpochDay(FIRST_DAY + ((long) w << 6) + 63 - Long.numberOfLeadingZeros(word));
+    }
+
+    // ── Loading ──────────────────────────────────────────────────────────────
+
+    /**
+     * Read a holiday file into one calendar per exchange it lists.
+     * @throws IllegalArgumentException for a malformed line
+     */
+    public static Map<String, TradingCalendar> load(Path file) throws IOException {
+        Map<String, List<LocalDate>> holidays = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                if (line.isBlank()) continue;
+
+                String[] fields = line.split(",", 3);
+                if (fields.length < 2 || fields[0].isBlank()) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": expected EXCHANGE,yyyy-MM-dd");
+                }
+                try {
+                    holidays.computeIfAbsent(fields[0].trim().toUpperCase(), k -> new ArrayList<>())
+                            .add(LocalDate.parse(fields[1].trim()));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException(file + ":" + lineNumber + ": invalid date '" + fields[1].trim() + "'", e);
+                }
+            }
+        }
+        Map<String, TradingCalendar> loaded = new LinkedHashMap<>();
+        holidays.forEach((exchange, days) -> loaded.put(exchange, of(exchange, days)));
+        return loaded;
+    }
+
+    // ── Registry ─────────────────────────────────────────────────────────────
+
+    /** Calendar of {@link #DEFAULT_EXCHANGE}. */
+    public static TradingCalendar getDefault() {
+        return forExchange(DEFAULT_EXCHANGE);
+    }
+
+    /** Registered or file-loaded calendar for the exchange; a weekday calendar if it has none. */
+    public static TradingCalendar forExchange(String exchange) {
+        if (exchange == null || exchange.trim().isEmpty()) {
+            throw new IllegalArgumentException("Exchange cannot be null or empty");
+        }
+        readCalendarFile();
+        return calendars.computeIfAbsent(exchange.trim().toUpperCase(), TradingCalendar::weekdays);
+    }
+
+    /** Make {@code calendar} the one returned for its exchange, replacing any loaded from file. */
+    public static void register(TradingCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("Calendar cannot be null");
+        }
+        readCalendarFile();
+        calendars.put(calendar.getExchange(), calendar);
+    }
+
+    private static void readCalendarFile() {
+        if (calendarFileRead) return;
+        synchronized (calendars) {
+            if (calendarFileRead) return;
+            Path file = Path.of(CALENDAR_FILE);
+            if (Files.isRegularFile(file)) {
+                try {
+                    Map<String, TradingCalendar> loaded = load(file);
+                    loaded.forEach(calendars::putIfAbsent);
+                    System.out.println("Loaded trading calendars for " + loaded.keySet() + " from " + CALENDAR_FILE);
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("Error loading trading calendar: " + e.getMessage());
+                }
+            }
+            calendarFileRead = true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TradingCalendar{exchange='%s', holidays=%d}", exchange, holidayCount);
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.trading.pipeline;
 
 import com.example.trading.model.SharePrice;
+import com.example.trading.model.TradingCalendar;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,13 +26,15 @@ public class Filters {
         @Override public String getFilterName() { return "SortByDate"; }
     }
 
-    /** Removes weekends (no trading data) */
+    /** Removes weekends and exchange holidays (no trading data) */
     public static class RemoveWeekendsFilter implements PipelineFilter {
+        private final TradingCalendar calendar;
+        public RemoveWeekendsFilter() { this(TradingCalendar.getDefault()); }
+        public RemoveWeekendsFilter(TradingCalendar calendar) { this.calendar = calendar; }
         @Override
         public List<SharePrice> apply(List<SharePrice> input) {
             return input.stream()
-                    .filter(p -> p.getDate().getDayOfWeek() != DayOfWeek.SATURDAY
-                              && p.getDate().getDayOfWeek() != DayOfWeek.SUNDAY)
+                    .filter(p -> calendar.isSession(p.getDate()))
                     .collect(Collectors.toList());
         }
         @Override public String getFilterName() { return "RemoveWeekends"; }
@@ -0,0 +1,236 @@
+package com.example.trading.repository;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory-efficient SharePriceRepository that keeps each symbol's history in a
+ * columnar {@link PriceSeries} (parallel primitive arrays sorted by date)
+ * instead of a List of boxed SharePrice objects.
+ *
+ * Range queries binary-search the date column, and SharePrice objects are only
+ * created for the bars a caller actually asks for. Results follow the same
+ * ordering as JsonSharePriceRepository (most recent first). Bars are stored at
+ * daily resolution — one bar per symbol per date, later saves replace earlier ones.
+ */
+public class ColumnarSharePriceRepository implements SharePriceRepository, com.example.trading.api.IChartData {
+
+    private final Map<String, PriceSeries> seriesBySymbol = new ConcurrentHashMap<>();
+
+    @Override
+    public SharePrice save(SharePrice sharePrice) {
+        if (sharePrice == null) {
+            throw new IllegalArgumentException("SharePrice cannot be null");
+        }
+        if (sharePrice.getSymbol() == null || sharePrice.getSymbol().trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        if (sharePrice.getDate() == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+
+        PriceSeries series = seriesBySymbol.computeIfAbsent(
+                sharePrice.getSymbol().toUpperCase(), k -> new PriceSeries());
+        synchronized (series) {
+            series.put(sharePrice);
+        }
+        return sharePrice;
+    }
+
+    @Override
+    public void saveAll(String symbol, List<SharePrice> sharePrices) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        if (sharePrices == null) {
+            throw new IllegalArgumentException("SharePrice list cannot be null");
+        }
+
+        String key = symbol.trim().toUpperCase();
+        List<SharePrice> batch = new ArrayList<>(sharePrices.size());
+        for (SharePrice price : sharePrices) {
+            if (price == null) continue;
+            if (price.getSymbol() == null || !price.getSymbol().equalsIgnoreCase(key)) {
+                throw new IllegalArgumentException("SharePrice " + price + " does not belong to " + key);
+            }
+            if (price.getDate() == null) {
+                throw new IllegalArgumentException("Date cannot be null");
+            }
+            batch.add(price);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Stable sort: near-linear for the already-sorted batches providers return
+        batch.sort(Comparator.comparing(SharePrice::getDate));
+
+        PriceSeries series = seriesBySymbol.computeIfAbsent(key, k -> new PriceSeries());
+        synchronized (series) {
+            series.putAll(batch);
+        }
+    }
+
+    @Override
+    public Optional<SharePrice> findLatestBySymbol(String symbol) {
+        PriceSeries series = seriesFor(symbol);
+        if (series == null) {
+            return Optional.empty();
+        }
+        synchronized (series) {
+            if (series.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(series.toSharePrice(symbol.toUpperCase(), series.size() - 1));
+        }
+    }
+
+    @Override
+    public List<SharePrice> findBySymbol(String symbol) {
+        PriceSeries series = seriesFor(symbol);
+        if (series == null) {
+            return new ArrayList<>();
+        }
+        synchronized (series) {
+            return materialise(symbol.toUpperCase(), series, 0, series.size());
+        }
+    }
+
+    @Override
+    public List<SharePrice> findBySymbolAndDateRange(String symbol, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return new ArrayList<>();
+        }
+        return findByDayRange(symbol, (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    @Override
+    public List<SharePrice> findBySymbolAndDateRange(String symbol, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (startDateTime == null || endDateTime == null) {
+            return new ArrayList<>();
+        }
+        // A stored bar's timestamp is its date at start of day
+        return findByDayRange(symbol, firstDayAtOrAfter(startDateTime), (int) endDateTime.toLocalDate().toEpochDay());
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        List<String> symbols = new ArrayList<>();
+        seriesBySymbol.forEach((symbol, series) -> {
+            synchronized (series) {
+                if (!series.isEmpty()) symbols.add(symbol);
+            }
+        });
+        return symbols;
+    }
+
+    @Override
+    public void deleteBySymbol(String symbol) {
+        if (symbol != null) {
+            seriesBySymbol.remove(symbol.toUpperCase());
+        }
+    }
+
+    @Override
+    public void deleteOldData(LocalDateTime beforeDate) {
+        if (beforeDate == null) {
+            return;
+        }
+
+        int cutoff = firstDayAtOrAfter(beforeDate);
+        seriesBySymbol.values().forEach(series -> {
+            synchronized (series) {
+                series.removeBefore(cutoff);
+            }
+        });
+
+        // Remove empty symbol entries
+        seriesBySymbol.entrySet().removeIf(entry -> {
+            synchronized (entry.getValue()) {
+                return entry.getValue().isEmpty();
+            }
+        });
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (PriceSeries series : seriesBySymbol.values()) {
+            synchronized (series) {
+                total += series.size();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long countBySymbol(String symbol) {
+        PriceSeries series = seriesFor(symbol);
+        if (series == null) {
+            return 0;
+        }
+        synchronized (series) {
+            return series.size();
+        }
+    }
+
+    /**
+     * Clear all data (useful for testing)
+     */
+    public void clear() {
+        seriesBySymbol.clear();
+    }
+
+    private PriceSeries seriesFor(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            return null;
+        }
+        return seriesBySymbol.get(symbol.toUpperCase());
+    }
+
+    private List<SharePrice> findByDayRange(String symbol, int fromDay, int toDay) {
+        PriceSeries series = seriesFor(symbol);
+        if (series == null || fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        synchronized (series) {
+            return materialise(symbol.toUpperCase(), series,
+                    series.lowerBound(fromDay), series.upperBound(toDay));
+        }
+    }
+
+    /** Build SharePrice objects for [from, to), most recent first. */
+    private static List<SharePrice> materialise(String symbol, PriceSeries series, int from, int to) {
+        List<SharePrice> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = to - 1; i >= from; i--) {
+            result.add(series.toSharePrice(symbol, i));
+        }
+        return result;
+    }
+
+    /** Epoch day of the first date whose start-of-day is not before {@code dateTime}. */
+    private static int firstDayAtOrAfter(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        if (!dateTime.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            date = date.plusDays(1);
+        }
+        return (int) date.toEpochDay();
+    }
+
+    // ── IChartData implementation ─────────────────────────────────────────
+
+    @Override
+    public List<SharePrice> getChartData(ShareQuery query) {
+        return findBySymbolAndDateRange(query.getSymbol(),
+                query.getStartDate(), query.getEndDate());
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return findAllSymbols();
+    }
+}
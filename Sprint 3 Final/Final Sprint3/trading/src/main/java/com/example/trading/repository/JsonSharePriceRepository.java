@@ -2,6 +2,7 @@ package com.example.trading.repository;
 
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,8 +12,14 @@ import java.util.stream.Collectors;
 
 public class JsonSharePriceRepository implements SharePriceRepository, com.example.trading.api.IChartData {
     
+    /**
+     * Oldest first — the order every per-symbol list is kept in, so the usual
+     * save of a newer bar is an append. Readers still get newest first.
+     */
+    private static final Comparator<SharePrice> OLDEST_FIRST = Comparator.comparing(SharePrice::getDate);
+
     private final Map<String, List<SharePrice>> priceData = new ConcurrentHashMap<>();
-    
+
     @Override
     public SharePrice save(SharePrice sharePrice) {
         if (sharePrice == null) {
@@ -21,15 +28,101 @@ public class JsonSharePriceRepository implements SharePriceRepository, com.examp
         if (sharePrice.getSymbol() == null || sharePrice.getSymbol().trim().isEmpty()) {
             throw new IllegalArgumentException("Symbol cannot be null or empty");
         }
-        
+        if (sharePrice.getDate() == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+
         String symbol = sharePrice.getSymbol().toUpperCase();
-        priceData.computeIfAbsent(symbol, k -> new ArrayList<>()).add(sharePrice);
-        
-        // Keep data sorted by date (most recent first)
-        priceData.get(symbol).sort((a, b) -> b.getDate().compareTo(a.getDate()));
-        
+        List<SharePrice> prices = priceData.computeIfAbsent(symbol, k -> new ArrayList<>());
+
+        // A newer bar than any stored one is appended without searching
+        if (prices.isEmpty() || prices.get(prices.size() - 1).getDate().isBefore(sharePrice.getDate())) {
+            prices.add(sharePrice);
+            return sharePrice;
+        }
+        // Otherwise binary-search the insert position so the list stays sorted
+        int index = Collections.binarySearch(prices, sharePrice, OLDEST_FIRST);
+        if (index >= 0 && prices.get(index).equals(sharePrice)) {
+            prices.set(index, sharePrice);
+        } else {
+            prices.add(index >= 0 ? index : -index - 1, sharePrice);
+        }
+
         return sharePrice;
     }
+
+    @Override
+    public void saveAll(String symbol, List<SharePrice> sharePrices) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        if (sharePrices == null) {
+            throw new IllegalArgumentException("SharePrice list cannot be null");
+        }
+
+        String key = symbol.trim().toUpperCase();
+        List<SharePrice> batch = new ArrayList<>(sharePrices.size());
+        for (SharePrice price : sharePrices) {
+            if (price == null) continue;
+            if (price.getSymbol() == null || !price.getSymbol().equalsIgnoreCase(key)) {
+                throw new IllegalArgumentException("SharePrice " + price + " does not belong to " + key);
+            }
+            if (price.getDate() == null) {
+                throw new IllegalArgumentException("Date cannot be null");
+            }
+            batch.add(price);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Stable sort: near-linear for the already-sorted batches providers return
+        batch.sort(OLDEST_FIRST);
+
+        priceData.compute(key, (k, existing) ->
+                mergeOldestFirst(existing != null ? existing : List.of(), batch));
+    }
+
+    /**
+     * Merge two oldest-first lists in one pass. For a given date stored records are
+     * emitted before batch records, and a later equal record (same symbol and date)
+     * replaces an earlier one — so the batch wins, and within the batch the last
+     * occurrence wins.
+     */
+    private static List<SharePrice> mergeOldestFirst(List<SharePrice> existing, List<SharePrice> batch) {
+        List<SharePrice> merged = new ArrayList<>(existing.size() + batch.size());
+        int i = 0, j = 0;
+        while (i < existing.size() || j < batch.size()) {
+            SharePrice next;
+            if (j == batch.size()) {
+                next = existing.get(i++);
+            } else if (i == existing.size()) {
+                next = batch.get(j++);
+            } else if (OLDEST_FIRST.compare(existing.get(i), batch.get(j)) <= 0) {
+                next = existing.get(i++);
+            } else {
+                next = batch.get(j++);
+            }
+            if (!replaceSameDay(merged, next)) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    /** Replace an equal record already merged for the same date, if there is one */
+    private static boolean replaceSameDay(List<SharePrice> merged, SharePrice price) {
+        for (int k = merged.size() - 1; k >= 0; k--) {
+            SharePrice candidate = merged.get(k);
+            if (!candidate.getDate().equals(price.getDate())) {
+                return false;
+            }
+            if (candidate.equals(price)) {
+                merged.set(k, price);
+                return true;
+            }
+        }
+        return false;
+    }
     
     @Override
     public Optional<SharePrice> findLatestBySymbol(String symbol) {
@@ -42,9 +135,10 @@ public class JsonSharePriceRepository implements SharePriceRepository, com.examp
             return Optional.empty();
         }
         
-        return Optional.of(prices.get(0)); // First element is most recent
+        return Optional.of(prices.get(prices.size() - 1)); // Last element is most recent
     }
     
+    /** Most recent first. */
     @Override
     public List<SharePrice> findBySymbol(String symbol) {
         if (symbol == null || symbol.trim().isEmpty()) {
@@ -52,19 +146,41 @@ public class JsonSharePriceRepository implements SharePriceRepository, com.examp
         }
         
         List<SharePrice> prices = priceData.get(symbol.toUpperCase());
-        return prices != null ? new ArrayList<>(prices) : new ArrayList<>();
+        return prices != null ? newestFirst(prices, 0, prices.size()) : new ArrayList<>();
     }
     
+    /** Most recent first; the bounds are found by binary search. */
     @Override
     public List<SharePrice> findBySymbolAndDateRange(String symbol, LocalDate startDate, LocalDate endDate) {
         if (symbol == null || symbol.trim().isEmpty() || startDate == null || endDate == null) {
             return new ArrayList<>();
         }
         
-        return findBySymbol(symbol).stream()
-                .filter(price -> !price.getDate().isBefore(startDate) && 
-                               !price.getDate().isAfter(endDate))
-                .collect(Collectors.toList());
+        List<SharePrice> prices = priceData.get(symbol.toUpperCase());
+        if (prices == null || startDate.isAfter(endDate)) {
+            return new ArrayList<>();
+        }
+        return newestFirst(prices, firstOnOrAfter(prices, startDate), firstOnOrAfter(prices, endDate.plusDays(1)));
+    }
+
+    /** Index of the first record dated on or after {@code date} */
+    private static int firstOnOrAfter(List<SharePrice> prices, LocalDate date) {
+        int lo = 0, hi = prices.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices.get(mid).getDate().isBefore(date)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Copy of {@code prices[from, to)} in reverse, i.e. most recent first */
+    private static List<SharePrice> newestFirst(List<SharePrice> prices, int from, int to) {
+        List<SharePrice> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = to - 1; i >= from; i--) {
+            result.add(prices.get(i));
+        }
+        return result;
     }
     
     @Override
@@ -138,10 +254,12 @@ public class JsonSharePriceRepository implements SharePriceRepository, com.examp
         // Add some sample data for common symbols
         String[] symbols = {"AAPL", "GOOGL", "MSFT", "TSLA", "AMZN"};
         Random random = new Random();
+        // Only trading sessions, so sample data looks like a real feed
+        List<LocalDate> sessions = TradingCalendar.getDefault()
+                .sessionsBetween(LocalDate.now().minusDays(30), LocalDate.now());
         
         for (String symbol : symbols) {
-            for (int i = 30; i >= 0; i--) {
-                LocalDate date = LocalDate.now().minusDays(i);
+            for (LocalDate date : sessions) {
                 
                 double basePrice = 100 + random.nextDouble() * 400; // Random price between 100-500
                 BigDecimal openPrice = BigDecimal.valueOf(basePrice);
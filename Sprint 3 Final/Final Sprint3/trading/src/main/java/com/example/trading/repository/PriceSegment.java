@@ -0,0 +1,189 @@
+package com.example.trading.repository;
+
+import com.example.trading.model.SharePrice;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * One immutable, memory-mapped segment file of fixed-width bar records.
+ *
+ * Layout (little-endian):
+ * <pre>
+ *   header  (24 bytes)  int magic, int version, int recordCount, int reserved, long coversUpTo
+ *   record  (48 bytes)  int epochDay, int reserved, double open, high, low, close, long volume
+ * </pre>
+ * Records are sorted by date with at most one per date, so range lookups are
+ * a binary search over the mapped file. {@code coversUpTo} is set by compaction:
+ * the segment contains every live record of all segments with a lower or equal
+ * sequence number, which makes those older files obsolete.
+ *
+ * Segments are written to a temporary file, forced to disk and atomically
+ * renamed, so a crash leaves either the whole segment or nothing.
+ */
+final class PriceSegment {
+
+    static final String EXTENSION = ".seg";
+
+    private static final int MAGIC       = 0x53505347; // "SPSG"
+    private static final int VERSION     = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 48;
+
+    private final long             sequence;
+    private final long             coversUpTo;
+    private final Path             path;
+    private final MappedByteBuffer buffer;
+    private final int              count;
+
+    private PriceSegment(long sequence, long coversUpTo, Path path, MappedByteBuffer buffer, int count) {
+        this.sequence   = sequence;
+        this.coversUpTo = coversUpTo;
+        this.path       = path;
+        this.buffer     = buffer;
+        this.count      = count;
+    }
+
+    long sequence()   { return sequence; }
+    long coversUpTo() { return coversUpTo; }
+    Path path()       { return path; }
+    int  size()       { return count; }
+
+    int dayAt(int index) {
+        return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE);
+    }
+
+    /** Index of the first record whose day is >= {@code day}. */
+    int lowerBound(int day) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dayAt(mid) < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Index of the first record whose day is > {@code day}. */
+    int upperBound(int day) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dayAt(mid) <= day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Read the record at {@code index} straight from the mapped file. */
+    SharePrice toSharePrice(String symbol, int index) {
+        int base = HEADER_SIZE + index * RECORD_SIZE;
+        return new SharePrice(symbol, LocalDate.ofEpochDay(buffer.getInt(base)),
+                toBigDecimal(buffer.getDouble(base + 8)),
+                toBigDecimal(buffer.getDouble(base + 32)),
+                toBigDecimal(buffer.getDouble(base + 16)),
+                toBigDecimal(buffer.getDouble(base + 24)),
+                buffer.getLong(base + 40));
+    }
+
+    /** Copy the record at {@code index} into {@code target} (appended in date order). */
+    void copyTo(int index, PriceSeries target) {
+        int base = HEADER_SIZE + index * RECORD_SIZE;
+        target.put(buffer.getInt(base),
+                buffer.getDouble(base + 8),  buffer.getDouble(base + 16),
+                buffer.getDouble(base + 24), buffer.getDouble(base + 32),
+                buffer.getLong(base + 40));
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%016d%s", sequence, EXTENSION);
+    }
+
+    /**
+     * Write {@code series} as segment {@code sequence} in {@code directory} and map it.
+     */
+    static PriceSegment write(Path directory, long sequence, long coversUpTo, PriceSeries series) throws IOException {
+        Path target = directory.resolve(fileName(sequence));
+        Path temp   = directory.resolve(fileName(sequence) + ".tmp");
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + series.size() * RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(series.size()).putInt(0).putLong(coversUpTo);
+        for (int i = 0; i < series.size(); i++) {
+            out.putInt(series.dayAt(i)).putInt(0)
+               .putDouble(series.openAt(i)).putDouble(series.highAt(i))
+               .putDouble(series.lowAt(i)).putDouble(series.closeAt(i))
+               .putLong(series.volumeAt(i));
+        }
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+        return open(target);
+    }
+
+    /**
+     * Force a directory's entries to disk, so a rename or new file in it
+     * survives a crash. Windows cannot open a directory as a channel; there
+     * the rename is as durable as NTFS makes it.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Directories cannot be opened for reading on this platform
+        }
+    }
+
+    /**
+     * Map an existing segment file.
+     * @throws IOException if the file is truncated or not a segment file
+     */
+    static PriceSegment open(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        long sequence;
+        try {
+            sequence = Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a segment file: " + file, e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException("Truncated segment header: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unrecognised segment format: " + file);
+            }
+            int count = buffer.getInt(8);
+            if (count < 0 || length != HEADER_SIZE + (long) count * RECORD_SIZE) {
+                throw new IOException("Segment length does not match record count: " + file);
+            }
+            return new PriceSegment(sequence, buffer.getLong(16), file, buffer, count);
+        }
+    }
+
+    private static BigDecimal toBigDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+}
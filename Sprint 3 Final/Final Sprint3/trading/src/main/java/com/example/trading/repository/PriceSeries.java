@@ -0,0 +1,224 @@
+package com.example.trading.repository;
+
+import com.example.trading.model.SharePrice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar, date-sorted bar storage for a single symbol.
+ *
+ * Each bar is spread across parallel primitive arrays (epoch day, OHLC as
+ * double, volume as long) kept in ascending date order, so a symbol with
+ * thousands of bars costs a handful of arrays instead of thousands of
+ * SharePrice / BigDecimal / LocalDate objects. A missing (null) price is
+ * stored as NaN. At most one bar is kept per date.
+ *
+ * Not thread-safe — callers synchronise on the instance.
+ */
+final class PriceSeries {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private int[]    days;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private long[]   volumes;
+    private int      size;
+
+    PriceSeries() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private PriceSeries(int capacity) {
+        days    = new int[capacity];
+        opens   = new double[capacity];
+        highs   = new double[capacity];
+        lows    = new double[capacity];
+        closes  = new double[capacity];
+        volumes = new long[capacity];
+    }
+
+    int size() { return size; }
+
+    boolean isEmpty() { return size == 0; }
+
+    int dayAt(int index) { return days[index]; }
+
+    double openAt(int index) { return opens[index]; }
+
+    double highAt(int index) { return highs[index]; }
+
+    double lowAt(int index) { return lows[index]; }
+
+    double closeAt(int index) { return closes[index]; }
+
+    long volumeAt(int index) { return volumes[index]; }
+
+    /**
+     * Insert a bar at its sorted position, replacing any bar on the same date.
+     * Appending a bar newer than the last one (the common case) is O(1) amortised.
+     */
+    void put(SharePrice price) {
+        put((int) price.getDate().toEpochDay(),
+                toDouble(price.getOpenPrice()), toDouble(price.getHighPrice()),
+                toDouble(price.getLowPrice()),  toDouble(price.getClosePrice()),
+                price.getVolume());
+    }
+
+    void put(int day, double open, double high, double low, double close, long volume) {
+        int index;
+        if (size == 0 || days[size - 1] < day) {
+            index = size;
+        } else {
+            index = Arrays.binarySearch(days, 0, size, day);
+            if (index >= 0) {
+                set(index, day, open, high, low, close, volume);
+                return;
+            }
+            index = -index - 1;
+        }
+        ensureCapacity(size + 1);
+        if (index < size) {
+            int tail = size - index;
+            System.arraycopy(days,    index, days,    index + 1, tail);
+            System.arraycopy(opens,   index, opens,   index + 1, tail);
+            System.arraycopy(highs,   index, highs,   index + 1, tail);
+            System.arraycopy(lows,    index, lows,    index + 1, tail);
+            System.arraycopy(closes,  index, closes,  index + 1, tail);
+            System.arraycopy(volumes, index, volumes, index + 1, tail);
+        }
+        set(index, day, open, high, low, close, volume);
+        size++;
+    }
+
+    /**
+     * Merge a batch sorted ascending by date in a single pass over both sides.
+     * Batch bars replace stored bars of the same date; within the batch the last
+     * bar for a date wins.
+     */
+    void putAll(List<SharePrice> ascending) {
+        if (ascending.isEmpty()) return;
+        int firstDay = (int) ascending.get(0).getDate().toEpochDay();
+        if (size == 0 || days[size - 1] < firstDay) {
+            ensureCapacity(size + ascending.size());
+            for (SharePrice price : ascending) put(price);
+            return;
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, size + ascending.size());
+        PriceSeries merged = new PriceSeries(capacity);
+        int i = 0, j = 0;
+        while (i < size || j < ascending.size()) {
+            int batchDay = j < ascending.size() ? (int) ascending.get(j).getDate().toEpochDay() : Integer.MAX_VALUE;
+            if (i < size && days[i] < batchDay) {
+                merged.append(days[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+                i++;
+                continue;
+            }
+            if (i < size && days[i] == batchDay) i++;   // stored bar superseded by the batch
+            SharePrice price = ascending.get(j++);
+            double open = toDouble(price.getOpenPrice()), high = toDouble(price.getHighPrice());
+            double low = toDouble(price.getLowPrice()), close = toDouble(price.getClosePrice());
+            if (merged.size > 0 && merged.days[merged.size - 1] == batchDay) {
+                merged.set(merged.size - 1, batchDay, open, high, low, close, price.getVolume());
+            } else {
+                merged.append(batchDay, open, high, low, close, price.getVolume());
+            }
+        }
+        days    = merged.days;
+        opens   = merged.opens;
+        highs   = merged.highs;
+        lows    = merged.lows;
+        closes  = merged.closes;
+        volumes = merged.volumes;
+        size    = merged.size;
+    }
+
+    /** Index of the first bar whose day is >= {@code day} (may be {@link #size()}). */
+    int lowerBound(int day) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Index of the first bar whose day is > {@code day} (may be {@link #size()}). */
+    int upperBound(int day) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] <= day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Drop every bar dated before {@code day}.
+     * @return number of bars removed
+     */
+    int removeBefore(int day) {
+        int cut = lowerBound(day);
+        if (cut == 0) return 0;
+        int remaining = size - cut;
+        System.arraycopy(days,    cut, days,    0, remaining);
+        System.arraycopy(opens,   cut, opens,   0, remaining);
+        System.arraycopy(highs,   cut, highs,   0, remaining);
+        System.arraycopy(lows,    cut, lows,    0, remaining);
+        System.arraycopy(closes,  cut, closes,  0, remaining);
+        System.arraycopy(volumes, cut, volumes, 0, remaining);
+        size = remaining;
+        return cut;
+    }
+
+    /** Materialise the bar at {@code index} — the only place SharePrice objects are created. */
+    SharePrice toSharePrice(String symbol, int index) {
+        return new SharePrice(symbol, LocalDate.ofEpochDay(days[index]),
+                toBigDecimal(opens[index]),
+                toBigDecimal(closes[index]),
+                toBigDecimal(highs[index]),
+                toBigDecimal(lows[index]),
+                volumes[index]);
+    }
+
+    /** Append without ordering checks — capacity must already be reserved. */
+    private void append(int day, double open, double high, double low, double close, long volume) {
+        set(size++, day, open, high, low, close, volume);
+    }
+
+    private void set(int i, int day, double open, double high, double low, double close, long volume) {
+        days[i]    = day;
+        opens[i]   = open;
+        highs[i]   = high;
+        lows[i]    = low;
+        closes[i]  = close;
+        volumes[i] = volume;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= days.length) return;
+        int capacity = Math.max(required, days.length + (days.length >> 1));
+        days    = Arrays.copyOf(days,    capacity);
+        opens   = Arrays.copyOf(opens,   capacity);
+        highs   = Arrays.copyOf(highs,   capacity);
+        lows    = Arrays.copyOf(lows,    capacity);
+        closes  = Arrays.copyOf(closes,  capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal toBigDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+}
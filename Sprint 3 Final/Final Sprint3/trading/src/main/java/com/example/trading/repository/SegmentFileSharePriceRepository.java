@@ -0,0 +1,500 @@
+package com.example.trading.repository;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durable SharePriceRepository backed by binary segment files on disk.
+ *
+ * Each symbol has its own directory of immutable {@link PriceSegment} files.
+ * Every save / saveAll writes one new sorted segment (crash-safe via atomic
+ * rename and a directory sync); reads binary-search the memory-mapped segments
+ * directly, with newer segments overriding older ones for the same date. Once a
+ * symbol has more than {@link #MAX_SEGMENTS_PER_SYMBOL} segments the newest ones
+ * of similar size are merged, so small writes do not rewrite the whole history;
+ * {@link #compact()} and {@link #deleteOldData(LocalDateTime)} merge everything.
+ *
+ * Opening the repository maps whatever is already on disk, so previously
+ * fetched history is available on a cold start without any network access.
+ */
+public class SegmentFileSharePriceRepository implements SharePriceRepository, com.example.trading.api.IChartData {
+
+    /** Small segments accumulated per symbol before they are merged into one */
+    static final int MAX_SEGMENTS_PER_SYMBOL = 8;
+
+    /** Store used by the dashboard, relative to the working directory */
+    public static final String DEFAULT_DIRECTORY = "price-store";
+
+    private final Path rootDirectory;
+    private final Map<String, SymbolSegments> symbols = new ConcurrentHashMap<>();
+
+    public SegmentFileSharePriceRepository(Path rootDirectory) {
+        if (rootDirectory == null) {
+            throw new IllegalArgumentException("Root directory cannot be null");
+        }
+        this.rootDirectory = rootDirectory;
+        try {
+            Files.createDirectories(rootDirectory);
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(rootDirectory, Files::isDirectory)) {
+                for (Path dir : dirs) {
+                    SymbolSegments store = SymbolSegments.open(dir);
+                    if (!store.segments.isEmpty()) {
+                        symbols.put(dir.getFileName().toString(), store);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open price store at " + rootDirectory, e);
+        }
+    }
+
+    @Override
+    public SharePrice save(SharePrice sharePrice) {
+        if (sharePrice == null) {
+            throw new IllegalArgumentException("SharePrice cannot be null");
+        }
+        if (sharePrice.getSymbol() == null || sharePrice.getSymbol().trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        saveAll(sharePrice.getSymbol(), List.of(sharePrice));
+        return sharePrice;
+    }
+
+    @Override
+    public void saveAll(String symbol, List<SharePrice> sharePrices) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        if (sharePrices == null) {
+            throw new IllegalArgumentException("SharePrice list cannot be null");
+        }
+
+        String key = validateSymbol(symbol.trim().toUpperCase());
+        List<SharePrice> batch = new ArrayList<>(sharePrices.size());
+        for (SharePrice price : sharePrices) {
+            if (price == null) continue;
+            if (price.getSymbol() == null || !price.getSymbol().equalsIgnoreCase(key)) {
+                throw new IllegalArgumentException("SharePrice " + price + " does not belong to " + key);
+            }
+            if (price.getDate() == null) {
+                throw new IllegalArgumentException("Date cannot be null");
+            }
+            batch.add(price);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.sort(Comparator.comparing(SharePrice::getDate));
+        PriceSeries series = new PriceSeries();
+        series.putAll(batch);
+
+        SymbolSegments store = symbols.computeIfAbsent(key, k -> {
+            try {
+                return SymbolSegments.open(rootDirectory.resolve(k));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open price store for " + k, e);
+            }
+        });
+        synchronized (store) {
+            try {
+                store.append(series);
+                if (store.segments.size() > MAX_SEGMENTS_PER_SYMBOL) {
+                    store.compactNewest();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to persist prices for " + key, e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<SharePrice> findLatestBySymbol(String symbol) {
+        SymbolSegments store = storeFor(symbol);
+        if (store == null) {
+            return Optional.empty();
+        }
+        synchronized (store) {
+            PriceSegment newest = null;
+            int newestDay = Integer.MIN_VALUE;
+            for (PriceSegment segment : store.segments) {
+                // Later segments win ties, so >= keeps the newest write for the same date
+                if (segment.size() > 0 && segment.dayAt(segment.size() - 1) >= newestDay) {
+                    newest = segment;
+                    newestDay = segment.dayAt(segment.size() - 1);
+                }
+            }
+            return newest == null ? Optional.empty()
+                    : Optional.of(newest.toSharePrice(symbol.toUpperCase(), newest.size() - 1));
+        }
+    }
+
+    @Override
+    public List<SharePrice> findBySymbol(String symbol) {
+        return findByDayRange(symbol, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<SharePrice> findBySymbolAndDateRange(String symbol, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return new ArrayList<>();
+        }
+        return findByDayRange(symbol, (int) startDate.toEpochDay(), (int) endDate.toEpochDay());
+    }
+
+    @Override
+    public List<SharePrice> findBySymbolAndDateRange(String symbol, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        if (startDateTime == null || endDateTime == null) {
+            return new ArrayList<>();
+        }
+        // A stored bar's timestamp is its date at start of day
+        return findByDayRange(symbol, firstDayAtOrAfter(startDateTime), (int) endDateTime.toLocalDate().toEpochDay());
+    }
+
+    @Override
+    public List<String> findAllSymbols() {
+        List<String> result = new ArrayList<>();
+        symbols.forEach((symbol, store) -> {
+            synchronized (store) {
+                if (!store.segments.isEmpty()) result.add(symbol);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void deleteBySymbol(String symbol) {
+        SymbolSegments store = storeFor(symbol);
+        if (store == null) {
+            return;
+        }
+        synchronized (store) {
+            try {
+                store.rewrite(Integer.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete prices for " + symbol, e);
+            }
+            symbols.remove(symbol.toUpperCase(), store);
+        }
+    }
+
+    /**
+     * Drops bars dated before the cutoff by compacting each symbol's segments,
+     * which also merges any small segments written since the last compaction.
+     */
+    @Override
+    public void deleteOldData(LocalDateTime beforeDate) {
+        if (beforeDate == null) {
+            return;
+        }
+        int cutoff = firstDayAtOrAfter(beforeDate);
+        for (Map.Entry<String, SymbolSegments> entry : symbols.entrySet()) {
+            SymbolSegments store = entry.getValue();
+            synchronized (store) {
+                try {
+                    store.rewrite(cutoff);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to compact prices for " + entry.getKey(), e);
+                }
+                if (store.segments.isEmpty()) {
+                    symbols.remove(entry.getKey(), store);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge every symbol's segments into a single segment.
+     */
+    public void compact() {
+        for (Map.Entry<String, SymbolSegments> entry : symbols.entrySet()) {
+            SymbolSegments store = entry.getValue();
+            synchronized (store) {
+                if (store.segments.size() <= 1) continue;
+                try {
+                    store.rewrite(Integer.MIN_VALUE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to compact prices for " + entry.getKey(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (SymbolSegments store : symbols.values()) {
+            synchronized (store) {
+                total += store.countLive();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long countBySymbol(String symbol) {
+        SymbolSegments store = storeFor(symbol);
+        if (store == null) {
+            return 0;
+        }
+        synchronized (store) {
+            return store.countLive();
+        }
+    }
+
+    private SymbolSegments storeFor(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            return null;
+        }
+        return symbols.get(symbol.toUpperCase());
+    }
+
+    private List<SharePrice> findByDayRange(String symbol, int fromDay, int toDay) {
+        SymbolSegments store = storeFor(symbol);
+        if (store == null || fromDay > toDay) {
+            return new ArrayList<>();
+        }
+        String key = symbol.toUpperCase();
+        List<SharePrice> result = new ArrayList<>();
+        synchronized (store) {
+            store.forEachLive(fromDay, toDay, (segment, index) -> result.add(segment.toSharePrice(key, index)));
+        }
+        Collections.reverse(result); // most recent first, as in JsonSharePriceRepository
+        return result;
+    }
+
+    /**
+     * True if the upper-case {@code symbol} is safe to use as a file or
+     * directory name under a store root: a ticker's characters only, and
+     * never "." or anything containing "..".
+     */
+    public static boolean isStorableSymbol(String symbol) {
+        return symbol != null && symbol.matches("^[A-Z0-9.\\-^=]{1,20}$")
+                && !symbol.equals(".") && !symbol.contains("..");
+    }
+
+    /** Symbols become directory names, so refuse anything that could escape the root. */
+    private static String validateSymbol(String symbol) {
+        if (!isStorableSymbol(symbol)) {
+            throw new IllegalArgumentException("Invalid symbol for on-disk storage: " + symbol);
+        }
+        return symbol;
+    }
+
+    /** Epoch day of the first date whose start-of-day is not before {@code dateTime}. */
+    private static int firstDayAtOrAfter(LocalDateTime dateTime) {
+        LocalDate date = dateTime.toLocalDate();
+        if (!dateTime.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            date = date.plusDays(1);
+        }
+        return (int) date.toEpochDay();
+    }
+
+    // ── IChartData implementation ─────────────────────────────────────────
+
+    @Override
+    public List<SharePrice> getChartData(ShareQuery query) {
+        return findBySymbolAndDateRange(query.getSymbol(),
+                query.getStartDate(), query.getEndDate());
+    }
+
+    @Override
+    public List<String> getAvailableSymbols() {
+        return findAllSymbols();
+    }
+
+    // ── Per-symbol segment set ────────────────────────────────────────────
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(PriceSegment segment, int index);
+    }
+
+    /** Live segments for one symbol, oldest first. Guarded by the instance monitor. */
+    private static final class SymbolSegments {
+        private final Path directory;
+        private final List<PriceSegment> segments = new ArrayList<>();
+        private long nextSequence = 1;
+
+        private SymbolSegments(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Load a symbol directory, discarding leftover temp files and segments
+         * made obsolete by a later compaction. Sequence numbering continues after
+         * every file found, including obsolete ones that could not be deleted.
+         */
+        static SymbolSegments open(Path directory) throws IOException {
+            SymbolSegments store = new SymbolSegments(directory);
+            if (!Files.isDirectory(directory)) {
+                return store;
+            }
+            List<PriceSegment> found = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(PriceSegment.EXTENSION + ".tmp")) {
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(PriceSegment.EXTENSION)) {
+                        try {
+                            found.add(PriceSegment.open(file));
+                        } catch (IOException e) {
+                            System.err.println("Skipping unreadable price segment " + file + ": " + e.getMessage());
+                        }
+                    }
+                }
+            }
+            found.sort(Comparator.comparingLong(PriceSegment::sequence));
+
+            long covered = 0;
+            for (PriceSegment segment : found) {
+                covered = Math.max(covered, segment.coversUpTo());
+                store.nextSequence = Math.max(store.nextSequence, segment.sequence() + 1);
+            }
+            for (PriceSegment segment : found) {
+                if (segment.sequence() <= covered) {
+                    tryDelete(segment.path());
+                } else if (segment.size() > 0) {
+                    store.segments.add(segment);
+                }
+            }
+            return store;
+        }
+
+        void append(PriceSeries series) throws IOException {
+            if (!Files.isDirectory(directory)) {
+                Files.createDirectories(directory);
+                PriceSegment.syncDirectory(directory.getParent());
+            }
+            segments.add(PriceSegment.write(directory, nextSequence++, 0, series));
+        }
+
+        /**
+         * Merge the newest segments into one, stopping at the first older
+         * segment larger than everything merged so far. Segments thus grow in
+         * size-tiered steps and each bar is rewritten O(log n) times, rather
+         * than the whole history on every save once the limit is reached.
+         */
+        void compactNewest() throws IOException {
+            int from = segments.size() - 1;
+            long merged = segments.get(from).size();
+            // Always merge at least two, then take in older segments no larger than the run
+            while (from > 0 && (from == segments.size() - 1 || segments.get(from - 1).size() <= merged)) {
+                from--;
+                merged += segments.get(from).size();
+            }
+            if (from == 0) {
+                rewrite(Integer.MIN_VALUE);
+                return;
+            }
+            List<PriceSegment> newest = segments.subList(from, segments.size());
+            PriceSeries series = new PriceSeries();
+            forEachLive(newest, Integer.MIN_VALUE, Integer.MAX_VALUE, (segment, index) -> segment.copyTo(index, series));
+
+            // Marks nothing obsolete: until the merged files are deleted they hold
+            // the same bars as the new segment, which overrides them
+            PriceSegment combined = PriceSegment.write(directory, nextSequence++, 0, series);
+            for (PriceSegment segment : newest) {
+                tryDelete(segment.path());
+            }
+            newest.clear();
+            segments.add(combined);
+        }
+
+        /**
+         * Compact all segments into one, dropping bars before {@code cutoffDay}.
+         * The new segment marks the old ones obsolete before they are deleted,
+         * so a crash at any point never resurrects dropped or overwritten bars.
+         */
+        void rewrite(int cutoffDay) throws IOException {
+            if (segments.isEmpty()) {
+                return;
+            }
+            PriceSeries merged = new PriceSeries();
+            forEachLive(cutoffDay, Integer.MAX_VALUE, (segment, index) -> segment.copyTo(index, merged));
+
+            long sequence = nextSequence++;
+            PriceSegment compacted = PriceSegment.write(directory, sequence, sequence - 1, merged);
+            boolean allDeleted = true;
+            for (PriceSegment segment : segments) {
+                allDeleted &= tryDelete(segment.path());
+            }
+            segments.clear();
+
+            if (merged.isEmpty() && allDeleted) {
+                tryDelete(compacted.path());
+                tryDelete(directory);
+            } else if (!merged.isEmpty()) {
+                segments.add(compacted);
+            }
+        }
+
+        long countLive() {
+            long[] count = {0};
+            forEachLive(Integer.MIN_VALUE, Integer.MAX_VALUE, (segment, index) -> count[0]++);
+            return count[0];
+        }
+
+        /**
+         * Visit the live record for each date in [fromDay, toDay] in ascending date
+         * order — a k-way merge over the segments where the newest segment wins.
+         */
+        void forEachLive(int fromDay, int toDay, RecordVisitor visitor) {
+            forEachLive(segments, fromDay, toDay, visitor);
+        }
+
+        private static void forEachLive(List<PriceSegment> segments, int fromDay, int toDay, RecordVisitor visitor) {
+            int k = segments.size();
+            int[] position = new int[k];
+            int[] end = new int[k];
+            for (int s = 0; s < k; s++) {
+                PriceSegment segment = segments.get(s);
+                position[s] = fromDay == Integer.MIN_VALUE ? 0 : segment.lowerBound(fromDay);
+                end[s] = toDay == Integer.MAX_VALUE ? segment.size() : segment.upperBound(toDay);
+            }
+            while (true) {
+                int day = Integer.MAX_VALUE;
+                int winner = -1;
+                for (int s = 0; s < k; s++) {
+                    if (position[s] < end[s]) {
+                        int candidate = segments.get(s).dayAt(position[s]);
+                        if (candidate <= day) {   // later (newer) segments win ties
+                            day = candidate;
+                            winner = s;
+                        }
+                    }
+                }
+                if (winner < 0) {
+                    return;
+                }
+                visitor.visit(segments.get(winner), position[winner]);
+                for (int s = 0; s < k; s++) {
+                    if (position[s] < end[s] && segments.get(s).dayAt(position[s]) == day) {
+                        position[s]++;
+                    }
+                }
+            }
+        }
+
+        private static boolean tryDelete(Path path) {
+            try {
+                Files.deleteIfExists(path);
+                return true;
+            } catch (IOException e) {
+                // A still-mapped file cannot be deleted on some platforms; it is
+                // already obsolete and will be removed on the next load
+                return false;
+            }
+        }
+    }
+}
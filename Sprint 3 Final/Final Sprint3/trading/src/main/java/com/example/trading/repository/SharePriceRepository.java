@@ -13,7 +13,16 @@ public interface SharePriceRepository {
      * @return the saved share price
      */
     SharePrice save(SharePrice sharePrice);
-    
+
+    /**
+     * Save a batch of price records for one symbol in a single merge.
+     * A record whose (symbol, date) already exists replaces the stored one;
+     * null entries are ignored.
+     * @param symbol the stock symbol every record in the batch belongs to
+     * @param sharePrices the records to save, ideally sorted by date
+     */
+    void saveAll(String symbol, List<SharePrice> sharePrices);
+
     /**
      * Find the latest price for a symbol
      * @param symbol the stock symbol
@@ -0,0 +1,325 @@
+package com.example.trading.service;
+
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.model.Account;
+import com.example.trading.model.Alert;
+import com.example.trading.model.SharePrice;
+import com.example.trading.repository.IAccountRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Knowledge source that fires price-threshold alerts as prices are posted to
+ * the {@link MarketDataBlackboard}, instead of polling every alert.
+ *
+ * Each symbol keeps two sorted books keyed by target price: PRICE_ABOVE
+ * alerts and PRICE_BELOW alerts. A new price p fires the PRICE_ABOVE alerts
+ * with target &lt;= p and the PRICE_BELOW alerts with target &gt;= p — a
+ * range at one end of each book — so a tick costs O(log n + k) for k fired
+ * alerts no matter how many alerts are standing. Fired alerts leave the index.
+ *
+ * Alerts can be indexed across all accounts via {@link #indexAll()}; accounts
+ * owning fired alerts are then saved once per tick.
+ */
+public class AlertMatchingEngine implements MarketDataBlackboard.BlackboardObserver {
+
+    private final Map<String, SymbolBook> books     = new ConcurrentHashMap<>();
+    private final List<AlertListener>     listeners = new CopyOnWriteArrayList<>();
+    private final IAccountRepository      accountRepository;
+
+    /** Engine without persistence — fired alerts are only triggered and reported. */
+    public AlertMatchingEngine() {
+        this(null);
+    }
+
+    /**
+     * @param accountRepository used by {@link #indexAll()} and to persist
+     *                          accounts whose alerts fire; may be null
+     */
+    public AlertMatchingEngine(IAccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    public void attach(MarketDataBlackboard blackboard) {
+        blackboard.addObserver(this);
+    }
+
+    public void detach(MarketDataBlackboard blackboard) {
+        blackboard.removeObserver(this);
+    }
+
+    public void addListener(AlertListener listener) {
+        if (listener != null && !listeners.contains(listener)) listeners.add(listener);
+    }
+
+    public void removeListener(AlertListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ── Index maintenance ────────────────────────────────────────────────────
+
+    /**
+     * Index every active alert of every account in the repository.
+     * @return number of alerts indexed
+     */
+    public int indexAll() {
+        if (accountRepository == null) {
+            throw new IllegalStateException("No account repository configured");
+        }
+        int indexed = 0;
+        for (Account account : accountRepository.findAll()) {
+            for (Alert alert : account.getAlerts()) {
+                if (register(alert, account.getAccountId())) indexed++;
+            }
+        }
+        return indexed;
+    }
+
+    /** Index an alert that is not tied to a persisted account. */
+    public boolean register(Alert alert) {
+        return register(alert, null);
+    }
+
+    /**
+     * Index an active price-threshold alert.
+     * @param accountId owner to save when the alert fires; may be null
+     * @return false if the alert is inactive or not a price-threshold alert
+     */
+    public boolean register(Alert alert, String accountId) {
+        if (!isIndexable(alert)) {
+            return false;
+        }
+        SymbolBook book = books.computeIfAbsent(key(alert.getSymbol()), k -> new SymbolBook());
+        synchronized (book) {
+            book.add(new Entry(alert, accountId));
+        }
+        return true;
+    }
+
+    /** Remove an alert (cancelled or deleted) from the index. */
+    public boolean unregister(Alert alert) {
+        if (alert == null || alert.getSymbol() == null || alert.getTargetPrice() == null) {
+            return false;
+        }
+        SymbolBook book = books.get(key(alert.getSymbol()));
+        if (book == null) {
+            return false;
+        }
+        synchronized (book) {
+            return book.remove(alert);
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (SymbolBook book : books.values()) {
+            synchronized (book) {
+                total += book.size;
+            }
+        }
+        return total;
+    }
+
+    public int size(String symbol) {
+        SymbolBook book = symbol != null ? books.get(key(symbol)) : null;
+        if (book == null) return 0;
+        synchronized (book) {
+            return book.size;
+        }
+    }
+
+    public void clear() {
+        books.clear();
+    }
+
+    // ── Matching ─────────────────────────────────────────────────────────────
+
+    @Override
+    public void onPriceUpdated(String symbol, SharePrice latestPrice) {
+        if (latestPrice != null) {
+            match(symbol, latestPrice.getClosePrice());
+        }
+    }
+
+    /**
+     * Matches a whole batch at once: any bar crossing an alert would have
+     * fired it, so only the lowest and highest closes matter. Owners are
+     * saved and listeners notified once for the batch.
+     */
+    @Override
+    public void onBatchPosted(String symbol, List<SharePrice> prices) {
+        BigDecimal low = null, high = null;
+        for (SharePrice price : prices) {
+            BigDecimal close = price.getClosePrice();
+            if (close == null) continue;
+            if (low == null || close.compareTo(low) < 0) low = close;
+            if (high == null || close.compareTo(high) > 0) high = close;
+        }
+        if (low != null) {
+            match(symbol, low, high);
+        }
+    }
+
+    /**
+     * Fire every indexed alert for {@code symbol} crossed by {@code price}.
+     * @return the alerts triggered by this price
+     */
+    public List<Alert> match(String symbol, BigDecimal price) {
+        if (symbol == null || price == null) {
+            return List.of();
+        }
+        return match(symbol, price, price);
+    }
+
+    /** PRICE_ABOVE alerts are tested against {@code high}, PRICE_BELOW against {@code low}. */
+    private List<Alert> match(String symbol, BigDecimal low, BigDecimal high) {
+        SymbolBook book = books.get(key(symbol));
+        if (book == null) {
+            return List.of();
+        }
+        List<Entry> crossed;
+        synchronized (book) {
+            crossed = book.takeCrossed(low, high);
+        }
+        if (crossed.isEmpty()) {
+            return List.of();
+        }
+
+        List<Alert> fired = new ArrayList<>(crossed.size());
+        Map<String, List<Alert>> firedByOwner = new LinkedHashMap<>();
+        for (Entry entry : crossed) {
+            BigDecimal price = entry.alert.getAlertType() == Alert.AlertType.PRICE_ABOVE ? high : low;
+            // Skips alerts cancelled elsewhere without being unregistered
+            if (entry.alert.check(price)) {
+                fired.add(entry.alert);
+                if (entry.accountId != null) {
+                    firedByOwner.computeIfAbsent(entry.accountId, k -> new ArrayList<>()).add(entry.alert);
+                }
+            }
+        }
+        persist(firedByOwner);
+        notifyListeners(key(symbol), fired);
+        return fired;
+    }
+
+    /**
+     * Save each owner once, with its fired alerts triggered in the stored
+     * copy. The repository may hand back fresh objects rather than the
+     * indexed ones, so alerts are matched by id, not by reference.
+     */
+    private void persist(Map<String, List<Alert>> firedByOwner) {
+        if (accountRepository == null) return;
+        for (Map.Entry<String, List<Alert>> owner : firedByOwner.entrySet()) {
+            String accountId = owner.getKey();
+            try {
+                Account account = accountRepository.findById(accountId).orElse(null);
+                if (account == null) continue;
+                for (Alert alert : owner.getValue()) {
+                    for (Alert stored : account.getAlerts()) {
+                        if (stored != alert && alert.getAlertId() != null && alert.getAlertId().equals(stored.getAlertId())
+                                && stored.trigger()) {
+                            stored.setTriggeredAt(alert.getTriggeredAt());
+                        }
+                    }
+                }
+                accountRepository.save(account);
+            } catch (Exception e) {
+                System.err.println("Error saving triggered alerts for account " + accountId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyListeners(String symbol, List<Alert> fired) {
+        if (fired.isEmpty()) return;
+        for (AlertListener listener : listeners) {
+            try { listener.onAlertsTriggered(symbol, fired); }
+            catch (Exception e) {
+                System.err.println("Alert listener error for " + symbol + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isIndexable(Alert alert) {
+        return alert != null && alert.isActive()
+                && alert.getSymbol() != null && alert.getTargetPrice() != null
+                && (alert.getAlertType() == Alert.AlertType.PRICE_ABOVE
+                    || alert.getAlertType() == Alert.AlertType.PRICE_BELOW);
+    }
+
+    private static String key(String symbol) {
+        return symbol.trim().toUpperCase();
+    }
+
+    // ── Per-symbol books ─────────────────────────────────────────────────────
+
+    private static final class Entry {
+        final Alert  alert;
+        final String accountId;
+
+        Entry(Alert alert, String accountId) {
+            this.alert = alert;
+            this.accountId = accountId;
+        }
+    }
+
+    /** Sorted PRICE_ABOVE / PRICE_BELOW targets for one symbol. Guarded by its own monitor. */
+    private static final class SymbolBook {
+        final NavigableMap<BigDecimal, List<Entry>> above = new TreeMap<>();
+        final NavigableMap<BigDecimal, List<Entry>> below = new TreeMap<>();
+        int size;
+
+        void add(Entry entry) {
+            bookFor(entry.alert).computeIfAbsent(entry.alert.getTargetPrice(), k -> new ArrayList<>(1)).add(entry);
+            size++;
+        }
+
+        boolean remove(Alert alert) {
+            NavigableMap<BigDecimal, List<Entry>> book = bookFor(alert);
+            List<Entry> entries = book.get(alert.getTargetPrice());
+            if (entries == null) return false;
+            boolean removed = entries.removeIf(e -> e.alert == alert);
+            if (removed) {
+                size--;
+                if (entries.isEmpty()) book.remove(alert.getTargetPrice());
+            }
+            return removed;
+        }
+
+        /** Remove and return every entry crossed by a price moving between {@code low} and {@code high}. */
+        List<Entry> takeCrossed(BigDecimal low, BigDecimal high) {
+            List<Entry> crossed = new ArrayList<>();
+            drain(above.headMap(high, true), crossed);
+            drain(below.tailMap(low, true), crossed);
+            size -= crossed.size();
+            return crossed;
+        }
+
+        private static void drain(NavigableMap<BigDecimal, List<Entry>> range, List<Entry> into) {
+            for (Iterator<List<Entry>> it = range.values().iterator(); it.hasNext(); ) {
+                into.addAll(it.next());
+                it.remove();
+            }
+        }
+
+        private NavigableMap<BigDecimal, List<Entry>> bookFor(Alert alert) {
+            return alert.getAlertType() == Alert.AlertType.PRICE_ABOVE ? above : below;
+        }
+    }
+
+    // ── Listener interface ────────────────────────────────────────────────────
+
+    /** Notified with the alerts a single price update (or batch) fired. */
+    @FunctionalInterface
+    public interface AlertListener {
+        void onAlertsTriggered(String symbol, List<Alert> triggered);
+    }
+}
@@ -6,20 +6,43 @@ import com.example.trading.model.Alert;
 import com.example.trading.model.SharePrice;
 import com.example.trading.repository.IAccountRepository;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 public class AlertService implements IAlert {
     
+    /** Cap on concurrent latest-price lookups during one alert check */
+    private static final int MAX_CONCURRENT_PRICE_FETCHES = 8;
+    
     private final AccountWalletService accountService;
     private final IPriceService sharePriceService;
     private final IAccountRepository accountRepository;
+    private final ReferencePriceCache referencePrices;
+    
+    /** Optional tick-driven matcher kept in step with alert changes */
+    private volatile AlertMatchingEngine matchingEngine;
     
     public AlertService(AccountWalletService accountService, IPriceService sharePriceService, IAccountRepository accountRepository) {
         this.accountService = accountService;
         this.sharePriceService = sharePriceService;
         this.accountRepository = accountRepository;
+        this.referencePrices = new ReferencePriceCache(sharePriceService);
+    }
+    
+    /**
+     * Keep {@code engine} in step with this service: new alerts are indexed,
+     * and cancelled, deleted or polled-and-fired alerts are removed from it.
+     */
+    public void setMatchingEngine(AlertMatchingEngine engine) {
+        this.matchingEngine = engine;
     }
     
     /**
@@ -67,6 +90,11 @@ public class AlertService implements IAlert {
             // Persist account changes
             accountRepository.save(account);
             
+            AlertMatchingEngine engine = matchingEngine;
+            if (engine != null) {
+                engine.register(alert, account.getAccountId());
+            }
+            
             System.out.println("Created alert: " + alert.getAlertId() + " for symbol: " + normalizedSymbol);
         
             return alert;
@@ -114,6 +142,7 @@ public class AlertService implements IAlert {
             alert.setActive(false);
             // Persist account changes
             accountRepository.save(account);
+            unindex(alert);
             
             System.out.println("Cancelled alert: " + alertId);
             
@@ -126,21 +155,44 @@ public class AlertService implements IAlert {
     }
     
     /**
-     * Check all active alerts against current prices
+     * Check all active alerts against current prices.
+     * Alerts are grouped by symbol so each symbol's latest price is fetched
+     * once (symbols in parallel), and the account is saved once if anything fired.
+     * Percent-change alerts are measured from the previous close, taken from
+     * the reference cache so it is fetched at most once per symbol per session.
      */
     public List<Alert> checkAlerts() {
         try {
-            List<Alert> triggeredAlerts = getActiveAlerts().stream()
-                    .filter(this::checkAlert)
-                    .collect(Collectors.toList());
+            Account account = accountService.getCurrentUserAccount();
+            Map<String, List<Alert>> alertsBySymbol = account.getAlerts().stream()
+                    .filter(Alert::isActive)
+                    .filter(alert -> alert.getSymbol() != null)
+                    .collect(Collectors.groupingBy(Alert::getSymbol, LinkedHashMap::new, Collectors.toList()));
+            
+            if (alertsBySymbol.isEmpty()) {
+                return new ArrayList<>();
+            }
+            
+            Map<String, Quote> quotes = fetchQuotes(alertsBySymbol);
             
             // Trigger the alerts
+            List<Alert> triggeredAlerts = new ArrayList<>();
+            alertsBySymbol.forEach((symbol, alerts) -> {
+                Quote quote = quotes.get(symbol);
+                if (quote == null) {
+                    return;
+                }
+                for (Alert alert : alerts) {
+                    if (alert.check(quote.price, quote.reference)) {
+                        triggeredAlerts.add(alert);
+                    }
+                }
+            });
+            
             if (!triggeredAlerts.isEmpty()) {
-                triggeredAlerts.forEach(Alert::trigger);
-                
                 // Persist changes
-                Account account = accountService.getCurrentUserAccount();
                 accountRepository.save(account);
+                triggeredAlerts.forEach(this::unindex);
                 
                 System.out.println("Triggered " + triggeredAlerts.size() + " alerts");
             }
@@ -152,41 +204,74 @@ public class AlertService implements IAlert {
         }
     }
     
+    private void unindex(Alert alert) {
+        AlertMatchingEngine engine = matchingEngine;
+        if (engine != null) {
+            engine.unregister(alert);
+        }
+    }
+    
     /**
-     * Check if a single alert should be triggered
+     * Latest close (and, where a percent-change alert needs it, the previous
+     * close) for each symbol, fetched concurrently on virtual threads.
+     * Symbols with no price (or whose lookup failed) are absent from the result.
      */
-    private boolean checkAlert(Alert alert) {
+    private Map<String, Quote> fetchQuotes(Map<String, List<Alert>> alertsBySymbol) {
+        Map<String, Quote> quotes = new ConcurrentHashMap<>();
+        if (alertsBySymbol.size() == 1) {
+            alertsBySymbol.forEach((symbol, alerts) -> fetchQuote(symbol, alerts, quotes));
+            return quotes;
+        }
+        
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_PRICE_FETCHES);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            alertsBySymbol.forEach((symbol, alerts) -> executor.submit(() -> {
+                permits.acquire();
+                try {
+                    fetchQuote(symbol, alerts, quotes);
+                } finally {
+                    permits.release();
+                }
+                return null;
+            }));
+        } // close() waits for every lookup to finish
+        return quotes;
+    }
+    
+    private void fetchQuote(String symbol, List<Alert> alerts, Map<String, Quote> quotes) {
         try {
-            SharePrice currentPrice = sharePriceService.getLatestPrice(alert.getSymbol());
+            SharePrice currentPrice = sharePriceService.getLatestPrice(symbol);
             if (currentPrice == null) {
-                System.out.println("No current price available for symbol: " + alert.getSymbol());
-                return false;
+                System.out.println("No current price available for symbol: " + symbol);
+                return;
             }
-            
-            BigDecimal price = currentPrice.getClosePrice();
-            if (price == null) {
-                System.out.println("Close price is null for symbol: " + alert.getSymbol());
-                return false;
+            if (currentPrice.getClosePrice() == null) {
+                System.out.println("Close price is null for symbol: " + symbol);
+                return;
             }
-            
-            BigDecimal target = alert.getTargetPrice();
-            
-            switch (alert.getAlertType()) {
-                case PRICE_ABOVE:
-                    return price.compareTo(target) >= 0;
-                case PRICE_BELOW:
-                    return price.compareTo(target) <= 0;
-                case PERCENT_CHANGE_UP:
-                case PERCENT_CHANGE_DOWN:
-                    // For percentage changes, you'd need to compare with previous day
-                    // Simplified implementation - returns false for now
-                    return false;
-                default:
-                    return false;
+            BigDecimal reference = null;
+            if (alerts.stream().anyMatch(Alert::isPercentChange)) {
+                // Without a reference only the percent alerts sit out; the price alerts still run
+                try {
+                    reference = referencePrices.getReferenceClose(symbol, currentPrice.getDate());
+                } catch (Exception e) {
+                    System.err.println("No reference close for symbol: " + symbol + " - " + e.getMessage());
+                }
             }
+            quotes.put(symbol, new Quote(currentPrice.getClosePrice(), reference));
         } catch (Exception e) {
-            System.err.println("Error checking alert for symbol: " + alert.getSymbol() + " - " + e.getMessage());
-            return false;
+            System.err.println("Error checking alerts for symbol: " + symbol + " - " + e.getMessage());
+        }
+    }
+    
+    /** Prices one symbol's alerts are evaluated against */
+    private static final class Quote {
+        final BigDecimal price;
+        final BigDecimal reference; // previous close; null unless a percent-change alert needs it
+        
+        Quote(BigDecimal price, BigDecimal reference) {
+            this.price = price;
+            this.reference = reference;
         }
     }
     
@@ -222,6 +307,7 @@ public class AlertService implements IAlert {
             account.removeAlert(alert);
             // Persist account changes
             accountRepository.save(account);
+            unindex(alert);
             
             System.out.println("Deleted alert: " + alertId);
             
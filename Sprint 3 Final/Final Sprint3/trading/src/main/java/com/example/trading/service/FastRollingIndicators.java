@@ -0,0 +1,258 @@
+package com.example.trading.service;
+
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import static com.example.trading.service.RollingIndicators.*;
+
+/**
+ * Primitive-double counterpart of {@link RollingIndicators}.
+ *
+ * Same indicators (including the MACD signal, Bollinger Bands and ATR) and
+ * the same O(1) update rules, but all state is held in doubles and a double
+ * ring buffer, so advancing a bar allocates nothing.
+ * BigDecimal values are only created when {@link #current()} builds a row.
+ * Running sums (including the sum of squares behind the Bollinger Bands) are
+ * re-summed from the window periodically so floating-point drift cannot
+ * accumulate over long streams.
+ *
+ * Not thread-safe — callers synchronise on the instance.
+ */
+public class FastRollingIndicators implements IndicatorEngine {
+
+    /** Bars between exact re-summations of the SMA windows */
+    private static final int RESUM_INTERVAL = 1_000;
+    private static final int OUT_SCALE      = 4;
+
+    private final String   symbol;
+    private final double[] window = new double[SMA_LONG];
+
+    // Current state
+    private int    count;
+    private int    changes;
+    private int    macdValues;
+    private int    trueRanges;
+    private double sumShort;
+    private double sumSquaresShort;
+    private double sumLong;
+    private double emaFast = Double.NaN;
+    private double emaSlow = Double.NaN;
+    private double macdSum;
+    private double macdSignal = Double.NaN;
+    private double avgGain;
+    private double avgLoss;
+    private double atr;
+    private double previousClose = Double.NaN;
+    private double evicted;
+
+    // State before the latest bar, for same-date replacement
+    private int    prevCount, prevChanges, prevMacdValues, prevTrueRanges;
+    private double prevSumShort, prevSumSquaresShort, prevSumLong, prevEmaFast, prevEmaSlow;
+    private double prevMacdSum, prevMacdSignal;
+    private double prevAvgGain, prevAvgLoss, prevAtr, prevPreviousClose;
+
+    private LocalDate lastDate;
+
+    public FastRollingIndicators(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public boolean advance(SharePrice price) {
+        if (price == null || price.getDate() == null || price.getClosePrice() == null) {
+            return false;
+        }
+        double close = price.getClosePriceAsDouble();
+        return advance(price.getDate(), close,
+                price.getHighPrice() != null ? price.getHighPrice().doubleValue() : close,
+                price.getLowPrice()  != null ? price.getLowPrice().doubleValue()  : close);
+    }
+
+    /** Primitive entry point — used by bulk paths that already hold double prices. */
+    public boolean advance(LocalDate date, double close, double high, double low) {
+        if (date == null || Double.isNaN(close)) {
+            return false;
+        }
+        if (lastDate != null && date.isBefore(lastDate)) {
+            return false;
+        }
+        if (lastDate != null && date.isEqual(lastDate)) {
+            undoLast();
+        }
+        apply(close, Double.isNaN(high) ? close : high, Double.isNaN(low) ? close : low);
+        lastDate = date;
+        return true;
+    }
+
+    @Override
+    public PerformanceIndicator current() {
+        if (lastDate == null) {
+            return null;
+        }
+        PerformanceIndicator indicator = new PerformanceIndicator(symbol, lastDate);
+        indicator.setSma20(count >= SMA_SHORT ? toDecimal(sumShort / SMA_SHORT) : null);
+        indicator.setSma50(count >= SMA_LONG ? toDecimal(sumLong / SMA_LONG) : null);
+        indicator.setEma12(toDecimal(emaFast));
+        indicator.setEma26(toDecimal(emaSlow));
+        indicator.setRsi(toDecimal(rsi()));
+        indicator.setMacd(toDecimal(emaFast - emaSlow));
+        if (!Double.isNaN(macdSignal)) {
+            indicator.setMacdSignal(toDecimal(macdSignal));
+            indicator.setMacdHistogram(toDecimal(emaFast - emaSlow - macdSignal));
+        }
+        if (count >= SMA_SHORT) {
+            double mean = sumShort / SMA_SHORT;
+            double variance = Math.max(0.0, sumSquaresShort / SMA_SHORT - mean * mean);
+            double band = BOLLINGER_K * Math.sqrt(variance);
+            indicator.setBollingerUpper(toDecimal(mean + band));
+            indicator.setBollingerLower(toDecimal(mean - band));
+        }
+        if (trueRanges >= ATR_PERIOD) {
+            indicator.setAtr(toDecimal(atr));
+        }
+        return indicator;
+    }
+
+    @Override
+    public int getBarCount() {
+        return count;
+    }
+
+    @Override
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+
+    @Override
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // ── Incremental maths ────────────────────────────────────────────────────
+
+    private void apply(double close, double high, double low) {
+        prevCount = count; prevChanges = changes;
+        prevMacdValues = macdValues; prevTrueRanges = trueRanges;
+        prevSumShort = sumShort; prevSumSquaresShort = sumSquaresShort; prevSumLong = sumLong;
+        prevEmaFast = emaFast; prevEmaSlow = emaSlow;
+        prevMacdSum = macdSum; prevMacdSignal = macdSignal;
+        prevAvgGain = avgGain; prevAvgLoss = avgLoss; prevAtr = atr;
+        prevPreviousClose = previousClose;
+
+        int slot = count % SMA_LONG;
+        evicted = window[slot];
+        window[slot] = close;
+
+        sumLong += close;
+        if (count >= SMA_LONG) sumLong -= evicted;
+        sumShort += close;
+        sumSquaresShort += close * close;
+        if (count >= SMA_SHORT) {
+            double leaving = window[(count - SMA_SHORT) % SMA_LONG];
+            sumShort -= leaving;
+            sumSquaresShort -= leaving * leaving;
+        }
+
+        emaFast = nextEma(emaFast, close, EMA_FAST);
+        emaSlow = nextEma(emaSlow, close, EMA_SLOW);
+        if (!Double.isNaN(emaSlow)) {
+            nextSignal(emaFast - emaSlow);
+        }
+
+        // True range: the bar's span, widened by any gap from the previous close
+        double trueRange = high - low;
+        if (!Double.isNaN(previousClose)) {
+            double change = close - previousClose;
+            double gain = change > 0 ? change : 0.0;
+            double loss = change < 0 ? -change : 0.0;
+            changes++;
+            avgGain = wilder(avgGain, gain, changes, RSI_PERIOD);
+            avgLoss = wilder(avgLoss, loss, changes, RSI_PERIOD);
+
+            trueRange = Math.max(trueRange,
+                    Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+        }
+        trueRanges++;
+        atr = wilder(atr, trueRange, trueRanges, ATR_PERIOD);
+
+        previousClose = close;
+        count++;
+
+        if (count % RESUM_INTERVAL == 0) {
+            resumWindows();
+        }
+    }
+
+    private double nextEma(double ema, double close, int period) {
+        int bars = count + 1;
+        if (bars < period) {
+            return Double.NaN;
+        }
+        if (bars == period) {
+            double sum = 0;
+            for (int i = 0; i < period; i++) sum += window[i];
+            return sum / period;
+        }
+        return (close - ema) * (2.0 / (period + 1)) + ema;
+    }
+
+    /** Signal line: EMA9 of MACD, seeded with the mean of the first nine MACD values. */
+    private void nextSignal(double macd) {
+        macdValues++;
+        if (macdValues < MACD_SIGNAL) {
+            macdSum += macd;
+        } else if (macdValues == MACD_SIGNAL) {
+            macdSignal = (macdSum + macd) / MACD_SIGNAL;
+        } else {
+            macdSignal = (macd - macdSignal) * (2.0 / (MACD_SIGNAL + 1)) + macdSignal;
+        }
+    }
+
+    /** Wilder smoothing — see {@link RollingIndicators}. */
+    private static double wilder(double avg, double value, int samples, int period) {
+        if (samples < period) return avg + value;
+        if (samples == period) return (avg + value) / period;
+        return (avg * (period - 1) + value) / period;
+    }
+
+    private void undoLast() {
+        window[prevCount % SMA_LONG] = evicted;
+        count = prevCount; changes = prevChanges;
+        macdValues = prevMacdValues; trueRanges = prevTrueRanges;
+        sumShort = prevSumShort; sumSquaresShort = prevSumSquaresShort; sumLong = prevSumLong;
+        emaFast = prevEmaFast; emaSlow = prevEmaSlow;
+        macdSum = prevMacdSum; macdSignal = prevMacdSignal;
+        avgGain = prevAvgGain; avgLoss = prevAvgLoss; atr = prevAtr;
+        previousClose = prevPreviousClose;
+    }
+
+    private void resumWindows() {
+        double shortSum = 0, squaresSum = 0, longSum = 0;
+        for (int back = 1; back <= SMA_LONG; back++) {
+            double value = window[(count - back) % SMA_LONG];
+            longSum += value;
+            if (back <= SMA_SHORT) {
+                shortSum += value;
+                squaresSum += value * value;
+            }
+        }
+        sumShort = shortSum;
+        sumSquaresShort = squaresSum;
+        sumLong = longSum;
+    }
+
+    private double rsi() {
+        if (changes < RSI_PERIOD) return 50.0; // Neutral RSI until the first full period
+        if (avgLoss == 0.0) return 100.0;
+        return 100.0 - 100.0 / (1.0 + avgGain / avgLoss);
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        if (Double.isNaN(value)) return null;
+        return BigDecimal.valueOf(value).setScale(OUT_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.trading.service;
 
 import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.ScreeningResult;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Performance analysis contract — implemented by PerformanceService.
@@ -12,6 +16,25 @@ public interface IPerformance {
                                                    LocalDate startDate,
                                                    LocalDate endDate);
 
+    /**
+     * Screen many symbols concurrently. Blocks until every symbol is done and
+     * returns one result per distinct symbol, in completion order; a symbol
+     * that fails is reported as a failed result rather than aborting the batch.
+     */
+    List<ScreeningResult> calculateIndicators(Collection<String> symbols,
+                                              LocalDate startDate,
+                                              LocalDate endDate);
+
+    /**
+     * Non-blocking variant: {@code onResult} is called as each symbol
+     * completes (one call at a time), and the returned future completes with
+     * all results once the batch has finished.
+     */
+    CompletableFuture<List<ScreeningResult>> calculateIndicators(Collection<String> symbols,
+                                                                 LocalDate startDate,
+                                                                 LocalDate endDate,
+                                                                 Consumer<ScreeningResult> onResult);
+
     /**
      * Returns a summary keyed by metric name (e.g. "percentReturn", "high", "low").
      * Using a loose return type keeps this interface decoupled from
@@ -1,9 +1,12 @@
 package com.example.trading.service;
 
 import com.example.trading.exception.ServiceException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Price service contract — used by the UI (TradingController) and ChartingService.
@@ -14,4 +17,29 @@ public interface IPriceService {
     SharePrice       getLatestPrice(String symbol)    throws ServiceException;
     List<String>     getAvailableSymbols();
     boolean          isDataProviderAvailable();
+
+    /**
+     * Prices for several symbols; a symbol that fails is reported in its own
+     * result. The default loads one query after another — SharePriceService
+     * fetches them in a single provider batch.
+     *
+     * @return results keyed by upper-case symbol, in query order
+     */
+    default Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        for (ShareQuery query : queries) {
+            long started = System.nanoTime();
+            try {
+                results.put(query.getSymbol().trim().toUpperCase(), PriceFetchResult.success(query,
+                        getSharePrices(query), (System.nanoTime() - started) / 1_000_000));
+            } catch (ServiceException e) {
+                results.put(query.getSymbol().trim().toUpperCase(),
+                        PriceFetchResult.failure(query, e, (System.nanoTime() - started) / 1_000_000));
+            }
+        }
+        return results;
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.trading.service;
+
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Incremental technical-indicator calculator for one symbol.
+ *
+ * Implementations fold bars in one at a time with O(1) work per bar and
+ * differ only in their numeric backend — see {@link Precision}.
+ */
+public interface IndicatorEngine {
+
+    /** Numeric backend used for indicator maths */
+    enum Precision {
+        /** BigDecimal throughout — reproducible, for audit and reporting */
+        EXACT,
+        /** Primitive double arithmetic — allocation-free, for screening and live ticks */
+        FAST
+    }
+
+    static IndicatorEngine create(String symbol, Precision precision) {
+        return precision == Precision.FAST
+                ? new FastRollingIndicators(symbol)
+                : new RollingIndicators(symbol);
+    }
+
+    /**
+     * Fold in one bar without building an indicator row.
+     * A bar for the latest date replaces it; older or close-less bars are ignored.
+     * @return true if the bar was applied
+     */
+    boolean advance(SharePrice price);
+
+    /** Indicator row for the latest bar, or null before the first bar. */
+    PerformanceIndicator current();
+
+    /** Number of bars folded in so far. */
+    int getBarCount();
+
+    LocalDate getLastDate();
+
+    String getSymbol();
+
+    /**
+     * Advance by one bar and return the indicator row for it, or null if the bar
+     * was ignored.
+     */
+    default PerformanceIndicator update(SharePrice price) {
+        return advance(price) ? current() : null;
+    }
+
+    /** Fold in a history of bars (ascending by date) without building indicator rows. */
+    default void seed(List<SharePrice> history) {
+        for (SharePrice price : history) {
+            advance(price);
+        }
+    }
+}
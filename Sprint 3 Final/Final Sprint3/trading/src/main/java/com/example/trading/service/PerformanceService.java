@@ -2,23 +2,64 @@ package com.example.trading.service;
 
 import com.example.trading.exception.ServiceException;
 import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.ScreeningResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 public class PerformanceService implements IPerformance {
+    /** Default cap on concurrent price fetches issued by one screening run */
+    public static final int DEFAULT_MAX_CONCURRENT_FETCHES = 8;
+    
     private final IPriceService sharePriceService;
+    private final IndicatorEngine.Precision precision;
+    private final int maxConcurrentFetches;
+    private final Semaphore fetchPermits;
     
     public PerformanceService(IPriceService sharePriceService) {
+        this(sharePriceService, IndicatorEngine.Precision.EXACT);
+    }
+    
+    /**
+     * @param precision EXACT for BigDecimal maths (audit), FAST for double maths (screening)
+     */
+    public PerformanceService(IPriceService sharePriceService, IndicatorEngine.Precision precision) {
+        this(sharePriceService, precision, DEFAULT_MAX_CONCURRENT_FETCHES);
+    }
+    
+    /**
+     * @param maxConcurrentFetches how many symbols a screening run may fetch from
+     *                             the price service at once, so a large screen
+     *                             does not flood the data provider
+     */
+    public PerformanceService(IPriceService sharePriceService, IndicatorEngine.Precision precision,
+                              int maxConcurrentFetches) {
         if (sharePriceService == null) {
             throw new IllegalArgumentException("SharePriceService cannot be null");
         }
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
+        }
+        if (maxConcurrentFetches < 1) {
+            throw new IllegalArgumentException("Max concurrent fetches must be at least 1");
+        }
         this.sharePriceService = sharePriceService;
+        this.precision = precision;
+        this.maxConcurrentFetches = maxConcurrentFetches;
+        this.fetchPermits = new Semaphore(maxConcurrentFetches, true);
     }
     
     /**
@@ -28,48 +69,7 @@ public class PerformanceService implements IPerformance {
         validateInputs(symbol, startDate, endDate);
         
         try {
-            // Get extended date range for accurate calculations
-            LocalDate extendedStart = startDate.minusDays(60);
-            List<SharePrice> prices = sharePriceService.getSharePrices(
-                new ShareQuery(symbol, extendedStart, endDate));
-            
-            if (prices.size() < 50) {
-                throw new ServiceException("Insufficient data for technical analysis. Need at least 50 data points, got " + prices.size());
-            }
-            
-            // Sort by date
-            prices.sort((p1, p2) -> p1.getDate().compareTo(p2.getDate()));
-            
-            List<PerformanceIndicator> indicators = new ArrayList<>();
-            
-            for (int i = 50; i < prices.size(); i++) {
-                SharePrice currentPrice = prices.get(i);
-                
-                // Only calculate for dates within our requested range
-                if (currentPrice.getDate().isBefore(startDate)) {
-                    continue;
-                }
-                
-                PerformanceIndicator indicator = new PerformanceIndicator(symbol, currentPrice.getDate());
-                
-                // Calculate various indicators
-                indicator.setSma20(calculateSMA(prices, i, 20));
-                indicator.setSma50(calculateSMA(prices, i, 50));
-                indicator.setEma12(calculateEMA(prices, i, 12));
-                indicator.setEma26(calculateEMA(prices, i, 26));
-                indicator.setRsi(calculateRSI(prices, i, 14));
-                
-                // Calculate MACD (check for null values)
-                if (indicator.getEma12() != null && indicator.getEma26() != null) {
-                    BigDecimal macd = indicator.getEma12().subtract(indicator.getEma26());
-                    indicator.setMacd(macd);
-                }
-                
-                indicators.add(indicator);
-            }
-            
-            return indicators;
-            
+            return computeIndicators(symbol, fetchHistory(symbol, startDate, endDate), startDate);
         } catch (ServiceException e) {
             throw e;
         } catch (Exception e) {
@@ -78,94 +78,144 @@ public class PerformanceService implements IPerformance {
     }
     
     /**
-     * Calculate Simple Moving Average
+     * Screen many symbols concurrently and wait for the whole batch.
+     * Results are returned in completion order.
      */
-    private BigDecimal calculateSMA(List<SharePrice> prices, int currentIndex, int period) {
-        if (currentIndex < period - 1 || prices == null || prices.isEmpty()) {
-            return null;
-        }
-        
-        BigDecimal sum = BigDecimal.ZERO;
-        for (int i = currentIndex - period + 1; i <= currentIndex; i++) {
-            BigDecimal price = prices.get(i).getClosePrice();
-            if (price != null) {
-                sum = sum.add(price);
-            }
-        }
-        
-        return sum.divide(BigDecimal.valueOf(period), 4, RoundingMode.HALF_UP);
+    @Override
+    public List<ScreeningResult> calculateIndicators(Collection<String> symbols, LocalDate startDate, LocalDate endDate) {
+        return calculateIndicators(symbols, startDate, endDate, null).join();
     }
     
     /**
-     * Calculate Exponential Moving Average
+     * Screen many symbols concurrently. Each symbol runs on its own virtual
+     * thread; price fetches are bounded by {@link #getMaxConcurrentFetches()},
+     * while the indicator pass itself runs unthrottled. A symbol that fails
+     * (no data, provider error, bad symbol) becomes a failed result and the
+     * rest of the batch carries on.
+     *
+     * @param onResult optional listener, called once per symbol as it completes;
+     *                 calls are serialised so it need not be thread-safe
      */
-    private BigDecimal calculateEMA(List<SharePrice> prices, int currentIndex, int period) {
-        if (currentIndex < period - 1 || prices == null || prices.isEmpty()) {
-            return null;
+    @Override
+    public CompletableFuture<List<ScreeningResult>> calculateIndicators(Collection<String> symbols,
+                                                                        LocalDate startDate,
+                                                                        LocalDate endDate,
+                                                                        Consumer<ScreeningResult> onResult) {
+        if (symbols == null) {
+            throw new IllegalArgumentException("Symbols cannot be null");
         }
+        validateDates(startDate, endDate);
         
-        // Calculate smoothing factor
-        BigDecimal multiplier = BigDecimal.valueOf(2.0).divide(BigDecimal.valueOf(period + 1), 10, RoundingMode.HALF_UP);
-        
-        // Start with SMA for the first EMA value
-        BigDecimal ema = calculateSMA(prices, currentIndex - period + period, period);
-        if (ema == null) {
-            return null;
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            distinct.add(symbol != null ? symbol.trim().toUpperCase() : null);
         }
         
-        // Calculate EMA iteratively
-        for (int i = currentIndex - period + period + 1; i <= currentIndex; i++) {
-            BigDecimal currentPrice = prices.get(i).getClosePrice();
-            if (currentPrice != null) {
-                ema = currentPrice.multiply(multiplier)
-                        .add(ema.multiply(BigDecimal.ONE.subtract(multiplier)));
+        List<ScreeningResult> results = new ArrayList<>(distinct.size());
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(distinct.size());
+        try {
+            for (String symbol : distinct) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    ScreeningResult result = screen(symbol, startDate, endDate);
+                    synchronized (results) {
+                        results.add(result);
+                        notifyListener(onResult, result);
+                    }
+                }, executor));
             }
+        } finally {
+            executor.shutdown(); // Accepts no more work; submitted symbols still run
         }
         
-        return ema.setScale(4, RoundingMode.HALF_UP);
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+                    synchronized (results) {
+                        return List.copyOf(results);
+                    }
+                });
     }
     
-    /**
-     * Calculate Relative Strength Index
-     */
-    private BigDecimal calculateRSI(List<SharePrice> prices, int currentIndex, int period) {
-        if (currentIndex < period || prices == null || prices.isEmpty()) {
-            return BigDecimal.valueOf(50); // Neutral RSI
+    private ScreeningResult screen(String symbol, LocalDate startDate, LocalDate endDate) {
+        long started = System.nanoTime();
+        try {
+            validateInputs(symbol, startDate, endDate);
+            List<SharePrice> prices;
+            fetchPermits.acquire();
+            try {
+                prices = fetchHistory(symbol, startDate, endDate);
+            } finally {
+                fetchPermits.release();
+            }
+            return ScreeningResult.success(symbol, computeIndicators(symbol, prices, startDate), elapsedSince(started));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ScreeningResult.failure(symbol,
+                    new ServiceException("Interrupted while screening " + symbol, e), elapsedSince(started));
+        } catch (ServiceException | IllegalArgumentException e) {
+            return ScreeningResult.failure(symbol, e, elapsedSince(started));
+        } catch (Exception e) {
+            return ScreeningResult.failure(symbol,
+                    new ServiceException("Error calculating performance indicators for " + symbol, e),
+                    elapsedSince(started));
+        }
+    }
+    
+    private static void notifyListener(Consumer<ScreeningResult> onResult, ScreeningResult result) {
+        if (onResult == null) {
+            return;
+        }
+        try {
+            onResult.accept(result);
+        } catch (Exception e) {
+            System.err.println("Screening listener error for " + result.getSymbol() + ": " + e.getMessage());
+        }
+    }
+    
+    private static long elapsedSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+    
+    /** Price history with enough lead-in before {@code startDate} to warm the indicators up. */
+    private List<SharePrice> fetchHistory(String symbol, LocalDate startDate, LocalDate endDate) {
+        // Get extended date range for accurate calculations
+        LocalDate extendedStart = startDate.minusDays(60);
+        return sharePriceService.getSharePrices(new ShareQuery(symbol, extendedStart, endDate));
+    }
+    
+    private List<PerformanceIndicator> computeIndicators(String symbol, List<SharePrice> prices, LocalDate startDate) {
+        if (prices.size() < 50) {
+            throw new ServiceException("Insufficient data for technical analysis. Need at least 50 data points, got " + prices.size());
         }
         
-        BigDecimal gains = BigDecimal.ZERO;
-        BigDecimal losses = BigDecimal.ZERO;
+        // Sort by date
+        prices.sort((p1, p2) -> p1.getDate().compareTo(p2.getDate()));
         
-        for (int i = currentIndex - period + 1; i <= currentIndex; i++) {
-            if (i == 0) continue; // Skip first element as we need previous price
-            
-            BigDecimal currentPrice = prices.get(i).getClosePrice();
-            BigDecimal previousPrice = prices.get(i - 1).getClosePrice();
+        // One forward pass: each bar advances the rolling state in O(1)
+        IndicatorEngine engine = IndicatorEngine.create(symbol, precision);
+        List<PerformanceIndicator> indicators = new ArrayList<>();
+        
+        for (int i = 0; i < prices.size(); i++) {
+            SharePrice currentPrice = prices.get(i);
+            boolean applied = engine.advance(currentPrice);
             
-            if (currentPrice != null && previousPrice != null) {
-                BigDecimal change = currentPrice.subtract(previousPrice);
-                
-                if (change.compareTo(BigDecimal.ZERO) > 0) {
-                    gains = gains.add(change);
-                } else {
-                    losses = losses.add(change.abs());
-                }
+            // Only emit rows once warmed up and within our requested range
+            if (!applied || i < 50 || currentPrice.getDate().isBefore(startDate)) {
+                continue;
             }
+            
+            indicators.add(engine.current());
         }
         
-        if (losses.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.valueOf(100);
-        }
-        
-        BigDecimal avgGain = gains.divide(BigDecimal.valueOf(period), 4, RoundingMode.HALF_UP);
-        BigDecimal avgLoss = losses.divide(BigDecimal.valueOf(period), 4, RoundingMode.HALF_UP);
-        
-        BigDecimal rs = avgGain.divide(avgLoss, 4, RoundingMode.HALF_UP);
-        BigDecimal rsi = BigDecimal.valueOf(100)
-                .subtract(BigDecimal.valueOf(100)
-                        .divide(BigDecimal.ONE.add(rs), 4, RoundingMode.HALF_UP));
-        
-        return rsi;
+        return indicators;
+    }
+    
+    public IndicatorEngine.Precision getPrecision() {
+        return precision;
+    }
+    
+    public int getMaxConcurrentFetches() {
+        return maxConcurrentFetches;
     }
     
     /**
@@ -231,6 +281,10 @@ public class PerformanceService implements IPerformance {
         if (symbol == null || symbol.trim().isEmpty()) {
             throw new IllegalArgumentException("Symbol cannot be null or empty");
         }
+        validateDates(startDate, endDate);
+    }
+    
+    private void validateDates(LocalDate startDate, LocalDate endDate) {
         if (startDate == null) {
             throw new IllegalArgumentException("Start date cannot be null");
         }
@@ -306,4 +360,4 @@ public class PerformanceService implements IPerformance {
         map.put("percentageReturn", ps.getPercentageReturn());
         return map;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,13 +1,16 @@
 package com.example.trading.service;
 
 import com.example.trading.exception.ServiceException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +27,9 @@ public class PriceComparisonService {
     public ComparisonResult comparePerformance(String symbol1, String symbol2, 
                                              LocalDate startDate, LocalDate endDate) {
         try {
-            List<SharePrice> prices1 = sharePriceService.getSharePrices(
-                new ShareQuery(symbol1, startDate, endDate));
-            List<SharePrice> prices2 = sharePriceService.getSharePrices(
-                new ShareQuery(symbol2, startDate, endDate));
+            Map<String, List<SharePrice>> prices = getPrices(List.of(symbol1, symbol2), startDate, endDate);
+            List<SharePrice> prices1 = prices.get(symbol1.trim().toUpperCase());
+            List<SharePrice> prices2 = prices.get(symbol2.trim().toUpperCase());
             
             if (prices1.isEmpty() || prices2.isEmpty()) {
                 throw new ServiceException("Insufficient data for comparison");
@@ -53,6 +55,28 @@ public class PriceComparisonService {
         }
     }
     
+    /**
+     * Prices of every symbol over the range, fetched as one batch rather than
+     * one symbol after another. A symbol named twice is fetched once.
+     * @return a modifiable list per upper-case symbol, in the order given
+     * @throws ServiceException if any symbol could not be loaded
+     */
+    public Map<String, List<SharePrice>> getPrices(List<String> symbols, LocalDate startDate, LocalDate endDate) {
+        Map<String, ShareQuery> queries = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            queries.putIfAbsent(symbol.trim().toUpperCase(), new ShareQuery(symbol.trim().toUpperCase(), startDate, endDate));
+        }
+        Map<String, List<SharePrice>> prices = new LinkedHashMap<>();
+        for (PriceFetchResult result : sharePriceService.getSharePrices(new ArrayList<>(queries.values())).values()) {
+            if (!result.isSuccess()) {
+                throw result.getError() instanceof ServiceException e ? e
+                        : new ServiceException("Error retrieving share prices for " + result.getSymbol(), result.getError());
+            }
+            prices.put(result.getSymbol(), new ArrayList<>(result.getPrices()));
+        }
+        return prices;
+    }
+    
     /**
      * Calculate percentage change over the period
      */
@@ -81,10 +105,9 @@ public class PriceComparisonService {
      */
     public BigDecimal getCorrelation(String symbol1, String symbol2, LocalDate startDate, LocalDate endDate) {
         try {
-            List<SharePrice> prices1 = sharePriceService.getSharePrices(
-                new ShareQuery(symbol1, startDate, endDate));
-            List<SharePrice> prices2 = sharePriceService.getSharePrices(
-                new ShareQuery(symbol2, startDate, endDate));
+            Map<String, List<SharePrice>> prices = getPrices(List.of(symbol1, symbol2), startDate, endDate);
+            List<SharePrice> prices1 = prices.get(symbol1.trim().toUpperCase());
+            List<SharePrice> prices2 = prices.get(symbol2.trim().toUpperCase());
             
             if (prices1.size() != prices2.size()) {
                 throw new ServiceException("Mismatched data for correlation calculation");
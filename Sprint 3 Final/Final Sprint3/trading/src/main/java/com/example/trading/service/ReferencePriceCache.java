@@ -0,0 +1,111 @@
+package com.example.trading.service;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-symbol cache of the reference close used by percent-change alerts.
+ *
+ * The reference for a session is the last close before that session's date.
+ * It is looked up once the first time a symbol is evaluated for a session
+ * and reused until a price for a later session arrives, so evaluating
+ * percent-change alerts normally costs no extra fetch. A missing reference
+ * is not cached: the bars may still arrive later in the session.
+ */
+public class ReferencePriceCache {
+
+    /** Sessions searched back for the previous close, in case the latest ones have no bar */
+    private static final int LOOKBACK_SESSIONS = 5;
+
+    private final IPriceService priceService;
+    private final TradingCalendar calendar;
+    private final Map<String, Reference> references = new ConcurrentHashMap<>();
+
+    public ReferencePriceCache(IPriceService priceService) {
+        this(priceService, TradingCalendar.getDefault());
+    }
+
+    public ReferencePriceCache(IPriceService priceService, TradingCalendar calendar) {
+        if (priceService == null) {
+            throw new IllegalArgumentException("Price service cannot be null");
+        }
+        if (calendar == null) {
+            throw new IllegalArgumentException("Trading calendar cannot be null");
+        }
+        this.priceService = priceService;
+        this.calendar = calendar;
+    }
+
+    /**
+     * Close of the last bar before {@code session} for {@code symbol}.
+     * @return null if no earlier close is available
+     */
+    public BigDecimal getReferenceClose(String symbol, LocalDate session) {
+        if (symbol == null || session == null) {
+            return null;
+        }
+        String key = symbol.trim().toUpperCase();
+        Reference cached = references.get(key);
+        if (cached != null && cached.session.equals(session)) {
+            return cached.close;
+        }
+        BigDecimal close = fetchPreviousClose(key, session);
+        if (close != null) {
+            references.put(key, new Reference(session, close));
+        }
+        return close;
+    }
+
+    public void invalidate(String symbol) {
+        if (symbol != null) {
+            references.remove(symbol.trim().toUpperCase());
+        }
+    }
+
+    public void clear() {
+        references.clear();
+    }
+
+    public int size() {
+        return references.size();
+    }
+
+    private BigDecimal fetchPreviousClose(String symbol, LocalDate session) {
+        LocalDate from = session;
+        for (int i = 0; i < LOOKBACK_SESSIONS; i++) {
+            LocalDate previous = calendar.previousSession(from);
+            if (previous == null) break;
+            from = previous;
+        }
+        if (!from.isBefore(session)) {
+            return null;
+        }
+        List<SharePrice> history = priceService.getSharePrices(
+                new ShareQuery(symbol, from, session.minusDays(1)));
+        SharePrice previous = null;
+        for (SharePrice price : history) {
+            if (price.getClosePrice() != null && price.getDate().isBefore(session)
+                    && (previous == null || price.getDate().isAfter(previous.getDate()))) {
+                previous = price;
+            }
+        }
+        return previous != null ? previous.getClosePrice() : null;
+    }
+
+    private static final class Reference {
+        final LocalDate  session;
+        final BigDecimal close;
+
+        Reference(LocalDate session, BigDecimal close) {
+            this.session = session;
+            this.close = close;
+        }
+    }
+}
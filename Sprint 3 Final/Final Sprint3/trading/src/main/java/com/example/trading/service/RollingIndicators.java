@@ -0,0 +1,284 @@
+package com.example.trading.service;
+
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Exact (BigDecimal) incremental technical-indicator state for one symbol.
+ *
+ * Each bar is folded in with O(1) work: SMA20/SMA50 from running sums over a
+ * ring buffer of closes, EMA12/EMA26 as true recursive EMAs (seeded with the
+ * SMA of their first period), and RSI14 with Wilder smoothing. The same state
+ * carries the MACD signal line (EMA9 of MACD) and histogram, Bollinger Bands
+ * (SMA20 ± 2 standard deviations from a running sum of squares) and Wilder
+ * ATR14, so one forward pass yields the full indicator row.
+ *
+ * Seed it with history via {@link #seed(List)}, then call
+ * {@link #update(SharePrice)} as each new bar arrives. A repeated bar for the
+ * latest date (an intraday refresh) replaces that bar instead of advancing the
+ * window. {@link FastRollingIndicators} is the double-based equivalent.
+ *
+ * Not thread-safe — callers synchronise on the instance.
+ */
+public class RollingIndicators implements IndicatorEngine {
+
+    static final int SMA_SHORT   = 20;
+    static final int SMA_LONG    = 50;
+    static final int EMA_FAST    = 12;
+    static final int EMA_SLOW    = 26;
+    static final int MACD_SIGNAL = 9;
+    static final int RSI_PERIOD  = 14;
+    static final int ATR_PERIOD  = 14;
+    static final int BOLLINGER_K = 2;
+
+    private static final int         SCALE     = 10;
+    private static final int         OUT_SCALE = 4;
+    private static final BigDecimal  HUNDRED   = BigDecimal.valueOf(100);
+    private static final MathContext SQRT      = new MathContext(20);
+
+    private final String symbol;
+
+    /** Last SMA_LONG closes, oldest overwritten first */
+    private final BigDecimal[] window = new BigDecimal[SMA_LONG];
+
+    private State     state = new State();
+    private State     beforeLast;          // state before the latest bar, for same-date replacement
+    private LocalDate lastDate;
+
+    public RollingIndicators(String symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public boolean advance(SharePrice price) {
+        if (price == null || price.getDate() == null || price.getClosePrice() == null) {
+            return false;
+        }
+        if (lastDate != null && price.getDate().isBefore(lastDate)) {
+            return false;
+        }
+        if (lastDate != null && price.getDate().isEqual(lastDate)) {
+            undoLast();
+        }
+        BigDecimal close = price.getClosePrice();
+        apply(close,
+              price.getHighPrice() != null ? price.getHighPrice() : close,
+              price.getLowPrice()  != null ? price.getLowPrice()  : close);
+        lastDate = price.getDate();
+        return true;
+    }
+
+    @Override
+    public PerformanceIndicator current() {
+        if (lastDate == null) {
+            return null;
+        }
+        State s = state;
+        PerformanceIndicator indicator = new PerformanceIndicator(symbol, lastDate);
+        indicator.setSma20(sma(s.sumShort, SMA_SHORT));
+        indicator.setSma50(sma(s.sumLong, SMA_LONG));
+        indicator.setEma12(round(s.emaFast));
+        indicator.setEma26(round(s.emaSlow));
+        indicator.setRsi(rsi());
+        if (s.emaFast != null && s.emaSlow != null) {
+            BigDecimal macd = s.emaFast.subtract(s.emaSlow);
+            indicator.setMacd(round(macd));
+            if (s.macdSignal != null) {
+                indicator.setMacdSignal(round(s.macdSignal));
+                indicator.setMacdHistogram(round(macd.subtract(s.macdSignal)));
+            }
+        }
+        if (s.count >= SMA_SHORT) {
+            BigDecimal n = BigDecimal.valueOf(SMA_SHORT);
+            BigDecimal mean = s.sumShort.divide(n, SCALE, RoundingMode.HALF_UP);
+            BigDecimal variance = s.sumSquaresShort.divide(n, SCALE, RoundingMode.HALF_UP)
+                    .subtract(mean.multiply(mean)).max(BigDecimal.ZERO);
+            BigDecimal band = variance.sqrt(SQRT).multiply(BigDecimal.valueOf(BOLLINGER_K));
+            indicator.setBollingerUpper(round(mean.add(band)));
+            indicator.setBollingerLower(round(mean.subtract(band)));
+        }
+        if (s.trueRanges >= ATR_PERIOD) {
+            indicator.setAtr(round(s.atr));
+        }
+        return indicator;
+    }
+
+    @Override
+    public int getBarCount() {
+        return state.count;
+    }
+
+    @Override
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+
+    @Override
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // ── Incremental maths ────────────────────────────────────────────────────
+
+    private void apply(BigDecimal close, BigDecimal high, BigDecimal low) {
+        beforeLast = state.copy();
+        State s = state;
+
+        int slot = s.count % SMA_LONG;
+        s.evicted = window[slot];
+        window[slot] = close;
+
+        s.sumLong = s.sumLong.add(close);
+        if (s.count >= SMA_LONG) {
+            s.sumLong = s.sumLong.subtract(s.evicted);
+        }
+        s.sumShort = s.sumShort.add(close);
+        s.sumSquaresShort = s.sumSquaresShort.add(close.multiply(close));
+        if (s.count >= SMA_SHORT) {
+            BigDecimal leaving = window[(s.count - SMA_SHORT) % SMA_LONG];
+            s.sumShort = s.sumShort.subtract(leaving);
+            s.sumSquaresShort = s.sumSquaresShort.subtract(leaving.multiply(leaving));
+        }
+
+        s.emaFast = nextEma(s.emaFast, close, s, EMA_FAST);
+        s.emaSlow = nextEma(s.emaSlow, close, s, EMA_SLOW);
+        if (s.emaFast != null && s.emaSlow != null) {
+            nextSignal(s, s.emaFast.subtract(s.emaSlow));
+        }
+
+        // True range: the bar's span, widened by any gap from the previous close
+        BigDecimal trueRange = high.subtract(low);
+        if (s.previousClose != null) {
+            BigDecimal change = close.subtract(s.previousClose);
+            BigDecimal gain = change.signum() > 0 ? change : BigDecimal.ZERO;
+            BigDecimal loss = change.signum() < 0 ? change.negate() : BigDecimal.ZERO;
+            s.changes++;
+            s.avgGain = wilder(s.avgGain, gain, s.changes, RSI_PERIOD);
+            s.avgLoss = wilder(s.avgLoss, loss, s.changes, RSI_PERIOD);
+
+            trueRange = trueRange
+                    .max(high.subtract(s.previousClose).abs())
+                    .max(low.subtract(s.previousClose).abs());
+        }
+        s.trueRanges++;
+        s.atr = wilder(s.atr, trueRange, s.trueRanges, ATR_PERIOD);
+
+        s.previousClose = close;
+        s.count++;
+    }
+
+    /** Recursive EMA; seeded with the SMA of the first {@code period} closes. */
+    private BigDecimal nextEma(BigDecimal ema, BigDecimal close, State s, int period) {
+        int bars = s.count + 1;
+        if (bars < period) {
+            return null;
+        }
+        if (bars == period) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = bars - period; i < bars; i++) {
+                sum = sum.add(window[i % SMA_LONG]);
+            }
+            return sum.divide(BigDecimal.valueOf(period), SCALE, RoundingMode.HALF_UP);
+        }
+        return ema(ema, close, period);
+    }
+
+    /** Signal line: EMA9 of MACD, seeded with the mean of the first nine MACD values. */
+    private static void nextSignal(State s, BigDecimal macd) {
+        s.macdValues++;
+        if (s.macdValues < MACD_SIGNAL) {
+            s.macdSum = s.macdSum.add(macd);
+        } else if (s.macdValues == MACD_SIGNAL) {
+            s.macdSignal = s.macdSum.add(macd).divide(BigDecimal.valueOf(MACD_SIGNAL), SCALE, RoundingMode.HALF_UP);
+        } else {
+            s.macdSignal = ema(s.macdSignal, macd, MACD_SIGNAL);
+        }
+    }
+
+    private static BigDecimal ema(BigDecimal ema, BigDecimal value, int period) {
+        BigDecimal k = BigDecimal.valueOf(2).divide(BigDecimal.valueOf(period + 1), SCALE, RoundingMode.HALF_UP);
+        return value.subtract(ema).multiply(k).add(ema).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Wilder smoothing. The first {@code period} samples are summed and then
+     * averaged; after that avg = (avg * (n - 1) + value) / n.
+     */
+    private static BigDecimal wilder(BigDecimal avg, BigDecimal value, int samples, int period) {
+        if (samples < period) {
+            return avg.add(value);
+        }
+        BigDecimal n = BigDecimal.valueOf(period);
+        if (samples == period) {
+            return avg.add(value).divide(n, SCALE, RoundingMode.HALF_UP);
+        }
+        return avg.multiply(BigDecimal.valueOf(period - 1)).add(value).divide(n, SCALE, RoundingMode.HALF_UP);
+    }
+
+    private void undoLast() {
+        State restored = beforeLast;
+        window[restored.count % SMA_LONG] = state.evicted;
+        state = restored;
+        beforeLast = null;
+    }
+
+    private BigDecimal sma(BigDecimal sum, int period) {
+        if (state.count < period) {
+            return null;
+        }
+        return sum.divide(BigDecimal.valueOf(period), OUT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal rsi() {
+        if (state.changes < RSI_PERIOD) {
+            return BigDecimal.valueOf(50); // Neutral RSI until the first full period
+        }
+        if (state.avgLoss.signum() == 0) {
+            return HUNDRED;
+        }
+        BigDecimal rs = state.avgGain.divide(state.avgLoss, SCALE, RoundingMode.HALF_UP);
+        return HUNDRED.subtract(HUNDRED.divide(BigDecimal.ONE.add(rs), OUT_SCALE, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal round(BigDecimal value) {
+        return value != null ? value.setScale(OUT_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    /** Scalar indicator state; BigDecimal is immutable so copies are shallow. */
+    private static final class State {
+        int        count;
+        int        changes;
+        int        macdValues;
+        int        trueRanges;
+        BigDecimal sumShort        = BigDecimal.ZERO;
+        BigDecimal sumSquaresShort = BigDecimal.ZERO;
+        BigDecimal sumLong         = BigDecimal.ZERO;
+        BigDecimal emaFast;
+        BigDecimal emaSlow;
+        BigDecimal macdSum         = BigDecimal.ZERO;
+        BigDecimal macdSignal;
+        BigDecimal avgGain         = BigDecimal.ZERO;
+        BigDecimal avgLoss         = BigDecimal.ZERO;
+        BigDecimal atr             = BigDecimal.ZERO;
+        BigDecimal previousClose;
+        BigDecimal evicted;             // window value overwritten by the latest bar
+
+        State copy() {
+            State c = new State();
+            c.count = count; c.changes = changes;
+            c.macdValues = macdValues; c.trueRanges = trueRanges;
+            c.sumShort = sumShort; c.sumSquaresShort = sumSquaresShort; c.sumLong = sumLong;
+            c.emaFast = emaFast; c.emaSlow = emaSlow;
+            c.macdSum = macdSum; c.macdSignal = macdSignal;
+            c.avgGain = avgGain; c.avgLoss = avgLoss; c.atr = atr;
+            c.previousClose = previousClose; c.evicted = evicted;
+            return c;
+        }
+    }
+}
@@ -4,87 +4,140 @@ import com.example.trading.soa.TradingServiceContract;
 import com.example.trading.soa.ServiceHealth;
 import com.example.trading.soa.ServiceMetadata;
 import java.util.concurrent.CompletableFuture;
-import com.example.trading.api.ShareDataProvider;
+import com.example.trading.api.IDataProvider;
+import com.example.trading.blackboard.MarketDataBlackboard;
 import com.example.trading.exception.DataProviderException;
 import com.example.trading.exception.ServiceException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
 import com.example.trading.repository.SharePriceRepository;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Concurrent identical requests are coalesced ("single-flight"): while a
+ * lookup for a query (or a symbol's latest price) is running, other callers
+ * asking for the same thing wait for it and share its result instead of
+ * hitting the repository and the provider again.
+ */
 public class SharePriceService implements IPriceService, TradingServiceContract {
     private final SharePriceRepository repository;
-    private final ShareDataProvider dataProvider;
+    private final IDataProvider dataProvider;
+    private final TradingCalendar calendar;
+
+    /** Lookups currently running, keyed by normalised query / symbol */
+    private final Map<String, CompletableFuture<List<SharePrice>>> pricesInFlight = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<SharePrice>>       latestInFlight = new ConcurrentHashMap<>();
+
+    /** Sessions the provider returned no bar for, per symbol — not refetched */
+    private final Map<String, Set<LocalDate>> emptySessions = new ConcurrentHashMap<>();
+
+    /** Non-session day on which the provider already had no latest bar, per symbol — not asked again that day */
+    private final Map<String, LocalDate> emptyClosedDays = new ConcurrentHashMap<>();
+
+    /** Where freshly fetched latest prices are posted for live consumers; may be null */
+    private volatile MarketDataBlackboard blackboard;
+
+    /** Above this many separate gaps, one spanning request is cheaper than many small ones */
+    private static final int MAX_GAP_REQUESTS = 4;
     
-    public SharePriceService(SharePriceRepository repository, ShareDataProvider dataProvider) {
+    public SharePriceService(SharePriceRepository repository, IDataProvider dataProvider) {
+        this(repository, dataProvider, TradingCalendar.getDefault());
+    }
+
+    /** Gap detection only expects bars on the calendar's sessions. */
+    public SharePriceService(SharePriceRepository repository, IDataProvider dataProvider, TradingCalendar calendar) {
         if (repository == null) {
             throw new IllegalArgumentException("Repository cannot be null");
         }
         if (dataProvider == null) {
             throw new IllegalArgumentException("Data provider cannot be null");
         }
+        if (calendar == null) {
+            throw new IllegalArgumentException("Trading calendar cannot be null");
+        }
         this.repository = repository;
         this.dataProvider = dataProvider;
+        this.calendar = calendar;
     }
     
+    /**
+     * Post every latest price fetched from the provider to {@code blackboard},
+     * so tick-driven knowledge sources (alert matching, live indicators) see it.
+     */
+    public void setBlackboard(MarketDataBlackboard blackboard) {
+        this.blackboard = blackboard;
+    }
+
     /**
      * Get share prices for a symbol between dates
      * First checks local storage, then fetches from external API if needed
      */
     public List<SharePrice> getSharePrices(ShareQuery query) {
         validateQuery(query);
-        
+        String key = query.getSymbol().trim().toUpperCase() + '|' + query.getStartDate() + '|' + query.getEndDate();
+        // Each caller gets its own list, since callers may sort or trim it
+        return new ArrayList<>(singleFlight(pricesInFlight, key, () -> loadSharePrices(query)));
+    }
+
+    /**
+     * Serve the range from the repository, fetching only the sessions it is
+     * missing. Missing sessions are grouped into contiguous gaps and each
+     * gap is requested separately, so extending a long cached history by a
+     * day fetches a day.
+     */
+    private List<SharePrice> loadSharePrices(ShareQuery query) {
+        String symbol = query.getSymbol().trim().toUpperCase();
         try {
-            // Convert LocalDate to LocalDateTime for repository calls
-            LocalDateTime startDateTime = query.getStartDate().atStartOfDay();
-            LocalDateTime endDateTime = query.getEndDate().atTime(LocalTime.MAX);
-            
-            // First check if we have the data locally
+            // First check what we have locally
             List<SharePrice> localData = repository.findBySymbolAndDateRange(
-                query.getSymbol(), startDateTime, endDateTime);
-            
-            // If we have complete data locally, return it sorted
-            if (isDataComplete(localData, query)) {
+                symbol, query.getStartDate(), query.getEndDate());
+
+            List<ShareQuery> gaps = findGaps(symbol, localData, query);
+            if (gaps.isEmpty()) {
                 return sortByDate(localData);
             }
-            
-            // Otherwise fetch from external provider
-            List<SharePrice> externalData;
-            try {
-                externalData = dataProvider.getSharePrices(query);
-            } catch (DataProviderException e) {
-                return handleDataProviderFailure(query, localData, e);
+            // A provider that knows it is down (e.g. an open circuit) is not waited on
+            if (!dataProvider.isAvailable()) {
+                return handleDataProviderFailure(query, localData,
+                        new DataProviderException("Data provider is not available"));
             }
-            
-            // Validate and save the new data to local storage
-            if (externalData != null && !externalData.isEmpty()) {
-                for (SharePrice price : externalData) {
-                    if (price != null) {
-                        repository.save(price);
-                    }
+
+            // Fetch only the gaps from the external provider
+            Map<LocalDate, SharePrice> merged = new TreeMap<>();
+            for (SharePrice price : localData) merged.put(price.getDate(), price);
+            for (ShareQuery gap : gaps) {
+                List<SharePrice> externalData;
+                try {
+                    externalData = dataProvider.getSharePrices(gap);
+                } catch (DataProviderException e) {
+                    // Keep the gaps already fetched along with the local data
+                    return handleDataProviderFailure(query, new ArrayList<>(merged.values()), e);
                 }
-                return sortByDate(externalData);
-            }
-            
-            // If external data is empty but we have some local data, return it
-            if (!localData.isEmpty()) {
-                return sortByDate(localData);
+                mergeFetched(symbol, query, List.of(gap), externalData, merged);
             }
-            
-            throw new ServiceException("No data available for symbol: " + query.getSymbol());
-            
+            return new ArrayList<>(merged.values());
+
         } catch (ServiceException e) {
             throw e; // Re-throw service exceptions
         } catch (Exception e) {
             throw new ServiceException("Error retrieving share prices for " + query.getSymbol(), e);
         }
     }
-    
+
     /**
      * Get the latest price for a symbol
      */
@@ -94,7 +147,10 @@ public class SharePriceService implements IPriceService, TradingServiceContract
         }
         
         String normalizedSymbol = symbol.trim().toUpperCase();
-        
+        return singleFlight(latestInFlight, normalizedSymbol, () -> loadLatestPrice(normalizedSymbol));
+    }
+
+    private SharePrice loadLatestPrice(String normalizedSymbol) {
         try {
             // Check repository first - using Optional properly
             SharePrice latest = repository.findLatestBySymbol(normalizedSymbol).orElse(null);
@@ -104,19 +160,31 @@ public class SharePriceService implements IPriceService, TradingServiceContract
                 return latest;
             }
             
-            // Fetch latest from external provider
-            ShareQuery query = new ShareQuery(normalizedSymbol, LocalDate.now(), LocalDate.now());
-            try {
-                List<SharePrice> prices = dataProvider.getSharePrices(query);
-                
-                if (prices != null && !prices.isEmpty()) {
-                    SharePrice latestPrice = prices.get(0);
-                    repository.save(latestPrice);
-                    return latestPrice;
+            // Fetch latest from external provider, unless it already reports itself down
+            // or has already said it has nothing for today and today is not a session
+            LocalDate today = LocalDate.now();
+            boolean knownEmpty = !calendar.isSession(today) && today.equals(emptyClosedDays.get(normalizedSymbol));
+            ShareQuery query = new ShareQuery(normalizedSymbol, today, today);
+            if (!knownEmpty && dataProvider.isAvailable()) {
+                try {
+                    List<SharePrice> prices = dataProvider.getSharePrices(query);
+                    if ((prices == null || prices.isEmpty()) && !calendar.isSession(today)) {
+                        emptyClosedDays.put(normalizedSymbol, today);
+                    }
+
+                    if (prices != null && !prices.isEmpty()) {
+                        SharePrice latestPrice = prices.get(0);
+                        repository.save(latestPrice);
+                        MarketDataBlackboard board = blackboard;
+                        if (board != null) {
+                            board.post(normalizedSymbol, latestPrice);
+                        }
+                        return latestPrice;
+                    }
+                } catch (DataProviderException e) {
+                    // Log the error but continue to return cached data if available
+                    System.err.println("Data provider failed for " + normalizedSymbol + ": " + e.getMessage());
                 }
-            } catch (DataProviderException e) {
-                // Log the error but continue to return cached data if available
-                System.err.println("Data provider failed for " + normalizedSymbol + ": " + e.getMessage());
             }
             
             // Return cached data if external fails
@@ -134,32 +202,221 @@ public class SharePriceService implements IPriceService, TradingServiceContract
     }
     
     /**
-     * Check if we have complete data for the requested range
+     * Run {@code load} for {@code key} unless a call for the same key is
+     * already in flight, in which case wait for that call and return its
+     * result (or rethrow its exception).
      */
-    private boolean isDataComplete(List<SharePrice> localData, ShareQuery query) {
-        if (localData == null || localData.isEmpty()) {
-            return false;
+    private static <T> T singleFlight(Map<String, CompletableFuture<T>> inFlight, String key, Supplier<T> load) {
+        CompletableFuture<T> flight = new CompletableFuture<>();
+        CompletableFuture<T> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error cause) throw cause;
+                throw e;
+            }
         }
-        
-        // Get all dates in the data
-        List<LocalDate> availableDates = localData.stream()
-            .map(SharePrice::getDate)
-            .distinct()
-            .sorted()
-            .collect(Collectors.toList());
-            
-        // Check if we have data for start and end dates
-        if (!availableDates.contains(query.getStartDate()) || 
-            !availableDates.contains(query.getEndDate())) {
-            return false;
+        try {
+            T result = load.get();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Complete on anything, Errors included, or the waiters block forever
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Prices for several symbols at once. Each query is served from the
+     * repository as far as it can be; the missing sessions of every symbol
+     * then go to the provider in a single batch (one request per symbol,
+     * spanning its gaps), so refreshing many symbols costs about one round
+     * trip. A symbol whose fetch fails falls back to its local data, as a
+     * single query would, and otherwise is reported in its own result.
+     *
+     * @return results keyed by upper-case symbol, in query order
+     * @throws IllegalArgumentException if a query is invalid or a symbol repeats
+     */
+    @Override
+    public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+        if (queries == null) {
+            throw new IllegalArgumentException("Query list cannot be null");
+        }
+        Map<String, PriceFetchResult> results = new LinkedHashMap<>();
+        Map<String, GapFill> fills = new LinkedHashMap<>();
+        for (ShareQuery query : queries) {
+            validateQuery(query);
+            String symbol = query.getSymbol().trim().toUpperCase();
+            if (results.containsKey(symbol)) {
+                throw new IllegalArgumentException("Duplicate symbol in batch: " + query.getSymbol());
+            }
+            long started = System.nanoTime();
+            try {
+                List<SharePrice> localData = repository.findBySymbolAndDateRange(
+                        symbol, query.getStartDate(), query.getEndDate());
+                List<ShareQuery> gaps = findGaps(symbol, localData, query);
+                if (gaps.isEmpty()) {
+                    results.put(symbol, PriceFetchResult.success(query, sortByDate(localData), elapsedMillis(started)));
+                } else {
+                    results.put(symbol, null);   // keeps query order; filled in below
+                    fills.put(symbol, new GapFill(query, localData, gaps, started));
+                }
+            } catch (RuntimeException e) {
+                results.put(symbol, PriceFetchResult.failure(query, e, elapsedMillis(started)));
+            }
+        }
+        if (fills.isEmpty()) {
+            return results;
+        }
+
+        Map<String, PriceFetchResult> fetched = Map.of();
+        if (dataProvider.isAvailable()) {
+            List<ShareQuery> requests = new ArrayList<>(fills.size());
+            for (GapFill fill : fills.values()) requests.add(fill.span());
+            fetched = dataProvider.getSharePrices(requests);
+        }
+        for (Map.Entry<String, GapFill> entry : fills.entrySet()) {
+            String symbol = entry.getKey();
+            GapFill fill = entry.getValue();
+            PriceFetchResult result = fetched.get(symbol);
+            try {
+                List<SharePrice> prices;
+                if (result != null && result.isSuccess()) {
+                    Map<LocalDate, SharePrice> merged = new TreeMap<>();
+                    for (SharePrice price : fill.localData) merged.put(price.getDate(), price);
+                    mergeFetched(symbol, fill.query, fill.gaps, result.getPrices(), merged);
+                    prices = new ArrayList<>(merged.values());
+                } else {
+                    prices = handleDataProviderFailure(fill.query, fill.localData, result == null
+                            ? new DataProviderException("Data provider is not available")
+                            : result.getError() instanceof DataProviderException e ? e
+                            : new DataProviderException(result.getError().getMessage(), result.getError()));
+                }
+                results.put(symbol, PriceFetchResult.success(fill.query, prices, elapsedMillis(fill.started)));
+            } catch (RuntimeException e) {
+                results.put(symbol, PriceFetchResult.failure(fill.query, e, elapsedMillis(fill.started)));
+            }
+        }
+        return results;
+    }
+
+    /** A query's local bars and the gaps still to fetch for it. */
+    private static final class GapFill {
+        final ShareQuery query;
+        final List<SharePrice> localData;
+        final List<ShareQuery> gaps;
+        final long started;
+
+        GapFill(ShareQuery query, List<SharePrice> localData, List<ShareQuery> gaps, long started) {
+            this.query = query;
+            this.localData = localData;
+            this.gaps = gaps;
+            this.started = started;
+        }
+
+        /** One request covering every gap, for a batch that takes one query per symbol */
+        ShareQuery span() {
+            return new ShareQuery(query.getSymbol().trim().toUpperCase(),
+                    gaps.get(0).getStartDate(), gaps.get(gaps.size() - 1).getEndDate());
+        }
+    }
+
+    /**
+     * Save bars fetched for {@code gaps}, add the in-range ones to
+     * {@code merged} and remember sessions in the gaps that came back empty.
+     */
+    private void mergeFetched(String symbol, ShareQuery query, List<ShareQuery> gaps,
+                              List<SharePrice> externalData, Map<LocalDate, SharePrice> merged) {
+        if (externalData == null) externalData = List.of();
+
+        // Save everything the provider sent; only in-range bars are returned
+        if (!externalData.isEmpty()) {
+            repository.saveAll(symbol, externalData);
+        }
+        Set<LocalDate> received = new HashSet<>();
+        for (SharePrice price : withinRange(externalData, query)) {
+            merged.put(price.getDate(), price);
+            received.add(price.getDate());
+        }
+        LocalDate newest = null;
+        for (SharePrice price : externalData) {
+            if (newest == null || price.getDate().isAfter(newest)) newest = price.getDate();
+        }
+        for (ShareQuery gap : gaps) {
+            rememberEmptySessions(symbol, gap, received, newest);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    /**
+     * Contiguous runs of calendar sessions in the query range that have no
+     * local bar and are not known to be empty. Non-sessions never count as
+     * missing, so a run may span a weekend or holiday. More than
+     * {@value #MAX_GAP_REQUESTS} runs are fetched as a single span from the
+     * first to the last.
+     */
+    private List<ShareQuery> findGaps(String symbol, List<SharePrice> localData, ShareQuery query) {
+        Set<LocalDate> covered = new HashSet<>();
+        for (SharePrice price : localData) {
+            if (calendar.isSession(price.getDate())) covered.add(price.getDate());
+        }
+        Set<LocalDate> empty = emptySessions.getOrDefault(symbol, Set.of());
+        for (LocalDate day : empty) {
+            if (!day.isBefore(query.getStartDate()) && !day.isAfter(query.getEndDate())) covered.add(day);
+        }
+        // Complete ranges — the common case — are recognised without walking the sessions
+        if (covered.size() >= calendar.countSessions(query.getStartDate(), query.getEndDate())) {
+            return List.of();
+        }
+
+        List<ShareQuery> gaps = new ArrayList<>();
+        LocalDate gapStart = null, gapEnd = null;
+        for (LocalDate day = calendar.sessionOnOrAfter(query.getStartDate());
+                day != null && !day.isAfter(query.getEndDate()); day = calendar.nextSession(day)) {
+            if (covered.contains(day)) {
+                if (gapStart != null) {
+                    gaps.add(new ShareQuery(symbol, gapStart, gapEnd));
+                    gapStart = null;
+                }
+            } else {
+                if (gapStart == null) gapStart = day;
+                gapEnd = day;
+            }
+        }
+        if (gapStart != null) gaps.add(new ShareQuery(symbol, gapStart, gapEnd));
+
+        if (gaps.size() > MAX_GAP_REQUESTS) {
+            return List.of(new ShareQuery(symbol, gaps.get(0).getStartDate(), gaps.get(gaps.size() - 1).getEndDate()));
+        }
+        return gaps;
+    }
+
+    /**
+     * Record past sessions in a fetched gap that the provider had no bar for
+     * (holidays, days before listing) so they are not requested again.
+     * Only sessions before the newest bar in the answer count: a missing day
+     * with later bars around it is a real hole, while an empty or cut-short
+     * answer may be transient. Today and later are left out: their bars may
+     * simply not exist yet.
+     */
+    private void rememberEmptySessions(String symbol, ShareQuery gap, Set<LocalDate> received, LocalDate newest) {
+        if (newest == null) return;
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = calendar.sessionOnOrAfter(gap.getStartDate());
+                day != null && !day.isAfter(gap.getEndDate()) && day.isBefore(today) && day.isBefore(newest);
+                day = calendar.nextSession(day)) {
+            if (!received.contains(day)) {
+                emptySessions.computeIfAbsent(symbol, k -> ConcurrentHashMap.newKeySet()).add(day);
+            }
         }
-        
-        // For a more thorough check, ensure we don't have large gaps
-        // This is a simple heuristic - in production you might want more sophisticated logic
-        long daysBetween = query.getStartDate().until(query.getEndDate()).getDays();
-        long expectedWorkingDays = Math.max(1, daysBetween * 5 / 7); // Rough estimate excluding weekends
-        
-        return availableDates.size() >= Math.min(expectedWorkingDays * 0.8, daysBetween + 1);
     }
     
     /**
@@ -173,6 +430,12 @@ public class SharePriceService implements IPriceService, TradingServiceContract
         throw new ServiceException("No data available for " + query.getSymbol() + " (external provider failed)", e);
     }
     
+    private List<SharePrice> withinRange(List<SharePrice> prices, ShareQuery query) {
+        return prices.stream()
+                .filter(p -> !p.getDate().isBefore(query.getStartDate()) && !p.getDate().isAfter(query.getEndDate()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Sort share prices by date in ascending order
      */
@@ -236,6 +499,8 @@ public class SharePriceService implements IPriceService, TradingServiceContract
         
         try {
             repository.deleteBySymbol(symbol.trim().toUpperCase());
+            emptySessions.remove(symbol.trim().toUpperCase());
+            emptyClosedDays.remove(symbol.trim().toUpperCase());
         } catch (Exception e) {
             throw new ServiceException("Error clearing cache for symbol: " + symbol, e);
         }
@@ -0,0 +1,123 @@
+package com.example.trading.service;
+
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Knowledge source that keeps live technical indicators for every symbol
+ * posted to the {@link MarketDataBlackboard}.
+ *
+ * Each symbol owns an {@link IndicatorEngine}; a new price advances it by one
+ * bar in O(1) instead of recomputing the whole series. Symbols can be seeded
+ * with history first so indicators are meaningful from the first live tick.
+ */
+public class StreamingIndicatorService implements MarketDataBlackboard.BlackboardObserver {
+
+    private final Map<String, IndicatorEngine> indicators = new ConcurrentHashMap<>();
+    private final IndicatorEngine.Precision precision;
+
+    public StreamingIndicatorService() {
+        this(IndicatorEngine.Precision.EXACT);
+    }
+
+    public StreamingIndicatorService(IndicatorEngine.Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Precision cannot be null");
+        }
+        this.precision = precision;
+    }
+
+    /** Register with the blackboard so every posted price advances the indicators. */
+    public void attach(MarketDataBlackboard blackboard) {
+        blackboard.addObserver(this);
+    }
+
+    public void detach(MarketDataBlackboard blackboard) {
+        blackboard.removeObserver(this);
+    }
+
+    /**
+     * Replace the state for a symbol with one built from {@code history}
+     * (ascending by date).
+     */
+    public void seed(String symbol, List<SharePrice> history) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Symbol cannot be null or empty");
+        }
+        String key = symbol.trim().toUpperCase();
+        IndicatorEngine state = IndicatorEngine.create(key, precision);
+        if (history != null) {
+            state.seed(history);
+        }
+        indicators.put(key, state);
+    }
+
+    @Override
+    public void onPriceUpdated(String symbol, SharePrice latestPrice) {
+        update(symbol, latestPrice);
+    }
+
+    /**
+     * Advances the symbol through the whole batch under a single lock. Only
+     * the window state moves per bar; the indicator row is built once, when
+     * {@link #getLatest(String)} asks for it.
+     */
+    @Override
+    public void onBatchPosted(String symbol, List<SharePrice> prices) {
+        if (symbol == null || prices.isEmpty()) {
+            return;
+        }
+        String key = symbol.trim().toUpperCase();
+        IndicatorEngine state = indicators.computeIfAbsent(key, k -> IndicatorEngine.create(k, precision));
+        synchronized (state) {
+            for (SharePrice price : prices) {
+                state.advance(price);
+            }
+        }
+    }
+
+    /**
+     * Advance a symbol by one bar.
+     * @return the new indicator row, or null if the bar was stale or incomplete
+     */
+    public PerformanceIndicator update(String symbol, SharePrice price) {
+        if (symbol == null || price == null) {
+            return null;
+        }
+        String key = symbol.trim().toUpperCase();
+        IndicatorEngine state = indicators.computeIfAbsent(key, k -> IndicatorEngine.create(k, precision));
+        synchronized (state) {
+            return state.update(price);
+        }
+    }
+
+    /** Latest indicator row for a symbol, if it has seen any bars. */
+    public Optional<PerformanceIndicator> getLatest(String symbol) {
+        if (symbol == null) {
+            return Optional.empty();
+        }
+        IndicatorEngine state = indicators.get(symbol.trim().toUpperCase());
+        if (state == null) {
+            return Optional.empty();
+        }
+        synchronized (state) {
+            return Optional.ofNullable(state.current());
+        }
+    }
+
+    public boolean isTracking(String symbol) {
+        return symbol != null && indicators.containsKey(symbol.trim().toUpperCase());
+    }
+
+    public void reset(String symbol) {
+        if (symbol != null) {
+            indicators.remove(symbol.trim().toUpperCase());
+        }
+    }
+}
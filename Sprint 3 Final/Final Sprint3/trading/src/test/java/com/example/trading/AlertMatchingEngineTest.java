@@ -0,0 +1,298 @@
+package com.example.trading;
+
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.model.Account;
+import com.example.trading.model.Alert;
+import com.example.trading.model.SharePrice;
+import com.example.trading.repository.InMemoryAccountRepository;
+import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.service.AlertMatchingEngine;
+import com.example.trading.service.SharePriceService;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the threshold-indexed alert engine.
+ *
+ * Tests cover:
+ *  TC-AME-01  A price fires exactly the crossed PRICE_ABOVE / PRICE_BELOW alerts
+ *  TC-AME-02  Fired alerts leave the index and never fire twice
+ *  TC-AME-03  Unregistered and non-threshold alerts are ignored
+ *  TC-AME-04  indexAll spans accounts and saves each owner once per tick
+ *  TC-AME-05  Posting to the blackboard drives matching
+ *  TC-AME-06  A posted batch fires alerts crossed by any bar, in one report
+ *  TC-AME-07  Polling and tick matching racing on one alert fire it once
+ *  TC-AME-08  Latest prices fetched by SharePriceService reach the engine
+ *  TC-AME-09  Triggers persist through a repository that returns fresh copies
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AlertMatchingEngineTest {
+
+    private AlertMatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new AlertMatchingEngine();
+    }
+
+    // TC-AME-01
+    @Test @Order(1)
+    @DisplayName("TC-AME-01: Only crossed alerts fire")
+    void testFiresCrossedOnly() {
+        Alert above150 = alert("AAPL", "150.00", Alert.AlertType.PRICE_ABOVE);
+        Alert above160 = alert("AAPL", "160.00", Alert.AlertType.PRICE_ABOVE);
+        Alert below140 = alert("AAPL", "140.00", Alert.AlertType.PRICE_BELOW);
+        Alert below155 = alert("AAPL", "155", Alert.AlertType.PRICE_BELOW);
+        Alert other    = alert("MSFT", "100.00", Alert.AlertType.PRICE_ABOVE);
+        for (Alert a : List.of(above150, above160, below140, below155, other)) engine.register(a);
+
+        List<Alert> fired = engine.match("AAPL", new BigDecimal("155.00"));
+
+        assertEquals(2, fired.size());
+        assertTrue(fired.contains(above150));
+        assertTrue(fired.contains(below155), "Target equal to price fires");
+        assertTrue(above160.isActive());
+        assertTrue(below140.isActive());
+        assertTrue(other.isActive());
+        assertEquals(3, engine.size());
+    }
+
+    // TC-AME-02
+    @Test @Order(2)
+    @DisplayName("TC-AME-02: Alerts fire once")
+    void testFiresOnce() {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Alert a = alert("TSLA", String.valueOf(100 + i), Alert.AlertType.PRICE_ABOVE);
+            alerts.add(a);
+            engine.register(a);
+        }
+        assertEquals(101, engine.match("TSLA", new BigDecimal("200")).size());
+        assertTrue(engine.match("TSLA", new BigDecimal("200")).isEmpty());
+        assertEquals(899, engine.size("tsla"));
+        assertNotNull(alerts.get(0).getTriggeredAt());
+        assertNull(alerts.get(101).getTriggeredAt());
+    }
+
+    // TC-AME-03
+    @Test @Order(3)
+    @DisplayName("TC-AME-03: Unregistered and percent alerts are ignored")
+    void testIgnored() {
+        Alert cancelled = alert("NVDA", "800.00", Alert.AlertType.PRICE_ABOVE);
+        engine.register(cancelled);
+        assertTrue(engine.unregister(cancelled));
+        assertFalse(engine.register(alert("NVDA", "5", Alert.AlertType.PERCENT_CHANGE_UP)));
+
+        Alert inactive = alert("NVDA", "700.00", Alert.AlertType.PRICE_ABOVE);
+        inactive.setActive(false);
+        assertFalse(engine.register(inactive));
+
+        assertTrue(engine.match("NVDA", new BigDecimal("900")).isEmpty());
+        assertTrue(cancelled.isActive());
+        assertEquals(0, engine.size());
+    }
+
+    // TC-AME-04
+    @Test @Order(4)
+    @DisplayName("TC-AME-04: indexAll spans accounts, one save per owner")
+    void testIndexAllAndPersist() {
+        AtomicInteger saves = new AtomicInteger();
+        InMemoryAccountRepository repo = new InMemoryAccountRepository() {
+            @Override public Account save(Account account) {
+                saves.incrementAndGet();
+                return super.save(account);
+            }
+        };
+        Account alice = account("a-1", "alice");
+        alice.addAlert(alert("AAPL", "150", Alert.AlertType.PRICE_ABOVE));
+        alice.addAlert(alert("AAPL", "151", Alert.AlertType.PRICE_ABOVE));
+        Account bob = account("b-1", "bob");
+        bob.addAlert(alert("AAPL", "170", Alert.AlertType.PRICE_BELOW));
+        bob.addAlert(alert("MSFT", "300", Alert.AlertType.PRICE_ABOVE));
+        repo.save(alice);
+        repo.save(bob);
+
+        AlertMatchingEngine persistent = new AlertMatchingEngine(repo);
+        assertEquals(4, persistent.indexAll());
+        saves.set(0);
+
+        assertEquals(3, persistent.match("AAPL", new BigDecimal("160")).size());
+        assertEquals(2, saves.get());
+        long stillActive = repo.findById("a-1").orElseThrow().getAlerts().stream().filter(Alert::isActive).count();
+        assertEquals(0, stillActive);
+    }
+
+    // TC-AME-05
+    @Test @Order(5)
+    @DisplayName("TC-AME-05: Blackboard posts drive matching")
+    void testBlackboardDriven() {
+        MarketDataBlackboard blackboard = MarketDataBlackboard.getInstance();
+        blackboard.clear();
+        Alert a = alert("GOOGL", "180.00", Alert.AlertType.PRICE_ABOVE);
+        engine.register(a);
+        List<Alert> reported = new ArrayList<>();
+        engine.addListener((symbol, triggered) -> reported.addAll(triggered));
+        engine.attach(blackboard);
+        try {
+            blackboard.post("GOOGL", price("GOOGL", 175));
+            assertTrue(a.isActive());
+            blackboard.post("GOOGL", price("GOOGL", 181));
+        } finally {
+            engine.detach(blackboard);
+        }
+        assertFalse(a.isActive());
+        assertEquals(List.of(a), reported);
+    }
+
+    // TC-AME-06
+    @Test @Order(6)
+    @DisplayName("TC-AME-06: Batch posts are matched in one pass")
+    void testBatchMatched() {
+        MarketDataBlackboard blackboard = MarketDataBlackboard.getInstance();
+        blackboard.clear();
+        Alert spikeUp   = alert("AMD", "190.00", Alert.AlertType.PRICE_ABOVE);
+        Alert dipDown   = alert("AMD", "150.00", Alert.AlertType.PRICE_BELOW);
+        Alert untouched = alert("AMD", "200.00", Alert.AlertType.PRICE_ABOVE);
+        for (Alert a : List.of(spikeUp, dipDown, untouched)) engine.register(a);
+        AtomicInteger reports = new AtomicInteger();
+        List<Alert> reported = new ArrayList<>();
+        engine.addListener((symbol, triggered) -> {
+            reports.incrementAndGet();
+            reported.addAll(triggered);
+        });
+        engine.attach(blackboard);
+        try {
+            blackboard.postBatch("AMD", List.of(
+                    price("AMD", 160), price("AMD", 191), price("AMD", 149), price("AMD", 170)));
+        } finally {
+            engine.detach(blackboard);
+        }
+        assertEquals(1, reports.get());
+        assertEquals(2, reported.size());
+        assertTrue(reported.containsAll(List.of(spikeUp, dipDown)));
+        assertTrue(untouched.isActive());
+    }
+
+    // TC-AME-07
+    @Test @Order(7)
+    @DisplayName("TC-AME-07: Racing triggers fire an alert once")
+    void testRacingTriggersFireOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Alert a = alert("IBM", "200.00", Alert.AlertType.PRICE_ABOVE);
+                engine.register(a);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> fired = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    fired.add(pool.submit(() -> { start.await(); return !engine.match("IBM", new BigDecimal("201")).isEmpty(); }));
+                    fired.add(pool.submit(() -> { start.await(); return a.check(new BigDecimal("201")); }));
+                }
+                start.countDown();
+                int count = 0;
+                for (Future<Boolean> f : fired) if (f.get(5, TimeUnit.SECONDS)) count++;
+                assertEquals(1, count, "Round " + round);
+                assertFalse(a.isActive());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // TC-AME-08
+    @Test @Order(8)
+    @DisplayName("TC-AME-08: Fetched latest prices are posted")
+    void testServicePostsLatestPrices() {
+        MarketDataBlackboard blackboard = MarketDataBlackboard.getInstance();
+        blackboard.clear();
+        SharePriceService service = new SharePriceService(new JsonSharePriceRepository(),
+                new SharePriceServiceTest.StubDataProvider());
+        service.setBlackboard(blackboard);
+        Alert a = alert("ORCL", "140.00", Alert.AlertType.PRICE_ABOVE);
+        engine.register(a);
+        engine.attach(blackboard);
+        try {
+            SharePrice latest = service.getLatestPrice("ORCL");
+            assertEquals(latest, blackboard.getLatest("ORCL").orElseThrow());
+        } finally {
+            engine.detach(blackboard);
+        }
+        assertFalse(a.isActive());
+    }
+
+    // TC-AME-09
+    @Test @Order(9)
+    @DisplayName("TC-AME-09: Triggers survive copying repositories")
+    void testPersistToCopyingRepository() {
+        InMemoryAccountRepository repo = new InMemoryAccountRepository() {
+            @Override public Optional<Account> findById(String accountId) {
+                return super.findById(accountId).map(AlertMatchingEngineTest.this::deepCopy);
+            }
+            @Override public List<Account> findAll() {
+                return super.findAll().stream().map(AlertMatchingEngineTest.this::deepCopy).toList();
+            }
+        };
+        Account carol = account("c-1", "carol");
+        carol.addAlert(alert("NVDA", "900", Alert.AlertType.PRICE_ABOVE));
+        carol.addAlert(alert("NVDA", "950", Alert.AlertType.PRICE_ABOVE));
+        repo.save(carol);
+
+        AlertMatchingEngine persistent = new AlertMatchingEngine(repo);
+        persistent.indexAll();
+        assertEquals(1, persistent.match("NVDA", new BigDecimal("920")).size());
+
+        List<Alert> stored = repo.findById("c-1").orElseThrow().getAlerts();
+        assertFalse(stored.get(0).isActive(), "The trigger reached the stored account");
+        assertNotNull(stored.get(0).getTriggeredAt());
+        assertTrue(stored.get(1).isActive());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private Alert alert(String symbol, String target, Alert.AlertType type) {
+        Alert alert = new Alert(symbol, new BigDecimal(target), type);
+        alert.setAlertId(symbol + "-" + type + "-" + target);
+        return alert;
+    }
+
+    private Account account(String id, String username) {
+        Account account = new Account();
+        account.setAccountId(id);
+        account.setUsername(username);
+        account.setBalance(BigDecimal.ZERO);
+        return account;
+    }
+
+    /** A copy sharing no objects with {@code account}, as a database-backed repository returns. */
+    private Account deepCopy(Account account) {
+        Account copy = account(account.getAccountId(), account.getUsername());
+        for (Alert alert : account.getAlerts()) {
+            Alert fresh = alert(alert.getSymbol(), alert.getTargetPrice().toPlainString(), alert.getAlertType());
+            fresh.setAlertId(alert.getAlertId());
+            fresh.setActive(alert.isActive());
+            fresh.setTriggeredAt(alert.getTriggeredAt());
+            copy.addAlert(fresh);
+        }
+        return copy;
+    }
+
+    private SharePrice price(String symbol, double close) {
+        return new SharePrice(symbol, LocalDate.of(2024, 3, 1),
+                BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2),
+                1_000_000L);
+    }
+}
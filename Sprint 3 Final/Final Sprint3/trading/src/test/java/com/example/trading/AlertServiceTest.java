@@ -1,12 +1,20 @@
 package com.example.trading;
 
+import com.example.trading.exception.ServiceException;
+import com.example.trading.model.Account;
 import com.example.trading.model.Alert;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
 import com.example.trading.repository.InMemoryAccountRepository;
 import com.example.trading.service.*;
 import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +30,12 @@ import static org.junit.jupiter.api.Assertions.*;
  *  TC-ALT-06  Delete alert removes it from all lists
  *  TC-ALT-07  Get alerts for specific symbol
  *  TC-ALT-08  Alert statistics reflect correct counts
+ *  TC-ALT-09  checkAlerts fetches each symbol's price once
+ *  TC-ALT-10  Triggered alerts are persisted with a single save
+ *  TC-ALT-11  PERCENT_CHANGE_UP / DOWN compare against the previous close
+ *  TC-ALT-12  The reference close is fetched once per session
+ *  TC-ALT-13  A failed reference lookup does not stop the symbol's price alerts
+ *  TC-ALT-14  A missing reference is looked up again, not cached for the session
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class AlertServiceTest {
@@ -142,6 +156,125 @@ class AlertServiceTest {
                 "Total should equal sum of all statuses");
     }
 
+    // TC-ALT-09
+    @Test @Order(9)
+    @DisplayName("TC-ALT-09: checkAlerts fetches each symbol once")
+    void testOneFetchPerSymbol() {
+        CountingRepository repo = new CountingRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "180.00", "MSFT", "410.00"));
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        for (int i = 0; i < 10; i++) {
+            service.createAlert("AAPL", new BigDecimal(170 + i * 2), Alert.AlertType.PRICE_ABOVE);
+        }
+        service.createAlert("MSFT", new BigDecimal("400.00"), Alert.AlertType.PRICE_BELOW);
+        service.createAlert("MSFT", new BigDecimal("420.00"), Alert.AlertType.PRICE_BELOW);
+
+        List<Alert> triggered = service.checkAlerts();
+
+        assertEquals(1, prices.calls.get("AAPL").get());
+        assertEquals(1, prices.calls.get("MSFT").get());
+        // AAPL at 180 crosses targets 170..180; MSFT at 410 is below 420 only
+        assertEquals(7, triggered.size());
+        triggered.forEach(a -> assertFalse(a.isActive()));
+    }
+
+    // TC-ALT-10
+    @Test @Order(10)
+    @DisplayName("TC-ALT-10: Triggered alerts are saved once")
+    void testSingleSave() {
+        CountingRepository repo = new CountingRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "180.00", "TSLA", "150.00"));
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        service.createAlert("AAPL", new BigDecimal("175.00"), Alert.AlertType.PRICE_ABOVE);
+        service.createAlert("TSLA", new BigDecimal("160.00"), Alert.AlertType.PRICE_BELOW);
+        service.createAlert("NVDA", new BigDecimal("900.00"), Alert.AlertType.PRICE_ABOVE); // no price
+
+        int before = repo.saves.get();
+        assertEquals(2, service.checkAlerts().size());
+        assertEquals(before + 1, repo.saves.get());
+
+        before = repo.saves.get();
+        assertTrue(service.checkAlerts().isEmpty());
+        assertEquals(before, repo.saves.get(), "Nothing fired, nothing saved");
+    }
+
+    // TC-ALT-11
+    @Test @Order(11)
+    @DisplayName("TC-ALT-11: Percent-change alerts use the previous close")
+    void testPercentChange() {
+        InMemoryAccountRepository repo = new InMemoryAccountRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "105.50", "TSLA", "96.00"));
+        prices.previousClose = new BigDecimal("100.00");
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        Alert up5   = service.createAlert("AAPL", new BigDecimal("5"), Alert.AlertType.PERCENT_CHANGE_UP);
+        Alert up6   = service.createAlert("AAPL", new BigDecimal("6"), Alert.AlertType.PERCENT_CHANGE_UP);
+        Alert down3 = service.createAlert("TSLA", new BigDecimal("3"), Alert.AlertType.PERCENT_CHANGE_DOWN);
+        Alert down5 = service.createAlert("TSLA", new BigDecimal("5"), Alert.AlertType.PERCENT_CHANGE_DOWN);
+
+        List<Alert> triggered = service.checkAlerts();
+
+        assertEquals(2, triggered.size());
+        assertFalse(up5.isActive(), "+5.5% crosses 5%");
+        assertTrue(up6.isActive());
+        assertFalse(down3.isActive(), "-4% crosses -3%");
+        assertTrue(down5.isActive());
+    }
+
+    // TC-ALT-12
+    @Test @Order(12)
+    @DisplayName("TC-ALT-12: Reference close fetched once per session")
+    void testReferenceCached() {
+        InMemoryAccountRepository repo = new InMemoryAccountRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "101.00", "MSFT", "50.00"));
+        prices.previousClose = new BigDecimal("100.00");
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        service.createAlert("AAPL", new BigDecimal("5"), Alert.AlertType.PERCENT_CHANGE_UP);
+        service.createAlert("AAPL", new BigDecimal("10"), Alert.AlertType.PERCENT_CHANGE_UP);
+        service.createAlert("MSFT", new BigDecimal("60"), Alert.AlertType.PRICE_ABOVE);
+
+        for (int i = 0; i < 3; i++) assertTrue(service.checkAlerts().isEmpty());
+
+        assertEquals(1, prices.historyCalls.get(), "One history lookup for AAPL, none for MSFT");
+        assertEquals(3, prices.calls.get("AAPL").get());
+    }
+
+    // TC-ALT-13
+    @Test @Order(13)
+    @DisplayName("TC-ALT-13: Price alerts survive a failed reference lookup")
+    void testReferenceFailure() {
+        InMemoryAccountRepository repo = new InMemoryAccountRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "105.50"));
+        prices.historyError = new ServiceException("No data available for AAPL");
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        Alert above   = service.createAlert("AAPL", new BigDecimal("100"), Alert.AlertType.PRICE_ABOVE);
+        Alert percent = service.createAlert("AAPL", new BigDecimal("5"), Alert.AlertType.PERCENT_CHANGE_UP);
+
+        assertEquals(List.of(above), service.checkAlerts());
+        assertFalse(above.isActive());
+        assertTrue(percent.isActive(), "No reference, no percent match");
+    }
+
+    // TC-ALT-14
+    @Test @Order(14)
+    @DisplayName("TC-ALT-14: Missing references are retried")
+    void testMissingReferenceRetried() {
+        InMemoryAccountRepository repo = new InMemoryAccountRepository();
+        CountingPriceService prices = new CountingPriceService(Map.of("AAPL", "105.50"));
+        AlertService service = new AlertService(
+                new AccountWalletService(repo, AuthenticationService.getInstance()), prices, repo);
+        Alert percent = service.createAlert("AAPL", new BigDecimal("5"), Alert.AlertType.PERCENT_CHANGE_UP);
+
+        assertTrue(service.checkAlerts().isEmpty(), "No history yet");
+        prices.previousClose = new BigDecimal("100.00");   // the missing bars arrive
+        assertEquals(List.of(percent), service.checkAlerts());
+        assertEquals(2, prices.historyCalls.get());
+    }
+
     // ── Stub ──────────────────────────────────────────────────────────────────
     static class StubPriceService implements IPriceService {
         @Override public List<com.example.trading.model.SharePrice> getSharePrices(
@@ -150,4 +283,40 @@ class AlertServiceTest {
         @Override public List<String> getAvailableSymbols() { return List.of(); }
         @Override public boolean isDataProviderAvailable() { return false; }
     }
+
+    /** Returns fixed closes and counts lookups per symbol. */
+    static class CountingPriceService extends StubPriceService {
+        final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        final AtomicInteger historyCalls = new AtomicInteger();
+        volatile BigDecimal previousClose;
+        volatile RuntimeException historyError;
+        private final Map<String, String> closes;
+        CountingPriceService(Map<String, String> closes) { this.closes = closes; }
+
+        @Override public List<SharePrice> getSharePrices(ShareQuery q) {
+            historyCalls.incrementAndGet();
+            if (historyError != null) throw historyError;
+            if (previousClose == null) return List.of();
+            LocalDate day = q.getEndDate();
+            return List.of(
+                    new SharePrice(q.getSymbol(), day.minusDays(1), BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, 1L),
+                    new SharePrice(q.getSymbol(), day, previousClose, previousClose, previousClose, previousClose, 1L));
+        }
+
+        @Override public SharePrice getLatestPrice(String s) {
+            calls.computeIfAbsent(s, k -> new AtomicInteger()).incrementAndGet();
+            String close = closes.get(s);
+            if (close == null) return null;
+            BigDecimal c = new BigDecimal(close);
+            return new SharePrice(s, LocalDate.now(), c, c, c, c, 1_000_000L);
+        }
+    }
+
+    static class CountingRepository extends InMemoryAccountRepository {
+        final AtomicInteger saves = new AtomicInteger();
+        @Override public Account save(Account account) {
+            saves.incrementAndGet();
+            return super.save(account);
+        }
+    }
 }
@@ -1,18 +1,32 @@
 package com.example.trading;
 
+import com.example.trading.adapter.CachingDataProvider;
+import com.example.trading.adapter.CircuitBreaker;
 import com.example.trading.adapter.MarketDataAdapter;
 import com.example.trading.api.IAPI;
 import com.example.trading.blackboard.MarketDataBlackboard;
 import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.ServiceException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.PriceFetchResult;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.service.SharePriceService;
 import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,9 +38,21 @@ import static org.junit.jupiter.api.Assertions.*;
  *  TC-BB-02   Blackboard observer notified on new price
  *  TC-BB-03   Post batch updates history correctly
  *  TC-BB-04   Blackboard tracks multiple symbols independently
+ *  TC-BB-05   History is capped at 500 bars, oldest dropped first
+ *  TC-BB-06   History snapshots are unaffected by later posts
+ *  TC-BB-07   Concurrent posts across symbols lose nothing
+ *  TC-BB-08   A batch fires one onBatchPosted call and no per-bar updates
+ *  TC-BB-09   A batch larger than the history cap keeps its newest bars
+ *  TC-BB-10   Readers never observe a partially applied batch
  *  TC-ADP-01  Adapter wraps IAPI correctly
  *  TC-ADP-02  Adapter propagates DataProviderException
  *  TC-ADP-03  Adapter returns empty list when provider unavailable
+ *  TC-ADP-04  Unknown symbols are answered from the negative cache until it expires
+ *  TC-ADP-05  Failures within the window trip the breaker; an open breaker rejects without calling
+ *  TC-ADP-06  Half-open lets one trial through: failure reopens, success closes
+ *  TC-ADP-07  SharePriceService serves local data while the breaker is open
+ *  TC-ADP-08  A multi-symbol service request reaches the API as one batch through cache and adapter
+ *  TC-ADP-09  An Error during the half-open trial still resolves it; an unreported trial expires
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class BlackboardAndAdapterTest {
@@ -112,6 +138,289 @@ class BlackboardAndAdapterTest {
         assertFalse(adapter.isAvailable());
     }
 
+    // TC-BB-05
+    @Test @Order(8)
+    @DisplayName("TC-BB-05: History keeps the newest 500 bars")
+    void testHistoryCap() {
+        for (int i = 0; i < 1_234; i++) blackboard.post("AMZN", makePrice("AMZN", i));
+        List<SharePrice> history = blackboard.getHistory("AMZN");
+        assertEquals(500, history.size());
+        assertEquals(734.0, history.get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(1_233.0, history.get(499).getClosePriceAsDouble(), 0.001);
+        assertEquals(1_233.0, blackboard.getLatest("AMZN").get().getClosePriceAsDouble(), 0.001);
+    }
+
+    // TC-BB-06
+    @Test @Order(9)
+    @DisplayName("TC-BB-06: Snapshots are stable")
+    void testSnapshotStable() {
+        for (int i = 0; i < 500; i++) blackboard.post("META", makePrice("META", i));
+        List<SharePrice> snapshot = blackboard.getHistory("META");
+        for (int i = 500; i < 2_000; i++) blackboard.post("META", makePrice("META", i));
+        assertEquals(500, snapshot.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, snapshot.get(i).getClosePriceAsDouble(), 0.001);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(makePrice("META", 1)));
+    }
+
+    // TC-BB-07
+    @Test @Order(10)
+    @DisplayName("TC-BB-07: Concurrent posts are all applied")
+    void testConcurrentPosts() throws Exception {
+        String[] symbols = {"AAPL", "MSFT", "NVDA", "TSLA"};
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String symbol = symbols[t % symbols.length];
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200; i++) blackboard.post(symbol, makePrice(symbol, i));
+            }));
+        }
+        for (Thread writer : writers) writer.join();
+        for (String symbol : symbols) {
+            assertEquals(400, blackboard.getHistory(symbol).size(), symbol);
+        }
+    }
+
+    // TC-BB-08
+    @Test @Order(11)
+    @DisplayName("TC-BB-08: Batch is one notification")
+    void testBatchSingleNotification() {
+        AtomicInteger singles = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        MarketDataBlackboard.BlackboardObserver observer = new MarketDataBlackboard.BlackboardObserver() {
+            @Override public void onPriceUpdated(String symbol, SharePrice latestPrice) { singles.incrementAndGet(); }
+            @Override public void onBatchPosted(String symbol, List<SharePrice> prices) { batchSizes.add(prices.size()); }
+        };
+        blackboard.addObserver(observer);
+        try {
+            List<SharePrice> batch = new ArrayList<>();
+            for (int i = 0; i < 250; i++) batch.add(makePrice("NFLX", i));
+            blackboard.postBatch("nflx", batch);
+        } finally {
+            blackboard.removeObserver(observer);
+        }
+        assertEquals(0, singles.get());
+        assertEquals(List.of(250), batchSizes);
+        assertEquals(249.0, blackboard.getLatest("NFLX").get().getClosePriceAsDouble(), 0.001);
+
+        // Observers that do not override onBatchPosted still see every bar
+        AtomicInteger replayed = new AtomicInteger();
+        MarketDataBlackboard.BlackboardObserver legacy = (sym, p) -> replayed.incrementAndGet();
+        blackboard.addObserver(legacy);
+        try {
+            blackboard.postBatch("NFLX", List.of(makePrice("NFLX", 1), makePrice("NFLX", 2)));
+        } finally {
+            blackboard.removeObserver(legacy);
+        }
+        assertEquals(2, replayed.get());
+    }
+
+    // TC-BB-09
+    @Test @Order(12)
+    @DisplayName("TC-BB-09: Oversized batch keeps newest 500")
+    void testOversizedBatch() {
+        for (int i = 0; i < 300; i++) blackboard.post("ORCL", makePrice("ORCL", i));
+        List<SharePrice> batch = new ArrayList<>();
+        for (int i = 300; i < 500; i++) batch.add(makePrice("ORCL", i));
+        blackboard.postBatch("ORCL", batch);
+        List<SharePrice> history = blackboard.getHistory("ORCL");
+        assertEquals(500, history.size());
+        for (int i = 0; i < 500; i++) assertEquals(i, history.get(i).getClosePriceAsDouble(), 0.001);
+
+        batch.clear();
+        for (int i = 1_000; i < 1_700; i++) batch.add(makePrice("ORCL", i));
+        blackboard.postBatch("ORCL", batch);
+        history = blackboard.getHistory("ORCL");
+        assertEquals(500, history.size());
+        assertEquals(1_200.0, history.get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(1_699.0, history.get(499).getClosePriceAsDouble(), 0.001);
+    }
+
+    // TC-BB-10
+    @Test @Order(13)
+    @DisplayName("TC-BB-10: Batches are atomic to readers")
+    void testBatchAtomic() throws Exception {
+        AtomicBoolean torn = new AtomicBoolean(false);
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread reader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                if (blackboard.getHistory("IBM").size() % 50 != 0) torn.set(true);
+            }
+        });
+        for (int b = 0; b < 200; b++) {
+            List<SharePrice> batch = new ArrayList<>();
+            for (int i = 0; i < 50; i++) batch.add(makePrice("IBM", b * 50 + i));
+            blackboard.postBatch("IBM", batch);
+        }
+        done.set(true);
+        reader.join();
+        assertFalse(torn.get(), "Reader saw part of a batch");
+        assertEquals(500, blackboard.getHistory("IBM").size());
+    }
+
+    // TC-ADP-04
+    @Test @Order(14)
+    @DisplayName("TC-ADP-04: Negative caching of unknown symbols")
+    void testNegativeCache() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-13T15:00:00Z"));
+        ScriptedAPI api = new ScriptedAPI();
+        api.unknown.add("ZZZZ");
+        MarketDataAdapter adapter = new MarketDataAdapter(api, new CircuitBreaker(), Duration.ofMinutes(10), clock);
+        ShareQuery query = new ShareQuery("zzzz", LocalDate.now().minusDays(5), LocalDate.now());
+
+        assertThrows(SymbolNotFoundException.class, () -> adapter.getSharePrices(query));
+        assertThrows(SymbolNotFoundException.class, () -> adapter.getSharePrices(query));
+        assertEquals(1, api.calls.get());
+        assertEquals(1, adapter.getNegativeHitCount());
+        assertEquals(CircuitBreaker.State.CLOSED, adapter.getCircuitBreaker().getState(), "Unknown symbols are not outages");
+        assertFalse(adapter.getSharePrices(new ShareQuery("AAPL", query.getStartDate(), query.getEndDate())).isEmpty());
+
+        clock.advance(Duration.ofMinutes(11));
+        api.unknown.clear();   // e.g. a new listing
+        assertFalse(adapter.getSharePrices(query).isEmpty());
+        assertEquals(3, api.calls.get());
+    }
+
+    // TC-ADP-05
+    @Test @Order(15)
+    @DisplayName("TC-ADP-05: Breaker trips on failures in the window")
+    void testBreakerTrips() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-13T15:00:00Z"));
+        ScriptedAPI api = new ScriptedAPI();
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(60), Duration.ofSeconds(30), clock);
+        MarketDataAdapter adapter = new MarketDataAdapter(api, breaker, Duration.ofMinutes(10), clock);
+        ShareQuery query = new ShareQuery("AAPL", LocalDate.now().minusDays(5), LocalDate.now());
+        api.failing = true;
+
+        // Two failures, then one more after they have left the window: still closed
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        clock.advance(Duration.ofSeconds(61));
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(adapter.isAvailable());
+        assertEquals(5, api.calls.get());
+
+        DataProviderException rejected = assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+        assertTrue(rejected.getMessage().contains("circuit is open"), rejected.getMessage());
+        assertEquals(5, api.calls.get(), "An open breaker does not call the provider");
+        assertEquals(1, breaker.getRejectedCount());
+        assertEquals(1, breaker.getTripCount());
+    }
+
+    // TC-ADP-06
+    @Test @Order(16)
+    @DisplayName("TC-ADP-06: Half-open trial calls")
+    void testBreakerHalfOpen() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-13T15:00:00Z"));
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(60), Duration.ofSeconds(30), clock);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(Duration.ofSeconds(30), breaker.getRemainingOpenTime());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "Only one trial at a time");
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTripCount());
+
+        clock.advance(Duration.ofSeconds(30));
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    // TC-ADP-07
+    @Test @Order(17)
+    @DisplayName("TC-ADP-07: Service falls back while the breaker is open")
+    void testServiceFallsBackWhenOpen() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-13T15:00:00Z"));
+        ScriptedAPI api = new ScriptedAPI();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(60), Duration.ofSeconds(30), clock);
+        MarketDataAdapter adapter = new MarketDataAdapter(api, breaker, Duration.ofMinutes(10), clock);
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        repository.save(makePrice("MSFT", 410));
+        SharePriceService service = new SharePriceService(repository, adapter);
+
+        api.failing = true;
+        assertThrows(DataProviderException.class,
+                () -> adapter.getSharePrices(new ShareQuery("MSFT", LocalDate.now(), LocalDate.now())));
+        int callsWhenTripped = api.calls.get();
+
+        List<SharePrice> prices = service.getSharePrices(
+                new ShareQuery("MSFT", LocalDate.now().minusDays(30), LocalDate.now()));
+        assertEquals(1, prices.size());
+        assertEquals(410.0, service.getLatestPrice("MSFT").getClosePriceAsDouble(), 0.001);
+        assertEquals(callsWhenTripped, api.calls.get(), "Nothing waits on the tripped provider");
+    }
+
+    // TC-ADP-08
+    @Test @Order(18)
+    @DisplayName("TC-ADP-08: Batches are forwarded through the decorators")
+    void testBatchForwarded() {
+        ScriptedAPI api = new ScriptedAPI();
+        api.unknown.add("ZZZZ");
+        SharePriceService service = new SharePriceService(new JsonSharePriceRepository(),
+                new CachingDataProvider(new MarketDataAdapter(api)));
+        LocalDate from = LocalDate.now().minusDays(5);
+        List<ShareQuery> queries = List.of(new ShareQuery("AAPL", from, LocalDate.now()),
+                new ShareQuery("MSFT", from, LocalDate.now()), new ShareQuery("ZZZZ", from, LocalDate.now()));
+
+        Map<String, PriceFetchResult> results = service.getSharePrices(queries);
+        assertEquals(List.of("AAPL", "MSFT", "ZZZZ"), List.copyOf(results.keySet()));
+        assertEquals(1, api.batches.get(), "One batch for every symbol");
+        assertEquals(150.0, results.get("MSFT").getPrices().get(0).getClosePriceAsDouble(), 0.001);
+        assertFalse(results.get("ZZZZ").isSuccess());
+        assertTrue(results.get("ZZZZ").getError() instanceof ServiceException);
+
+        // Cached and negatively cached: nothing reaches the API again
+        service.getSharePrices(List.of(new ShareQuery("ZZZZ", from, LocalDate.now())));
+        assertEquals(1, api.batches.get());
+        assertEquals(3, api.calls.get());
+    }
+
+    // TC-ADP-09
+    @Test @Order(19)
+    @DisplayName("TC-ADP-09: Trials always resolve")
+    void testTrialResolvedOnError() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-13T15:00:00Z"));
+        ScriptedAPI api = new ScriptedAPI();
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(60), Duration.ofSeconds(30), clock);
+        MarketDataAdapter adapter = new MarketDataAdapter(api, breaker, Duration.ofMinutes(10), clock);
+        ShareQuery query = new ShareQuery("AAPL", LocalDate.now().minusDays(5), LocalDate.now());
+        api.failing = true;
+        assertThrows(DataProviderException.class, () -> adapter.getSharePrices(query));
+
+        // The trial call dies with an Error: reported as a failure, not left in flight
+        clock.advance(Duration.ofSeconds(31));
+        api.error = new StackOverflowError();
+        assertThrows(StackOverflowError.class, () -> adapter.getSharePrices(query));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        api.error = null;
+        api.failing = false;
+        clock.advance(Duration.ofSeconds(31));
+        assertFalse(adapter.getSharePrices(query).isEmpty());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // A caller that never reports its trial holds it for one open duration at most
+        breaker.onFailure();
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        clock.advance(Duration.ofSeconds(31));
+        assertTrue(breaker.tryAcquire(), "The abandoned trial was given up");
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private SharePrice makePrice(String symbol, double close) {
@@ -136,5 +445,34 @@ class BlackboardAndAdapterTest {
         @Override public boolean isAvailable()     { return !fail; }
         @Override public String  getProviderName() { return "StubAPI"; }
     }
+
+    /** API whose failures are switched on by the test; counts every call it receives. */
+    static class ScriptedAPI implements IAPI {
+        final AtomicInteger calls   = new AtomicInteger();
+        final AtomicInteger batches = new AtomicInteger();
+        final Set<String>   unknown = new HashSet<>();
+        volatile boolean    failing;
+        volatile Error      error;
+
+        @Override
+        public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+            calls.incrementAndGet();
+            if (error != null) throw error;
+            if (unknown.contains(query.getSymbol().toUpperCase())) throw new SymbolNotFoundException(query.getSymbol());
+            if (failing) throw new DataProviderException("Timed out");
+            return List.of(new SharePrice(query.getSymbol(), LocalDate.now(),
+                    BigDecimal.valueOf(149), BigDecimal.valueOf(150),
+                    BigDecimal.valueOf(152), BigDecimal.valueOf(148), 500_000L));
+        }
+
+        @Override
+        public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+            batches.incrementAndGet();
+            return IAPI.super.getSharePrices(queries);
+        }
+
+        @Override public boolean isAvailable()     { return true; }
+        @Override public String  getProviderName() { return "ScriptedAPI"; }
+    }
 }
 // Note: PipelineFilter tests are in PipelineFilterTest.java
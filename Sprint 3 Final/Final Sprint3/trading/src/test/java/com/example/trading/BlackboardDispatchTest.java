@@ -0,0 +1,291 @@
+package com.example.trading;
+
+import com.example.trading.blackboard.ConflatingSubscription;
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.blackboard.MarketDataBlackboard.BackpressurePolicy;
+import com.example.trading.blackboard.ObserverMetrics;
+import com.example.trading.model.SharePrice;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for asynchronous blackboard observer dispatch.
+ *
+ * Tests cover:
+ *  TC-BBD-01  A slow async observer does not stall the posting thread
+ *  TC-BBD-02  DROP_OLDEST keeps the newest updates and counts drops
+ *  TC-BBD-03  COALESCE_LATEST delivers only the latest price per symbol
+ *  TC-BBD-04  BLOCK delivers every update, in order
+ *  TC-BBD-05  Observers can be removed while a dispatch is running
+ *  TC-BBD-06  Async observers receive a batch as a single delivery
+ *  TC-BBD-07  A conflated drain returns only the newest price per changed symbol
+ *  TC-BBD-08  A burst of ticks wakes a conflated consumer once per drain
+ *  TC-BBD-09  A closed conflated subscription stops receiving updates
+ *  TC-BBD-10  An Error thrown by an async observer does not stall its queue
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BlackboardDispatchTest {
+
+    private MarketDataBlackboard blackboard;
+    private final List<MarketDataBlackboard.BlackboardObserver> registered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        blackboard = MarketDataBlackboard.getInstance();
+        blackboard.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registered.forEach(blackboard::removeObserver);
+        registered.clear();
+    }
+
+    // TC-BBD-01
+    @Test @Order(1)
+    @DisplayName("TC-BBD-01: Slow observer does not block posting")
+    void testSlowObserverDecoupled() throws Exception {
+        CountDownLatch all = new CountDownLatch(20);
+        MarketDataBlackboard.BlackboardObserver slow = (symbol, price) -> {
+            sleep(20);
+            all.countDown();
+        };
+        register(slow, BackpressurePolicy.BLOCK, 100, null);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 20; i++) blackboard.post("AAPL", price("AAPL", i));
+        long postingMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(postingMillis < 200, "posting took " + postingMillis + "ms");
+        assertTrue(all.await(5, TimeUnit.SECONDS));
+        // Metrics are recorded just after the observer returns
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (blackboard.getObserverMetrics(slow).orElseThrow().getDelivered() < 20
+                && System.currentTimeMillis() < deadline) sleep(1);
+        ObserverMetrics metrics = blackboard.getObserverMetrics(slow).orElseThrow();
+        assertEquals(20, metrics.getDelivered());
+        assertTrue(metrics.getMaxLagMillis() >= 20, "Queued updates waited behind the slow observer");
+    }
+
+    // TC-BBD-02
+    @Test @Order(2)
+    @DisplayName("TC-BBD-02: DROP_OLDEST keeps newest updates")
+    void testDropOldest() {
+        ManualExecutor executor = new ManualExecutor();
+        List<Double> seen = Collections.synchronizedList(new ArrayList<>());
+        MarketDataBlackboard.BlackboardObserver observer = (symbol, price) -> seen.add(price.getClosePriceAsDouble());
+        register(observer, BackpressurePolicy.DROP_OLDEST, 3, executor);
+
+        for (int i = 0; i < 10; i++) blackboard.post("MSFT", price("MSFT", i));
+        assertEquals(3, blackboard.getObserverMetrics(observer).orElseThrow().getQueueDepth());
+        executor.runAll();
+
+        assertEquals(List.of(7.0, 8.0, 9.0), seen);
+        ObserverMetrics metrics = blackboard.getObserverMetrics(observer).orElseThrow();
+        assertEquals(7, metrics.getDropped());
+        assertEquals(3, metrics.getDelivered());
+        assertEquals(0, metrics.getQueueDepth());
+    }
+
+    // TC-BBD-03
+    @Test @Order(3)
+    @DisplayName("TC-BBD-03: COALESCE_LATEST conflates per symbol")
+    void testCoalesceLatest() {
+        ManualExecutor executor = new ManualExecutor();
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        MarketDataBlackboard.BlackboardObserver observer =
+                (symbol, price) -> seen.add(symbol + "@" + (int) price.getClosePriceAsDouble());
+        register(observer, BackpressurePolicy.COALESCE_LATEST, 10, executor);
+
+        for (int i = 1; i <= 5; i++) blackboard.post("AAPL", price("AAPL", 100 + i));
+        for (int i = 1; i <= 3; i++) blackboard.post("NVDA", price("NVDA", 800 + i));
+        blackboard.post("AAPL", price("AAPL", 200));
+        executor.runAll();
+
+        assertEquals(List.of("AAPL@200", "NVDA@803"), seen);
+        assertEquals(7, blackboard.getObserverMetrics(observer).orElseThrow().getCoalesced());
+    }
+
+    // TC-BBD-04
+    @Test @Order(4)
+    @DisplayName("TC-BBD-04: BLOCK loses nothing")
+    void testBlock() throws Exception {
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        MarketDataBlackboard.BlackboardObserver observer = (symbol, price) -> {
+            sleep(1);
+            seen.add((int) price.getClosePriceAsDouble());
+        };
+        register(observer, BackpressurePolicy.BLOCK, 2, null);
+
+        for (int i = 0; i < 50; i++) blackboard.post("TSLA", price("TSLA", i));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (seen.size() < 50 && System.currentTimeMillis() < deadline) sleep(5);
+
+        assertEquals(50, seen.size());
+        for (int i = 0; i < 50; i++) assertEquals(Integer.valueOf(i), seen.get(i));
+        assertEquals(0, blackboard.getObserverMetrics(observer).orElseThrow().getDropped());
+    }
+
+    // TC-BBD-05
+    @Test @Order(5)
+    @DisplayName("TC-BBD-05: Observer list is safe to modify during dispatch")
+    void testModifyDuringDispatch() {
+        AtomicInteger calls = new AtomicInteger();
+        MarketDataBlackboard.BlackboardObserver second = (symbol, price) -> calls.incrementAndGet();
+        MarketDataBlackboard.BlackboardObserver first = (symbol, price) -> blackboard.removeObserver(second);
+        blackboard.addObserver(first);
+        blackboard.addObserver(second);
+        registered.add(first);
+
+        assertDoesNotThrow(() -> blackboard.post("GOOGL", price("GOOGL", 1)));
+        blackboard.post("GOOGL", price("GOOGL", 2));
+        assertTrue(calls.get() <= 1);
+        assertTrue(blackboard.getObserverMetrics(first).isEmpty(), "Inline observers have no queue metrics");
+    }
+
+    // TC-BBD-06
+    @Test @Order(6)
+    @DisplayName("TC-BBD-06: Batches are forwarded asynchronously")
+    void testAsyncBatch() {
+        ManualExecutor executor = new ManualExecutor();
+        List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        MarketDataBlackboard.BlackboardObserver observer = new MarketDataBlackboard.BlackboardObserver() {
+            @Override public void onPriceUpdated(String symbol, SharePrice latestPrice) { batches.add(1); }
+            @Override public void onBatchPosted(String symbol, List<SharePrice> prices) { batches.add(-prices.size()); }
+        };
+        register(observer, BackpressurePolicy.DROP_OLDEST, 4, executor);
+
+        List<SharePrice> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) batch.add(price("AMZN", i));
+        blackboard.postBatch("AMZN", batch);
+        blackboard.post("AMZN", price("AMZN", 100));
+        assertEquals(2, blackboard.getObserverMetrics(observer).orElseThrow().getQueueDepth());
+        executor.runAll();
+
+        assertEquals(List.of(-100, 1), batches);
+        assertEquals(2, blackboard.getObserverMetrics(observer).orElseThrow().getDelivered());
+    }
+
+    // TC-BBD-07
+    @Test @Order(7)
+    @DisplayName("TC-BBD-07: Conflated drain is per changed symbol")
+    void testConflatedDrain() {
+        ConflatingSubscription subscription = blackboard.subscribeConflated();
+        registered.add(subscription);
+
+        for (int i = 1; i <= 1_000; i++) blackboard.post("AAPL", price("AAPL", i));
+        blackboard.postBatch("MSFT", List.of(price("MSFT", 400), price("MSFT", 410)));
+        blackboard.post("NVDA", price("NVDA", 900));
+        assertEquals(3, subscription.pendingCount());
+
+        Map<String, SharePrice> changed = subscription.drain();
+        assertEquals(3, changed.size());
+        assertEquals(1_000.0, changed.get("AAPL").getClosePriceAsDouble(), 0.001);
+        assertEquals(410.0, changed.get("MSFT").getClosePriceAsDouble(), 0.001);
+        assertEquals(999, subscription.getConflated());
+        assertEquals(1_002, subscription.getReceived());
+
+        blackboard.post("NVDA", price("NVDA", 901));
+        assertEquals(Map.of("NVDA", blackboard.getLatest("NVDA").get()), subscription.drain());
+        assertTrue(subscription.drain().isEmpty());
+    }
+
+    // TC-BBD-08
+    @Test @Order(8)
+    @DisplayName("TC-BBD-08: One wake-up per drain")
+    void testConflatedWakeup() {
+        AtomicInteger wakeups = new AtomicInteger();
+        ConflatingSubscription subscription = blackboard.subscribeConflated(wakeups::incrementAndGet);
+        registered.add(subscription);
+
+        for (int i = 0; i < 100; i++) {
+            blackboard.post("TSLA", price("TSLA", i));
+            blackboard.post("AMZN", price("AMZN", i));
+        }
+        assertEquals(1, wakeups.get());
+        assertEquals(2, subscription.drain().size());
+
+        blackboard.post("TSLA", price("TSLA", 500));
+        assertEquals(2, wakeups.get());
+    }
+
+    // TC-BBD-09
+    @Test @Order(9)
+    @DisplayName("TC-BBD-09: Closed subscription is detached")
+    void testConflatedClose() {
+        ConflatingSubscription subscription = blackboard.subscribeConflated();
+        blackboard.post("META", price("META", 1));
+        subscription.close();
+        blackboard.post("META", price("META", 2));
+
+        Map<String, SharePrice> changed = subscription.drain();
+        assertEquals(1.0, changed.get("META").getClosePriceAsDouble(), 0.001);
+        assertEquals(1, subscription.getReceived());
+    }
+
+    // TC-BBD-10
+    @Test @Order(10)
+    @DisplayName("TC-BBD-10: Observer errors do not stall delivery")
+    void testErrorDoesNotStall() {
+        ManualExecutor executor = new ManualExecutor();
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        MarketDataBlackboard.BlackboardObserver observer = (symbol, price) -> {
+            if (price.getClosePriceAsDouble() == 0) throw new StackOverflowError("observer blew up");
+            seen.add((int) price.getClosePriceAsDouble());
+        };
+        register(observer, BackpressurePolicy.DROP_OLDEST, 10, executor);
+
+        for (int i = 0; i < 3; i++) blackboard.post("INTC", price("INTC", i));
+        assertThrows(StackOverflowError.class, executor::runAll, "The error reaches the executor");
+        executor.runAll();
+        assertEquals(List.of(1, 2), seen);
+
+        blackboard.post("INTC", price("INTC", 3));
+        executor.runAll();
+        assertEquals(List.of(1, 2, 3), seen);
+        ObserverMetrics metrics = blackboard.getObserverMetrics(observer).orElseThrow();
+        assertEquals(1, metrics.getFailed());
+        assertEquals(3, metrics.getDelivered());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void register(MarketDataBlackboard.BlackboardObserver observer, BackpressurePolicy policy,
+                          int capacity, Executor executor) {
+        if (executor == null) blackboard.addObserver(observer, policy, capacity);
+        else blackboard.addObserver(observer, policy, capacity, executor);
+        registered.add(observer);
+    }
+
+    /** Holds drain tasks until the test runs them. */
+    static class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+        @Override public synchronized void execute(Runnable task) { tasks.add(task); }
+        synchronized void runAll() {
+            while (!tasks.isEmpty()) tasks.remove(0).run();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try { Thread.sleep(millis); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    private SharePrice price(String symbol, double close) {
+        return new SharePrice(symbol, LocalDate.of(2024, 3, 1),
+                BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2),
+                1_000_000L);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.trading;
+
+import com.example.trading.adapter.CacheStats;
+import com.example.trading.adapter.CachingDataProvider;
+import com.example.trading.api.IDataProvider;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CachingDataProvider decorator.
+ *
+ * Tests cover:
+ *  TC-CDP-01  Repeat queries are served from memory as independent copies
+ *  TC-CDP-02  TTL depends on bar age: intraday, last session and settled history
+ *  TC-CDP-03  On a closed day results are kept until the next session starts
+ *  TC-CDP-04  The memory tier evicts the least recently used query
+ *  TC-CDP-05  The disk tier survives a restart, expires and discards corrupt files
+ *  TC-CDP-06  Provider failures are passed on and not cached
+ *  TC-CDP-07  A batch forwards only its cache misses, in one call, and caches them
+ *  TC-CDP-08  Expired disk files are swept on open and periodically on write
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CachingDataProviderTest {
+
+    // Wednesday 13 March 2024, midday
+    private static final Instant WEDNESDAY = LocalDate.of(2024, 3, 13).atTime(12, 0).toInstant(ZoneOffset.UTC);
+
+    private final TradingCalendar calendar = TradingCalendar.weekdays("TEST");
+    private CountingProvider provider;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        provider = new CountingProvider();
+        clock = new MutableClock(WEDNESDAY);
+    }
+
+    // TC-CDP-01
+    @Test @Order(1)
+    @DisplayName("TC-CDP-01: Memory hits")
+    void testMemoryHits() {
+        CachingDataProvider cache = new CachingDataProvider(provider, 16, null, calendar, clock);
+        ShareQuery query = new ShareQuery("aapl", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+
+        List<SharePrice> first = cache.getSharePrices(query);
+        first.clear();
+        List<SharePrice> second = cache.getSharePrices(new ShareQuery("AAPL", query.getStartDate(), query.getEndDate()));
+
+        assertEquals(1, provider.calls);
+        assertEquals(21, second.size(), "Clearing a returned list does not touch the cache");
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getMemoryHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate(), 1e-9);
+        assertEquals(1, stats.getMemorySize());
+    }
+
+    // TC-CDP-02
+    @Test @Order(2)
+    @DisplayName("TC-CDP-02: TTL by bar age")
+    void testTtlByBarAge() {
+        CachingDataProvider cache = new CachingDataProvider(provider, 16, null, calendar, clock);
+        ShareQuery settled  = new ShareQuery("MSFT", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 8));
+        ShareQuery recent   = new ShareQuery("MSFT", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 12));
+        ShareQuery intraday = new ShareQuery("MSFT", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 13));
+        cache.getSharePrices(settled);
+        cache.getSharePrices(recent);
+        cache.getSharePrices(intraday);
+        assertEquals(3, provider.calls);
+
+        clock.advance(CachingDataProvider.INTRADAY_TTL.plusSeconds(1));
+        cache.getSharePrices(settled);
+        cache.getSharePrices(recent);
+        cache.getSharePrices(intraday);
+        assertEquals(4, provider.calls, "Only the intraday range is refetched");
+
+        clock.advance(CachingDataProvider.RECENT_TTL);
+        cache.getSharePrices(settled);
+        cache.getSharePrices(recent);
+        assertEquals(5, provider.calls, "The last session's bars expire after the recent TTL");
+
+        clock.advance(Duration.ofDays(90));
+        cache.getSharePrices(settled);
+        assertEquals(5, provider.calls, "Settled history is kept");
+        assertEquals(2, cache.getStats().getExpirations());
+    }
+
+    // TC-CDP-03
+    @Test @Order(3)
+    @DisplayName("TC-CDP-03: Closed days keep results until the next session")
+    void testClosedDay() {
+        clock = new MutableClock(LocalDate.of(2024, 3, 16).atTime(10, 0).toInstant(ZoneOffset.UTC)); // Saturday
+        CachingDataProvider cache = new CachingDataProvider(provider, 16, null, calendar, clock);
+        ShareQuery weekend = new ShareQuery("TSLA", LocalDate.of(2024, 3, 16), LocalDate.of(2024, 3, 16));
+        ShareQuery week    = new ShareQuery("TSLA", LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 16));
+
+        cache.getSharePrices(weekend);
+        cache.getSharePrices(week);
+        clock.advance(Duration.ofHours(37));   // Sunday 23:00
+        cache.getSharePrices(weekend);
+        cache.getSharePrices(week);
+        assertEquals(2, provider.calls, "Nothing can change while the exchange is closed");
+
+        clock.advance(Duration.ofHours(2));    // Monday 01:00
+        cache.getSharePrices(weekend);
+        assertEquals(3, provider.calls);
+    }
+
+    // TC-CDP-04
+    @Test @Order(4)
+    @DisplayName("TC-CDP-04: LRU eviction")
+    void testLruEviction() {
+        CachingDataProvider cache = new CachingDataProvider(provider, 2, null, calendar, clock);
+        ShareQuery a = settled("AAA"), b = settled("BBB"), c = settled("CCC");
+
+        cache.getSharePrices(a);
+        cache.getSharePrices(b);
+        cache.getSharePrices(a);   // a is now more recently used than b
+        cache.getSharePrices(c);   // evicts b
+        cache.getSharePrices(a);
+        assertEquals(3, provider.calls);
+        cache.getSharePrices(b);
+        assertEquals(4, provider.calls);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getEvictions());
+        assertEquals(2, stats.getMemorySize());
+        assertThrows(IllegalArgumentException.class, () -> new CachingDataProvider(provider, 0, null));
+    }
+
+    // TC-CDP-05
+    @Test @Order(5)
+    @DisplayName("TC-CDP-05: Disk tier")
+    void testDiskTier() throws IOException {
+        Path directory = Files.createTempDirectory("price-cache");
+        try {
+            ShareQuery query = new ShareQuery("BRK.B", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+            List<SharePrice> original = new CachingDataProvider(provider, 16, directory, calendar, clock).getSharePrices(query);
+
+            // A fresh instance, as after a restart, reads the file instead of the provider
+            CachingDataProvider restarted = new CachingDataProvider(provider, 16, directory, calendar, clock);
+            List<SharePrice> fromDisk = restarted.getSharePrices(query);
+            restarted.getSharePrices(query);
+            assertEquals(1, provider.calls);
+            assertEquals(1, restarted.getStats().getDiskHits());
+            assertEquals(1, restarted.getStats().getMemoryHits());
+            assertEquals(original.size(), fromDisk.size());
+            for (int i = 0; i < original.size(); i++) {
+                assertEquals(original.get(i).getDate(), fromDisk.get(i).getDate());
+                assertEquals(0, original.get(i).getClosePrice().compareTo(fromDisk.get(i).getClosePrice()));
+                assertEquals(original.get(i).getVolume(), fromDisk.get(i).getVolume());
+                assertEquals("BRK.B", fromDisk.get(i).getSymbol());
+            }
+
+            // Past its TTL the file is ignored and replaced
+            clock.advance(CachingDataProvider.SETTLED_TTL.plusDays(1));
+            new CachingDataProvider(provider, 16, directory, calendar, clock).getSharePrices(query);
+            assertEquals(2, provider.calls);
+
+            // A corrupt file is a miss, not an error
+            for (Path file : files(directory)) Files.writeString(file, "expires,not-a-number\n");
+            new CachingDataProvider(provider, 16, directory, calendar, clock).getSharePrices(query);
+            assertEquals(3, provider.calls);
+
+            restarted.invalidate("brk.b");
+            assertTrue(files(directory).isEmpty());
+        } finally {
+            for (Path file : files(directory)) Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // TC-CDP-06
+    @Test @Order(6)
+    @DisplayName("TC-CDP-06: Failures are not cached")
+    void testFailuresNotCached() {
+        CachingDataProvider cache = new CachingDataProvider(provider, 16, null, calendar, clock);
+        ShareQuery query = settled("NVDA");
+        provider.fail = true;
+
+        assertThrows(DataProviderException.class, () -> cache.getSharePrices(query));
+        provider.fail = false;
+        assertEquals(21, cache.getSharePrices(query).size());
+        assertEquals(2, provider.calls);
+        assertEquals(0, cache.getStats().getMemoryHits());
+    }
+
+    // TC-CDP-07
+    @Test @Order(7)
+    @DisplayName("TC-CDP-07: Batches forward only misses")
+    void testBatchForwardsMisses() {
+        CachingDataProvider cache = new CachingDataProvider(provider, 16, null, calendar, clock);
+        cache.getSharePrices(settled("AAPL"));
+
+        Map<String, PriceFetchResult> results = cache.getSharePrices(
+                List.of(settled("AAPL"), settled("msft"), settled("NVDA")));
+        assertEquals(List.of("AAPL", "MSFT", "NVDA"), List.copyOf(results.keySet()));
+        assertEquals(List.of(List.of("MSFT", "NVDA")), provider.batches);
+        for (PriceFetchResult result : results.values()) assertEquals(21, result.getPrices().size());
+
+        cache.getSharePrices(List.of(settled("MSFT"), settled("NVDA")));
+        assertEquals(1, provider.batches.size(), "Batch results were cached");
+        assertEquals(3, cache.getStats().getMemoryHits());
+    }
+
+    // TC-CDP-08
+    @Test @Order(8)
+    @DisplayName("TC-CDP-08: Disk sweeps")
+    void testDiskSweep() throws IOException {
+        Path directory = Files.createTempDirectory("price-cache");
+        try {
+            ShareQuery today = new ShareQuery("AAPL", LocalDate.of(2024, 3, 13), LocalDate.of(2024, 3, 13));
+            CachingDataProvider cache = new CachingDataProvider(provider, 16, directory, calendar, clock);
+            cache.getSharePrices(today);
+            cache.getSharePrices(settled("MSFT"));
+            Files.writeString(directory.resolve("AAPL%7C2024-03-13%7C2024-03-13123.tmp"), "expires,");
+            assertEquals(3, files(directory).size());
+
+            // Reopened after the intraday entry expired: it and the stray temp file go
+            clock.advance(CachingDataProvider.INTRADAY_TTL.plusMinutes(1));
+            cache = new CachingDataProvider(provider, 16, directory, calendar, clock);
+            assertEquals(1, files(directory).size(), "Only the settled entry is left");
+
+            // A long-running cache sweeps as it writes
+            cache.getSharePrices(today);
+            clock.advance(CachingDataProvider.INTRADAY_TTL.plusMinutes(1));
+            for (int i = 1; i < CachingDataProvider.DISK_SWEEP_INTERVAL; i++) cache.getSharePrices(settled("S" + i));
+            assertEquals(CachingDataProvider.DISK_SWEEP_INTERVAL, files(directory).size(),
+                    "The expired intraday file was swept; MSFT and the new entries remain");
+        } finally {
+            for (Path file : files(directory)) Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private ShareQuery settled(String symbol) {
+        return new ShareQuery(symbol, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+    }
+
+    private List<Path> files(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) files.add(file);
+        }
+        return files;
+    }
+
+    /** Weekday bars for the query range, counting calls. */
+    static class CountingProvider implements IDataProvider {
+        int calls;
+        boolean fail;
+        final List<List<String>> batches = new ArrayList<>();
+
+        @Override
+        public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+            calls++;
+            if (fail) throw new DataProviderException("Stub provider error");
+            List<SharePrice> bars = new ArrayList<>();
+            for (LocalDate d = query.getStartDate(); !d.isAfter(query.getEndDate()); d = d.plusDays(1)) {
+                if (d.getDayOfWeek().getValue() >= 6) continue;
+                double close = 100 + d.getDayOfMonth() + 0.25;
+                bars.add(new SharePrice(query.getSymbol(), d, BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                        BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2), 1_000_000L));
+            }
+            return bars;
+        }
+
+        @Override
+        public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+            batches.add(queries.stream().map(q -> q.getSymbol().toUpperCase()).toList());
+            return IDataProvider.super.getSharePrices(queries);
+        }
+
+        @Override public boolean isAvailable() { return true; }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.trading;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.repository.ColumnarSharePriceRepository;
+import com.example.trading.repository.JsonSharePriceRepository;
+import com.example.trading.repository.SharePriceRepository;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ColumnarSharePriceRepository.
+ *
+ * Tests cover:
+ *  TC-COL-01  Saved bars round-trip with identical values
+ *  TC-COL-02  Out-of-order saves are returned most recent first
+ *  TC-COL-03  Saving the same date twice replaces the bar
+ *  TC-COL-04  Date range query is inclusive on both ends
+ *  TC-COL-05  deleteOldData drops bars before the cutoff
+ *  TC-COL-06  Null prices survive the round trip as null
+ *  TC-COL-07  saveAll merges a batch into stored history, batch wins on same date
+ *  TC-COL-08  JsonSharePriceRepository answers the same saves and queries identically
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ColumnarSharePriceRepositoryTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 3, 3);
+
+    private ColumnarSharePriceRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ColumnarSharePriceRepository();
+    }
+
+    // TC-COL-01
+    @Test @Order(1)
+    @DisplayName("TC-COL-01: Saved bar round-trips unchanged")
+    void testRoundTrip() {
+        repository.save(price("aapl", BASE, 175.25));
+        SharePrice stored = repository.findLatestBySymbol("AAPL").orElseThrow();
+        assertEquals("AAPL", stored.getSymbol());
+        assertEquals(BASE, stored.getDate());
+        assertEquals(0, BigDecimal.valueOf(175.25).compareTo(stored.getClosePrice()));
+        assertEquals(0, BigDecimal.valueOf(177.25).compareTo(stored.getHighPrice()));
+        assertEquals(1_000_000L, stored.getVolume());
+    }
+
+    // TC-COL-02
+    @Test @Order(2)
+    @DisplayName("TC-COL-02: Out-of-order saves come back most recent first")
+    void testOrdering() {
+        repository.save(price("MSFT", BASE.plusDays(2), 3));
+        repository.save(price("MSFT", BASE, 1));
+        repository.save(price("MSFT", BASE.plusDays(1), 2));
+        List<SharePrice> all = repository.findBySymbol("MSFT");
+        assertEquals(3, all.size());
+        assertEquals(BASE.plusDays(2), all.get(0).getDate());
+        assertEquals(BASE, all.get(2).getDate());
+    }
+
+    // TC-COL-03
+    @Test @Order(3)
+    @DisplayName("TC-COL-03: Same date replaces the existing bar")
+    void testReplaceSameDate() {
+        repository.save(price("TSLA", BASE, 240));
+        repository.save(price("TSLA", BASE, 250));
+        assertEquals(1, repository.countBySymbol("TSLA"));
+        assertEquals(250.0, repository.findLatestBySymbol("TSLA").orElseThrow().getClosePriceAsDouble(), 0.0001);
+    }
+
+    // TC-COL-04
+    @Test @Order(4)
+    @DisplayName("TC-COL-04: Date range is inclusive")
+    void testDateRange() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(price("NVDA", BASE.plusDays(i), 100 + i));
+        }
+        List<SharePrice> range = repository.findBySymbolAndDateRange("NVDA", BASE.plusDays(3), BASE.plusDays(6));
+        assertEquals(4, range.size());
+        assertEquals(BASE.plusDays(6), range.get(0).getDate());
+        assertEquals(BASE.plusDays(3), range.get(3).getDate());
+
+        List<SharePrice> byTime = repository.findBySymbolAndDateRange("NVDA",
+                BASE.plusDays(3).atTime(12, 0), BASE.plusDays(6).atTime(9, 30));
+        assertEquals(3, byTime.size(), "Bar at start of day 3 is before 12:00");
+    }
+
+    // TC-COL-05
+    @Test @Order(5)
+    @DisplayName("TC-COL-05: deleteOldData drops bars before the cutoff")
+    void testDeleteOldData() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(price("AMZN", BASE.plusDays(i), 190 + i));
+        }
+        repository.save(price("META", BASE, 500));
+        repository.deleteOldData(BASE.plusDays(2).atStartOfDay());
+        assertEquals(3, repository.countBySymbol("AMZN"));
+        assertEquals(0, repository.countBySymbol("META"));
+        assertFalse(repository.findAllSymbols().contains("META"));
+        assertEquals(3, repository.count());
+    }
+
+    // TC-COL-06
+    @Test @Order(6)
+    @DisplayName("TC-COL-06: Null prices stay null")
+    void testNullPrices() {
+        repository.save(new SharePrice("GOOGL", BASE, null, BigDecimal.valueOf(170), null, null, 0L));
+        SharePrice stored = repository.findLatestBySymbol("GOOGL").orElseThrow();
+        assertNull(stored.getOpenPrice());
+        assertNotNull(stored.getClosePrice());
+    }
+
+    // TC-COL-07
+    @Test @Order(7)
+    @DisplayName("TC-COL-07: saveAll merges and dedupes on date")
+    void testSaveAllMerge() {
+        repository.save(price("AAPL", BASE.plusDays(1), 1));
+        repository.save(price("AAPL", BASE.plusDays(4), 4));
+        repository.saveAll("AAPL", List.of(
+                price("AAPL", BASE, 10),
+                price("AAPL", BASE.plusDays(1), 11),
+                price("AAPL", BASE.plusDays(2), 12),
+                price("AAPL", BASE.plusDays(2), 13)));
+        List<SharePrice> all = repository.findBySymbol("AAPL");
+        assertEquals(4, all.size());
+        assertEquals(4.0,  all.get(0).getClosePriceAsDouble(), 0.0001);
+        assertEquals(13.0, all.get(1).getClosePriceAsDouble(), 0.0001);
+        assertEquals(11.0, all.get(2).getClosePriceAsDouble(), 0.0001);
+        assertEquals(BASE, all.get(3).getDate());
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.saveAll("AAPL", List.of(price("MSFT", BASE, 1))));
+    }
+
+    // TC-COL-08
+    @Test @Order(8)
+    @DisplayName("TC-COL-08: Json repository matches the columnar one")
+    void testJsonRepositoryParity() {
+        JsonSharePriceRepository json = new JsonSharePriceRepository();
+        for (SharePriceRepository repo : List.<SharePriceRepository>of(repository, json)) {
+            repo.save(price("AAPL", BASE.plusDays(1), 1));
+            repo.save(price("AAPL", BASE.plusDays(3), 3));   // newer: appended
+            repo.save(price("AAPL", BASE, 0));               // older: inserted
+            repo.save(price("AAPL", BASE.plusDays(3), 33));  // same date: replaced
+            repo.saveAll("AAPL", List.of(price("AAPL", BASE.plusDays(2), 2), price("AAPL", BASE.plusDays(5), 5)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> repo.saveAll("AAPL", List.of(new SharePrice("AAPL", null, 1.0, 1.0, 1.0, 1.0, 1L))));
+        }
+        assertEquals(closes(repository.findBySymbol("AAPL")), closes(json.findBySymbol("AAPL")));
+        assertEquals(List.of(5.0, 33.0, 2.0, 1.0, 0.0), closes(json.findBySymbol("AAPL")));
+        assertEquals(List.of(33.0, 2.0, 1.0), closes(json.findBySymbolAndDateRange("aapl", BASE.plusDays(1), BASE.plusDays(4))));
+        assertTrue(json.findBySymbolAndDateRange("AAPL", BASE.plusDays(4), BASE.plusDays(1)).isEmpty());
+        assertEquals(BASE.plusDays(5), json.findLatestBySymbol("AAPL").orElseThrow().getDate());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private List<Double> closes(List<SharePrice> prices) {
+        return prices.stream().map(SharePrice::getClosePriceAsDouble).toList();
+    }
+
+    private SharePrice price(String symbol, LocalDate date, double close) {
+        return new SharePrice(symbol, date,
+                BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2),
+                1_000_000L);
+    }
+}
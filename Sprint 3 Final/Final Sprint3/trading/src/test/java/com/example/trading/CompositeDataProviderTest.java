@@ -0,0 +1,271 @@
+package com.example.trading;
+
+import com.example.trading.adapter.CompositeDataProvider;
+import com.example.trading.adapter.LatencyHistogram;
+import com.example.trading.api.IAPI;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the CompositeDataProvider failover and hedging chain.
+ *
+ * Tests cover:
+ *  TC-CMP-01  A healthy primary answers alone and its latency is recorded
+ *  TC-CMP-02  A failing source hands over to the next one at once
+ *  TC-CMP-03  A slow source is hedged after its latency percentile and the faster answer wins
+ *  TC-CMP-04  Unavailable sources are skipped; exhausted chains report every failure
+ *  TC-CMP-05  Histogram percentiles are accurate and follow recent samples
+ *  TC-CMP-06  A batch goes to the primary whole; only its failed symbols fail over
+ *  TC-CMP-07  An empty answer neither settles a race nor counts as a hedge win
+ *  TC-CMP-08  An Error thrown by a source settles the request and reaches the caller
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CompositeDataProviderTest {
+
+    private static final ShareQuery QUERY = new ShareQuery("AAPL", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 8));
+
+    // TC-CMP-01
+    @Test @Order(1)
+    @DisplayName("TC-CMP-01: Primary answers alone")
+    void testPrimaryAnswers() {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(primary, backup));
+
+        List<SharePrice> prices = composite.getSharePrices(QUERY);
+
+        assertEquals(100.0, prices.get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(1, primary.calls.get());
+        assertEquals(0, backup.calls.get());
+        assertEquals(1, composite.getLatencyHistogram("Primary").getTotalCount());
+        assertEquals(0, composite.getLatencyHistogram("Backup").getTotalCount());
+        assertEquals(List.of("Primary", "Backup"), composite.getProviderNames());
+        assertEquals(CompositeDataProvider.DEFAULT_HEDGE_DELAY, composite.hedgeDelay(primary), "Too few samples to hedge yet");
+    }
+
+    // TC-CMP-02
+    @Test @Order(2)
+    @DisplayName("TC-CMP-02: Failover")
+    void testFailover() {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        primary.error = new DataProviderException("HTTP 503");
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(primary, backup));
+
+        long started = System.nanoTime();
+        List<SharePrice> prices = composite.getSharePrices(QUERY);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(200.0, prices.get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(1, composite.getFailoverCount());
+        assertEquals(0, composite.getHedgeCount());
+        assertTrue(elapsedMillis < CompositeDataProvider.DEFAULT_HEDGE_DELAY.toMillis(), "Failover does not wait: " + elapsedMillis + "ms");
+    }
+
+    // TC-CMP-03
+    @Test @Order(3)
+    @DisplayName("TC-CMP-03: Hedged request")
+    void testHedgedRequest() {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(primary, backup));
+        primary.delayMillis = 5;
+        for (int i = 0; i < CompositeDataProvider.MIN_SAMPLES; i++) composite.getSharePrices(QUERY);
+        Duration hedgeDelay = composite.hedgeDelay(primary);
+        assertTrue(hedgeDelay.toMillis() < 100, "Hedge delay follows the primary's latency: " + hedgeDelay);
+
+        primary.delayMillis = 2_000;   // a tail-latency spike
+        long started = System.nanoTime();
+        List<SharePrice> prices = composite.getSharePrices(QUERY);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(200.0, prices.get(0).getClosePriceAsDouble(), 0.001, "The faster backup wins");
+        assertTrue(elapsedMillis < 1_000, "took " + elapsedMillis + "ms");
+        assertEquals(1, composite.getHedgeCount());
+        assertEquals(1, composite.getHedgeWinCount());
+        assertEquals(0, composite.getFailoverCount());
+    }
+
+    // TC-CMP-04
+    @Test @Order(4)
+    @DisplayName("TC-CMP-04: Unavailable and exhausted sources")
+    void testExhausted() {
+        StubSource down = new StubSource("Down", 1), a = new StubSource("A", 2), b = new StubSource("B", 3);
+        down.available = false;
+        a.error = new SymbolNotFoundException("ZZZZ");
+        b.error = new SymbolNotFoundException("ZZZZ");
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(down, a, b));
+
+        assertThrows(SymbolNotFoundException.class, () -> composite.getSharePrices(QUERY), "Unknown everywhere");
+        assertEquals(0, down.calls.get());
+
+        b.error = new DataProviderException("Timed out");
+        DataProviderException e = assertThrows(DataProviderException.class, () -> composite.getSharePrices(QUERY));
+        assertFalse(e instanceof SymbolNotFoundException);
+        assertTrue(e.getMessage().contains("Timed out"), e.getMessage());
+        assertEquals(1, e.getSuppressed().length);
+
+        a.available = false;
+        b.available = false;
+        assertFalse(composite.isAvailable());
+        assertThrows(DataProviderException.class, () -> composite.getSharePrices(QUERY));
+        assertThrows(IllegalArgumentException.class, () -> new CompositeDataProvider(List.of()));
+    }
+
+    // TC-CMP-05
+    @Test @Order(5)
+    @DisplayName("TC-CMP-05: Latency histogram")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.99));
+        for (int ms = 1; ms <= 1_000; ms++) histogram.record(Duration.ofMillis(ms));
+
+        assertEquals(500, histogram.getPercentile(0.50).toMillis(), 500 * 0.07);
+        assertEquals(950, histogram.getPercentile(0.95).toMillis(), 950 * 0.07);
+        assertEquals(990, histogram.getPercentile(0.99).toMillis(), 990 * 0.07);
+        assertTrue(histogram.getPercentile(0.95).toMillis() >= 950, "Rounded up, never under");
+        assertEquals(1_000, histogram.getMax().toMillis());
+
+        // Two full generations of fast calls push the slow ones out
+        for (int i = 0; i < 2 * LatencyHistogram.GENERATION_SIZE; i++) histogram.record(Duration.ofMillis(2));
+        assertEquals(2, histogram.getPercentile(0.99).toMillis());
+        assertTrue(histogram.getRecentCount() <= 2 * LatencyHistogram.GENERATION_SIZE);
+        assertEquals(1_000 + 2 * LatencyHistogram.GENERATION_SIZE, histogram.getTotalCount());
+    }
+
+    // TC-CMP-06
+    @Test @Order(6)
+    @DisplayName("TC-CMP-06: Batches fail over per symbol")
+    void testBatchFailover() {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        primary.failing.add("MSFT");
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(primary, backup));
+
+        Map<String, PriceFetchResult> results = composite.getSharePrices(List.of(
+                new ShareQuery("aapl", QUERY.getStartDate(), QUERY.getEndDate()),
+                new ShareQuery("MSFT", QUERY.getStartDate(), QUERY.getEndDate())));
+
+        assertEquals(List.of("AAPL", "MSFT"), List.copyOf(results.keySet()));
+        assertEquals(100.0, results.get("AAPL").getPrices().get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(200.0, results.get("MSFT").getPrices().get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(List.of(List.of("AAPL", "MSFT")), primary.batches);
+        assertEquals(List.of(List.of("MSFT")), backup.batches, "Only the failed symbol goes to the backup");
+        assertEquals(1, composite.getFailoverCount());
+    }
+
+    // TC-CMP-07
+    @Test @Order(7)
+    @DisplayName("TC-CMP-07: Empty answers do not win")
+    void testEmptyAnswers() {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(primary, backup));
+        primary.delayMillis = 5;
+        for (int i = 0; i < CompositeDataProvider.MIN_SAMPLES; i++) composite.getSharePrices(QUERY);
+
+        // The hedge comes back empty first; the slow primary still has the bars
+        primary.delayMillis = 300;
+        backup.empty = true;
+        List<SharePrice> prices = composite.getSharePrices(QUERY);
+        assertEquals(100.0, prices.get(0).getClosePriceAsDouble(), 0.001);
+        assertEquals(1, composite.getHedgeCount());
+        assertEquals(0, composite.getHedgeWinCount());
+
+        // An empty primary is checked against the backup, and only empty everywhere is empty
+        primary.delayMillis = 0;
+        primary.empty = true;
+        backup.empty = false;
+        assertEquals(200.0, composite.getSharePrices(QUERY).get(0).getClosePriceAsDouble(), 0.001);
+        backup.empty = true;
+        assertTrue(composite.getSharePrices(QUERY).isEmpty());
+        assertEquals(0, composite.getFailoverCount());
+
+        backup.empty = false;
+        Map<String, PriceFetchResult> batch = composite.getSharePrices(List.of(QUERY));
+        assertEquals(200.0, batch.get("AAPL").getPrices().get(0).getClosePriceAsDouble(), 0.001);
+        backup.empty = true;
+        batch = composite.getSharePrices(List.of(QUERY));
+        assertTrue(batch.get("AAPL").isSuccess());
+        assertTrue(batch.get("AAPL").getPrices().isEmpty());
+    }
+
+    // TC-CMP-08
+    @Test @Order(8)
+    @DisplayName("TC-CMP-08: Errors settle the request")
+    void testSourceError() throws Exception {
+        StubSource primary = new StubSource("Primary", 100), backup = new StubSource("Backup", 200);
+        primary.fatal = new StackOverflowError();
+
+        for (List<IAPI> chain : List.<List<IAPI>>of(List.of(primary, backup), List.of(primary))) {
+            CompositeDataProvider composite = new CompositeDataProvider(chain);
+            Future<List<SharePrice>> request = CompletableFuture.supplyAsync(() -> composite.getSharePrices(QUERY));
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> request.get(5, TimeUnit.SECONDS), "Settled rather than hanging");
+            assertTrue(thrown.getCause() instanceof StackOverflowError, "The Error reaches the caller");
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Source answering one bar at a fixed close, optionally slow, failing or unavailable. */
+    static class StubSource implements IAPI {
+        final String name;
+        final double close;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile long delayMillis;
+        volatile DataProviderException error;
+        volatile Error fatal;
+        volatile boolean available = true;
+        volatile boolean empty;
+        /** Symbols this source times out on */
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+        /** Symbols of each batch call, in order */
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        StubSource(String name, double close) {
+            this.name = name;
+            this.close = close;
+        }
+
+        @Override
+        public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fatal != null) throw fatal;
+            if (error != null) throw error;
+            if (failing.contains(query.getSymbol().toUpperCase())) throw new DataProviderException("Timed out");
+            if (empty) return List.of();
+            return List.of(new SharePrice(query.getSymbol(), query.getEndDate(), BigDecimal.valueOf(close - 1),
+                    BigDecimal.valueOf(close), BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2), 1_000_000L));
+        }
+
+        @Override
+        public Map<String, PriceFetchResult> getSharePrices(List<ShareQuery> queries) {
+            batches.add(queries.stream().map(q -> q.getSymbol().toUpperCase()).toList());
+            return IAPI.super.getSharePrices(queries);
+        }
+
+        @Override public boolean isAvailable()     { return available; }
+        @Override public String  getProviderName() { return name; }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.trading;
+
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.service.IPriceService;
+import com.example.trading.service.IndicatorEngine;
+import com.example.trading.service.PerformanceService;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parity tests between the EXACT (BigDecimal) and FAST (double) indicator backends.
+ *
+ * Rows are rounded to 4 decimal places by both engines, so the bound below
+ * allows one unit of rounding plus accumulated floating-point error.
+ *
+ * Tests cover:
+ *  TC-PAR-01  Every indicator agrees within tolerance over a long random walk
+ *  TC-PAR-02  Drift stays bounded over a very long stream
+ *  TC-PAR-03  Same-date replacements keep both engines in step
+ *  TC-PAR-04  PerformanceService returns matching rows in both modes
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class IndicatorParityTest {
+
+    private static final LocalDate BASE      = LocalDate.of(2000, 1, 3);
+    private static final double    TOLERANCE = 0.0002;
+
+    // TC-PAR-01
+    @Test @Order(1)
+    @DisplayName("TC-PAR-01: FAST matches EXACT bar by bar")
+    void testBarByBarParity() {
+        List<SharePrice> prices = randomWalk(2_000, 42L);
+        IndicatorEngine exact = IndicatorEngine.create("AAPL", IndicatorEngine.Precision.EXACT);
+        IndicatorEngine fast  = IndicatorEngine.create("AAPL", IndicatorEngine.Precision.FAST);
+        for (SharePrice price : prices) {
+            assertRowsClose(exact.update(price), fast.update(price));
+        }
+    }
+
+    // TC-PAR-02
+    @Test @Order(2)
+    @DisplayName("TC-PAR-02: Drift stays bounded over long streams")
+    void testLongStreamDrift() {
+        List<SharePrice> prices = randomWalk(25_000, 7L);
+        IndicatorEngine exact = IndicatorEngine.create("MSFT", IndicatorEngine.Precision.EXACT);
+        IndicatorEngine fast  = IndicatorEngine.create("MSFT", IndicatorEngine.Precision.FAST);
+        exact.seed(prices);
+        fast.seed(prices);
+        assertRowsClose(exact.current(), fast.current());
+    }
+
+    // TC-PAR-03
+    @Test @Order(3)
+    @DisplayName("TC-PAR-03: Intraday replacements stay in parity")
+    void testReplacementParity() {
+        List<SharePrice> prices = randomWalk(300, 99L);
+        IndicatorEngine exact = IndicatorEngine.create("TSLA", IndicatorEngine.Precision.EXACT);
+        IndicatorEngine fast  = IndicatorEngine.create("TSLA", IndicatorEngine.Precision.FAST);
+        Random random = new Random(5L);
+        for (SharePrice price : prices) {
+            SharePrice provisional = bar(price.getDate(), price.getClosePriceAsDouble() * (1 + random.nextGaussian() / 100));
+            exact.advance(provisional);
+            fast.advance(provisional);
+            assertRowsClose(exact.update(price), fast.update(price));
+        }
+        assertEquals(exact.getBarCount(), fast.getBarCount());
+    }
+
+    // TC-PAR-04
+    @Test @Order(4)
+    @DisplayName("TC-PAR-04: PerformanceService modes agree")
+    void testServiceParity() {
+        List<SharePrice> prices = randomWalk(400, 11L);
+        IPriceService stub = new StubPriceService(prices);
+        LocalDate from = BASE.plusDays(200);
+        LocalDate to   = BASE.plusDays(399);
+        List<PerformanceIndicator> exact = new PerformanceService(stub, IndicatorEngine.Precision.EXACT)
+                .calculateIndicators("AAPL", from, to);
+        List<PerformanceIndicator> fast = new PerformanceService(stub, IndicatorEngine.Precision.FAST)
+                .calculateIndicators("AAPL", from, to);
+        assertEquals(exact.size(), fast.size());
+        assertFalse(exact.isEmpty());
+        for (int i = 0; i < exact.size(); i++) {
+            assertRowsClose(exact.get(i), fast.get(i));
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static void assertRowsClose(PerformanceIndicator exact, PerformanceIndicator fast) {
+        assertEquals(exact.getDate(), fast.getDate());
+        assertClose(exact.getSma20(), fast.getSma20(), "sma20");
+        assertClose(exact.getSma50(), fast.getSma50(), "sma50");
+        assertClose(exact.getEma12(), fast.getEma12(), "ema12");
+        assertClose(exact.getEma26(), fast.getEma26(), "ema26");
+        assertClose(exact.getMacd(),  fast.getMacd(),  "macd");
+        assertClose(exact.getRsi(),   fast.getRsi(),   "rsi");
+        assertClose(exact.getMacdSignal(),     fast.getMacdSignal(),     "macdSignal");
+        assertClose(exact.getMacdHistogram(),  fast.getMacdHistogram(),  "macdHistogram");
+        assertClose(exact.getBollingerUpper(), fast.getBollingerUpper(), "bollingerUpper");
+        assertClose(exact.getBollingerLower(), fast.getBollingerLower(), "bollingerLower");
+        assertClose(exact.getAtr(),            fast.getAtr(),            "atr");
+    }
+
+    private static void assertClose(BigDecimal exact, BigDecimal fast, String name) {
+        if (exact == null || fast == null) {
+            assertEquals(exact, fast, name + " availability differs");
+            return;
+        }
+        assertEquals(exact.doubleValue(), fast.doubleValue(), TOLERANCE, name);
+    }
+
+    private static List<SharePrice> randomWalk(int bars, long seed) {
+        Random random = new Random(seed);
+        List<SharePrice> prices = new ArrayList<>(bars);
+        double close = 100;
+        for (int i = 0; i < bars; i++) {
+            close = Math.max(1, close * (1 + random.nextGaussian() / 50));
+            // Two decimal places, as quoted prices are
+            prices.add(bar(BASE.plusDays(i), Math.round(close * 100) / 100.0));
+        }
+        return prices;
+    }
+
+    private static SharePrice bar(LocalDate date, double close) {
+        double spread = Math.round(close) / 100.0; // roughly 1% either side of the close
+        return new SharePrice("AAPL", date,
+                BigDecimal.valueOf(close), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + spread), BigDecimal.valueOf(close - spread), 1_000L);
+    }
+
+    static class StubPriceService implements IPriceService {
+        private final List<SharePrice> prices;
+        StubPriceService(List<SharePrice> prices) { this.prices = prices; }
+
+        @Override public List<SharePrice> getSharePrices(ShareQuery q) {
+            List<SharePrice> result = new ArrayList<>();
+            for (SharePrice p : prices) {
+                if (!p.getDate().isBefore(q.getStartDate()) && !p.getDate().isAfter(q.getEndDate())) result.add(p);
+            }
+            return result;
+        }
+        @Override public SharePrice getLatestPrice(String s) { return prices.get(prices.size() - 1); }
+        @Override public List<String> getAvailableSymbols() { return List.of("AAPL"); }
+        @Override public boolean isDataProviderAvailable() { return true; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.trading;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * UTC clock that tests move forward by hand, for TTLs and timeouts.
+ */
+class MutableClock extends Clock {
+    private volatile Instant now;
+
+    MutableClock(Instant now) {
+        this.now = now;
+    }
+
+    void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override public ZoneId  getZone()             { return ZoneOffset.UTC; }
+    @Override public Clock   withZone(ZoneId zone) { return this; }
+    @Override public Instant instant()             { return now; }
+}
@@ -0,0 +1,159 @@
+package com.example.trading;
+
+import com.example.trading.exception.ServiceException;
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.ScreeningResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.service.IPriceService;
+import com.example.trading.service.IndicatorEngine;
+import com.example.trading.service.PerformanceService;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for multi-symbol indicator screening.
+ *
+ * Tests cover:
+ *  TC-SCR-01  Every distinct symbol gets exactly one result
+ *  TC-SCR-02  A failing symbol is reported without aborting the batch
+ *  TC-SCR-03  Concurrent fetches never exceed the configured limit
+ *  TC-SCR-04  The listener sees each result as it completes
+ *  TC-SCR-05  Screening matches the single-symbol calculation
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PerformanceScreeningTest {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FROM = BASE.plusDays(100);
+    private static final LocalDate TO   = BASE.plusDays(149);
+
+    // TC-SCR-01
+    @Test @Order(1)
+    @DisplayName("TC-SCR-01: One result per distinct symbol")
+    void testOneResultPerSymbol() {
+        PerformanceService service = new PerformanceService(new SlowPriceService(0), IndicatorEngine.Precision.FAST);
+        List<ScreeningResult> results = service.calculateIndicators(
+                List.of("AAPL", "msft", "GOOGL", "MSFT", " aapl "), FROM, TO);
+
+        Set<String> symbols = results.stream().map(ScreeningResult::getSymbol).collect(Collectors.toSet());
+        assertEquals(Set.of("AAPL", "MSFT", "GOOGL"), symbols);
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(ScreeningResult::isSuccess));
+        assertEquals(50, results.get(0).getIndicators().size());
+    }
+
+    // TC-SCR-02
+    @Test @Order(2)
+    @DisplayName("TC-SCR-02: Failures are isolated per symbol")
+    void testFailureIsolation() {
+        PerformanceService service = new PerformanceService(new SlowPriceService(0));
+        List<ScreeningResult> results = service.calculateIndicators(
+                List.of("AAPL", "FAIL", "", "MSFT"), FROM, TO);
+
+        Map<String, ScreeningResult> bySymbol = results.stream()
+                .collect(Collectors.toMap(ScreeningResult::getSymbol, r -> r));
+        assertEquals(4, results.size());
+        assertTrue(bySymbol.get("AAPL").isSuccess());
+        assertTrue(bySymbol.get("MSFT").isSuccess());
+        assertFalse(bySymbol.get("FAIL").isSuccess());
+        assertTrue(bySymbol.get("FAIL").getError() instanceof ServiceException);
+        assertTrue(bySymbol.get("FAIL").getIndicators().isEmpty());
+        assertTrue(bySymbol.get("").getError() instanceof IllegalArgumentException);
+    }
+
+    // TC-SCR-03
+    @Test @Order(3)
+    @DisplayName("TC-SCR-03: Fetch parallelism is bounded")
+    void testBoundedParallelism() {
+        SlowPriceService provider = new SlowPriceService(20);
+        PerformanceService service = new PerformanceService(provider, IndicatorEngine.Precision.FAST, 3);
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 24; i++) symbols.add("SYM" + i);
+
+        List<ScreeningResult> results = service.calculateIndicators(symbols, FROM, TO);
+
+        assertEquals(24, results.size());
+        assertTrue(provider.maxConcurrent.get() <= 3, "max concurrent was " + provider.maxConcurrent.get());
+        assertTrue(provider.maxConcurrent.get() > 1, "fetches should overlap");
+    }
+
+    // TC-SCR-04
+    @Test @Order(4)
+    @DisplayName("TC-SCR-04: Listener is called as symbols complete")
+    void testListener() {
+        PerformanceService service = new PerformanceService(new SlowPriceService(5));
+        List<String> seen = new ArrayList<>();
+        List<ScreeningResult> results = service
+                .calculateIndicators(List.of("AAPL", "FAIL", "MSFT"), FROM, TO, r -> seen.add(r.getSymbol()))
+                .join();
+
+        assertEquals(3, seen.size());
+        assertEquals(new HashSet<>(seen), results.stream().map(ScreeningResult::getSymbol).collect(Collectors.toSet()));
+        // Results are listed in the order the listener saw them
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(seen.get(i), results.get(i).getSymbol());
+        }
+    }
+
+    // TC-SCR-05
+    @Test @Order(5)
+    @DisplayName("TC-SCR-05: Screen matches single-symbol result")
+    void testMatchesSingleSymbol() {
+        PerformanceService service = new PerformanceService(new SlowPriceService(0));
+        ScreeningResult screened = service.calculateIndicators(List.of("AAPL"), FROM, TO).get(0);
+        List<PerformanceIndicator> single = service.calculateIndicators("AAPL", FROM, TO);
+
+        assertEquals(single.size(), screened.getIndicators().size());
+        for (int i = 0; i < single.size(); i++) {
+            assertEquals(single.get(i).getDate(), screened.getIndicators().get(i).getDate());
+            assertEquals(0, single.get(i).getSma50().compareTo(screened.getIndicators().get(i).getSma50()));
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Serves a synthetic series for any symbol, sleeping to simulate network latency. */
+    static class SlowPriceService implements IPriceService {
+        final AtomicInteger inFlight      = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final long latencyMillis;
+
+        SlowPriceService(long latencyMillis) { this.latencyMillis = latencyMillis; }
+
+        @Override public List<SharePrice> getSharePrices(ShareQuery q) {
+            if ("FAIL".equals(q.getSymbol())) throw new ServiceException("Provider rejected " + q.getSymbol());
+            int now = inFlight.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                if (latencyMillis > 0) Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            List<SharePrice> result = new ArrayList<>();
+            for (LocalDate d = q.getStartDate(); !d.isAfter(q.getEndDate()); d = d.plusDays(1)) {
+                double close = 100 + 10 * Math.sin(d.toEpochDay() / 7.0);
+                result.add(new SharePrice(q.getSymbol(), d,
+                        BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                        BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2), 1_000_000L));
+            }
+            return result;
+        }
+        @Override public SharePrice getLatestPrice(String s) { throw new UnsupportedOperationException(); }
+        @Override public List<String> getAvailableSymbols() { return List.of(); }
+        @Override public boolean isDataProviderAvailable() { return true; }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.trading;
+
+import com.example.trading.adapter.CompositeDataProvider;
+import com.example.trading.api.ReplayDataProvider;
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.blackboard.TickReplayer;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.exception.SymbolNotFoundException;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import com.example.trading.repository.SegmentFileSharePriceRepository;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the offline ReplayDataProvider and TickReplayer.
+ *
+ * Tests cover:
+ *  TC-RPL-01  CSV recordings round-trip and answer date-range queries
+ *  TC-RPL-02  Yahoo CSV downloads, recorded JSON responses and segment files are read
+ *  TC-RPL-03  Missing symbols are not found; malformed files name the bad line
+ *  TC-RPL-04  Latency, jitter and error injection are applied and repeatable per seed
+ *  TC-RPL-05  A replay source takes over inside a CompositeDataProvider
+ *  TC-RPL-06  Tick replay posts bars of all symbols in time order at the requested speed
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplayDataProviderTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("replay");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(path);
+        }
+    }
+
+    // TC-RPL-01
+    @Test @Order(1)
+    @DisplayName("TC-RPL-01: CSV round trip")
+    void testCsvRoundTrip() throws IOException {
+        ReplayDataProvider.writeCsv(directory, "aapl", bars("AAPL", LocalDate.of(2024, 3, 1), 10));
+        ReplayDataProvider replay = new ReplayDataProvider(directory);
+
+        List<SharePrice> week = replay.getSharePrices(new ShareQuery("AAPL", LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 8)));
+        assertEquals(5, week.size());
+        assertEquals(LocalDate.of(2024, 3, 4), week.get(0).getDate());
+        assertEquals(0, new BigDecimal("105.25").compareTo(week.get(1).getClosePrice()));
+        assertEquals(0, new BigDecimal("107.25").compareTo(week.get(1).getHighPrice()));
+        assertEquals(1_000_005L, week.get(1).getVolume());
+
+        week.get(0).setClosePrice(BigDecimal.ONE);
+        List<SharePrice> again = replay.getSharePrices(new ShareQuery("aapl", LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4)));
+        assertEquals(0, new BigDecimal("104.25").compareTo(again.get(0).getClosePrice()), "Callers get copies");
+        assertTrue(replay.getSharePrices(new ShareQuery("AAPL", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1))).isEmpty());
+        assertEquals(3, replay.getRequestCount());
+    }
+
+    // TC-RPL-02
+    @Test @Order(2)
+    @DisplayName("TC-RPL-02: Yahoo CSV, recorded JSON and segment files")
+    void testRecordingFormats() throws IOException {
+        Files.writeString(directory.resolve("MSFT.csv"), """
+                Date,Open,High,Low,Close,Adj Close,Volume
+                2024-03-01,410.0,415.5,408.1,415.5,414.9,17823400
+                2024-03-04,null,null,null,null,null,null
+                2024-03-05,413.4,414.0,400.0,402.65,402.1,26919200
+                """);
+        long session = LocalDate.of(2024, 3, 1).atTime(14, 30).toEpochSecond(ZoneOffset.UTC);
+        Files.writeString(directory.resolve("TSLA.json"), "{\"chart\":{\"result\":[{\"meta\":{\"symbol\":\"TSLA\"},"
+                + "\"timestamp\":[" + session + "," + (session + 3 * 86_400) + "],\"indicators\":{\"quote\":[{"
+                + "\"open\":[200.5,190.0],\"high\":[205.0,195.0],\"low\":[199.0,185.5],\"close\":[202.64,188.14],"
+                + "\"volume\":[82099200,109652700]}]}}],\"error\":null}}");
+        new SegmentFileSharePriceRepository(directory).saveAll("NVDA", bars("NVDA", LocalDate.of(2024, 3, 1), 5));
+        ReplayDataProvider replay = new ReplayDataProvider(directory);
+        ShareQuery march = new ShareQuery("MSFT", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        List<SharePrice> msft = replay.getSharePrices(march);
+        assertEquals(2, msft.size(), "Yahoo's null rows are skipped");
+        assertEquals(0, new BigDecimal("402.65").compareTo(msft.get(1).getClosePrice()), "Close, not Adj Close");
+        assertEquals(26_919_200L, msft.get(1).getVolume());
+
+        List<SharePrice> tsla = replay.getSharePrices(new ShareQuery("TSLA", march.getStartDate(), march.getEndDate()));
+        assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 4)), tsla.stream().map(SharePrice::getDate).toList());
+        assertEquals(188.14, tsla.get(1).getClosePriceAsDouble(), 1e-9);
+
+        List<SharePrice> nvda = replay.getSharePrices(new ShareQuery("NVDA", march.getStartDate(), march.getEndDate()));
+        assertEquals(5, nvda.size());
+        assertTrue(nvda.get(0).getDate().isBefore(nvda.get(4).getDate()), "Oldest first");
+    }
+
+    // TC-RPL-03
+    @Test @Order(3)
+    @DisplayName("TC-RPL-03: Missing and malformed recordings")
+    void testMissingAndMalformed() throws IOException {
+        Files.writeString(directory.resolve("BAD.csv"), "2024-03-01,1,2,0.5,1.5,100\n2024-03-04,1,2,oops,1.5,100\n");
+        ReplayDataProvider replay = new ReplayDataProvider(directory);
+
+        assertThrows(SymbolNotFoundException.class, () -> replay.getSharePrices(query("ZZZZ")));
+        assertThrows(SymbolNotFoundException.class, () -> replay.getSharePrices(query("../BAD")));
+        assertThrows(SymbolNotFoundException.class, () -> replay.getSharePrices(query(".")), "Not the replay root itself");
+        DataProviderException e = assertThrows(DataProviderException.class, () -> replay.getSharePrices(query("BAD")));
+        assertTrue(e.getMessage().contains("BAD.csv:2"), e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplayDataProvider(directory, Duration.ZERO, Duration.ZERO, 1.5, 0L));
+    }
+
+    // TC-RPL-04
+    @Test @Order(4)
+    @DisplayName("TC-RPL-04: Latency, jitter and error injection")
+    void testFaultInjection() throws IOException {
+        ReplayDataProvider.writeCsv(directory, "AAPL", bars("AAPL", LocalDate.of(2024, 3, 1), 5));
+
+        ReplayDataProvider slow = new ReplayDataProvider(directory, Duration.ofMillis(20), Duration.ofMillis(10), 0.0, 1L);
+        long started = System.nanoTime();
+        slow.getSharePrices(query("AAPL"));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertTrue(elapsedMillis >= 20, "took " + elapsedMillis + "ms");
+
+        ReplayDataProvider broken = new ReplayDataProvider(directory, Duration.ZERO, Duration.ZERO, 1.0, 1L);
+        assertThrows(DataProviderException.class, () -> broken.getSharePrices(query("AAPL")));
+        assertEquals(1, broken.getInjectedErrorCount());
+
+        // The same seed fails the same calls
+        List<Boolean> first = outcomes(new ReplayDataProvider(directory, Duration.ZERO, Duration.ZERO, 0.3, 42L));
+        List<Boolean> second = outcomes(new ReplayDataProvider(directory, Duration.ZERO, Duration.ZERO, 0.3, 42L));
+        assertEquals(first, second);
+        long failures = first.stream().filter(failed -> failed).count();
+        assertTrue(failures > 30 && failures < 90, "about 30% of 200 calls fail: " + failures);
+    }
+
+    // TC-RPL-05
+    @Test @Order(5)
+    @DisplayName("TC-RPL-05: Replay as a composite fallback")
+    void testCompositeFallback() throws IOException {
+        ReplayDataProvider.writeCsv(directory, "AAPL", bars("AAPL", LocalDate.of(2024, 3, 1), 5));
+        CompositeDataProviderTest.StubSource live = new CompositeDataProviderTest.StubSource("Live", 500);
+        live.error = new DataProviderException("HTTP 503");
+        ReplayDataProvider replay = new ReplayDataProvider(directory);
+        CompositeDataProvider composite = new CompositeDataProvider(List.of(live, replay));
+
+        List<SharePrice> prices = composite.getSharePrices(query("AAPL"));
+        assertEquals(5, prices.size());
+        assertEquals(1, composite.getFailoverCount());
+        assertTrue(composite.getProviderName().contains(replay.getProviderName()), composite.getProviderName());
+
+        replay.setAvailable(false);
+        assertThrows(DataProviderException.class, () -> composite.getSharePrices(query("AAPL")));
+        assertEquals(1, replay.getRequestCount(), "An unavailable source is skipped");
+    }
+
+    // TC-RPL-06
+    @Test @Order(6)
+    @DisplayName("TC-RPL-06: Tick replay into the blackboard")
+    void testTickReplay() throws IOException {
+        ReplayDataProvider.writeCsv(directory, "RPLA", bars("RPLA", LocalDate.of(2024, 3, 4), 3));
+        ReplayDataProvider.writeCsv(directory, "RPLB", bars("RPLB", LocalDate.of(2024, 3, 5), 3));
+        MarketDataBlackboard blackboard = MarketDataBlackboard.getInstance();
+        List<String> received = new ArrayList<>();
+        MarketDataBlackboard.BlackboardObserver observer = (symbol, price) -> {
+            if (symbol.startsWith("RPL")) received.add(symbol + "@" + price.getDate().getDayOfMonth());
+        };
+        blackboard.addObserver(observer);
+        try {
+            // One trading day every 10 ms: the replay spans 3 days, so about 30 ms
+            TickReplayer replayer = new TickReplayer(blackboard, Duration.ofDays(1).toMillis() / 10.0);
+            long started = System.nanoTime();
+            int posted = replayer.replay(new ReplayDataProvider(directory),
+                    List.of(query("RPLA"), query("RPLB")));
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            assertEquals(6, posted);
+            assertEquals(List.of("RPLA@4", "RPLA@5", "RPLB@5", "RPLA@6", "RPLB@6", "RPLB@7"), received);
+            assertTrue(elapsedMillis >= 30, "paced to the bar timestamps: " + elapsedMillis + "ms");
+            assertEquals(LocalDate.of(2024, 3, 7), blackboard.getLatest("RPLB").orElseThrow().getDate());
+
+            received.clear();
+            assertEquals(6, new TickReplayer(blackboard, Double.POSITIVE_INFINITY)
+                    .replay(new ReplayDataProvider(directory), List.of(query("RPLA"), query("RPLB"))));
+            assertThrows(IllegalArgumentException.class, () -> new TickReplayer(blackboard, 0));
+        } finally {
+            blackboard.removeObserver(observer);
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private ShareQuery query(String symbol) {
+        return new ShareQuery(symbol, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+    }
+
+    /** {@code count} consecutive weekday bars from {@code from}, closing at 100 + day of month + 0.25. */
+    private List<SharePrice> bars(String symbol, LocalDate from, int count) {
+        List<SharePrice> bars = new ArrayList<>();
+        for (LocalDate d = from; bars.size() < count; d = d.plusDays(1)) {
+            if (d.getDayOfWeek().getValue() >= 6) continue;
+            double close = 100 + d.getDayOfMonth() + 0.25;
+            bars.add(new SharePrice(symbol, d, BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                    BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2), 1_000_000L + d.getDayOfMonth()));
+        }
+        return bars;
+    }
+
+    /** Which of 200 calls failed. */
+    private List<Boolean> outcomes(ReplayDataProvider replay) {
+        List<Boolean> failed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            try {
+                replay.getSharePrices(query("AAPL"));
+                failed.add(false);
+            } catch (DataProviderException e) {
+                failed.add(true);
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.trading;
+
+import com.example.trading.blackboard.MarketDataBlackboard;
+import com.example.trading.model.PerformanceIndicator;
+import com.example.trading.model.SharePrice;
+import com.example.trading.service.RollingIndicators;
+import com.example.trading.service.StreamingIndicatorService;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the incremental indicator engine.
+ *
+ * Tests cover:
+ *  TC-IND-01  SMA20 / SMA50 match a from-scratch average
+ *  TC-IND-02  EMA12 matches a recursive EMA seeded with the first SMA
+ *  TC-IND-03  RSI14 matches Wilder smoothing computed from scratch
+ *  TC-IND-04  A repeated bar for the latest date replaces it
+ *  TC-IND-05  Streaming service advances on blackboard posts
+ *  TC-IND-06  MACD signal is an EMA9 of MACD; histogram is the difference
+ *  TC-IND-07  Bollinger Bands are SMA20 ± 2 population standard deviations
+ *  TC-IND-08  ATR14 uses true range and Wilder smoothing
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RollingIndicatorsTest {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    private final double[] closes = new double[120];
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = 100 + 10 * Math.sin(i / 7.0) + (i % 5) * 0.37;
+        }
+    }
+
+    // TC-IND-01
+    @Test @Order(1)
+    @DisplayName("TC-IND-01: SMA matches naive average")
+    void testSma() {
+        PerformanceIndicator row = feed(closes.length);
+        assertEquals(naiveSma(closes.length - 1, 20), row.getSma20().doubleValue(), 0.0001);
+        assertEquals(naiveSma(closes.length - 1, 50), row.getSma50().doubleValue(), 0.0001);
+    }
+
+    // TC-IND-02
+    @Test @Order(2)
+    @DisplayName("TC-IND-02: EMA is recursive, not restarted per bar")
+    void testEma() {
+        double k = 2.0 / 13;
+        double ema = 0;
+        for (int i = 0; i < 12; i++) ema += closes[i];
+        ema /= 12;
+        for (int i = 12; i < closes.length; i++) ema = (closes[i] - ema) * k + ema;
+        assertEquals(ema, feed(closes.length).getEma12().doubleValue(), 0.0001);
+    }
+
+    // TC-IND-03
+    @Test @Order(3)
+    @DisplayName("TC-IND-03: RSI uses Wilder smoothing")
+    void testRsi() {
+        double gain = 0, loss = 0;
+        for (int i = 1; i <= 14; i++) {
+            double c = closes[i] - closes[i - 1];
+            gain += Math.max(c, 0);
+            loss += Math.max(-c, 0);
+        }
+        gain /= 14;
+        loss /= 14;
+        for (int i = 15; i < closes.length; i++) {
+            double c = closes[i] - closes[i - 1];
+            gain = (gain * 13 + Math.max(c, 0)) / 14;
+            loss = (loss * 13 + Math.max(-c, 0)) / 14;
+        }
+        double expected = 100 - 100 / (1 + gain / loss);
+        assertEquals(expected, feed(closes.length).getRsi().doubleValue(), 0.001);
+    }
+
+    // TC-IND-04
+    @Test @Order(4)
+    @DisplayName("TC-IND-04: Same-date update replaces the latest bar")
+    void testReplaceLatest() {
+        RollingIndicators rolling = new RollingIndicators("AAPL");
+        for (int i = 0; i < 60; i++) rolling.update(price(i, closes[i]));
+        rolling.update(price(59, 999));
+        PerformanceIndicator replaced = rolling.update(price(59, closes[59]));
+
+        PerformanceIndicator fresh = feed(60);
+        assertEquals(60, rolling.getBarCount());
+        assertEquals(0, fresh.getSma50().compareTo(replaced.getSma50()));
+        assertEquals(0, fresh.getEma26().compareTo(replaced.getEma26()));
+        assertEquals(0, fresh.getRsi().compareTo(replaced.getRsi()));
+    }
+
+    // TC-IND-05
+    @Test @Order(5)
+    @DisplayName("TC-IND-05: Streaming service follows the blackboard")
+    void testStreamingService() {
+        MarketDataBlackboard blackboard = MarketDataBlackboard.getInstance();
+        blackboard.clear();
+        StreamingIndicatorService service = new StreamingIndicatorService();
+        List<SharePrice> history = new ArrayList<>();
+        for (int i = 0; i < 100; i++) history.add(price(i, closes[i]));
+        service.seed("AAPL", history);
+        service.attach(blackboard);
+        try {
+            for (int i = 100; i < closes.length; i++) blackboard.post("AAPL", price(i, closes[i]));
+        } finally {
+            service.detach(blackboard);
+        }
+        PerformanceIndicator live = service.getLatest("AAPL").orElseThrow();
+        assertEquals(BASE.plusDays(closes.length - 1), live.getDate());
+        assertEquals(0, feed(closes.length).getEma26().compareTo(live.getEma26()));
+    }
+
+    // TC-IND-06
+    @Test @Order(6)
+    @DisplayName("TC-IND-06: MACD signal and histogram")
+    void testMacdSignal() {
+        double[] fast = naiveEma(12), slow = naiveEma(26);
+        double signal = 0;
+        for (int i = 25; i < 34; i++) signal += fast[i] - slow[i];
+        signal /= 9;
+        for (int i = 34; i < closes.length; i++) {
+            signal = (fast[i] - slow[i] - signal) * (2.0 / 10) + signal;
+        }
+        PerformanceIndicator row = feed(closes.length);
+        assertEquals(signal, row.getMacdSignal().doubleValue(), 0.0001);
+        assertEquals(row.getMacd().doubleValue() - row.getMacdSignal().doubleValue(),
+                row.getMacdHistogram().doubleValue(), 0.0002);
+        assertNull(feed(33).getMacdSignal());
+        assertNotNull(feed(34).getMacdSignal());
+    }
+
+    // TC-IND-07
+    @Test @Order(7)
+    @DisplayName("TC-IND-07: Bollinger Bands match naive standard deviation")
+    void testBollinger() {
+        int last = closes.length - 1;
+        double mean = naiveSma(last, 20);
+        double variance = 0;
+        for (int i = last - 19; i <= last; i++) variance += (closes[i] - mean) * (closes[i] - mean);
+        double band = 2 * Math.sqrt(variance / 20);
+
+        PerformanceIndicator row = feed(closes.length);
+        assertEquals(mean + band, row.getBollingerUpper().doubleValue(), 0.0001);
+        assertEquals(mean - band, row.getBollingerLower().doubleValue(), 0.0001);
+        assertNull(feed(19).getBollingerUpper());
+    }
+
+    // TC-IND-08
+    @Test @Order(8)
+    @DisplayName("TC-IND-08: ATR uses true range with Wilder smoothing")
+    void testAtr() {
+        double atr = 0;
+        for (int i = 0; i < closes.length; i++) {
+            double high = closes[i] + 2, low = closes[i] - 2;
+            double tr = high - low;
+            if (i > 0) {
+                tr = Math.max(tr, Math.max(Math.abs(high - closes[i - 1]), Math.abs(low - closes[i - 1])));
+            }
+            if (i < 14) atr += tr;
+            if (i == 13) atr /= 14;
+            if (i >= 14) atr = (atr * 13 + tr) / 14;
+        }
+        assertEquals(atr, feed(closes.length).getAtr().doubleValue(), 0.0001);
+        assertNull(feed(13).getAtr());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private PerformanceIndicator feed(int bars) {
+        RollingIndicators rolling = new RollingIndicators("AAPL");
+        PerformanceIndicator row = null;
+        for (int i = 0; i < bars; i++) row = rolling.update(price(i, closes[i]));
+        return row;
+    }
+
+    private double naiveSma(int index, int period) {
+        double sum = 0;
+        for (int i = index - period + 1; i <= index; i++) sum += closes[i];
+        return sum / period;
+    }
+
+    /** EMA series seeded with the SMA of the first {@code period} closes (NaN before). */
+    private double[] naiveEma(int period) {
+        double[] ema = new double[closes.length];
+        double seed = 0;
+        for (int i = 0; i < period; i++) {
+            seed += closes[i];
+            ema[i] = Double.NaN;
+        }
+        ema[period - 1] = seed / period;
+        for (int i = period; i < closes.length; i++) {
+            ema[i] = (closes[i] - ema[i - 1]) * (2.0 / (period + 1)) + ema[i - 1];
+        }
+        return ema;
+    }
+
+    private SharePrice price(int day, double close) {
+        return new SharePrice("AAPL", BASE.plusDays(day),
+                BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2),
+                1_000_000L);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.trading;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.repository.SegmentFileSharePriceRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for SegmentFileSharePriceRepository.
+ *
+ * Tests cover:
+ *  TC-SEG-01  Saved history survives reopening the store
+ *  TC-SEG-02  Newer writes override older ones for the same date
+ *  TC-SEG-03  Small segments are compacted once the limit is exceeded
+ *  TC-SEG-04  deleteOldData drops expired bars, also after reopening
+ *  TC-SEG-05  deleteBySymbol removes the symbol from disk
+ *  TC-SEG-06  Leftover temp files from an interrupted write are ignored
+ *  TC-SEG-07  Small saves are merged without rewriting the large history segment
+ *  TC-SEG-08  Symbols that would resolve to the store directory are rejected
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SegmentFileSharePriceRepositoryTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 3, 3);
+
+    @TempDir
+    Path directory;
+
+    // TC-SEG-01
+    @Test @Order(1)
+    @DisplayName("TC-SEG-01: History survives a restart")
+    void testPersistsAcrossReopen() {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("AAPL", bars("AAPL", 0, 30, 100));
+
+        SegmentFileSharePriceRepository reopened = new SegmentFileSharePriceRepository(directory);
+        assertEquals(30, reopened.countBySymbol("AAPL"));
+        assertEquals(BASE.plusDays(29), reopened.findLatestBySymbol("AAPL").orElseThrow().getDate());
+        List<SharePrice> range = reopened.findBySymbolAndDateRange("AAPL", BASE.plusDays(5), BASE.plusDays(9));
+        assertEquals(5, range.size());
+        assertEquals(109.0, range.get(0).getClosePriceAsDouble(), 0.0001);
+    }
+
+    // TC-SEG-02
+    @Test @Order(2)
+    @DisplayName("TC-SEG-02: Newer writes win for the same date")
+    void testNewerWriteWins() {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("MSFT", bars("MSFT", 0, 10, 400));
+        repository.save(price("MSFT", BASE.plusDays(3), 999));
+        assertEquals(10, repository.countBySymbol("MSFT"));
+        assertEquals(999.0, repository.findBySymbolAndDateRange("MSFT", BASE.plusDays(3), BASE.plusDays(3))
+                .get(0).getClosePriceAsDouble(), 0.0001);
+    }
+
+    // TC-SEG-03
+    @Test @Order(3)
+    @DisplayName("TC-SEG-03: Small segments get compacted")
+    void testCompaction() throws IOException {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        for (int i = 0; i < 20; i++) {
+            repository.save(price("TSLA", BASE.plusDays(i), 200 + i));
+        }
+        assertTrue(segmentFiles("TSLA") <= 9, "Segments should be merged past the limit");
+        repository.compact();
+        assertEquals(1, segmentFiles("TSLA"));
+        assertEquals(20, new SegmentFileSharePriceRepository(directory).countBySymbol("TSLA"));
+    }
+
+    // TC-SEG-04
+    @Test @Order(4)
+    @DisplayName("TC-SEG-04: deleteOldData is durable")
+    void testDeleteOldData() {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("NVDA", bars("NVDA", 0, 10, 800));
+        repository.deleteOldData(BASE.plusDays(6).atStartOfDay());
+        assertEquals(4, repository.countBySymbol("NVDA"));
+        assertEquals(4, new SegmentFileSharePriceRepository(directory).countBySymbol("NVDA"));
+    }
+
+    // TC-SEG-05
+    @Test @Order(5)
+    @DisplayName("TC-SEG-05: deleteBySymbol removes the symbol")
+    void testDeleteBySymbol() {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("AMZN", bars("AMZN", 0, 5, 190));
+        repository.deleteBySymbol("AMZN");
+        assertEquals(0, repository.countBySymbol("AMZN"));
+        assertFalse(new SegmentFileSharePriceRepository(directory).findAllSymbols().contains("AMZN"));
+    }
+
+    // TC-SEG-06
+    @Test @Order(6)
+    @DisplayName("TC-SEG-06: Interrupted writes are ignored on load")
+    void testTempFilesIgnored() throws IOException {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("META", bars("META", 0, 3, 500));
+        Files.write(directory.resolve("META").resolve("0000000000000099.seg.tmp"), new byte[17]);
+        assertEquals(3, new SegmentFileSharePriceRepository(directory).countBySymbol("META"));
+    }
+
+    // TC-SEG-07
+    @Test @Order(7)
+    @DisplayName("TC-SEG-07: Compaction leaves the large history segment alone")
+    void testCompactionMergesNewestOnly() throws IOException {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        repository.saveAll("NFLX", bars("NFLX", 0, 1000, 300));
+        Path history = firstSegmentFile("NFLX");
+        for (int i = 1000; i < 1040; i++) {
+            repository.save(price("NFLX", BASE.plusDays(i), 300 + i));
+        }
+        assertTrue(Files.exists(history), "The history segment should not be rewritten");
+        assertTrue(segmentFiles("NFLX") <= 9, "Segments should be merged past the limit");
+
+        SegmentFileSharePriceRepository reopened = new SegmentFileSharePriceRepository(directory);
+        assertEquals(1040, reopened.countBySymbol("NFLX"));
+        assertEquals(1339.0, reopened.findLatestBySymbol("NFLX").orElseThrow().getClosePriceAsDouble(), 0.0001);
+    }
+
+    // TC-SEG-08
+    @Test @Order(8)
+    @DisplayName("TC-SEG-08: '.' and '..' are not valid symbols")
+    void testDotSymbolRejected() {
+        SegmentFileSharePriceRepository repository = new SegmentFileSharePriceRepository(directory);
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(".", List.of(price(".", BASE, 1))));
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll("..", List.of(price("..", BASE, 1))));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private long segmentFiles(String symbol) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(symbol))) {
+            return files.filter(p -> p.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private Path firstSegmentFile(String symbol) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(symbol))) {
+            return files.filter(p -> p.toString().endsWith(".seg")).sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private List<SharePrice> bars(String symbol, int fromDay, int count, double firstClose) {
+        List<SharePrice> result = new ArrayList<>();
+        for (int i = fromDay; i < fromDay + count; i++) {
+            result.add(price(symbol, BASE.plusDays(i), firstClose + i));
+        }
+        return result;
+    }
+
+    private SharePrice price(String symbol, LocalDate date, double close) {
+        return new SharePrice(symbol, date,
+                BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2),
+                1_000_000L);
+    }
+}
@@ -1,17 +1,31 @@
 package com.example.trading;
 
+import com.example.trading.adapter.MarketDataAdapter;
 import com.example.trading.api.IDataProvider;
+import com.example.trading.api.YahooFinanceProvider;
 import com.example.trading.exception.DataProviderException;
 import com.example.trading.model.SharePrice;
 import com.example.trading.model.ShareQuery;
+import com.example.trading.model.TradingCalendar;
 import com.example.trading.repository.JsonSharePriceRepository;
 import com.example.trading.service.AuthenticationService;
 import com.example.trading.service.SharePriceService;
 import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +42,17 @@ import static org.junit.jupiter.api.Assertions.*;
  *  TC-SPS-05  Null query rejected with exception
  *  TC-SPS-06  getLatestPrice returns most recent record
  *  TC-SPS-07  Date range filtering works correctly
+ *  TC-SPS-08  Concurrent identical queries share one provider fetch
+ *  TC-SPS-09  Concurrent getLatestPrice calls for a symbol share one fetch
+ *  TC-SPS-10  A failed shared fetch fails every waiter and is not cached
+ *  TC-SPS-11  Extending a long cached history fetches only the new sessions
+ *  TC-SPS-12  Holes inside the cached range are fetched as separate gaps and merged
+ *  TC-SPS-13  Sessions the provider has no bar for are not requested again
+ *  TC-SPS-14  Calendar holidays are never treated as missing sessions
+ *  TC-SPS-15  An Error thrown by a shared fetch reaches every waiter
+ *  TC-SPS-16  Gaps fetched before a later gap fails are kept in the fallback
+ *  TC-SPS-17  On a non-session day an empty latest-price answer is not fetched again
+ *  TC-SPS-18  Sessions missing from an empty or cut-short answer are fetched again
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class SharePriceServiceTest {
@@ -100,7 +125,7 @@ class SharePriceServiceTest {
     @Test @Order(5)
     @DisplayName("TC-SPS-05: Null query throws exception")
     void testNullQueryThrows() {
-        assertThrows(Exception.class, () -> service.getSharePrices(null));
+        assertThrows(Exception.class, () -> service.getSharePrices((ShareQuery) null));
     }
 
     // TC-SPS-06
@@ -125,6 +150,307 @@ class SharePriceServiceTest {
         }
     }
 
+    // TC-SPS-08
+    @Test @Order(8)
+    @DisplayName("TC-SPS-08: Identical concurrent queries are coalesced")
+    void testConcurrentQueriesCoalesced() throws Exception {
+        BlockingProvider provider = new BlockingProvider();
+        SharePriceService coalescing = new SharePriceService(new JsonSharePriceRepository(), provider);
+        ShareQuery query = new ShareQuery("NVDA", LocalDate.now().minusDays(4), LocalDate.now());
+
+        List<List<SharePrice>> results = runConcurrently(8, provider, () -> coalescing.getSharePrices(
+                new ShareQuery("nvda", query.getStartDate(), query.getEndDate())));
+
+        assertEquals(1, provider.calls.get());
+        for (List<SharePrice> prices : results) assertEquals(5, prices.size());
+        assertNotSame(results.get(0), results.get(1), "Each caller gets its own list");
+    }
+
+    // TC-SPS-09
+    @Test @Order(9)
+    @DisplayName("TC-SPS-09: Concurrent latest-price lookups are coalesced")
+    void testConcurrentLatestCoalesced() throws Exception {
+        BlockingProvider provider = new BlockingProvider();
+        SharePriceService coalescing = new SharePriceService(new JsonSharePriceRepository(), provider);
+
+        List<SharePrice> results = runConcurrently(6, provider, () -> coalescing.getLatestPrice("TSLA"));
+
+        assertEquals(1, provider.calls.get());
+        for (SharePrice latest : results) assertEquals("TSLA", latest.getSymbol());
+    }
+
+    // TC-SPS-10
+    @Test @Order(10)
+    @DisplayName("TC-SPS-10: Shared failures reach every caller")
+    void testSharedFailure() throws Exception {
+        BlockingProvider provider = new BlockingProvider();
+        provider.fail = true;
+        SharePriceService coalescing = new SharePriceService(new JsonSharePriceRepository(), provider);
+        ShareQuery query = new ShareQuery("AMD", LocalDate.now().minusDays(4), LocalDate.now());
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(4, provider, () -> {
+            try {
+                return coalescing.getSharePrices(query);
+            } catch (com.example.trading.exception.ServiceException e) {
+                failures.incrementAndGet();
+                return null;
+            }
+        });
+        assertEquals(1, provider.calls.get());
+        assertEquals(4, failures.get());
+
+        provider.fail = false;
+        provider.release.countDown();
+        assertEquals(5, coalescing.getSharePrices(query).size(), "A failed flight is not remembered");
+        assertEquals(2, provider.calls.get());
+    }
+
+    // TC-SPS-11
+    @Test @Order(11)
+    @DisplayName("TC-SPS-11: Only the missing day is fetched")
+    void testExtendByOneDay() {
+        RecordingProvider provider = new RecordingProvider();
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        LocalDate end = LocalDate.of(2024, 6, 14);   // a Friday
+        LocalDate start = end.minusYears(5);
+        repository.saveAll("MSFT", provider.bars("MSFT", start, end.minusDays(1)));
+        SharePriceService gapAware = new SharePriceService(repository, provider);
+
+        List<SharePrice> prices = gapAware.getSharePrices(new ShareQuery("MSFT", start, end));
+
+        assertEquals(1, provider.queries.size());
+        assertEquals(end, provider.queries.get(0).getStartDate());
+        assertEquals(end, provider.queries.get(0).getEndDate());
+        assertEquals(provider.bars("MSFT", start, end).size(), prices.size());
+        assertEquals(end, prices.get(prices.size() - 1).getDate());
+    }
+
+    // TC-SPS-12
+    @Test @Order(12)
+    @DisplayName("TC-SPS-12: Holes are fetched and merged")
+    void testHolesMerged() {
+        RecordingProvider provider = new RecordingProvider();
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        LocalDate start = LocalDate.of(2024, 1, 1), end = LocalDate.of(2024, 3, 29);
+        for (SharePrice bar : provider.bars("AMZN", start, end)) {
+            boolean hole = bar.getDate().getMonthValue() == 2 && bar.getDate().getDayOfMonth() <= 9;   // Feb 1–9
+            if (!hole && !bar.getDate().equals(end)) repository.save(bar);
+        }
+        SharePriceService gapAware = new SharePriceService(repository, provider);
+
+        List<SharePrice> prices = gapAware.getSharePrices(new ShareQuery("AMZN", start, end));
+
+        assertEquals(2, provider.queries.size());
+        assertEquals(LocalDate.of(2024, 2, 1), provider.queries.get(0).getStartDate());
+        assertEquals(LocalDate.of(2024, 2, 9), provider.queries.get(0).getEndDate());
+        assertEquals(end, provider.queries.get(1).getStartDate());
+        assertEquals(provider.bars("AMZN", start, end).size(), prices.size());
+        for (int i = 1; i < prices.size(); i++) {
+            assertTrue(prices.get(i).getDate().isAfter(prices.get(i - 1).getDate()), "sorted, no duplicates");
+        }
+    }
+
+    // TC-SPS-13
+    @Test @Order(13)
+    @DisplayName("TC-SPS-13: Empty sessions are remembered")
+    void testEmptySessionsRemembered() {
+        RecordingProvider provider = new RecordingProvider();
+        provider.holidays.add(LocalDate.of(2024, 7, 4));
+        SharePriceService gapAware = new SharePriceService(new JsonSharePriceRepository(), provider);
+        ShareQuery query = new ShareQuery("META", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 12));
+
+        assertEquals(9, gapAware.getSharePrices(query).size());
+        assertEquals(9, gapAware.getSharePrices(query).size());
+        assertEquals(1, provider.queries.size(), "The holiday does not trigger a refetch");
+    }
+
+    // TC-SPS-14
+    @Test @Order(14)
+    @DisplayName("TC-SPS-14: Holidays are not gaps")
+    void testCalendarHolidaysSkipped() {
+        RecordingProvider provider = new RecordingProvider();
+        provider.holidays.add(LocalDate.of(2024, 7, 4));
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        LocalDate start = LocalDate.of(2024, 7, 1), end = LocalDate.of(2024, 7, 12);
+        repository.saveAll("META", provider.bars("META", start, end));
+        TradingCalendar calendar = TradingCalendar.of("TEST", List.of(LocalDate.of(2024, 7, 4)));
+        SharePriceService gapAware = new SharePriceService(repository, provider, calendar);
+
+        assertEquals(9, gapAware.getSharePrices(new ShareQuery("META", start, end)).size());
+        assertTrue(provider.queries.isEmpty(), "A complete range needs no fetch");
+
+        assertEquals(10, gapAware.getSharePrices(new ShareQuery("META", start, end.plusDays(3))).size());
+        assertEquals(1, provider.queries.size());
+        assertEquals(LocalDate.of(2024, 7, 15), provider.queries.get(0).getStartDate());
+    }
+
+    // TC-SPS-15
+    @Test @Order(15)
+    @DisplayName("TC-SPS-15: Shared Errors reach every caller")
+    void testSharedError() throws Exception {
+        BlockingProvider provider = new BlockingProvider();
+        provider.error = new AssertionError("Stub provider error");
+        SharePriceService coalescing = new SharePriceService(new JsonSharePriceRepository(), provider);
+        ShareQuery query = new ShareQuery("INTC", LocalDate.now().minusDays(4), LocalDate.now());
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(4, provider, () -> {
+            try {
+                return coalescing.getSharePrices(query);
+            } catch (AssertionError e) {
+                failures.incrementAndGet();
+                return null;
+            }
+        });
+        assertEquals(1, provider.calls.get());
+        assertEquals(4, failures.get(), "No waiter is left blocked on the failed flight");
+    }
+
+    // TC-SPS-16
+    @Test @Order(16)
+    @DisplayName("TC-SPS-16: Fetched gaps survive a later failure")
+    void testPartialGapFailure() {
+        RecordingProvider provider = new RecordingProvider();
+        provider.failAfter = 1;
+        JsonSharePriceRepository repository = new JsonSharePriceRepository();
+        LocalDate start = LocalDate.of(2024, 1, 1), end = LocalDate.of(2024, 3, 29);
+        List<SharePrice> all = provider.bars("NFLX", start, end);
+        for (SharePrice bar : all) {
+            boolean hole = bar.getDate().getMonthValue() == 2 && bar.getDate().getDayOfMonth() <= 9;   // Feb 1–9
+            if (!hole && !bar.getDate().equals(end)) repository.save(bar);
+        }
+        SharePriceService gapAware = new SharePriceService(repository, provider);
+
+        List<SharePrice> prices = gapAware.getSharePrices(new ShareQuery("NFLX", start, end));
+
+        assertEquals(2, provider.queries.size(), "The second gap was attempted and failed");
+        assertEquals(all.size() - 1, prices.size(), "Only the failed gap's bar is missing");
+        assertEquals(all.get(all.size() - 2).getDate(), prices.get(prices.size() - 1).getDate());
+    }
+
+    // TC-SPS-17
+    @Test @Order(17)
+    @DisplayName("TC-SPS-17: Closed-day polling is answered locally")
+    void testClosedDayPolling() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request ->
+                StubHttpServer.Response.json(YahooFinanceProviderTest.emptyChart()))) {
+            TradingCalendar closedToday = TradingCalendar.of("TEST", List.of(LocalDate.now()));
+            JsonSharePriceRepository repository = new JsonSharePriceRepository();
+            BigDecimal close = BigDecimal.valueOf(42);
+            SharePrice lastClose = new SharePrice("WKND", closedToday.sessionOnOrBefore(LocalDate.now().minusDays(1)),
+                    close, close, close, close, 1_000L);
+            repository.save(lastClose);
+            SharePriceService polling = new SharePriceService(repository,
+                    new MarketDataAdapter(new YahooFinanceProvider(server.baseUrl(), 4)), closedToday);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(lastClose.getDate(), polling.getLatestPrice("WKND").getDate());
+            }
+            assertEquals(1, server.requests().size(), "The empty answer is remembered for the day");
+
+            polling.clearCache("WKND");
+            assertThrows(com.example.trading.exception.ServiceException.class, () -> polling.getLatestPrice("WKND"));
+            assertEquals(2, server.requests().size());
+        }
+    }
+
+    // TC-SPS-18
+    @Test @Order(18)
+    @DisplayName("TC-SPS-18: Cut-short answers are not remembered as empty")
+    void testTransientEmptyNotRemembered() {
+        RecordingProvider provider = new RecordingProvider();
+        provider.holidays.add(LocalDate.of(2024, 7, 4));
+        provider.lastBar = LocalDate.of(2024, 7, 8);
+        SharePriceService gapAware = new SharePriceService(new JsonSharePriceRepository(), provider);
+        ShareQuery query = new ShareQuery("ORCL", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 12));
+
+        assertEquals(5, gapAware.getSharePrices(query).size());
+        provider.lastBar = null;
+        assertEquals(9, gapAware.getSharePrices(query).size(), "Jul 9–12 are asked for again");
+        assertEquals(2, provider.queries.size());
+        assertEquals(LocalDate.of(2024, 7, 9), provider.queries.get(1).getStartDate(), "The holiday stays remembered");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * Start {@code callers} tasks once the first has entered the provider,
+     * then let the provider finish and collect every result.
+     */
+    private <T> List<T> runConcurrently(int callers, BlockingProvider provider,
+                                        Callable<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            futures.add(pool.submit(task));
+            assertTrue(provider.entered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) futures.add(pool.submit(task));
+            Thread.sleep(100);   // let the followers reach the in-flight fetch
+            provider.release.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) results.add(future.get(5, TimeUnit.SECONDS));
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Provider that holds its first call until released and counts calls. */
+    static class BlockingProvider extends StubDataProvider {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger  calls   = new AtomicInteger();
+        volatile boolean     fail;
+        volatile Error       error;
+
+        @Override
+        public List<SharePrice> getSharePrices(ShareQuery query) throws DataProviderException {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) throw new DataProviderException("Stub provider error");
+            if (error != null) throw error;
+            return super.getSharePrices(query);
+        }
+    }
+
+    /** Provider returning one bar per weekday of the query (minus holidays), recording each query. */
+    static class RecordingProvider implements IDataProvider {
+        final List<ShareQuery> queries  = new ArrayList<>();
+        final Set<LocalDate>   holidays = new HashSet<>();
+        /** Calls after this many throw */
+        int failAfter = Integer.MAX_VALUE;
+        /** When set, no bars after this date are returned, like a cut-short answer */
+        LocalDate lastBar;
+
+        @Override
+        public synchronized List<SharePrice> getSharePrices(ShareQuery query) {
+            queries.add(query);
+            if (queries.size() > failAfter) throw new DataProviderException("Stub provider error");
+            LocalDate end = lastBar != null && lastBar.isBefore(query.getEndDate()) ? lastBar : query.getEndDate();
+            return bars(query.getSymbol(), query.getStartDate(), end);
+        }
+
+        @Override public boolean isAvailable() { return true; }
+
+        List<SharePrice> bars(String symbol, LocalDate from, LocalDate to) {
+            List<SharePrice> bars = new ArrayList<>();
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY
+                        || holidays.contains(d)) continue;
+                double close = 100 + d.getDayOfYear();
+                bars.add(new SharePrice(symbol, d, BigDecimal.valueOf(close - 1), BigDecimal.valueOf(close),
+                        BigDecimal.valueOf(close + 2), BigDecimal.valueOf(close - 2), 1_000_000L));
+            }
+            return bars;
+        }
+    }
+
     // ── Stub data provider ────────────────────────────────────────────────────
 
     static class StubDataProvider implements IDataProvider {
@@ -0,0 +1,140 @@
+package com.example.trading;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Minimal local HTTP/1.1 server for provider tests.
+ *
+ * Each connection carries one request and is answered by the handler, then
+ * closed. Built on plain sockets so tests need nothing outside java.base.
+ */
+class StubHttpServer implements AutoCloseable {
+
+    private final ServerSocket socket;
+    private final Function<Request, Response> handler;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    StubHttpServer(Function<Request, Response> handler) throws IOException {
+        this.handler = handler;
+        this.socket = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("stub-http-accept").start(this::acceptLoop);
+    }
+
+    /** Base URL ending in '/', e.g. {@code http://127.0.0.1:54321/chart/} */
+    String baseUrl() {
+        return "http://127.0.0.1:" + socket.getLocalPort() + "/chart/";
+    }
+
+    /** Every request received so far, in arrival order. */
+    List<Request> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        socket.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket connection = socket.accept();
+                Thread.ofVirtual().start(() -> serve(connection));
+            } catch (IOException e) {
+                if (!closed) System.err.println("Stub server accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (connection) {
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) return;
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+            String[] parts = requestLine.split(" ");
+            Request request = new Request(parts[0], parts[1], headers);
+            requests.add(request);
+
+            Response response = handler.apply(request);
+            StringBuilder head = new StringBuilder("HTTP/1.1 ").append(response.status).append(" Stub\r\n");
+            response.headers.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            head.append("Content-Length: ").append(response.body.length).append("\r\n");
+            head.append("Connection: close\r\n\r\n");
+            OutputStream out = connection.getOutputStream();
+            out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+            out.write(response.body);
+            out.flush();
+        } catch (IOException e) {
+            if (!closed) System.err.println("Stub server connection failed: " + e.getMessage());
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) >= 0 && c != '\n') {
+            if (c != '\r') line.write(c);
+        }
+        return c < 0 && line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    static final class Request {
+        final String method;
+        final String path;
+        /** Header names are lower-case */
+        final Map<String, String> headers;
+
+        Request(String method, String path, Map<String, String> headers) {
+            this.method = method;
+            this.path = path;
+            this.headers = headers;
+        }
+
+        /** Path segment after the last '/', without the query string, e.g. the symbol. */
+        String symbol() {
+            String p = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+            return p.substring(p.lastIndexOf('/') + 1);
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        final byte[] body;
+
+        Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response json(String json) {
+            return new Response(200, json.getBytes(StandardCharsets.UTF_8)).header("Content-Type", "application/json");
+        }
+
+        Response header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.trading;
+
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.TradingCalendar;
+import com.example.trading.pipeline.Filters;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for TradingCalendar.
+ *
+ * Tests cover:
+ *  TC-CAL-01  Weekends and holidays are not sessions
+ *  TC-CAL-02  Session counts match a day-by-day count, including across years and range edges
+ *  TC-CAL-03  Next and previous sessions skip weekends and holidays and stop at the range edges
+ *  TC-CAL-04  Holiday files are loaded per exchange; malformed lines are rejected
+ *  TC-CAL-05  The registry returns registered calendars and weekdays for unknown exchanges
+ *  TC-CAL-06  RemoveWeekendsFilter drops the calendar's non-sessions
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TradingCalendarTest {
+
+    private static final LocalDate NEW_YEAR    = LocalDate.of(2024, 1, 1);   // a Monday
+    private static final LocalDate GOOD_FRIDAY = LocalDate.of(2024, 3, 29);
+    private static final LocalDate CHRISTMAS   = LocalDate.of(2024, 12, 25);
+
+    private final TradingCalendar calendar = TradingCalendar.of("nyse", List.of(NEW_YEAR, GOOD_FRIDAY, CHRISTMAS));
+
+    // TC-CAL-01
+    @Test @Order(1)
+    @DisplayName("TC-CAL-01: Sessions exclude weekends and holidays")
+    void testIsSession() {
+        assertEquals("NYSE", calendar.getExchange());
+        assertEquals(3, calendar.getHolidayCount());
+        assertFalse(calendar.isSession(NEW_YEAR));
+        assertTrue(calendar.isSession(LocalDate.of(2024, 1, 2)));
+        assertFalse(calendar.isSession(LocalDate.of(2024, 1, 6)), "Saturday");
+        assertFalse(calendar.isSession(LocalDate.of(2024, 1, 7)), "Sunday");
+        assertFalse(calendar.isSession(GOOD_FRIDAY));
+        assertFalse(calendar.isSession(TradingCalendar.FIRST_DATE.minusDays(3)));
+        assertFalse(calendar.isSession(TradingCalendar.LAST_DATE.plusDays(1)));
+        assertEquals(0, TradingCalendar.of("X", List.of(LocalDate.of(2024, 1, 6))).getHolidayCount(),
+                "A weekend holiday removes nothing");
+    }
+
+    // TC-CAL-02
+    @Test @Order(2)
+    @DisplayName("TC-CAL-02: Session counts")
+    void testCountSessions() {
+        assertEquals(259, calendar.countSessions(NEW_YEAR, LocalDate.of(2024, 12, 31)));
+        assertEquals(0, calendar.countSessions(LocalDate.of(2024, 1, 6), LocalDate.of(2024, 1, 7)));
+        assertEquals(0, calendar.countSessions(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 9)));
+        assertEquals(1, calendar.countSessions(TradingCalendar.FIRST_DATE.minusYears(5), TradingCalendar.FIRST_DATE));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            LocalDate from = NEW_YEAR.minusDays(random.nextInt(4_000));
+            LocalDate to = from.plusDays(random.nextInt(800));
+            assertEquals(countByDay(from, to), calendar.countSessions(from, to), from + ".." + to);
+        }
+    }
+
+    // TC-CAL-03
+    @Test @Order(3)
+    @DisplayName("TC-CAL-03: Next and previous sessions")
+    void testNextAndPrevious() {
+        assertEquals(LocalDate.of(2024, 1, 2), calendar.nextSession(LocalDate.of(2023, 12, 29)));
+        assertEquals(LocalDate.of(2023, 12, 29), calendar.previousSession(LocalDate.of(2024, 1, 2)));
+        assertEquals(LocalDate.of(2024, 4, 1), calendar.nextSession(LocalDate.of(2024, 3, 28)));
+        assertEquals(LocalDate.of(2024, 3, 28), calendar.previousSession(LocalDate.of(2024, 4, 1)));
+        assertEquals(LocalDate.of(2024, 3, 28), calendar.sessionOnOrBefore(GOOD_FRIDAY));
+        assertEquals(LocalDate.of(2024, 1, 2), calendar.sessionOnOrAfter(LocalDate.of(2024, 1, 2)));
+
+        assertEquals(TradingCalendar.FIRST_DATE, calendar.nextSession(LocalDate.of(1850, 6, 1)));
+        assertNull(calendar.previousSession(TradingCalendar.FIRST_DATE));
+        assertNull(calendar.nextSession(TradingCalendar.LAST_DATE));
+        assertEquals(TradingCalendar.LAST_DATE, calendar.previousSession(LocalDate.of(2300, 1, 1)));
+
+        List<LocalDate> walked = new ArrayList<>();
+        for (LocalDate d = LocalDate.of(2024, 12, 31); !d.isBefore(NEW_YEAR); d = calendar.previousSession(d)) walked.add(0, d);
+        assertEquals(calendar.sessionsBetween(NEW_YEAR, LocalDate.of(2024, 12, 31)), walked);
+        assertEquals(259, walked.size());
+    }
+
+    // TC-CAL-04
+    @Test @Order(4)
+    @DisplayName("TC-CAL-04: Loading a holiday file")
+    void testLoad() throws IOException {
+        Path file = Files.createTempFile("calendar", ".csv");
+        try {
+            Files.writeString(file, String.join("\n",
+                    "# exchange,date,name",
+                    "NYSE,2024-01-01,New Year's Day",
+                    "nyse, 2024-07-04 ,Independence Day  # observed",
+                    "",
+                    "LSE,2024-12-26,Boxing Day"));
+            Map<String, TradingCalendar> loaded = TradingCalendar.load(file);
+
+            assertEquals(Set.of("NYSE", "LSE"), loaded.keySet());
+            assertEquals(2, loaded.get("NYSE").getHolidayCount());
+            assertFalse(loaded.get("NYSE").isSession(LocalDate.of(2024, 7, 4)));
+            assertTrue(loaded.get("LSE").isSession(LocalDate.of(2024, 7, 4)));
+            assertFalse(loaded.get("LSE").isSession(LocalDate.of(2024, 12, 26)));
+
+            Files.writeString(file, "NYSE,2024-01-01\nNYSE,01/02/2024\n");
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> TradingCalendar.load(file));
+            assertTrue(e.getMessage().contains(":2:"), e.getMessage());
+            Files.writeString(file, "2024-01-01\n");
+            assertThrows(IllegalArgumentException.class, () -> TradingCalendar.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // TC-CAL-05
+    @Test @Order(5)
+    @DisplayName("TC-CAL-05: Calendar registry")
+    void testRegistry() {
+        TradingCalendar unknown = TradingCalendar.forExchange("test-weekdays");
+        assertEquals("TEST-WEEKDAYS", unknown.getExchange());
+        assertEquals(0, unknown.getHolidayCount());
+        assertSame(unknown, TradingCalendar.forExchange("TEST-WEEKDAYS"));
+
+        TradingCalendar registered = TradingCalendar.of("TEST-REGISTERED", List.of(CHRISTMAS));
+        TradingCalendar.register(registered);
+        assertSame(registered, TradingCalendar.forExchange("test-registered"));
+        assertNotNull(TradingCalendar.getDefault());
+        assertThrows(IllegalArgumentException.class, () -> TradingCalendar.forExchange(" "));
+        assertThrows(IllegalArgumentException.class, () -> TradingCalendar.of("X", null));
+    }
+
+    // TC-CAL-06
+    @Test @Order(6)
+    @DisplayName("TC-CAL-06: Pipeline filter uses the calendar")
+    void testRemoveWeekendsFilter() {
+        List<SharePrice> input = new ArrayList<>();
+        for (LocalDate d = LocalDate.of(2024, 3, 25); d.isBefore(LocalDate.of(2024, 4, 2)); d = d.plusDays(1)) {
+            input.add(price(d));
+        }
+
+        List<SharePrice> sessions = new Filters.RemoveWeekendsFilter(calendar).apply(input);
+        List<SharePrice> weekdays = new Filters.RemoveWeekendsFilter(TradingCalendar.weekdays("X")).apply(input);
+
+        assertEquals(5, sessions.size(), "Mon–Thu and the following Monday");
+        assertEquals(6, weekdays.size());
+        assertTrue(sessions.stream().noneMatch(p -> p.getDate().equals(GOOD_FRIDAY)));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private int countByDay(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            boolean weekend = d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (!weekend && !d.equals(NEW_YEAR) && !d.equals(GOOD_FRIDAY) && !d.equals(CHRISTMAS)) count++;
+        }
+        return count;
+    }
+
+    private SharePrice price(LocalDate date) {
+        BigDecimal close = BigDecimal.valueOf(100);
+        return new SharePrice("AAPL", date, close.subtract(BigDecimal.ONE), close,
+                close.add(BigDecimal.valueOf(2)), close.subtract(BigDecimal.valueOf(2)), 1_000_000L);
+    }
+}
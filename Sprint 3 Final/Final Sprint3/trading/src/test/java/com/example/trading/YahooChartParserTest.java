@@ -0,0 +1,169 @@
+package com.example.trading;
+
+import com.example.trading.api.YahooChartParser;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.SharePrice;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the streaming Yahoo Finance chart parser.
+ *
+ * Tests cover:
+ *  TC-YCP-01  A chart response is parsed into dated OHLCV bars
+ *  TC-YCP-02  Null closes are skipped; null open/high/low fall back to the close
+ *  TC-YCP-03  Parsed values match Double.parseDouble exactly
+ *  TC-YCP-04  Tokens split across read boundaries are parsed correctly
+ *  TC-YCP-05  Missing blocks and malformed bodies raise DataProviderException
+ *  TC-YCP-06  A range with no sessions parses as no bars
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class YahooChartParserTest {
+
+    // 2024-03-01 14:30 UTC — a New York trading session
+    private static final long SESSION = LocalDate.of(2024, 3, 1).atTime(14, 30).toEpochSecond(ZoneOffset.UTC);
+    private static final long DAY = 86_400;
+
+    // TC-YCP-01
+    @Test @Order(1)
+    @DisplayName("TC-YCP-01: Chart response is parsed")
+    void testParse() {
+        String json = chart(
+                "[" + SESSION + "," + (SESSION + DAY) + "]",
+                "[171.5,173.25]", "[174.0,175.5]", "[170.75,172.0]", "[173.5,174.75]", "[51234567,48000000]");
+
+        List<SharePrice> prices = YahooChartParser.parse(stream(json), "AAPL");
+
+        assertEquals(2, prices.size());
+        SharePrice first = prices.get(0);
+        assertEquals("AAPL", first.getSymbol());
+        assertEquals(LocalDate.of(2024, 3, 1), first.getDate());
+        assertEquals(0, new BigDecimal("171.5").compareTo(first.getOpenPrice()));
+        assertEquals(0, new BigDecimal("174.0").compareTo(first.getHighPrice()));
+        assertEquals(0, new BigDecimal("170.75").compareTo(first.getLowPrice()));
+        assertEquals(0, new BigDecimal("173.5").compareTo(first.getClosePrice()));
+        assertEquals(51_234_567L, first.getVolume());
+        assertEquals(LocalDate.of(2024, 3, 2), prices.get(1).getDate());
+    }
+
+    // TC-YCP-02
+    @Test @Order(2)
+    @DisplayName("TC-YCP-02: Nulls are handled")
+    void testNulls() {
+        String json = chart(
+                "[" + SESSION + "," + (SESSION + DAY) + "," + (SESSION + 2 * DAY) + "]",
+                "[null,10.0,11.0]", "[12.0,null,13.0]", "[9.0,9.5,null]", "[11.0,null,12.5]", "[100,200,null]");
+
+        List<SharePrice> prices = YahooChartParser.parse(stream(json), "MSFT");
+
+        assertEquals(2, prices.size(), "The bar with a null close is skipped");
+        assertEquals(11.0, prices.get(0).getOpenPrice().doubleValue(), 1e-9, "Null open falls back to close");
+        SharePrice last = prices.get(1);
+        assertEquals(12.5, last.getLowPrice().doubleValue(), 1e-9, "Null low falls back to close");
+        assertEquals(0L, last.getVolume());
+    }
+
+    // TC-YCP-03
+    @Test @Order(3)
+    @DisplayName("TC-YCP-03: Numbers are rounded exactly")
+    void testExactNumbers() {
+        Random random = new Random(42);
+        int n = 2_000;
+        double[] closes = new double[n];
+        StringBuilder ts = new StringBuilder("["), cl = new StringBuilder("[");
+        for (int i = 0; i < n; i++) {
+            // Mix of float-widened values (17 digits), short decimals and exponents
+            closes[i] = switch (i % 3) {
+                case 0  -> (double) (float) (50 + random.nextDouble() * 500);
+                case 1  -> Math.round(random.nextDouble() * 100_000) / 100.0;
+                default -> random.nextDouble() * 1e-3 + 1e-4;
+            };
+            ts.append(i > 0 ? "," : "").append(SESSION + i * DAY);
+            cl.append(i > 0 ? "," : "").append(i % 3 == 2 ? String.format("%.6e", closes[i]) : Double.toString(closes[i]));
+        }
+        String json = chart(ts + "]", cl + "]", cl + "]", cl + "]", cl + "]", "[]");
+        String[] tokens = cl.substring(1).split(",");
+
+        List<SharePrice> prices = YahooChartParser.parse(stream(json), "NVDA");
+
+        assertEquals(n, prices.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(BigDecimal.valueOf(Double.parseDouble(tokens[i])), prices.get(i).getClosePrice(), tokens[i]);
+        }
+    }
+
+    // TC-YCP-04
+    @Test @Order(4)
+    @DisplayName("TC-YCP-04: Read boundaries do not matter")
+    void testSplitReads() {
+        String json = chart(
+                "[" + SESSION + "," + (SESSION + DAY) + "]",
+                "[187.44000244140625,188.1]", "[189.0,190.0]", "[186.5,187.0]", "[188.25,189.5]", "[1000,2000]");
+        List<SharePrice> expected = YahooChartParser.parse(stream(json), "TSLA");
+
+        InputStream oneByteAtATime = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)) {
+            @Override public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        List<SharePrice> actual = YahooChartParser.parse(oneByteAtATime, "TSLA");
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getOpenPrice(), actual.get(i).getOpenPrice());
+            assertEquals(expected.get(i).getClosePrice(), actual.get(i).getClosePrice());
+        }
+        assertEquals(new BigDecimal("187.44000244140625"), actual.get(0).getOpenPrice());
+    }
+
+    // TC-YCP-05
+    @Test @Order(5)
+    @DisplayName("TC-YCP-05: Bad responses are rejected")
+    void testMalformed() {
+        String noQuote = "{\"chart\":{\"result\":[{\"timestamp\":[" + SESSION + "],\"indicators\":{}}],\"error\":null}}";
+        String noTimestamp = "{\"chart\":{\"result\":[{\"indicators\":{\"quote\":[{\"close\":[1.0]}]}}]}}";
+        String truncated = chart("[" + SESSION + "]", "[1.0]", "[1.0]", "[1.0]", "[1.0]", "[1]").substring(0, 80);
+
+        assertThrows(DataProviderException.class, () -> YahooChartParser.parse(stream(noQuote), "X"));
+        assertThrows(DataProviderException.class, () -> YahooChartParser.parse(stream(noTimestamp), "X"));
+        assertThrows(DataProviderException.class, () -> YahooChartParser.parse(stream(truncated), "X"));
+        assertThrows(DataProviderException.class, () -> YahooChartParser.parse(stream("{\"chart\":[1.2.3]}"), "X"));
+    }
+
+    // TC-YCP-06
+    @Test @Order(6)
+    @DisplayName("TC-YCP-06: Empty range is not an error")
+    void testEmptyRange() {
+        String weekend = "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\"},"
+                + "\"indicators\":{\"quote\":[{}],\"adjclose\":[{}]}}],\"error\":null}}";
+
+        assertTrue(YahooChartParser.parse(stream(weekend), "X").isEmpty());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** A response shaped like Yahoo's v8 chart endpoint, including the parts the parser skips. */
+    private String chart(String timestamps, String open, String high, String low, String close, String volume) {
+        return "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\",\"symbol\":\"X\",\"regularMarketPrice\":187.44000244140625,"
+                + "\"validRanges\":[\"1d\",\"5d\"],\"currentTradingPeriod\":{\"regular\":{\"timezone\":\"EST\",\"start\":1709303400,"
+                + "\"end\":1709326800,\"gmtoffset\":-18000}},\"note\":\"escaped \\\"close\\\":[0]\"},"
+                + "\"timestamp\":" + timestamps + ","
+                + "\"indicators\":{\"quote\":[{\"open\":" + open + ",\"high\":" + high + ",\"low\":" + low
+                + ",\"close\":" + close + ",\"volume\":" + volume + "}],"
+                + "\"adjclose\":[{\"adjclose\":" + close + "}]}}],\"error\":null}}";
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
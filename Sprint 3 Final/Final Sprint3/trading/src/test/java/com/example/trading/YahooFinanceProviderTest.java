@@ -0,0 +1,266 @@
+package com.example.trading;
+
+import com.example.trading.adapter.CircuitBreaker;
+import com.example.trading.adapter.MarketDataAdapter;
+import com.example.trading.api.IAPI;
+import com.example.trading.api.YahooFinanceProvider;
+import com.example.trading.exception.DataProviderException;
+import com.example.trading.model.PriceFetchResult;
+import com.example.trading.model.SharePrice;
+import com.example.trading.model.ShareQuery;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for YahooFinanceProvider against a local stub server.
+ *
+ * Tests cover:
+ *  TC-YFP-01  A single-symbol fetch parses the stubbed chart response
+ *  TC-YFP-02  A batch reports per-symbol results and per-symbol errors
+ *  TC-YFP-03  A batch runs concurrently but within the concurrency limit
+ *  TC-YFP-04  The default IAPI batch isolates failures and rejects duplicate symbols
+ *  TC-YFP-05  Gzip-encoded responses are decompressed while parsing
+ *  TC-YFP-06  Repeat polls revalidate with If-None-Match and reuse the cached prices on 304
+ *  TC-YFP-07  Last-Modified is revalidated with If-Modified-Since
+ *  TC-YFP-08  HTTP/2 is offered on every request
+ *  TC-YFP-09  A range with no sessions is an empty answer and does not trip the adapter's breaker
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class YahooFinanceProviderTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO   = LocalDate.of(2024, 3, 8);
+
+    // TC-YFP-01
+    @Test @Order(1)
+    @DisplayName("TC-YFP-01: Single fetch")
+    void testSingleFetch() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> StubHttpServer.Response.json(chart(100)))) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+
+            List<SharePrice> prices = provider.getSharePrices(new ShareQuery("aapl", FROM, TO));
+
+            assertEquals(3, prices.size());
+            assertEquals(0, new BigDecimal("101.5").compareTo(prices.get(1).getClosePrice()));
+            assertEquals("AAPL", server.requests().get(0).symbol());
+            assertTrue(server.requests().get(0).path.contains("interval=1d"));
+        }
+    }
+
+    // TC-YFP-02
+    @Test @Order(2)
+    @DisplayName("TC-YFP-02: Batch results and errors per symbol")
+    void testBatchResults() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> switch (request.symbol()) {
+            case "NOPE" -> new StubHttpServer.Response(404, new byte[0]);
+            case "BAD"  -> StubHttpServer.Response.json("{\"chart\":");
+            default     -> StubHttpServer.Response.json(chart(request.symbol().length() * 100));
+        })) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+
+            Map<String, PriceFetchResult> results = provider.getSharePrices(List.of(
+                    new ShareQuery("MSFT", FROM, TO), new ShareQuery("nope", FROM, TO),
+                    new ShareQuery("BAD", FROM, TO), new ShareQuery("GOOGL", FROM, TO)));
+
+            assertEquals(List.of("MSFT", "NOPE", "BAD", "GOOGL"), new ArrayList<>(results.keySet()));
+            assertTrue(results.get("MSFT").isSuccess());
+            assertEquals(3, results.get("MSFT").getPrices().size());
+            assertEquals(0, new BigDecimal("500").compareTo(results.get("GOOGL").getPrices().get(0).getClosePrice()));
+            assertFalse(results.get("NOPE").isSuccess());
+            assertTrue(results.get("NOPE").getError() instanceof DataProviderException);
+            assertTrue(results.get("NOPE").getError().getMessage().contains("not found"));
+            assertTrue(results.get("NOPE").getPrices().isEmpty());
+            assertFalse(results.get("BAD").isSuccess());
+        }
+    }
+
+    // TC-YFP-03
+    @Test @Order(3)
+    @DisplayName("TC-YFP-03: Batch is concurrent and bounded")
+    void testBatchConcurrency() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        try (StubHttpServer server = new StubHttpServer(request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try { Thread.sleep(150); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            inFlight.decrementAndGet();
+            return StubHttpServer.Response.json(chart(100));
+        })) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 5);
+            List<ShareQuery> queries = new ArrayList<>();
+            for (int i = 0; i < 20; i++) queries.add(new ShareQuery("SYM" + i, FROM, TO));
+
+            long started = System.nanoTime();
+            Map<String, PriceFetchResult> results = provider.getSharePrices(queries);
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+            assertEquals(20, results.size());
+            assertTrue(results.values().stream().allMatch(PriceFetchResult::isSuccess));
+            assertTrue(maxInFlight.get() <= 5, "max in flight " + maxInFlight.get());
+            assertTrue(maxInFlight.get() > 1, "requests should overlap");
+            assertTrue(elapsedMillis < 20 * 150, "took " + elapsedMillis + "ms");
+        }
+    }
+
+    // TC-YFP-04
+    @Test @Order(4)
+    @DisplayName("TC-YFP-04: Default batch contract")
+    void testDefaultBatch() {
+        IAPI api = new IAPI() {
+            @Override public List<SharePrice> getSharePrices(ShareQuery query) {
+                if (query.getSymbol().equals("FAIL")) throw new DataProviderException("boom");
+                return List.of(new SharePrice(query.getSymbol(), FROM,
+                        BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ONE, 1L));
+            }
+            @Override public boolean isAvailable()     { return true; }
+            @Override public String  getProviderName() { return "Stub"; }
+        };
+
+        Map<String, PriceFetchResult> results = api.getSharePrices(List.of(
+                new ShareQuery("AAPL", FROM, TO), new ShareQuery("FAIL", FROM, TO)));
+
+        assertTrue(results.get("AAPL").isSuccess());
+        assertEquals("boom", results.get("FAIL").getError().getMessage());
+        assertThrows(IllegalArgumentException.class, () -> api.getSharePrices(List.of(
+                new ShareQuery("AAPL", FROM, TO), new ShareQuery("aapl", FROM, TO))));
+        assertThrows(IllegalArgumentException.class, () -> api.getSharePrices((List<ShareQuery>) null));
+    }
+
+    // TC-YFP-05
+    @Test @Order(5)
+    @DisplayName("TC-YFP-05: Gzip responses")
+    void testGzip() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request ->
+                new StubHttpServer.Response(200, gzip(chart(250))).header("Content-Encoding", "gzip"))) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+
+            List<SharePrice> prices = provider.getSharePrices(new ShareQuery("NVDA", FROM, TO));
+
+            assertEquals(3, prices.size());
+            assertEquals(0, new BigDecimal("253").compareTo(prices.get(2).getClosePrice()));
+            assertEquals("gzip", server.requests().get(0).headers.get("accept-encoding"));
+        }
+    }
+
+    // TC-YFP-06
+    @Test @Order(6)
+    @DisplayName("TC-YFP-06: ETag revalidation")
+    void testETagRevalidation() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> "\"v1\"".equals(request.headers.get("if-none-match"))
+                ? new StubHttpServer.Response(304, new byte[0])
+                : StubHttpServer.Response.json(chart(100)).header("ETag", "\"v1\""))) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+            ShareQuery query = new ShareQuery("AAPL", FROM, TO);
+
+            List<SharePrice> first  = provider.getSharePrices(query);
+            List<SharePrice> second = provider.getSharePrices(query);
+            Map<String, PriceFetchResult> third = provider.getSharePrices(List.of(query));
+
+            assertNull(server.requests().get(0).headers.get("if-none-match"));
+            assertEquals("\"v1\"", server.requests().get(1).headers.get("if-none-match"));
+            assertEquals(2, provider.getNotModifiedCount());
+            assertEquals(first.size(), second.size());
+            assertEquals(first.get(2).getClosePrice(), second.get(2).getClosePrice());
+            assertEquals(3, third.get("AAPL").getPrices().size());
+
+            // A different range is a different resource, fetched unconditionally
+            provider.getSharePrices(new ShareQuery("AAPL", FROM, TO.plusDays(1)));
+            assertNull(server.requests().get(3).headers.get("if-none-match"));
+            assertEquals(2, provider.getNotModifiedCount());
+        }
+    }
+
+    // TC-YFP-07
+    @Test @Order(7)
+    @DisplayName("TC-YFP-07: Last-Modified revalidation")
+    void testLastModifiedRevalidation() throws Exception {
+        String stamp = "Fri, 08 Mar 2024 21:00:00 GMT";
+        try (StubHttpServer server = new StubHttpServer(request -> stamp.equals(request.headers.get("if-modified-since"))
+                ? new StubHttpServer.Response(304, new byte[0])
+                : StubHttpServer.Response.json(chart(100)).header("Last-Modified", stamp))) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+            ShareQuery query = new ShareQuery("MSFT", FROM, TO);
+
+            provider.getSharePrices(query);
+            List<SharePrice> revalidated = provider.getSharePrices(query);
+
+            assertEquals(3, revalidated.size());
+            assertEquals(1, provider.getNotModifiedCount());
+            assertEquals(stamp, server.requests().get(1).headers.get("if-modified-since"));
+        }
+    }
+
+    // TC-YFP-08
+    @Test @Order(8)
+    @DisplayName("TC-YFP-08: HTTP/2 is negotiated")
+    void testHttp2Offered() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> StubHttpServer.Response.json(chart(100)))) {
+            YahooFinanceProvider provider = new YahooFinanceProvider(server.baseUrl(), 4);
+            provider.getSharePrices(new ShareQuery("TSLA", FROM, TO));
+
+            // Over cleartext the client asks to upgrade; the HTTP/1.1 stub declines and the fetch still succeeds
+            assertEquals("h2c", server.requests().get(0).headers.get("upgrade"));
+        }
+    }
+
+    // TC-YFP-09
+    @Test @Order(9)
+    @DisplayName("TC-YFP-09: Empty ranges are answers, not failures")
+    void testEmptyRange() throws Exception {
+        try (StubHttpServer server = new StubHttpServer(request -> StubHttpServer.Response.json(emptyChart()))) {
+            MarketDataAdapter adapter = new MarketDataAdapter(new YahooFinanceProvider(server.baseUrl(), 4));
+            LocalDate saturday = LocalDate.of(2024, 3, 9);
+
+            for (int i = 0; i < 2 * CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+                assertTrue(adapter.getSharePrices(new ShareQuery("AAPL", saturday, saturday)).isEmpty());
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, adapter.getCircuitBreaker().getState());
+            assertTrue(adapter.isAvailable());
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    static byte[] gzip(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** What Yahoo sends for a range with no sessions: meta, an empty quote block and no timestamps. */
+    static String emptyChart() {
+        return "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\"},"
+                + "\"indicators\":{\"quote\":[{}],\"adjclose\":[{}]}}],\"error\":null}}";
+    }
+
+    /** Three daily bars closing at base, base + 1.5 and base + 3. */
+    static String chart(double base) {
+        StringBuilder ts = new StringBuilder(), close = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) { ts.append(','); close.append(','); }
+            ts.append(FROM.plusDays(i).atTime(14, 30).toEpochSecond(ZoneOffset.UTC));
+            close.append(base + i * 1.5);
+        }
+        return "{\"chart\":{\"result\":[{\"meta\":{\"currency\":\"USD\"},\"timestamp\":[" + ts + "],"
+                + "\"indicators\":{\"quote\":[{\"open\":[" + close + "],\"high\":[" + close + "],\"low\":[" + close + "],"
+                + "\"close\":[" + close + "],\"volume\":[1000,2000,3000]}]}}],\"error\":null}}";
+    }
+}